@@ -61,6 +61,8 @@ public class ContentToProcess<T> implements Closeable {
 
     protected String errorMessage;
 
+    protected String digest;
+
     public ContentToProcess(String sourceId, T content) {
         super();
 
@@ -156,6 +158,11 @@ public class ContentToProcess<T> implements Closeable {
             return file;
         }
 
+        // Already fetched: the same file until close()
+        if (closeableFile != null) {
+            return closeableFile.getFile();
+        }
+
         File f = blob.getFile();
         if (f == null) {
             // This is possible (File on S3 not yet cached for example)
@@ -170,6 +177,17 @@ public class ContentToProcess<T> implements Closeable {
         return f;
     }
 
+    /**
+     * @return the length of the content, read from the blob when there is one (so a remote blob is not fetched)
+     * @since 2025.18
+     */
+    public long getLength() {
+        if (file == null && blob.getLength() >= 0) {
+            return blob.getLength();
+        }
+        return getFile().length();
+    }
+
     public String getMimeType() {
         return mimeType;
     }
@@ -182,6 +200,25 @@ public class ContentToProcess<T> implements Closeable {
         this.processingSuccess = processingSuccess;
     }
 
+    /**
+     * @return the digest of the content: the digest of the blob, or the one computed while uploading it (see
+     *         {@link #setDigest(String)}). null if unknown.
+     * @since 2025.18
+     */
+    public String getDigest() {
+        if (digest == null && blob != null) {
+            return blob.getDigest();
+        }
+        return digest;
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+
     public String getErrorMessage() {
         return errorMessage;
     }
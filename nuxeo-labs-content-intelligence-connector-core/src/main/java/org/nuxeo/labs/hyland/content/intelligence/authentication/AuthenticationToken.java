@@ -20,31 +20,94 @@ package org.nuxeo.labs.hyland.content.intelligence.authentication;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.json.JSONObject;
 import org.nuxeo.ecm.core.api.NuxeoException;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
 import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
 import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.http.TokenRefresher;
+import org.nuxeo.runtime.api.Framework;
 
 /**
  * This class handles authentication tokens and their lifespan. If a token was requested before expiration, it is
  * returned as is. Else, a new token is fetched.
+ * <p>
+ * Since 2025.18, it is thread safe: when the token is expired, one thread fetches a new one and the others wait for
+ * it (no burst of requests to the authentication endpoint). A token used since it was fetched is renewed in the
+ * background shortly before it expires, so callers do not wait for it (see {@link #RENEW_BEFORE_SECONDS_PARAM}). And
+ * when a service rejects it (401), the {@link ServiceCall} of the configuration asks for a new one, once for all the
+ * calls that were rejected, and sends the request again.
  * 
  * @since 2023
  */
-public class AuthenticationToken {
+public class AuthenticationToken implements TokenRefresher {
 
     private static final Logger log = LogManager.getLogger(AuthenticationToken.class);
 
-    protected String token = null;
+    /**
+     * A token is renewed in the background this number of seconds before it expires (at most half of its lifespan).
+     * 0 disables the background renewal.
+     *
+     * @since 2025.18
+     */
+    public static final String RENEW_BEFORE_SECONDS_PARAM = "nuxeo.hyland.cic.auth.renewBeforeSeconds";
+
+    public static final int DEFAULT_RENEW_BEFORE_SECONDS = 60;
+
+    // A token is considered expired this number of seconds before its actual expiration
+    protected static final int EXPIRATION_MARGIN_SECONDS = 15;
+
+    // Renewals, refreshes after a 401 and asynchronous gets run here (fetching a token blocks, waiting for another node
+    // does not)
+    protected static final ScheduledExecutorService RENEWAL = Executors.newScheduledThreadPool(2, r -> {
+        Thread thread = new Thread(r, "cic-token-renewal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A token and its expiration, replaced as a whole
+     *
+     * @since 2025.18
+     */
+    protected record CachedToken(String value, Instant expiration, Instant fetched) {
+
+        boolean isValid() {
+            return !Instant.now().isAfter(expiration);
+        }
+    }
+
+    protected volatile CachedToken token = null;
 
-    protected Instant tokenExpiration = null;
+    // The refresh in progress, if any
+    protected final AtomicReference<CompletableFuture<String>> refreshing = new AtomicReference<>();
+
+    protected volatile Instant lastUsed = Instant.EPOCH;
+
+    protected volatile ScheduledFuture<?> renewal;
+
+    protected volatile boolean closed = false;
+
+    // Optional, shares the token with the other nodes
+    protected volatile ClusterTokenStore clusterTokenStore;
 
     protected String authFullUrl;
 
@@ -68,23 +131,196 @@ public class AuthenticationToken {
     }
 
     /**
-     * Will fetch a new token only if the current token is null or expired.
+     * Use the connection pool of the configuration this token belongs to. The token is also refreshed by this
+     * <code>ServiceCall</code> when a service rejects it.
+     *
+     * @param serviceCall
+     * @since 2025.18
+     */
+    public void setServiceCall(ServiceCall serviceCall) {
+        this.serviceCall = serviceCall;
+        serviceCall.setTokenRefresher(this);
+    }
+
+    public String getAuthFullUrl() {
+        return authFullUrl;
+    }
+
+    /**
+     * Share the token with the other nodes of the cluster: a valid token obtained by another node is used, and one
+     * node at a time gets a new one.
+     *
+     * @param clusterTokenStore, null to keep the token local to this node
+     * @since 2025.18
+     */
+    public void setClusterTokenStore(ClusterTokenStore clusterTokenStore) {
+        this.clusterTokenStore = clusterTokenStore;
+    }
+
+    /**
+     * @return the store sharing the token with the other nodes, null if the token is local to this node
+     * @since 2025.18
+     */
+    public ClusterTokenStore getClusterTokenStore() {
+        return clusterTokenStore;
+    }
+
+    /**
+     * Will fetch a new token only if the current token is null or expired. Concurrent callers wait for the same
+     * fetch.
      * 
-     * @param url, the full authentication URL
-     * @param clientId
-     * @param clientSecret
-     * @return the authentication token
+     * @return the authentication token, <code>null</code> if it could not be fetched
      * @since 2023
      */
     public String getToken() {
 
-        if (StringUtils.isNotBlank(token) && !Instant.now().isAfter(tokenExpiration)) {
-            return token;
+        CachedToken current = token;
+        String value;
+        if (current != null && current.isValid()) {
+            value = current.value();
+        } else {
+            try {
+                value = refresh(null, current == null ? null : current.value()).join();
+            } catch (CompletionException e) {
+                // As if this thread had fetched it
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        lastUsed = Instant.now();
+
+        return value;
+    }
+
+    /**
+     * Non-blocking version of <code>getToken()</code>: a missing or expired token is obtained in the background.
+     *
+     * @return the future authentication token, <code>null</code> if it could not be fetched
+     * @since 2025.18
+     */
+    public CompletableFuture<String> getTokenAsync() {
+
+        CachedToken current = token;
+        lastUsed = Instant.now();
+        if (current != null && current.isValid()) {
+            return CompletableFuture.completedFuture(current.value());
+        }
+        return refresh(RENEWAL, current == null ? null : current.value());
+    }
+
+    /**
+     * Forgets the token if it still is <code>rejected</code>, and fetches a new one in the background.
+     *
+     * @since 2025.18
+     */
+    @Override
+    public CompletableFuture<String> refreshRejectedToken(String rejected) {
+
+        CachedToken current = token;
+        if (current != null && !current.value().equals(rejected) && current.isValid()) {
+            // Already refreshed by a concurrent call
+            return CompletableFuture.completedFuture(current.value());
+        }
+        if (current != null && current.value().equals(rejected)) {
+            log.warn("The auth token was rejected, getting a new one");
+            token = null;
+        }
+        return refresh(RENEWAL, rejected);
+    }
+
+    /**
+     * Single flight: starts a fetch if none is in progress, else returns the one in progress.
+     *
+     * @param executor, where the fetch runs, <code>null</code> for the calling thread
+     * @param stale, the token to replace (expired, rejected or to renew), can be null
+     * @return the future token
+     * @since 2025.18
+     */
+    protected CompletableFuture<String> refresh(Executor executor, String stale) {
+
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> inProgress = refreshing.compareAndExchange(null, created);
+        if (inProgress != null) {
+            return inProgress;
+        }
+
+        if (executor == null) {
+            try {
+                created.complete(obtainToken(stale));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            } finally {
+                refreshing.compareAndSet(created, null);
+            }
+        } else {
+            obtainTokenAsync(stale, executor).whenComplete((value, error) -> {
+                if (error == null) {
+                    created.complete(value);
+                } else {
+                    created.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                }
+                refreshing.compareAndSet(created, null);
+            });
+        }
+        return created;
+    }
+
+    /**
+     * Gets a new token (from the other nodes, or from the authentication endpoint), and schedules its renewal.
+     *
+     * @param stale, the token to replace, can be null
+     * @return the new token, <code>null</code> if it could not be obtained
+     * @since 2025.18
+     */
+    protected String obtainToken(String stale) {
+
+        ClusterTokenStore shared = clusterTokenStore;
+        return useToken(shared == null ? fetchToken() : shared.getOrFetch(stale, this::fetchToken));
+    }
+
+    /**
+     * Non-blocking version of <code>obtainToken(String)</code>: the fetch runs on <code>executor</code>, and waiting for
+     * another node does not hold any thread.
+     *
+     * @since 2025.18
+     */
+    protected CompletableFuture<String> obtainTokenAsync(String stale, Executor executor) {
+
+        ClusterTokenStore shared = clusterTokenStore;
+        CompletableFuture<CachedToken> obtained = shared == null
+                ? CompletableFuture.supplyAsync(this::fetchToken, executor)
+                : shared.getOrFetchAsync(stale, this::fetchToken, executor);
+        return obtained.thenApply(this::useToken);
+    }
+
+    /**
+     * Makes <code>obtained</code> the current token, and schedules its renewal.
+     *
+     * @return its value, <code>null</code> if it could not be obtained
+     * @since 2025.18
+     */
+    protected String useToken(CachedToken obtained) {
+
+        token = obtained;
+        if (obtained == null) {
+            return null;
         }
+        scheduleRenewal(obtained);
+        return obtained.value();
+    }
+
+    /**
+     * Gets a new token from the authentication endpoint.
+     *
+     * @return the new token, <code>null</code> if it could not be fetched
+     * @since 2025.18
+     */
+    protected CachedToken fetchToken() {
 
         Map<String, String> headers = new HashMap<>();
         headers.put("Accept", "*/*");
-        headers.put("Accept-Encoding", "gzip, deflate, br");
         if (serviceType == ServiceType.DISCOVERY || serviceType == ServiceType.INGEST) {
             headers.put("hxp-environment", tokenParams.getEnvironment());
         }
@@ -103,7 +339,9 @@ public class AuthenticationToken {
             throw new NuxeoException("Failed to encode the request", e);
         }
 
-        ServiceCallResult result = serviceCall.post(authFullUrl, headers, postData);
+        // Getting a token has no side effect => safe to retry
+        ServiceCallResult result = serviceCall.post(authFullUrl, headers, postData,
+                CallOptions.of(EndpointFamily.AUTH).idempotent(true));
 
         if (result.callWasSuccesful()) {
             JSONObject serviceResponse = result.getResponseAsJSONObject();
@@ -115,17 +353,67 @@ public class AuthenticationToken {
                 }
                 log.error(msg);
             } else {
-                token = serviceResponse.getString("access_token");
                 int expiresIn = serviceResponse.getInt("expires_in");
-                tokenExpiration = Instant.now().plusSeconds(expiresIn - 15);
+                Instant now = Instant.now();
+                return new CachedToken(serviceResponse.getString("access_token"),
+                        now.plusSeconds(expiresIn - EXPIRATION_MARGIN_SECONDS), now);
             }
         } else {
             log.error("Error getting an auth token:\n{}", result.toJsonString(2));
-            token = null;
         }
 
-        return token;
+        return null;
+    }
+
+    /*
+     * Renews the token before it expires, if it was used since it was fetched (the token of a configuration that is
+     * not used anymore is not renewed forever). With a random delay, so nodes sharing the token do not all try at the
+     * same time.
+     */
+    protected void scheduleRenewal(CachedToken fetched) {
+
+        int renewBefore = getRenewBeforeSeconds();
+        if (renewBefore <= 0 || closed) {
+            return;
+        }
+
+        // Possibly fetched by another node, a while ago
+        long lifespanMS = Duration.between(fetched.fetched(), fetched.expiration()).toMillis();
+        Instant renewAt = fetched.expiration().minusMillis(Math.min(renewBefore * 1000L, lifespanMS / 2));
+        long delayMS = Math.max(1000, Duration.between(Instant.now(), renewAt).toMillis());
+        delayMS += ThreadLocalRandom.current().nextLong(Math.min(5000, delayMS / 10) + 1);
+        ScheduledFuture<?> previous = renewal;
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        renewal = RENEWAL.schedule(() -> {
+            if (token == fetched && lastUsed.isAfter(fetched.fetched())) {
+                log.debug("Renewing the auth token of {}", authFullUrl);
+                refresh(RENEWAL, fetched.value());
+            }
+        }, delayMS, TimeUnit.MILLISECONDS);
+    }
+
+    protected int getRenewBeforeSeconds() {
+        try {
+            return Integer.parseInt(Framework.getProperty(RENEW_BEFORE_SECONDS_PARAM,
+                    String.valueOf(DEFAULT_RENEW_BEFORE_SECONDS)));
+        } catch (NumberFormatException e) {
+            return DEFAULT_RENEW_BEFORE_SECONDS;
+        }
+    }
 
+    /**
+     * Stops the background renewal
+     *
+     * @since 2025.18
+     */
+    public void close() {
+        closed = true;
+        ScheduledFuture<?> current = renewal;
+        if (current != null) {
+            current.cancel(false);
+        }
     }
 
 }
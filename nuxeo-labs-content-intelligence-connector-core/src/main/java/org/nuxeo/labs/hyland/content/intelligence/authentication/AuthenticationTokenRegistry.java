@@ -0,0 +1,139 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.authentication;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+
+/**
+ * Shares one {@link AuthenticationToken} (so, one token and one refresh cycle) between all the configurations, of all
+ * the services, using the same credentials: same authentication URL, client id and secret, grant type, scope and
+ * environment. For example, an Enrichment and a Data Curation configuration with the same client.
+ * <p>
+ * Configurations {@link #acquire(AuthenticationToken, ServiceCall) acquire} the token at startup and
+ * {@link #release(AuthenticationToken, ServiceCall) release} it at shutdown. The token is closed when no
+ * configuration uses it anymore.
+ *
+ * @since 2025.18
+ */
+public class AuthenticationTokenRegistry {
+
+    private static final Logger log = LogManager.getLogger(AuthenticationTokenRegistry.class);
+
+    protected static final AuthenticationTokenRegistry INSTANCE = new AuthenticationTokenRegistry();
+
+    protected static class Entry {
+
+        protected final AuthenticationToken token;
+
+        // The ServiceCall of each configuration using the token
+        protected final List<ServiceCall> holders = new ArrayList<>();
+
+        protected Entry(AuthenticationToken token) {
+            this.token = token;
+        }
+    }
+
+    protected final Map<String, Entry> entries = new HashMap<>();
+
+    public static AuthenticationTokenRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the token already used by another configuration with the same credentials, or registers
+     * <code>candidate</code> if there is none. Either way, <code>serviceCall</code> refreshes the returned token when
+     * a service rejects it.
+     *
+     * @param candidate, the new token of the configuration
+     * @param serviceCall, the ServiceCall of the configuration
+     * @return the token to use
+     */
+    public synchronized AuthenticationToken acquire(AuthenticationToken candidate, ServiceCall serviceCall) {
+
+        String key = key(candidate);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(candidate);
+            entries.put(key, entry);
+            candidate.setServiceCall(serviceCall);
+        } else {
+            log.debug("Sharing the auth token of client {} ({})", candidate.tokenParams.getClientId(),
+                    candidate.getAuthFullUrl());
+            serviceCall.setTokenRefresher(entry.token);
+        }
+        entry.holders.add(serviceCall);
+
+        return entry.token;
+    }
+
+    /**
+     * The configuration using <code>serviceCall</code> does not use the token anymore. Closes the token if it was the
+     * last one.
+     */
+    public synchronized void release(AuthenticationToken token, ServiceCall serviceCall) {
+
+        String key = key(token);
+        Entry entry = entries.get(key);
+        if (entry == null || entry.token != token) {
+            // Not registered
+            token.close();
+            return;
+        }
+
+        entry.holders.removeIf(holder -> holder == serviceCall);
+        if (entry.holders.isEmpty()) {
+            entries.remove(key);
+            token.close();
+        } else if (token.serviceCall == serviceCall) {
+            // Its connection pool is closing: get the tokens with the pool of another configuration
+            token.setServiceCall(entry.holders.get(0));
+        }
+    }
+
+    /**
+     * @return the number of distinct tokens in use
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /*
+     * The credentials of a token (also its key in the ClusterTokenStore)
+     */
+    protected static String key(AuthenticationToken token) {
+
+        AuthenticationTokenParams params = token.tokenParams;
+        // The secret is part of the credentials, but is not kept in clear
+        String id = String.join("\n", String.valueOf(token.serviceType), StringUtils.defaultString(token.authFullUrl),
+                StringUtils.defaultString(params.getClientId()), StringUtils.defaultString(params.getGrantType()),
+                StringUtils.defaultString(params.getGrantScope()), StringUtils.defaultString(params.getEnvironment()),
+                StringUtils.defaultString(params.getClientSecret()));
+        return HexFormat.of().formatHex(ClusterTokenStore.sha256(id));
+    }
+
+}
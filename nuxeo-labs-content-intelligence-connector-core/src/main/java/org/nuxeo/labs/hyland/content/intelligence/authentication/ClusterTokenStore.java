@@ -0,0 +1,262 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.authentication;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationToken.CachedToken;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.kv.KeyValueStore;
+
+/**
+ * Shares the auth token of a client with the other nodes of the cluster, in the {@link KeyValueStore}. A node first
+ * looks for a valid token there, and only one node at a time gets a new one from the authentication endpoint (the
+ * others wait for it, without blocking a thread when the token is obtained asynchronously).
+ * <p>
+ * Tokens are keyed by their credentials, as in {@link AuthenticationTokenRegistry} (a hash of the service type,
+ * authentication URL, client id and secret, grant type, scope and environment), so configurations using the same
+ * credentials share the same token. They are encrypted (AES-GCM) with a key derived from the client secret (and
+ * from {@link #SECRET_PARAM}, if set): the store never holds a usable token in clear.
+ *
+ * @since 2025.18
+ */
+public class ClusterTokenStore {
+
+    private static final Logger log = LogManager.getLogger(ClusterTokenStore.class);
+
+    public static final String KV_STORE = "cic-tokens";
+
+    /**
+     * Optional, an additional secret for the encryption of the tokens, the same on all the nodes
+     */
+    public static final String SECRET_PARAM = "nuxeo.hyland.cic.auth.clusterTokenCache.secret";
+
+    // Max. time a node holds the right to get a new token (if it dies meanwhile)
+    public static final int LOCK_TTL_SECONDS = 30;
+
+    // Max. time a node waits for the token another node is getting, before getting one itself
+    public static final Duration LOCK_WAIT = Duration.ofSeconds(10);
+
+    protected static final long POLL_MS = 100;
+
+    protected static final int IV_LENGTH = 12;
+
+    protected static final SecureRandom RANDOM = new SecureRandom();
+
+    protected final KeyValueStore store;
+
+    protected final String key;
+
+    protected final String lockKey;
+
+    protected final SecretKeySpec secretKey;
+
+    // Returned by an attempt while another node is getting the token
+    protected static final CachedToken WAITING = new CachedToken("", Instant.EPOCH, Instant.EPOCH);
+
+    public ClusterTokenStore(KeyValueStore store, AuthenticationToken token) {
+        this.store = store;
+        key = "cic:token:" + AuthenticationTokenRegistry.key(token);
+        lockKey = key + ":lock";
+        String secret = String.join("\n", "cic-token-cache", Framework.getProperty(SECRET_PARAM, ""),
+                StringUtils.defaultString(token.tokenParams.getClientSecret()));
+        secretKey = new SecretKeySpec(sha256(secret), "AES");
+    }
+
+    protected static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the key of the token in the {@link #KV_STORE} store
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the token of the store, null if none (or if it cannot be decrypted)
+     */
+    protected CachedToken get() {
+        return decrypt(store.getString(key));
+    }
+
+    protected void put(CachedToken token) {
+        long ttl = Math.max(1, Duration.between(Instant.now(), token.expiration()).toSeconds());
+        store.put(key, encrypt(token), ttl);
+    }
+
+    /**
+     * Returns a valid token of the store, other than <code>stale</code>. If there is none, one node gets a new one (by
+     * calling <code>fetcher</code>) and stores it, while the others wait for it.
+     * <p>
+     * Waits on the calling thread: see {@link #getOrFetchAsync(String, Supplier, Executor)} for the shared threads.
+     *
+     * @param stale, the token being replaced (expired, rejected or renewed), can be null
+     * @param fetcher, gets a new token from the authentication endpoint
+     * @return the token, null if it could not be fetched
+     */
+    protected CachedToken getOrFetch(String stale, Supplier<CachedToken> fetcher) {
+
+        String owner = UUID.randomUUID().toString();
+        Instant waitUntil = Instant.now().plus(LOCK_WAIT);
+        CachedToken obtained;
+        while ((obtained = attempt(stale, fetcher, owner, waitUntil)) == WAITING) {
+            try {
+                Thread.sleep(POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return obtained;
+    }
+
+    /**
+     * Same as {@link #getOrFetch(String, Supplier)}, but no thread waits while another node gets the token: each
+     * attempt is a task of <code>executor</code>, scheduled {@link #POLL_MS} after the previous one.
+     *
+     * @param executor, where the attempts (and the fetch, if any) run
+     * @return the future token, null if it could not be fetched
+     */
+    protected CompletableFuture<CachedToken> getOrFetchAsync(String stale, Supplier<CachedToken> fetcher,
+            Executor executor) {
+        return attemptAsync(stale, fetcher, UUID.randomUUID().toString(), Instant.now().plus(LOCK_WAIT), executor, 0);
+    }
+
+    protected CompletableFuture<CachedToken> attemptAsync(String stale, Supplier<CachedToken> fetcher, String owner,
+            Instant waitUntil, Executor executor, long delayMS) {
+
+        Executor delayed = delayMS <= 0 ? executor
+                : CompletableFuture.delayedExecutor(delayMS, TimeUnit.MILLISECONDS, executor);
+        return CompletableFuture.supplyAsync(() -> attempt(stale, fetcher, owner, waitUntil), delayed)
+                                .thenCompose(obtained -> obtained == WAITING
+                                        ? attemptAsync(stale, fetcher, owner, waitUntil, executor, POLL_MS)
+                                        : CompletableFuture.completedFuture(obtained));
+    }
+
+    /*
+     * The token of the store, or the one fetched while holding the lock (or after waiting too long for it). WAITING
+     * if another node is getting it.
+     */
+    protected CachedToken attempt(String stale, Supplier<CachedToken> fetcher, String owner, Instant waitUntil) {
+
+        CachedToken shared = getFresh(stale);
+        if (shared != null) {
+            return shared;
+        }
+        if (!store.compareAndSet(lockKey, null, owner, LOCK_TTL_SECONDS)) {
+            // Another node is getting it
+            if (Instant.now().isAfter(waitUntil)) {
+                log.warn("No token from the other nodes after {} s, getting one", LOCK_WAIT.toSeconds());
+                return fetchAndPut(fetcher);
+            }
+            return WAITING;
+        }
+        try {
+            // Stored meanwhile?
+            shared = getFresh(stale);
+            return shared != null ? shared : fetchAndPut(fetcher);
+        } finally {
+            store.compareAndSet(lockKey, owner, null);
+        }
+    }
+
+    protected CachedToken getFresh(String stale) {
+        CachedToken shared = get();
+        return shared != null && shared.isValid() && !shared.value().equals(stale) ? shared : null;
+    }
+
+    protected CachedToken fetchAndPut(Supplier<CachedToken> fetcher) {
+        CachedToken fetched = fetcher.get();
+        if (fetched != null) {
+            put(fetched);
+        }
+        return fetched;
+    }
+
+    protected String encrypt(CachedToken token) {
+
+        JSONObject json = new JSONObject();
+        json.put("token", token.value());
+        json.put("expiration", token.expiration().toEpochMilli());
+        json.put("fetched", token.fetched().toEpochMilli());
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            RANDOM.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(128, iv));
+            byte[] encrypted = cipher.doFinal(json.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder()
+                         .encodeToString(ByteBuffer.allocate(iv.length + encrypted.length)
+                                                   .put(iv)
+                                                   .put(encrypted)
+                                                   .array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot encrypt the token", e);
+        }
+    }
+
+    protected CachedToken decrypt(String value) {
+
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            byte[] bytes = Base64.getDecoder().decode(value);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(128, bytes, 0, IV_LENGTH));
+            byte[] decrypted = cipher.doFinal(bytes, IV_LENGTH, bytes.length - IV_LENGTH);
+            JSONObject json = new JSONObject(new String(decrypted, StandardCharsets.UTF_8));
+            return new CachedToken(json.getString("token"), Instant.ofEpochMilli(json.getLong("expiration")),
+                    Instant.ofEpochMilli(json.getLong("fetched")));
+        } catch (GeneralSecurityException | IllegalArgumentException | JSONException e) {
+            // Other secret (the client secret changed...), or not a token
+            log.warn("Cannot decrypt the shared auth token, ignoring it: {}", e.toString());
+            return null;
+        }
+    }
+
+}
@@ -19,6 +19,7 @@
 package org.nuxeo.labs.hyland.content.intelligence.automation.enrichment;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -42,6 +43,11 @@ import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
 import org.nuxeo.labs.hyland.content.intelligence.service.ServicesUtils;
 import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.CICEnrichmentHelper;
 import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.HylandKEService;
+import org.nuxeo.labs.hyland.content.intelligence.service.jobs.CICJob;
+import org.nuxeo.labs.hyland.content.intelligence.service.jobs.CICJobService;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.CICTracer;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.Span;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.Span.Scope;
 import org.nuxeo.ecm.core.work.api.WorkManager;
 import org.nuxeo.runtime.api.Framework;
 import org.nuxeo.runtime.transaction.TransactionHelper;
@@ -64,16 +70,44 @@ import org.nuxeo.runtime.transaction.TransactionHelper;
  * <li>Clearing any previous {@code CICError} when the call succeeds.</li>
  * <li>Optionally saving the document.</li>
  * </ul>
+ * When CIC is degraded (circuit open, see {@link ServiceCallResult#CIRCUIT_OPEN}), the remaining batches are not sent.
+ * Their documents are listed in {@link #getCircuitOpenDocIds()}, so {@link CICEnrichmentWork} can requeue them.
+ * <p>
+ * When the jobs are durable (see {@link CICJobService}), the batches are only submitted, and their results are applied
+ * by a {@link CICJobCollectWork} (see {@link #setDurableJobs(String, String)}).
  *
  * @since 2025.18
  */
 public abstract class AbstractCICEnrichmentOp {
 
+    /** Ids of the documents not processed because the circuit was open (see {@link #getCircuitOpenDocIds()}). */
+    protected List<String> circuitOpenDocIds = new ArrayList<>();
+
+    protected Duration circuitRetryAfter = null;
+
+    /** Set when the batches are only submitted (see {@link #setDurableJobs(String, String)}). */
+    protected String durableRepositoryName = null;
+
+    protected String durableParamsJson = null;
+
+    /** When true, the KE result cache is not read (see {@link #withBypassCache(String)}). */
+    protected boolean bypassCache = false;
+
     private static final Logger LOG = LogManager.getLogger(AbstractCICEnrichmentOp.class);
 
     /** Returns the v2 action name (e.g. {@code "textSummarization"}). */
     protected abstract String getActionName();
 
+    /**
+     * Returns the actions sent in the same job. Default is {@link #getActionName()} only, a composite op (see
+     * {@link CICEnrichDocumentOp}) returns several and overrides {@link #applyResultEntry}.
+     *
+     * @since 2025.18
+     */
+    protected List<String> getActionNames() {
+        return List.of(getActionName());
+    }
+
     /**
      * Returns the result key inside {@code response.results[0]} for this action
      * (e.g. {@code "textSummary"} for {@code textSummarization}).
@@ -155,6 +189,8 @@ public abstract class AbstractCICEnrichmentOp {
         if (doc == null) {
             throw new NuxeoException("Input document is required");
         }
+        circuitOpenDocIds.clear();
+        circuitRetryAfter = null;
         HylandKEService ke = Framework.getService(HylandKEService.class);
         CICEnrichmentHelper helper = Framework.getService(CICEnrichmentHelper.class);
 
@@ -168,7 +204,7 @@ public abstract class AbstractCICEnrichmentOp {
             return doc;
         }
 
-        String extra = ServicesUtils.addInstructionsToExtraPayload(instructionsV2JsonStr, null);
+        String extra = withBypassCache(ServicesUtils.addInstructionsToExtraPayload(instructionsV2JsonStr, null));
 
         ServiceCallResult result;
         try {
@@ -183,6 +219,10 @@ public abstract class AbstractCICEnrichmentOp {
             return doc;
         }
 
+        if (result.circuitWasOpen()) {
+            circuitOpen(doc.getId(), result);
+        }
+
         // Top-level response code
         if (result.getResponseCode() != 200) {
             ke.setCICError(doc, HylandKEService.SERVICE_LABEL, result.getResponseCode(),
@@ -219,44 +259,7 @@ public abstract class AbstractCICEnrichmentOp {
         // results[0].<resultKey>
         var results = response.optJSONArray("results");
         JSONObject resultEntry = results == null || results.isEmpty() ? null : results.optJSONObject(0);
-        JSONObject actionWrapper = resultEntry == null ? null : resultEntry.optJSONObject(getResultKey());
-        if (actionWrapper == null) {
-            ke.setCICError(doc, HylandKEService.SERVICE_LABEL, 200,
-                    "Missing action result", "Result key not found: " + getResultKey(), result.toJsonString());
-            if (saveDocument) {
-                doc = session.saveDocument(doc);
-            }
-            return doc;
-        }
-        // Action-level error?
-        Object actionError = actionWrapper.opt("error");
-        if (actionError != null && actionError != JSONObject.NULL && !String.valueOf(actionError).isEmpty()) {
-            ke.setCICError(doc, HylandKEService.SERVICE_LABEL, 200, "Action error",
-                    String.valueOf(actionError), result.toJsonString());
-            if (saveDocument) {
-                doc = session.saveDocument(doc);
-            }
-            return doc;
-        }
-
-        Object actionResult = actionWrapper.opt("result");
-        if (actionResult == null || actionResult == JSONObject.NULL) {
-            ke.setCICError(doc, HylandKEService.SERVICE_LABEL, 200, "Empty action result",
-                    "Action returned no result", result.toJsonString());
-            if (saveDocument) {
-                doc = session.saveDocument(doc);
-            }
-            return doc;
-        }
-
-        try {
-            applyResult(doc, actionResult);
-            ke.clearCICError(doc);
-        } catch (RuntimeException ex) {
-            LOG.warn("applyResult failed for action {}: {}", getActionName(), ex.getMessage(), ex);
-            ke.setCICError(doc, HylandKEService.SERVICE_LABEL, 200, "Failed writing result",
-                    ex.getMessage(), result.toJsonString());
-        }
+        applyResultEntry(doc, resultEntry == null ? new JSONObject() : resultEntry, result.toJsonString(), ke);
 
         if (saveDocument) {
             doc = session.saveDocument(doc);
@@ -282,6 +285,9 @@ public abstract class AbstractCICEnrichmentOp {
      * WARN.</li>
      * <li>Docs from the batch absent from the response get a {@code CICError("Missing in CIC
      * response")}.</li>
+     * <li>If CIC is degraded (circuit open), the remaining batches are not sent, their docs get a
+     * {@code CICError} with the {@link ServiceCallResult#CIRCUIT_OPEN} code and are listed in
+     * {@link #getCircuitOpenDocIds()}.</li>
      * </ul>
      * When {@code saveDocument} is {@code true}, each modified doc is reassigned via
      * {@code doc = session.saveDocument(doc);}. Between batches (only when more batches remain),
@@ -310,6 +316,8 @@ public abstract class AbstractCICEnrichmentOp {
         if (docs.isEmpty()) {
             return docs;
         }
+        circuitOpenDocIds.clear();
+        circuitRetryAfter = null;
 
         HylandKEService ke = Framework.getService(HylandKEService.class);
         CICEnrichmentHelper helper = Framework.getService(CICEnrichmentHelper.class);
@@ -326,7 +334,7 @@ public abstract class AbstractCICEnrichmentOp {
             }
         }
 
-        String extra = ServicesUtils.addInstructionsToExtraPayload(instructionsV2JsonStr, null);
+        String extra = withBypassCache(ServicesUtils.addInstructionsToExtraPayload(instructionsV2JsonStr, null));
         String effectiveConfig = StringUtils.isBlank(configName) ? null : configName;
 
         int total = docs.size();
@@ -337,6 +345,21 @@ public abstract class AbstractCICEnrichmentOp {
 
             processBatch(session, batch, effectiveConfig, extra, saveDocument, ke, helper);
 
+            if (!circuitOpenDocIds.isEmpty() && toIndex < total) {
+                // CIC is degraded: don't send the next batches, they would fail the same way
+                List<DocumentModel> skipped = docs.subList(toIndex, total);
+                LOG.warn("Circuit open, skipping the {} remaining document(s).", skipped.size());
+                for (DocumentModel doc : skipped) {
+                    if (doc != null) {
+                        ke.setCICError(doc, HylandKEService.SERVICE_LABEL, ServiceCallResult.CIRCUIT_OPEN,
+                                "CIC unavailable", "Circuit open, document not sent", null);
+                        persistIfNeeded(session, doc, saveDocument);
+                        circuitOpenDocIds.add(doc.getId());
+                    }
+                }
+                break;
+            }
+
             boolean moreBatches = toIndex < total;
             if (moreBatches) {
                 // Mandatory inter-batch commit (keeps the transaction bounded).
@@ -384,15 +407,117 @@ public abstract class AbstractCICEnrichmentOp {
             return;
         }
 
+        if (durableParamsJson != null) {
+            submitBatch(session, bySourceId, contentObjects, configName, extra, saveDocument, ke, helper);
+            return;
+        }
+
+        // The enrichment flow is traced as a child of the batch span, followed by the mapping of its results
+        Span span = CICTracer.startSpan("ke.batch")
+                             .setAttribute("action", getActionName())
+                             .setAttribute("documents", contentObjects.size());
         ServiceCallResult result;
-        try {
-            result = ke.enrich(configName, contentObjects, List.of(getActionName()), getClasses(),
+        try (Scope scope = span.makeCurrent()) {
+            result = ke.enrich(configName, contentObjects, getActionNames(), getClasses(),
                     getSimilarMetadataJsonArrayStr(), extra);
         } catch (IOException e) {
+            CICTracer.end(span, null, e);
             String msg = "IO error calling KE: " + e.getMessage();
             LOG.warn("KE batch failed (IO): {}", e.getMessage(), e);
             failBatch(session, bySourceId, ke, 0, "IO error calling KE", msg, null, saveDocument);
             return;
+        } catch (RuntimeException e) {
+            CICTracer.end(span, null, e);
+            throw e;
+        }
+
+        Span mapping = span.child("mapping");
+        try {
+            applyBatchResult(session, bySourceId, result, saveDocument, ke, helper);
+        } finally {
+            mapping.end();
+            CICTracer.end(span, result, null);
+        }
+    }
+
+    /**
+     * Submits the batch without waiting for its results: the job is stored by the {@link CICJobService}, which
+     * schedules a {@link CICJobCollectWork} to apply them. Failures to submit are recorded as usual.
+     *
+     * @since 2025.18
+     */
+    @SuppressWarnings("rawtypes")
+    protected void submitBatch(CoreSession session, Map<String, DocumentModel> bySourceId,
+            List<ContentToProcess> contentObjects, String configName, String extra, boolean saveDocument,
+            HylandKEService ke, CICEnrichmentHelper helper) {
+
+        Span span = CICTracer.startSpan("ke.submit")
+                             .setAttribute("action", getActionName())
+                             .setAttribute("documents", contentObjects.size());
+        ServiceCallResult result;
+        try (Scope scope = span.makeCurrent()) {
+            result = ke.sendForEnrichment(configName, contentObjects, getActionNames(), getClasses(),
+                    getSimilarMetadataJsonArrayStr(), extra);
+        } catch (IOException e) {
+            CICTracer.end(span, null, e);
+            LOG.warn("KE batch failed (IO): {}", e.getMessage(), e);
+            failBatch(session, bySourceId, ke, 0, "IO error calling KE", "IO error calling KE: " + e.getMessage(),
+                    null, saveDocument);
+            return;
+        } catch (RuntimeException e) {
+            CICTracer.end(span, null, e);
+            throw e;
+        }
+        CICTracer.end(span, result, null);
+
+        String processingId = result.callWasSuccesful()
+                ? result.getResponseAsJSONObject().optString("processingId", null)
+                : null;
+        if (processingId == null) {
+            // Not submitted (error, circuit open, ...)
+            applyBatchResult(session, bySourceId, result, saveDocument, ke, helper);
+            return;
+        }
+
+        // The files not uploaded are not mapped: their documents get a "Missing in CIC response" error
+        JSONArray mapping = new JSONArray();
+        for (ContentToProcess content : contentObjects) {
+            if (content.isProcessingSuccess()) {
+                JSONObject entry = new JSONObject();
+                entry.put("sourceId", content.getSourceId());
+                entry.put("objectKey", content.getObjectKey());
+                mapping.put(entry);
+            }
+        }
+        Framework.getService(CICJobService.class)
+                 .submit(new CICJob(processingId, HylandKEService.SERVICE_LABEL, configName, durableRepositoryName,
+                         new ArrayList<>(bySourceId.keySet()), getClass().getName(), durableParamsJson, mapping));
+    }
+
+    /**
+     * Writes the results of a job collected by a {@link CICJobCollectWork} in its documents, and saves them.
+     *
+     * @param bySourceId, the documents of the job, by id
+     * @param result, the result of the job, with the objectKey -&gt; sourceId mapping of its files
+     * @since 2025.18
+     */
+    public void applyJobResult(CoreSession session, Map<String, DocumentModel> bySourceId, ServiceCallResult result) {
+        applyBatchResult(session, bySourceId, result, true, Framework.getService(HylandKEService.class),
+                Framework.getService(CICEnrichmentHelper.class));
+    }
+
+    /**
+     * Writes the results of a batch in its documents, or a CICError when there is no result for a document.
+     *
+     * @since 2025.18
+     */
+    protected void applyBatchResult(CoreSession session, Map<String, DocumentModel> bySourceId,
+            ServiceCallResult result, boolean saveDocument, HylandKEService ke, CICEnrichmentHelper helper) {
+
+        if (result.circuitWasOpen()) {
+            for (String sourceId : bySourceId.keySet()) {
+                circuitOpen(sourceId, result);
+            }
         }
 
         if (result.getResponseCode() != 200) {
@@ -462,37 +587,7 @@ public abstract class AbstractCICEnrichmentOp {
                 }
                 seenSourceIds.add(sourceId);
 
-                JSONObject actionWrapper = resultEntry.optJSONObject(getResultKey());
-                if (actionWrapper == null) {
-                    ke.setCICError(doc, HylandKEService.SERVICE_LABEL, 200, "Missing action result",
-                            "Result key not found: " + getResultKey(), fullJson);
-                    persistIfNeeded(session, doc, saveDocument);
-                    continue;
-                }
-                Object actionError = actionWrapper.opt("error");
-                if (actionError != null && actionError != JSONObject.NULL
-                        && !String.valueOf(actionError).isEmpty()) {
-                    ke.setCICError(doc, HylandKEService.SERVICE_LABEL, 200, "Action error",
-                            String.valueOf(actionError), fullJson);
-                    persistIfNeeded(session, doc, saveDocument);
-                    continue;
-                }
-                Object actionResult = actionWrapper.opt("result");
-                if (actionResult == null || actionResult == JSONObject.NULL) {
-                    ke.setCICError(doc, HylandKEService.SERVICE_LABEL, 200, "Empty action result",
-                            "Action returned no result", fullJson);
-                    persistIfNeeded(session, doc, saveDocument);
-                    continue;
-                }
-                try {
-                    applyResult(doc, actionResult);
-                    ke.clearCICError(doc);
-                } catch (RuntimeException ex) {
-                    LOG.warn("applyResult failed for action {} on doc {}: {}", getActionName(), doc.getId(),
-                            ex.getMessage(), ex);
-                    ke.setCICError(doc, HylandKEService.SERVICE_LABEL, 200, "Failed writing result",
-                            ex.getMessage(), fullJson);
-                }
+                applyResultEntry(doc, resultEntry, fullJson, ke);
                 persistIfNeeded(session, doc, saveDocument);
             }
         }
@@ -509,6 +604,58 @@ public abstract class AbstractCICEnrichmentOp {
         }
     }
 
+    /**
+     * Writes the result of the action in a document, from its entry in {@code response.results}, and clears its
+     * {@code CICError}. Records a {@code CICError} instead when the action failed.
+     *
+     * @since 2025.18
+     */
+    protected void applyResultEntry(DocumentModel doc, JSONObject resultEntry, String fullJson, HylandKEService ke) {
+        if (applyActionResult(this, doc, resultEntry, fullJson, ke)) {
+            ke.clearCICError(doc);
+        }
+    }
+
+    /**
+     * Writes the result of the action of {@code op} in a document (see {@link #applyResult(DocumentModel, Object)}),
+     * or records a {@code CICError} when the action failed.
+     *
+     * @return {@code true} if the result was written
+     * @since 2025.18
+     */
+    protected boolean applyActionResult(AbstractCICEnrichmentOp op, DocumentModel doc, JSONObject resultEntry,
+            String fullJson, HylandKEService ke) {
+
+        JSONObject actionWrapper = resultEntry.optJSONObject(op.getResultKey());
+        if (actionWrapper == null) {
+            ke.setCICError(doc, HylandKEService.SERVICE_LABEL, 200, "Missing action result",
+                    "Result key not found: " + op.getResultKey(), fullJson);
+            return false;
+        }
+        Object actionError = actionWrapper.opt("error");
+        if (actionError != null && actionError != JSONObject.NULL && !String.valueOf(actionError).isEmpty()) {
+            ke.setCICError(doc, HylandKEService.SERVICE_LABEL, 200, "Action error", String.valueOf(actionError),
+                    fullJson);
+            return false;
+        }
+        Object actionResult = actionWrapper.opt("result");
+        if (actionResult == null || actionResult == JSONObject.NULL) {
+            ke.setCICError(doc, HylandKEService.SERVICE_LABEL, 200, "Empty action result",
+                    "Action returned no result", fullJson);
+            return false;
+        }
+        try {
+            op.applyResult(doc, actionResult);
+            return true;
+        } catch (RuntimeException ex) {
+            LOG.warn("applyResult failed for action {} on doc {}: {}", op.getActionName(), doc.getId(),
+                    ex.getMessage(), ex);
+            ke.setCICError(doc, HylandKEService.SERVICE_LABEL, 200, "Failed writing result", ex.getMessage(),
+                    fullJson);
+            return false;
+        }
+    }
+
     /** Mark every payload-eligible doc in the batch with a CICError (used for batch-level failures). */
     protected void failBatch(CoreSession session, Map<String, DocumentModel> bySourceId, HylandKEService ke,
             int responseCode, String shortMessage, String fullMessage, String fullJson, boolean saveDocument) {
@@ -518,6 +665,42 @@ public abstract class AbstractCICEnrichmentOp {
         }
     }
 
+    protected void circuitOpen(String docId, ServiceCallResult result) {
+        circuitOpenDocIds.add(docId);
+        circuitRetryAfter = result.getRetryAfter();
+    }
+
+    /**
+     * @return the ids of the documents not processed, by the last run, because CIC is degraded (circuit open). They
+     *         have a {@code CICError} with the {@link ServiceCallResult#CIRCUIT_OPEN} code.
+     * @since 2025.18
+     */
+    public List<String> getCircuitOpenDocIds() {
+        return circuitOpenDocIds;
+    }
+
+    /**
+     * The next calls to {@link #runForDocuments} only submit their batches, then each job is tracked by the
+     * {@link CICJobService} and its results applied by a {@link CICJobCollectWork}, which runs this op again (with
+     * <code>paramsJson</code>) to write them.
+     *
+     * @param repositoryName, the repository of the documents
+     * @param paramsJson, the {@code @Param} values of the op (see {@link #applyAsyncParams(JSONObject)})
+     * @since 2025.18
+     */
+    public void setDurableJobs(String repositoryName, String paramsJson) {
+        durableRepositoryName = repositoryName;
+        durableParamsJson = paramsJson == null ? "{}" : paramsJson;
+    }
+
+    /**
+     * @return when the circuit can be tried again (may be null), if {@link #getCircuitOpenDocIds()} is not empty
+     * @since 2025.18
+     */
+    public Duration getCircuitRetryAfter() {
+        return circuitRetryAfter;
+    }
+
     protected void persistIfNeeded(CoreSession session, DocumentModel doc, boolean saveDocument) {
         if (saveDocument) {
             session.saveDocument(doc);
@@ -610,7 +793,24 @@ public abstract class AbstractCICEnrichmentOp {
      * @since 2025.16
      */
     public void applyAsyncParams(JSONObject params) {
-        // Base class: no fields to restore. Subclasses override and set their @Param fields.
+        // Base class: only bypassCache (since 2025.18). Subclasses override and set their @Param fields.
+        bypassCache = params.optBoolean("bypassCache", false);
+    }
+
+    /**
+     * Adds {@code "bypassCache": true} to the extra payload when {@link #bypassCache} is set, so KE sends the
+     * documents even if their result is cached (see {@link HylandKEService}).
+     *
+     * @since 2025.18
+     */
+    protected String withBypassCache(String extraPayloadJsonStr) {
+        if (!bypassCache) {
+            return extraPayloadJsonStr;
+        }
+        JSONObject extra = StringUtils.isBlank(extraPayloadJsonStr) ? new JSONObject()
+                : new JSONObject(extraPayloadJsonStr);
+        extra.put("bypassCache", true);
+        return extra.toString();
     }
 
     /**
@@ -87,8 +87,18 @@ public class CICClassifyTextFileOp extends AbstractCICTextEnrichmentOp {
     @Param(name = "runAsynchronously", required = false, values = "false")
     protected boolean runAsynchronously = false;
 
+    /**
+     * When {@code true}, the document is sent to CIC even if its result is cached (see
+     * {@code nuxeo.hyland.cic.enrichment.resultCache}).
+     *
+     * @since 2025.18
+     */
+    @Param(name = "bypassCache", required = false, values = "false")
+    protected boolean bypassCacheParam = false;
+
     @OperationMethod
     public DocumentModel run(DocumentModel doc) {
+        this.bypassCache = bypassCacheParam;
         this.xpath = xpathParam;
         if (runAsynchronously) {
             scheduleAsyncForDocument(session, doc, buildParamsJson());
@@ -99,6 +109,7 @@ public class CICClassifyTextFileOp extends AbstractCICTextEnrichmentOp {
 
     @OperationMethod
     public DocumentModelList run(DocumentModelList docs) {
+        this.bypassCache = bypassCacheParam;
         this.xpath = xpathParam;
         if (runAsynchronously) {
             scheduleAsyncForDocuments(session, docs, buildParamsJson());
@@ -109,6 +120,7 @@ public class CICClassifyTextFileOp extends AbstractCICTextEnrichmentOp {
 
     protected org.json.JSONObject buildParamsJson() {
         org.json.JSONObject json = baseParamsJson(configName, instructionsV2JsonStr, saveDocument, batchSize);
+        json.put("bypassCache", bypassCacheParam);
         if (xpathParam != null) {
             json.put("xpath", xpathParam);
         }
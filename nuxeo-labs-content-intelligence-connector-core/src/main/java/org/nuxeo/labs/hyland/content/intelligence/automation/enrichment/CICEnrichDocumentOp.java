@@ -0,0 +1,354 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.automation.enrichment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.nuxeo.ecm.automation.core.annotations.Context;
+import org.nuxeo.ecm.automation.core.annotations.Operation;
+import org.nuxeo.ecm.automation.core.annotations.OperationMethod;
+import org.nuxeo.ecm.automation.core.annotations.Param;
+import org.nuxeo.ecm.automation.core.util.StringList;
+import org.nuxeo.ecm.core.api.Blob;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.DocumentModelList;
+import org.nuxeo.ecm.core.api.NuxeoException;
+import org.nuxeo.ecm.core.api.impl.DocumentModelListImpl;
+import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.HylandKEService;
+import org.nuxeo.runtime.api.Framework;
+
+/**
+ * Runs several {@code CIC.*} actions on the same documents with one upload and one Knowledge Enrichment job per batch,
+ * instead of one of each per action. Each action's result is written by the matching op ({@link CICSummarizeTextOp},
+ * {@link CICClassifyTextFileOp}...).
+ * <p>
+ * The text actions are sent with the text blob ({@code xpath}), the image actions with the image rendition
+ * ({@code renditionName}): when both are requested, there is one job for each. The {@code classes} and
+ * {@code kSimilarMetadataJsonStr} params are those of the classification and metadata actions. The
+ * {@code CICError} of a document is the one of its last failing action, it is cleared only when every action
+ * succeeded.
+ *
+ * @since 2025.18
+ */
+@Operation(id = CICEnrichDocumentOp.ID, category = "CIC", label = "CIC: Enrich Document", description = ""
+        + "Calls Hyland Knowledge Enrichment once for several actions (textSummarization, textClassification,"
+        + " namedEntityRecognitionText, textMetadataGeneration, textEmbeddings, imageDescription, imageClassification,"
+        + " namedEntityRecognitionImage, imageMetadataGeneration, imageEmbeddings), and writes each result as the"
+        + " matching CIC.* operation does. Text and image actions are sent in separate jobs.")
+public class CICEnrichDocumentOp extends AbstractCICEnrichmentOp {
+
+    public static final String ID = "CIC.EnrichDocument";
+
+    private static final Logger LOG = LogManager.getLogger(CICEnrichDocumentOp.class);
+
+    /** The supported actions, and the op writing their result. */
+    protected static final Map<String, Supplier<AbstractCICEnrichmentOp>> ACTIONS = new LinkedHashMap<>();
+
+    static {
+        ACTIONS.put("textSummarization", CICSummarizeTextOp::new);
+        ACTIONS.put("textClassification", CICClassifyTextFileOp::new);
+        ACTIONS.put("namedEntityRecognitionText", CICGetNamedEntitiesFromTextOp::new);
+        ACTIONS.put("textMetadataGeneration", CICGetTextMetadataOp::new);
+        ACTIONS.put("textEmbeddings", CICGetTextEmbeddingsOp::new);
+        ACTIONS.put("imageDescription", CICGetImageDescriptionOp::new);
+        ACTIONS.put("imageClassification", CICClassifyImageOp::new);
+        ACTIONS.put("namedEntityRecognitionImage", CICGetNamedEntitiesFromImageOp::new);
+        ACTIONS.put("imageMetadataGeneration", CICGetImageMetadataOp::new);
+        ACTIONS.put("imageEmbeddings", CICGetImageEmbeddingsOp::new);
+    }
+
+    @Context
+    protected CoreSession session;
+
+    @Param(name = "actions", required = true)
+    protected StringList actionsParam;
+
+    @Param(name = "configName", required = false)
+    protected String configName;
+
+    @Param(name = "xpath", required = false)
+    protected String xpathParam;
+
+    @Param(name = "renditionName", required = false)
+    protected String renditionNameParam;
+
+    @Param(name = "classes", required = false)
+    protected StringList classes;
+
+    @Param(name = "kSimilarMetadataJsonStr", required = false)
+    protected String kSimilarMetadataJsonStr;
+
+    @Param(name = "instructionsV2JsonStr", required = false)
+    protected String instructionsV2JsonStr;
+
+    @Param(name = "saveDocument", required = false, values = "false")
+    protected boolean saveDocument = false;
+
+    @Param(name = "batchSize", required = false, values = "0")
+    protected int batchSize = 0;
+
+    @Param(name = "runAsynchronously", required = false, values = "false")
+    protected boolean runAsynchronously = false;
+
+    @Param(name = "bypassCache", required = false, values = "false")
+    protected boolean bypassCacheParam = false;
+
+    /** The ops of the actions, restored by {@link #applyAsyncParams(JSONObject)}. */
+    protected List<AbstractCICEnrichmentOp> actionOps = new ArrayList<>();
+
+    /** The ops of the actions sent in the current job (same blob). */
+    protected List<AbstractCICEnrichmentOp> jobOps = new ArrayList<>();
+
+    /** Docs with a failed action in a previous job of the run: their CICError is not cleared. */
+    protected Set<String> failedDocIds = new HashSet<>();
+
+    @OperationMethod
+    public DocumentModel run(DocumentModel doc) {
+        JSONObject params = buildParamsJson();
+        applyAsyncParams(params);
+        if (runAsynchronously) {
+            scheduleAsyncForDocument(session, doc, params);
+            return doc;
+        }
+        return runForDocument(session, doc, configName, instructionsV2JsonStr, saveDocument);
+    }
+
+    @OperationMethod
+    public DocumentModelList run(DocumentModelList docs) {
+        JSONObject params = buildParamsJson();
+        applyAsyncParams(params);
+        if (runAsynchronously) {
+            scheduleAsyncForDocuments(session, docs, params);
+            return docs;
+        }
+        return runForDocuments(session, docs, configName, instructionsV2JsonStr, saveDocument, batchSize);
+    }
+
+    protected JSONObject buildParamsJson() {
+        JSONObject json = baseParamsJson(configName, instructionsV2JsonStr, saveDocument, batchSize);
+        json.put("bypassCache", bypassCacheParam);
+        json.put("actions", new JSONArray(actionsParam == null ? List.of() : actionsParam));
+        if (xpathParam != null) {
+            json.put("xpath", xpathParam);
+        }
+        if (renditionNameParam != null) {
+            json.put("renditionName", renditionNameParam);
+        }
+        if (classes != null && !classes.isEmpty()) {
+            json.put("classes", new JSONArray(classes));
+        }
+        if (StringUtils.isNotBlank(kSimilarMetadataJsonStr)) {
+            json.put("kSimilarMetadataJsonStr", kSimilarMetadataJsonStr);
+        }
+        return json;
+    }
+
+    /**
+     * Builds the op of each action, with the same params. The embeddings actions are skipped (WARN logged) when the
+     * descriptor does not configure them.
+     */
+    @Override
+    public void applyAsyncParams(JSONObject params) {
+        super.applyAsyncParams(params);
+        String config = params.has("configName") ? params.optString("configName", null) : null;
+        JSONArray actions = params.optJSONArray("actions");
+        actionOps = new ArrayList<>();
+        for (int i = 0; actions != null && i < actions.length(); i++) {
+            String action = actions.optString(i, null);
+            Supplier<AbstractCICEnrichmentOp> supplier = ACTIONS.get(action);
+            if (supplier == null) {
+                throw new NuxeoException(
+                        ID + ": unknown action <" + action + ">, supported actions are " + ACTIONS.keySet());
+            }
+            if (actionOps.stream().anyMatch(op -> op.getActionName().equals(action))
+                    || isEmbeddingsNotConfigured(action, config)) {
+                continue;
+            }
+            AbstractCICEnrichmentOp op = supplier.get();
+            op.applyAsyncParams(params);
+            actionOps.add(op);
+        }
+    }
+
+    protected boolean isEmbeddingsNotConfigured(String action, String config) {
+        if (!action.endsWith("Embeddings")) {
+            return false;
+        }
+        HylandKEService ke = Framework.getService(HylandKEService.class);
+        String xpath = action.equals("textEmbeddings") ? ke.getEmbeddingsTextXpath(config)
+                : ke.getEmbeddingsImageXpath(config);
+        if (StringUtils.isBlank(ke.getEmbeddingsFacet(config)) || StringUtils.isBlank(xpath)) {
+            LOG.warn("{}: {} skipped, KE descriptor '{}' has no embeddings facet/xpath configured.", ID, action,
+                    config == null ? "default" : config);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public DocumentModel runForDocument(CoreSession session, DocumentModel doc, String configName,
+            String instructionsV2JsonStr, boolean saveDocument) {
+        if (doc == null) {
+            throw new NuxeoException("Input document is required");
+        }
+        DocumentModelList docs = new DocumentModelListImpl();
+        docs.add(doc);
+        runForDocuments(session, docs, configName, instructionsV2JsonStr, saveDocument, 0);
+        return doc;
+    }
+
+    /**
+     * Sends the text actions in one job, then the image actions in another one (if any), for each batch.
+     */
+    @Override
+    public DocumentModelList runForDocuments(CoreSession session, DocumentModelList docs, String configName,
+            String instructionsV2JsonStr, boolean saveDocument, int batchSize) {
+
+        if (docs == null) {
+            throw new NuxeoException("Input document list is required");
+        }
+        Map<Class<?>, List<AbstractCICEnrichmentOp>> jobs = new LinkedHashMap<>();
+        for (AbstractCICEnrichmentOp op : actionOps) {
+            Class<?> blobKind = op instanceof AbstractCICImageEnrichmentOp ? AbstractCICImageEnrichmentOp.class
+                    : AbstractCICTextEnrichmentOp.class;
+            jobs.computeIfAbsent(blobKind, k -> new ArrayList<>()).add(op);
+        }
+        if (jobs.isEmpty()) {
+            LOG.warn("{}: no action to run, {} document(s) returned unchanged.", ID, docs.size());
+            return docs;
+        }
+
+        String durableParams = durableParamsJson;
+        Set<String> circuitOpen = new LinkedHashSet<>();
+        Duration retryAfter = null;
+        failedDocIds.clear();
+        try {
+            for (List<AbstractCICEnrichmentOp> ops : jobs.values()) {
+                jobOps = ops;
+                if (durableParams != null) {
+                    // The collect Work rebuilds this op with the actions of the job only
+                    durableParamsJson = new JSONObject(durableParams).put("actions", new JSONArray(getActionNames()))
+                                                                     .toString();
+                }
+                super.runForDocuments(session, docs, configName, instructionsV2JsonStr, saveDocument, batchSize);
+                circuitOpen.addAll(circuitOpenDocIds);
+                if (circuitRetryAfter != null) {
+                    retryAfter = circuitRetryAfter;
+                }
+                for (DocumentModel doc : docs) {
+                    if (doc != null && doc.hasFacet(CIC_ERROR_FACET)) {
+                        failedDocIds.add(doc.getId());
+                    }
+                }
+            }
+        } finally {
+            jobOps = actionOps;
+            durableParamsJson = durableParams;
+        }
+        circuitOpenDocIds = new ArrayList<>(circuitOpen);
+        circuitRetryAfter = retryAfter;
+        return docs;
+    }
+
+    /** The ops of the current job, all the actions when not running (collect of a durable job). */
+    protected List<AbstractCICEnrichmentOp> getJobOps() {
+        return jobOps.isEmpty() ? actionOps : jobOps;
+    }
+
+    @Override
+    protected List<String> getActionNames() {
+        return getJobOps().stream().map(AbstractCICEnrichmentOp::getActionName).toList();
+    }
+
+    @Override
+    protected String getActionName() {
+        return String.join(",", getActionNames());
+    }
+
+    @Override
+    protected String getResultKey() {
+        return String.join(",", getJobOps().stream().map(AbstractCICEnrichmentOp::getResultKey).toList());
+    }
+
+    @Override
+    protected Blob getBlob(DocumentModel doc) {
+        return getJobOps().get(0).getBlob(doc);
+    }
+
+    @Override
+    protected List<String> getClasses() {
+        return getJobOps().stream()
+                          .map(AbstractCICEnrichmentOp::getClasses)
+                          .filter(c -> c != null)
+                          .findFirst()
+                          .orElse(null);
+    }
+
+    @Override
+    protected String getSimilarMetadataJsonArrayStr() {
+        return getJobOps().stream()
+                          .map(AbstractCICEnrichmentOp::getSimilarMetadataJsonArrayStr)
+                          .filter(s -> s != null)
+                          .findFirst()
+                          .orElse(null);
+    }
+
+    /**
+     * Dispatches the results of the job to the op of each action.
+     */
+    @Override
+    protected void applyResultEntry(DocumentModel doc, JSONObject resultEntry, String fullJson, HylandKEService ke) {
+        boolean allWritten = true;
+        for (AbstractCICEnrichmentOp op : getJobOps()) {
+            if (!applyActionResult(op, doc, resultEntry, fullJson, ke)) {
+                allWritten = false;
+            }
+        }
+        if (allWritten && !failedDocIds.contains(doc.getId())) {
+            ke.clearCICError(doc);
+        }
+    }
+
+    /**
+     * Writes the results of every action, {@code actionResult} being the whole result entry of the document (the
+     * {@code results[i]} object). The base class does not call it (see {@link #applyResultEntry}).
+     */
+    @Override
+    protected void applyResult(DocumentModel doc, Object actionResult) {
+        if (!(actionResult instanceof JSONObject resultEntry)) {
+            throw new IllegalArgumentException(ID + " expects the result entry of the document, got: " + actionResult);
+        }
+        applyResultEntry(doc, resultEntry, resultEntry.toString(), Framework.getService(HylandKEService.class));
+    }
+
+}
@@ -18,8 +18,11 @@
  */
 package org.nuxeo.labs.hyland.content.intelligence.automation.enrichment;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -30,6 +33,10 @@ import org.nuxeo.ecm.core.api.IdRef;
 import org.nuxeo.ecm.core.api.NuxeoException;
 import org.nuxeo.ecm.core.api.impl.DocumentModelListImpl;
 import org.nuxeo.ecm.core.work.AbstractWork;
+import org.nuxeo.ecm.core.work.api.WorkManager;
+import org.nuxeo.labs.hyland.content.intelligence.service.ServicesUtils;
+import org.nuxeo.labs.hyland.content.intelligence.service.jobs.CICJobService;
+import org.nuxeo.runtime.api.Framework;
 
 /**
  * Generic background {@link org.nuxeo.ecm.core.work.api.Work Work} that executes a
@@ -51,6 +58,15 @@ import org.nuxeo.ecm.core.work.AbstractWork;
  * code path that runs synchronously. The Work itself only fails when it cannot even load the
  * documents or instantiate the op class.
  * <p>
+ * When CIC is degraded (circuit open, see {@link AbstractCICEnrichmentOp#getCircuitOpenDocIds()}), the documents that
+ * were not sent are requeued in a new Work, scheduled once the circuit can be tried again, up to
+ * {@code nuxeo.hyland.cic.enrichment.maxRequeues} times (default 5). The requeue is not persistent: if the node stops
+ * meanwhile, these documents keep their {@code CICError} (code -3).
+ * <p>
+ * When the jobs are durable ({@code nuxeo.hyland.cic.jobs.durable=true}, see {@link CICJobService}), this Work only
+ * submits the documents: their jobs are stored, and a {@link CICJobCollectWork} applies their results, so a restart
+ * does not upload and process them again.
+ * <p>
  * All instances run under the {@code cicEnrichment} category. Tune the queue size via
  * {@code nuxeo.works.queue.cicEnrichment.maxThreads} in {@code nuxeo.conf}.
  *
@@ -64,6 +80,15 @@ public class CICEnrichmentWork extends AbstractWork {
 
     public static final String CATEGORY = "cicEnrichment";
 
+    /** @since 2025.18 */
+    public static final String MAX_REQUEUES_PARAM = "nuxeo.hyland.cic.enrichment.maxRequeues";
+
+    /** @since 2025.18 */
+    public static final int DEFAULT_MAX_REQUEUES = 5;
+
+    /** Min. delay before a requeued Work runs, multiplied by the number of requeues */
+    protected static final Duration MIN_REQUEUE_DELAY = Duration.ofSeconds(10);
+
     /** Fully-qualified class name of the concrete {@code CIC.*} op to run. */
     protected final String opClassName;
 
@@ -76,6 +101,9 @@ public class CICEnrichmentWork extends AbstractWork {
     /** True when the original input was a {@code DocumentModelList}. */
     protected final boolean isListInput;
 
+    /** Number of times these docs were requeued because the circuit was open. */
+    protected final int requeues;
+
     /**
      * @param repositoryName the doc repository
      * @param docIds         doc ids to process
@@ -86,6 +114,16 @@ public class CICEnrichmentWork extends AbstractWork {
      */
     public CICEnrichmentWork(String repositoryName, List<String> docIds, String opClassName,
             String paramsJson, boolean isListInput) {
+        this(repositoryName, docIds, opClassName, paramsJson, isListInput, 0);
+    }
+
+    /**
+     * @param requeues number of times these docs were already requeued (circuit open)
+     * @since 2025.18
+     */
+    public CICEnrichmentWork(String repositoryName, List<String> docIds, String opClassName,
+            String paramsJson, boolean isListInput, int requeues) {
+        this.requeues = requeues;
         this.repositoryName = repositoryName;
         this.docIds = List.copyOf(docIds);
         this.opClassName = opClassName;
@@ -111,7 +149,9 @@ public class CICEnrichmentWork extends AbstractWork {
 
     @Override
     public int getRetryCount() {
-        // Best-effort: a transient CIC failure will leave a CICError on the docs, no retry.
+        // Transient CIC failures (429, 503, ...) are retried by the transport (see RetryPolicy). When CIC is down
+        // (circuit open), the docs are requeued later (see requeueIfCircuitOpen). What still fails leaves a CICError on
+        // the docs, no retry.
         return 0;
     }
 
@@ -131,7 +171,14 @@ public class CICEnrichmentWork extends AbstractWork {
 
         openSystemSession();
 
-        if (isListInput) {
+        CICJobService jobs = Framework.getService(CICJobService.class);
+        boolean durable = jobs != null && jobs.isEnabled();
+        if (durable) {
+            op.setDurableJobs(repositoryName, paramsJson);
+        }
+
+        // (The single-doc path does not submit: with durable jobs, a list of one doc)
+        if (isListInput || durable) {
             DocumentModelListImpl docs = new DocumentModelListImpl();
             for (String id : docIds) {
                 DocumentRef ref = new IdRef(id);
@@ -155,6 +202,42 @@ public class CICEnrichmentWork extends AbstractWork {
             DocumentModel doc = session.getDocument(ref);
             op.runForDocument(session, doc, configName, instructionsV2, true);
         }
+
+        requeueIfCircuitOpen(op);
+    }
+
+    /**
+     * Schedules a new Work for the docs that were not processed because the circuit was open, after the circuit can
+     * be tried again (without holding a worker thread meanwhile).
+     *
+     * @since 2025.18
+     */
+    protected void requeueIfCircuitOpen(AbstractCICEnrichmentOp op) {
+
+        List<String> skipped = op.getCircuitOpenDocIds();
+        if (skipped.isEmpty()) {
+            return;
+        }
+
+        int maxRequeues = ServicesUtils.configParamToInt(MAX_REQUEUES_PARAM, DEFAULT_MAX_REQUEUES);
+        if (requeues >= maxRequeues) {
+            LOG.warn("CICEnrichmentWork: circuit still open after {} requeue(s), giving up on {} doc(s).", requeues,
+                    skipped.size());
+            return;
+        }
+
+        Duration delay = MIN_REQUEUE_DELAY.multipliedBy(requeues + 1L);
+        Duration retryAfter = op.getCircuitRetryAfter();
+        if (retryAfter != null && retryAfter.compareTo(delay) > 0) {
+            delay = retryAfter;
+        }
+
+        CICEnrichmentWork work = new CICEnrichmentWork(repositoryName, skipped, opClassName, paramsJson, isListInput,
+                requeues + 1);
+        LOG.info("CICEnrichmentWork: circuit open, requeuing {} doc(s) in {} s (requeue {}/{}).", skipped.size(),
+                delay.toSeconds(), requeues + 1, maxRequeues);
+        CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS)
+                         .execute(() -> Framework.getService(WorkManager.class).schedule(work));
     }
 
     /** Reflective instantiation of the {@code CIC.*} op subclass. */
@@ -181,4 +264,11 @@ public class CICEnrichmentWork extends AbstractWork {
     public String getOpClassName() {
         return opClassName;
     }
+
+    /**
+     * @since 2025.18
+     */
+    public int getRequeues() {
+        return requeues;
+    }
 }
@@ -93,8 +93,18 @@ public class CICGetImageDescriptionOp extends AbstractCICImageEnrichmentOp {
     @Param(name = "runAsynchronously", required = false, values = "false")
     protected boolean runAsynchronously = false;
 
+    /**
+     * When {@code true}, the document is sent to CIC even if its result is cached (see
+     * {@code nuxeo.hyland.cic.enrichment.resultCache}).
+     *
+     * @since 2025.18
+     */
+    @Param(name = "bypassCache", required = false, values = "false")
+    protected boolean bypassCacheParam = false;
+
     @OperationMethod
     public DocumentModel run(DocumentModel doc) {
+        this.bypassCache = bypassCacheParam;
         this.configName = configNameParam;
         this.renditionName = renditionNameParam;
         if (runAsynchronously) {
@@ -106,6 +116,7 @@ public class CICGetImageDescriptionOp extends AbstractCICImageEnrichmentOp {
 
     @OperationMethod
     public DocumentModelList run(DocumentModelList docs) {
+        this.bypassCache = bypassCacheParam;
         this.configName = configNameParam;
         this.renditionName = renditionNameParam;
         if (runAsynchronously) {
@@ -118,6 +129,7 @@ public class CICGetImageDescriptionOp extends AbstractCICImageEnrichmentOp {
     /** Captures the {@code @Param} values into the params JSON consumed by {@link CICEnrichmentWork}. */
     protected org.json.JSONObject buildParamsJson() {
         org.json.JSONObject json = baseParamsJson(configNameParam, instructionsV2JsonStr, saveDocument, batchSize);
+        json.put("bypassCache", bypassCacheParam);
         if (renditionNameParam != null) {
             json.put("renditionName", renditionNameParam);
         }
@@ -87,8 +87,18 @@ public class CICGetImageEmbeddingsOp extends AbstractCICImageEnrichmentOp {
     @Param(name = "runAsynchronously", required = false, values = "false")
     protected boolean runAsynchronously = false;
 
+    /**
+     * When {@code true}, the document is sent to CIC even if its result is cached (see
+     * {@code nuxeo.hyland.cic.enrichment.resultCache}).
+     *
+     * @since 2025.18
+     */
+    @Param(name = "bypassCache", required = false, values = "false")
+    protected boolean bypassCacheParam = false;
+
     @OperationMethod
     public DocumentModel run(DocumentModel doc) {
+        this.bypassCache = bypassCacheParam;
         if (isEmbeddingsNotConfigured(doc.getId())) {
             return doc;
         }
@@ -103,6 +113,7 @@ public class CICGetImageEmbeddingsOp extends AbstractCICImageEnrichmentOp {
 
     @OperationMethod
     public DocumentModelList run(DocumentModelList docs) {
+        this.bypassCache = bypassCacheParam;
         if (docs == null || docs.isEmpty()) {
             return docs;
         }
@@ -120,6 +131,7 @@ public class CICGetImageEmbeddingsOp extends AbstractCICImageEnrichmentOp {
 
     protected org.json.JSONObject buildParamsJson() {
         org.json.JSONObject json = baseParamsJson(configNameParam, instructionsV2JsonStr, saveDocument, batchSize);
+        json.put("bypassCache", bypassCacheParam);
         if (renditionNameParam != null) {
             json.put("renditionName", renditionNameParam);
         }
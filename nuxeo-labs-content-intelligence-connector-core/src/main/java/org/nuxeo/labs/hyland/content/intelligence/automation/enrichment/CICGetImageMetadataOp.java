@@ -89,8 +89,18 @@ public class CICGetImageMetadataOp extends AbstractCICImageEnrichmentOp {
     @Param(name = "runAsynchronously", required = false, values = "false")
     protected boolean runAsynchronously = false;
 
+    /**
+     * When {@code true}, the document is sent to CIC even if its result is cached (see
+     * {@code nuxeo.hyland.cic.enrichment.resultCache}).
+     *
+     * @since 2025.18
+     */
+    @Param(name = "bypassCache", required = false, values = "false")
+    protected boolean bypassCacheParam = false;
+
     @OperationMethod
     public DocumentModel run(DocumentModel doc) {
+        this.bypassCache = bypassCacheParam;
         this.configName = configNameParam;
         this.renditionName = renditionNameParam;
         if (runAsynchronously) {
@@ -102,6 +112,7 @@ public class CICGetImageMetadataOp extends AbstractCICImageEnrichmentOp {
 
     @OperationMethod
     public DocumentModelList run(DocumentModelList docs) {
+        this.bypassCache = bypassCacheParam;
         this.configName = configNameParam;
         this.renditionName = renditionNameParam;
         if (runAsynchronously) {
@@ -113,6 +124,7 @@ public class CICGetImageMetadataOp extends AbstractCICImageEnrichmentOp {
 
     protected org.json.JSONObject buildParamsJson() {
         org.json.JSONObject json = baseParamsJson(configNameParam, instructionsV2JsonStr, saveDocument, batchSize);
+        json.put("bypassCache", bypassCacheParam);
         if (renditionNameParam != null) {
             json.put("renditionName", renditionNameParam);
         }
@@ -86,10 +86,20 @@ public class CICGetTextEmbeddingsOp extends AbstractCICTextEnrichmentOp {
     @Param(name = "runAsynchronously", required = false, values = "false")
     protected boolean runAsynchronously = false;
 
+    /**
+     * When {@code true}, the document is sent to CIC even if its result is cached (see
+     * {@code nuxeo.hyland.cic.enrichment.resultCache}).
+     *
+     * @since 2025.18
+     */
+    @Param(name = "bypassCache", required = false, values = "false")
+    protected boolean bypassCacheParam = false;
+
     protected String currentConfigName;
 
     @OperationMethod
     public DocumentModel run(DocumentModel doc) {
+        this.bypassCache = bypassCacheParam;
         if (isEmbeddingsNotConfigured(doc.getId())) {
             return doc;
         }
@@ -104,6 +114,7 @@ public class CICGetTextEmbeddingsOp extends AbstractCICTextEnrichmentOp {
 
     @OperationMethod
     public DocumentModelList run(DocumentModelList docs) {
+        this.bypassCache = bypassCacheParam;
         if (docs == null || docs.isEmpty()) {
             return docs;
         }
@@ -121,6 +132,7 @@ public class CICGetTextEmbeddingsOp extends AbstractCICTextEnrichmentOp {
 
     protected org.json.JSONObject buildParamsJson() {
         org.json.JSONObject json = baseParamsJson(configName, instructionsV2JsonStr, saveDocument, batchSize);
+        json.put("bypassCache", bypassCacheParam);
         if (xpathParam != null) {
             json.put("xpath", xpathParam);
         }
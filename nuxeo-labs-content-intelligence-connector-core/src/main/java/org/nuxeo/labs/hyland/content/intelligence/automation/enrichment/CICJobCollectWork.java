@@ -0,0 +1,199 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.automation.enrichment;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.DocumentRef;
+import org.nuxeo.ecm.core.api.IdRef;
+import org.nuxeo.ecm.core.api.NuxeoException;
+import org.nuxeo.ecm.core.work.AbstractWork;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.HylandKEService;
+import org.nuxeo.labs.hyland.content.intelligence.service.jobs.CICJob;
+import org.nuxeo.labs.hyland.content.intelligence.service.jobs.CICJobService;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.transaction.TransactionHelper;
+
+/**
+ * Collects the results of a {@link CICJob} submitted by a {@link CICEnrichmentWork} (durable jobs, see
+ * {@link CICJobService}), and writes them in its documents with the same operation.
+ * <p>
+ * Only one node collects a job at a time (see {@link CICJobService#claim(String, String)}). A collection polls the
+ * results once: if they are not available yet (still processing, CIC unavailable, ...), the job is left in the store,
+ * and collected again later by {@link CICJobService#resume()}. Jobs older than
+ * {@code nuxeo.hyland.cic.jobs.maxAgeHours} are dropped, with a {@code CICError} on their documents.
+ * <p>
+ * The job is removed from the store only once its documents are saved (transaction committed), so a failed commit
+ * leaves it to be collected again.
+ * <p>
+ * All instances run under the {@code cicEnrichmentCollect} category, so the collections do not wait for the
+ * submissions (and the other way round).
+ *
+ * @since 2025.18
+ */
+public class CICJobCollectWork extends AbstractWork {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LogManager.getLogger(CICJobCollectWork.class);
+
+    public static final String CATEGORY = "cicEnrichmentCollect";
+
+    protected static final String ID_PREFIX = "cic-collect:";
+
+    protected final String jobId;
+
+    public CICJobCollectWork(String jobId) {
+        // Same id for the same job: scheduled once only (see Scheduling.IF_NOT_SCHEDULED)
+        super(ID_PREFIX + jobId);
+        this.jobId = jobId;
+    }
+
+    @Override
+    public String getCategory() {
+        return CATEGORY;
+    }
+
+    @Override
+    public String getTitle() {
+        return "CIC Enrichment: collect job " + jobId;
+    }
+
+    @Override
+    public int getRetryCount() {
+        // Collected again by CICJobService#resume if needed
+        return 0;
+    }
+
+    @Override
+    public boolean isTransactional() {
+        // The documents are saved in a transaction of their own, see work()
+        return false;
+    }
+
+    @Override
+    public void work() {
+
+        CICJobService jobs = Framework.getService(CICJobService.class);
+        CICJob job = jobs.getJob(jobId);
+        if (job == null) {
+            // Already collected
+            return;
+        }
+
+        String owner = UUID.randomUUID().toString();
+        if (!jobs.claim(jobId, owner)) {
+            LOG.debug("CIC job {} is collected by another node", jobId);
+            return;
+        }
+
+        boolean done = false;
+        try {
+            ServiceCallResult result;
+            if (jobs.isExpired(job)) {
+                LOG.warn("CICJobCollectWork: job {} is too old, dropping it.", jobId);
+                result = new ServiceCallResult("{}", -1, "Job " + jobId + " expired before its results were collected");
+            } else {
+                result = pull(job);
+                if (!isFinal(result)) {
+                    LOG.info("CICJobCollectWork: no result yet for job {} (HTTP {}), will try again later.", jobId,
+                            result.getResponseCode());
+                    return;
+                }
+            }
+            result.setObjectKeysMapping(job.getObjectKeysMapping());
+            ServiceCallResult toApply = result;
+            // Throws if the commit fails: the job is then released, not removed
+            TransactionHelper.runInTransaction(() -> apply(job, toApply));
+            done = true;
+        } finally {
+            if (done) {
+                jobs.remove(jobId);
+            } else {
+                jobs.release(jobId, owner);
+            }
+        }
+    }
+
+    /*
+     * One status call, no polling: the resumer schedules the next collection
+     */
+    protected ServiceCallResult pull(CICJob job) {
+        try {
+            return Framework.getService(HylandKEService.class).getJobIdResult(job.getConfigName(), job.getJobId());
+        } catch (IOException e) {
+            return new ServiceCallResult("{}", -1, e.getMessage());
+        }
+    }
+
+    /*
+     * Done, or failed for good (the job does not exist, ...). Still processing (202), circuit open,
+     * throttled or server errors are worth another try.
+     */
+    protected boolean isFinal(ServiceCallResult result) {
+        int code = result.getResponseCode();
+        return code == 200 || (code >= 400 && code < 500 && code != 408 && code != 429);
+    }
+
+    protected void apply(CICJob job, ServiceCallResult result) {
+
+        AbstractCICEnrichmentOp op = instantiateOp(job.getOpClassName());
+        op.applyAsyncParams(new JSONObject(job.getParamsJson() == null ? "{}" : job.getParamsJson()));
+
+        repositoryName = job.getRepositoryName();
+        openSystemSession();
+        Map<String, DocumentModel> bySourceId = new LinkedHashMap<>();
+        for (String id : job.getDocIds()) {
+            DocumentRef ref = new IdRef(id);
+            if (session.exists(ref)) {
+                bySourceId.put(id, session.getDocument(ref));
+            } else {
+                LOG.warn("CICJobCollectWork: doc {} no longer exists, skipped", id);
+            }
+        }
+        if (!bySourceId.isEmpty()) {
+            op.applyJobResult(session, bySourceId, result);
+        }
+    }
+
+    protected AbstractCICEnrichmentOp instantiateOp(String opClassName) {
+        try {
+            Class<?> clazz = Class.forName(opClassName);
+            if (!AbstractCICEnrichmentOp.class.isAssignableFrom(clazz)) {
+                throw new NuxeoException("Class " + opClassName + " is not an AbstractCICEnrichmentOp subclass");
+            }
+            return (AbstractCICEnrichmentOp) clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new NuxeoException("Failed to instantiate CIC op " + opClassName, e);
+        }
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+}
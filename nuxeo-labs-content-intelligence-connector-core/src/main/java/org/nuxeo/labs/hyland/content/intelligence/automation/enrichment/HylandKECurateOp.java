@@ -25,7 +25,6 @@ import org.nuxeo.ecm.automation.core.annotations.Operation;
 import org.nuxeo.ecm.automation.core.annotations.OperationMethod;
 import org.nuxeo.ecm.automation.core.annotations.Param;
 import org.nuxeo.ecm.core.api.Blob;
-import org.nuxeo.ecm.core.api.Blobs;
 import org.nuxeo.ecm.core.api.NuxeoException;
 import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
 import org.nuxeo.labs.hyland.content.intelligence.service.datacuration.HylandDCService;
@@ -50,13 +49,13 @@ public class HylandKECurateOp {
     @OperationMethod
     public Blob run(Blob blob) {
 
-        ServiceCallResult result;
         try {
-            result = dcService.curate(configName, blob, jsonOptions);
+            ServiceCallResult result = dcService.curate(configName, blob, jsonOptions);
+            // Curated output can be big, avoid loading it in memory
+            return result.toJsonBlob();
         } catch (IOException e) {
             throw new NuxeoException(e);
         }
-        return Blobs.createJSONBlob(result.toJsonString());
     }
 
 }
@@ -0,0 +1,209 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntUnaryOperator;
+
+import org.nuxeo.runtime.api.Framework;
+
+/**
+ * Learns how long the CIC jobs take, to poll them when they are likely done instead of every
+ * <code>pullResultsSleepInterval</code>.
+ * <p>
+ * Latencies are kept per kind of job (service, actions, payload size bucket, see {@link #key(String, String, long)}),
+ * in a rolling window of the last {@value #WINDOW} jobs. Once a kind has {@value #MIN_SAMPLES} samples, its jobs
+ * are first polled at the 25th percentile of the latencies, then at short intervals widening by 50% at each attempt:
+ * starting at <code>targetExtraLatencyMS</code> (the extra latency accepted once a job is done), up to the fixed
+ * interval. Kinds without enough samples are polled at the fixed interval.
+ * <p>
+ * A job done at the first poll may have been done any time before: its latency is only an upper bound, and it is
+ * recorded at half of it. So the first poll keeps moving earlier while the jobs get faster, until it comes too early
+ * and the real latency is measured again.
+ * <p>
+ * The total time a job is polled is at least the same as with the fixed interval (<code>maxTries</code> x
+ * interval): see {@link #maxTries(IntUnaryOperator, int, int)}.
+ *
+ * @since 2025.18
+ */
+public class AdaptivePolling {
+
+    public static final String ENABLED_PARAM = "nuxeo.hyland.cic.poll.adaptive";
+
+    public static final String TARGET_EXTRA_LATENCY_PARAM = "nuxeo.hyland.cic.poll.adaptive.targetExtraLatencyMS";
+
+    public static final int DEFAULT_TARGET_EXTRA_LATENCY_MS = 1000;
+
+    public static final int WINDOW = 100;
+
+    public static final int MIN_SAMPLES = 5;
+
+    protected static final double WIDENING = 1.5;
+
+    protected static AdaptivePolling instance = null;
+
+    protected final boolean enabled;
+
+    protected final int targetExtraLatencyMS;
+
+    protected final Map<String, Window> latencies = new ConcurrentHashMap<>();
+
+    protected static class Window {
+
+        protected final long[] samples = new long[WINDOW];
+
+        protected int count = 0;
+
+        protected int next = 0;
+
+        protected synchronized void add(long value) {
+            samples[next] = value;
+            next = (next + 1) % WINDOW;
+            count = Math.min(count + 1, WINDOW);
+        }
+
+        protected synchronized long[] values() {
+            return Arrays.copyOf(samples, count);
+        }
+    }
+
+    public AdaptivePolling(boolean enabled, int targetExtraLatencyMS) {
+        this.enabled = enabled;
+        this.targetExtraLatencyMS = targetExtraLatencyMS > 0 ? targetExtraLatencyMS : DEFAULT_TARGET_EXTRA_LATENCY_MS;
+    }
+
+    /**
+     * @return the instance shared by all the services, configured with {@link #ENABLED_PARAM} and
+     *         {@link #TARGET_EXTRA_LATENCY_PARAM}
+     */
+    public static synchronized AdaptivePolling getInstance() {
+        if (instance == null) {
+            boolean enabled = Boolean.parseBoolean(Framework.getProperty(ENABLED_PARAM, "false"));
+            int target = Integer.parseInt(Framework.getProperty(TARGET_EXTRA_LATENCY_PARAM,
+                    String.valueOf(DEFAULT_TARGET_EXTRA_LATENCY_MS)));
+            instance = new AdaptivePolling(enabled, target);
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param service, "KE", "KD", ...
+     * @param action, the actions of the job, sorted, or any other description of what it does
+     * @param payloadBytes, the size of what the job processes, 0 if not relevant
+     * @return the kind of job
+     */
+    public static String key(String service, String action, long payloadBytes) {
+        return service + "|" + action + "|" + sizeBucket(payloadBytes);
+    }
+
+    /**
+     * @return "0" for an empty payload, else the next power of 2 of its size in KB ("1KB", "2KB", ... "1024KB", ...)
+     */
+    public static String sizeBucket(long bytes) {
+        if (bytes <= 0) {
+            return "0";
+        }
+        long kb = Math.max(1, (bytes + 1023) / 1024);
+        return Long.highestOneBit(kb) == kb ? kb + "KB" : (Long.highestOneBit(kb) << 1) + "KB";
+    }
+
+    /**
+     * Records the time a job of this kind took, from its submission to the poll that got its result
+     */
+    public void record(String key, Duration latency) {
+        record(key, latency, false);
+    }
+
+    /**
+     * Same as {@link #record(String, Duration)}.
+     *
+     * @param firstPoll, true if the result was got at the first poll: the job may have been done earlier
+     */
+    public void record(String key, Duration latency, boolean firstPoll) {
+        if (enabled) {
+            long value = latency.toMillis();
+            if (firstPoll) {
+                value = value / 2;
+            }
+            latencies.computeIfAbsent(key, k -> new Window()).add(value);
+        }
+    }
+
+    /**
+     * @return the 25th percentile of the latencies of this kind of jobs, null if there are not enough samples
+     */
+    public Long getExpectedLatencyMS(String key) {
+        Window window = latencies.get(key);
+        long[] values = window == null ? new long[0] : window.values();
+        if (values.length < MIN_SAMPLES) {
+            return null;
+        }
+        Arrays.sort(values);
+        return values[values.length / 4];
+    }
+
+    /**
+     * @param key, the kind of job
+     * @param fixedIntervalMS, the interval used when there are not enough samples, and the max. interval
+     * @return the delays between attempts, for {@link JobPollScheduler}
+     */
+    public IntUnaryOperator intervals(String key, int fixedIntervalMS) {
+
+        Long expected = enabled ? getExpectedLatencyMS(key) : null;
+        if (expected == null) {
+            return count -> count == 0 ? 0 : fixedIntervalMS;
+        }
+        int first = (int) Math.min(expected, Integer.MAX_VALUE);
+        int shortest = Math.min(targetExtraLatencyMS, fixedIntervalMS);
+        return count -> {
+            if (count == 0) {
+                return first;
+            }
+            double interval = shortest * Math.pow(WIDENING, count - 1);
+            return (int) Math.min(interval, fixedIntervalMS);
+        };
+    }
+
+    /**
+     * @return the number of attempts needed for <code>intervals</code> to poll at least as long as
+     *         <code>maxTries</code> attempts every <code>fixedIntervalMS</code>
+     */
+    public static int maxTries(IntUnaryOperator intervals, int maxTries, int fixedIntervalMS) {
+        long budget = (long) maxTries * fixedIntervalMS;
+        long total = 0;
+        int tries = 0;
+        // (Bounded, in case of 0 intervals)
+        while (tries < maxTries * 10) {
+            total += intervals.applyAsInt(tries);
+            tries++;
+            if (total >= budget) {
+                break;
+            }
+        }
+        return Math.max(tries, maxTries);
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.nuxeo.ecm.core.api.Blob;
+
+/**
+ * Sends the HTTP requests of a {@link ServiceCall}. The default transport, {@link HttpTransport}, uses the pooled
+ * <code>HttpClient</code>. Other transports (contributed to the <code>transports</code> extension point of
+ * <code>CICTransportService</code> and selected by the <code>&lt;http&gt;&lt;transport&gt;</code> of a configuration)
+ * can answer without any network, see {@link InMemoryTransport}.
+ * <p>
+ * Everything else (pool slots, rate limits, retries, circuit breakers, metrics, tracing, decoding of the response) is
+ * done by <code>ServiceCall</code>, whatever the transport.
+ * <p>
+ * Implementations must have a public no-arg constructor and be thread safe: one instance is shared by all the
+ * configurations using it.
+ *
+ * @since 2025.18
+ */
+public interface CICTransport {
+
+    /**
+     * Called once, after instantiation, with the <code>&lt;property&gt;</code> elements of the contribution
+     *
+     * @param properties
+     */
+    default void init(Map<String, String> properties) {
+    }
+
+    /**
+     * Sends the request. The body of the response must be received through <code>bodyHandler</code> (it decodes and
+     * spills big responses to disk).
+     *
+     * @param client, the client of the pool (a transport may ignore it)
+     * @param request
+     * @param bodyHandler
+     * @return the future response
+     */
+    CompletableFuture<HttpResponse<Blob>> sendAsync(HttpClient client, HttpRequest request,
+            BodyHandler<Blob> bodyHandler);
+
+    /**
+     * Called when the transport is unregistered
+     */
+    default void close() {
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import org.nuxeo.labs.hyland.content.intelligence.tracing.Span;
+
+/**
+ * Per-call options of a {@link ServiceCall}: the endpoint family (used to pick the timeouts), the deadline of the
+ * flow the call belongs to, whether the call can safely be sent twice (see {@link RetryPolicy}) and the span of the
+ * step of the flow making the call (the call is traced as a child span).
+ *
+ * @since 2025.18
+ */
+public class CallOptions {
+
+    public static final CallOptions DEFAULT = new CallOptions(EndpointFamily.OTHER, Deadline.NONE);
+
+    protected EndpointFamily family;
+
+    protected Deadline deadline;
+
+    // null => depends on the HTTP method
+    protected Boolean idempotent = null;
+
+    protected Span span = Span.NOOP;
+
+    protected String contentDigest = null;
+
+    public CallOptions(EndpointFamily family, Deadline deadline) {
+        this.family = family == null ? EndpointFamily.OTHER : family;
+        this.deadline = deadline == null ? Deadline.NONE : deadline;
+    }
+
+    public static CallOptions of(EndpointFamily family) {
+        return new CallOptions(family, Deadline.NONE);
+    }
+
+    public static CallOptions of(EndpointFamily family, Deadline deadline) {
+        return new CallOptions(family, deadline);
+    }
+
+    public EndpointFamily getFamily() {
+        return family;
+    }
+
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * @return the parent span of the call, {@link Span#NOOP} if the call is not traced
+     */
+    public Span getSpan() {
+        return span;
+    }
+
+    /**
+     * @param value
+     * @return a copy of these options, with the idempotent flag set
+     */
+    public CallOptions idempotent(boolean value) {
+        CallOptions options = copy();
+        options.idempotent = value;
+        return options;
+    }
+
+    /**
+     * @param parent
+     * @return a copy of these options, the call being traced as a child of <code>parent</code>
+     */
+    public CallOptions withSpan(Span parent) {
+        CallOptions options = copy();
+        options.span = parent == null ? Span.NOOP : parent;
+        return options;
+    }
+
+    /**
+     * @param algorithm, for example "MD5"
+     * @return a copy of these options, the digest of the uploaded file being computed while it is sent (see
+     *         {@link ServiceCallResult#getContentDigest()})
+     */
+    public CallOptions withContentDigest(String algorithm) {
+        CallOptions options = copy();
+        options.contentDigest = algorithm;
+        return options;
+    }
+
+    /**
+     * @return the algorithm of the digest of the uploaded file, null if not computed
+     */
+    public String getContentDigest() {
+        return contentDigest;
+    }
+
+    protected CallOptions copy() {
+        CallOptions options = new CallOptions(family, deadline);
+        options.idempotent = idempotent;
+        options.span = span;
+        options.contentDigest = contentDigest;
+        return options;
+    }
+
+    /**
+     * Unless explicitly set, GET, HEAD, PUT and DELETE are idempotent, POST is not.
+     *
+     * @param httpMethod
+     * @return true if the call can be sent again without side effect
+     */
+    public boolean isIdempotent(String httpMethod) {
+        if (idempotent != null) {
+            return idempotent;
+        }
+        return !"POST".equalsIgnoreCase(httpMethod) && !"PATCH".equalsIgnoreCase(httpMethod);
+    }
+
+    @Override
+    public String toString() {
+        return "CallOptions [family=" + family + ", deadline=" + deadline + ", idempotent=" + idempotent + "]";
+    }
+
+}
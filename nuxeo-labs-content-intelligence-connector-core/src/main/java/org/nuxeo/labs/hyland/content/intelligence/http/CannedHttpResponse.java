@@ -0,0 +1,151 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+import javax.net.ssl.SSLSession;
+
+import org.nuxeo.ecm.core.api.Blob;
+
+/**
+ * A response built without any network, by a {@link CICTransport} answering from fixtures or recordings. Its body is
+ * still received through the <code>BodyHandler</code> of the request, as a real one.
+ *
+ * @since 2025.18
+ */
+public class CannedHttpResponse implements HttpResponse<Blob> {
+
+    protected final HttpRequest request;
+
+    protected final int statusCode;
+
+    protected final HttpHeaders headers;
+
+    protected final Blob body;
+
+    protected CannedHttpResponse(HttpRequest request, int statusCode, HttpHeaders headers, Blob body) {
+        this.request = request;
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * @param request
+     * @param statusCode
+     * @param headers, can be null
+     * @param body, can be null
+     * @param bodyHandler
+     * @return the future response, completed once its body is received by <code>bodyHandler</code>
+     */
+    public static CompletableFuture<HttpResponse<Blob>> of(HttpRequest request, int statusCode,
+            Map<String, List<String>> headers, byte[] body, HttpResponse.BodyHandler<Blob> bodyHandler) {
+
+        HttpHeaders httpHeaders = HttpHeaders.of(headers == null ? Map.of() : headers, (name, value) -> true);
+        HttpResponse.ResponseInfo info = new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return statusCode;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return httpHeaders;
+            }
+
+            @Override
+            public Version version() {
+                return Version.HTTP_1_1;
+            }
+        };
+
+        HttpResponse.BodySubscriber<Blob> subscriber = bodyHandler.apply(info);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                // Everything is pushed at once
+            }
+
+            @Override
+            public void cancel() {
+                // Nothing to release
+            }
+        });
+        if (body != null && body.length > 0) {
+            subscriber.onNext(List.of(ByteBuffer.wrap(body)));
+        }
+        subscriber.onComplete();
+
+        return subscriber.getBody()
+                         .toCompletableFuture()
+                         .thenApply(blob -> new CannedHttpResponse(request, statusCode, httpHeaders, blob));
+    }
+
+    @Override
+    public int statusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public HttpRequest request() {
+        return request;
+    }
+
+    @Override
+    public Optional<HttpResponse<Blob>> previousResponse() {
+        return Optional.empty();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    @Override
+    public Blob body() {
+        return body;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return Optional.empty();
+    }
+
+    @Override
+    public URI uri() {
+        return request.uri();
+    }
+
+    @Override
+    public Version version() {
+        return Version.HTTP_1_1;
+    }
+
+}
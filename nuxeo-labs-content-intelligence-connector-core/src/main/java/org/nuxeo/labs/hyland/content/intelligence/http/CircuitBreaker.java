@@ -0,0 +1,155 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.time.Duration;
+
+/**
+ * Fails fast when an endpoint is degraded. One per configuration and {@link EndpointFamily}:
+ * <ul>
+ * <li><b>CLOSED</b>: calls go through. After <code>failureThreshold</code> consecutive failures (network errors,
+ * timeouts, 5xx, once the retries are exhausted), the circuit opens.</li>
+ * <li><b>OPEN</b>: calls are not sent, they immediately return a {@link ServiceCallResult#CIRCUIT_OPEN} result. After
+ * <code>openSeconds</code>, the circuit is half-open.</li>
+ * <li><b>HALF_OPEN</b>: a single call is sent to probe the endpoint (the others are still rejected). Success closes the
+ * circuit, failure opens it again.</li>
+ * </ul>
+ *
+ * @since 2025.18
+ */
+public class CircuitBreaker {
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+    public static final int DEFAULT_OPEN_SECONDS = 30;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    protected int failureThreshold;
+
+    protected long openNanos;
+
+    protected State state = State.CLOSED;
+
+    protected int failures = 0;
+
+    protected long openedAt;
+
+    protected boolean probeInFlight = false;
+
+    /**
+     * @param failureThreshold, consecutive failures opening the circuit. Must be > 0
+     * @param openSeconds, time before probing again. <= 0 means the default value
+     */
+    public CircuitBreaker(int failureThreshold, int openSeconds) {
+        this.failureThreshold = failureThreshold > 0 ? failureThreshold : DEFAULT_FAILURE_THRESHOLD;
+        openNanos = Duration.ofSeconds(openSeconds > 0 ? openSeconds : DEFAULT_OPEN_SECONDS).toNanos();
+    }
+
+    /**
+     * @return true if the call can be sent. If so, the caller must then call {@link #onSuccess()},
+     *         {@link #onFailure()} or {@link #onIgnored()}
+     */
+    public synchronized boolean tryAcquire() {
+
+        switch (state) {
+        case CLOSED:
+            return true;
+
+        case OPEN:
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = true;
+            return true;
+
+        default:
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+            return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        probeInFlight = false;
+    }
+
+    /**
+     * @return true if this failure opened the circuit
+     */
+    public synchronized boolean onFailure() {
+        probeInFlight = false;
+        failures += 1;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The call ended without telling anything about the endpoint (cancelled, deadline of the flow...)
+     */
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return the time before the circuit can be probed again, zero if it is not open
+     */
+    public synchronized Duration remainingOpenTime() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        long remaining = openNanos - (System.nanoTime() - openedAt);
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    /**
+     * @param result, the final result of a call (retries done)
+     * @return true if this result means the endpoint is degraded
+     */
+    public static boolean isFailure(ServiceCallResult result) {
+        int code = result.getResponseCode();
+        if (code == -1) {
+            // Our own budget is not the endpoint's fault
+            return !ServiceCall.DEADLINE_EXCEEDED.equals(result.getResponseMessage());
+        }
+        return code == 408 || code >= 500;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CircuitBreaker [state=" + state + ", failures=" + failures + ", failureThreshold=" + failureThreshold
+                + "]";
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.runtime.kv.KeyValueStore;
+
+/**
+ * Rate limiter shared by all the nodes of the cluster: calls are counted in the {@link KeyValueStore}, per time window
+ * of <code>periodSeconds</code> (fixed window). When the window is full, callers wait for the next one (plus a small
+ * random delay, so the nodes do not all retry at the same time).
+ * <p>
+ * Less smooth than the token bucket (all the permits can be used at the beginning of a window), but needs a single
+ * atomic increment per call.
+ *
+ * @since 2025.18
+ */
+public class ClusterRateLimiter implements RateLimiter {
+
+    protected KeyValueStore store;
+
+    protected String keyPrefix;
+
+    protected int permits;
+
+    protected long periodMS;
+
+    /**
+     * @param store
+     * @param key, unique for the configuration and endpoint family
+     * @param limit
+     */
+    public ClusterRateLimiter(KeyValueStore store, String key, RateLimit limit) {
+        this.store = store;
+        keyPrefix = key + ":";
+        permits = limit.getPermits();
+        periodMS = TimeUnit.SECONDS.toMillis(limit.getPeriodSeconds());
+    }
+
+    @Override
+    public CompletableFuture<Void> acquireAsync(Executor executor) {
+
+        CompletableFuture<Void> promise = new CompletableFuture<>();
+        tryAcquire(promise, executor);
+        return promise;
+    }
+
+    protected void tryAcquire(CompletableFuture<Void> promise, Executor executor) {
+
+        if (promise.isDone()) {
+            return;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            long window = now / periodMS;
+            String key = keyPrefix + window;
+            long count = store.addAndGet(key, 1);
+            if (count == 1) {
+                // Let the store cleanup old windows
+                store.setTTL(key, Math.max(2 * periodMS / 1000, 2));
+            }
+            if (count <= permits) {
+                promise.complete(null);
+                return;
+            }
+
+            long jitter = ThreadLocalRandom.current().nextLong(Math.min(periodMS / 10, 100) + 1);
+            long wait = (window + 1) * periodMS - now + jitter;
+            CompletableFuture.delayedExecutor(wait, TimeUnit.MILLISECONDS, executor)
+                             .execute(() -> tryAcquire(promise, executor));
+        } catch (RuntimeException e) {
+            promise.completeExceptionally(e);
+        }
+    }
+
+}
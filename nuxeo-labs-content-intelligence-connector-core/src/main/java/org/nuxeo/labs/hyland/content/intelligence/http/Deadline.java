@@ -0,0 +1,87 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.time.Duration;
+
+/**
+ * The time budget of a flow made of several calls (authenticate, presign, upload, process, poll, ...). Every call of
+ * the flow is given at most the remaining time, so the whole flow stops at its budget.
+ *
+ * @since 2025.18
+ */
+public class Deadline {
+
+    /** No budget, calls are only limited by their own timeouts */
+    public static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+    protected long expiresAtNanos;
+
+    protected Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * @param budget, null, zero or negative means no deadline
+     * @return a new deadline, starting now
+     */
+    public static Deadline in(Duration budget) {
+        if (budget == null || budget.isZero() || budget.isNegative()) {
+            return NONE;
+        }
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    public boolean isNone() {
+        return expiresAtNanos == Long.MAX_VALUE;
+    }
+
+    public boolean isExpired() {
+        return !isNone() && System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /**
+     * @return the remaining time (zero if expired), or null if there is no deadline
+     */
+    public Duration remaining() {
+        if (isNone()) {
+            return null;
+        }
+        long remaining = expiresAtNanos - System.nanoTime();
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    /**
+     * @param timeout
+     * @return the smallest of timeout and the remaining time
+     */
+    public Duration cap(Duration timeout) {
+        Duration remaining = remaining();
+        if (remaining == null) {
+            return timeout;
+        }
+        return timeout == null || remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    @Override
+    public String toString() {
+        return isNone() ? "Deadline [none]" : "Deadline [remaining=" + remaining() + "]";
+    }
+
+}
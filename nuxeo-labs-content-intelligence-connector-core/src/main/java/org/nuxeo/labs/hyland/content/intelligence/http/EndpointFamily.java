@@ -0,0 +1,65 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.util.Locale;
+
+/**
+ * The kind of CIC endpoint a call targets. Timeouts (and other per-call policies) can be tuned per family in the
+ * <code>&lt;http&gt;</code> element of a descriptor, using the lowercase name (<code>upload</code>, <code>poll</code>,
+ * ...).
+ *
+ * @since 2025.18
+ */
+public enum EndpointFamily {
+
+    /** Fetching an authentication token */
+    AUTH,
+
+    /** Getting presigned URL(s) */
+    PRESIGN,
+
+    /** Uploading a file to a presigned URL */
+    UPLOAD,
+
+    /** Starting a processing (enrichment, question, agent invocation, ...) */
+    PROCESS,
+
+    /** Polling for the result of a processing */
+    POLL,
+
+    /** Any other call */
+    OTHER;
+
+    /**
+     * @param name, case insensitive
+     * @return the family, or null if name does not match any
+     */
+    public static EndpointFamily fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.io.IOException;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends a file as the body of a request, in buffers mapped from a <code>FileChannel</code>: the bytes go from the page
+ * cache to the socket without being copied in a heap <code>byte[]</code>, as {@link BodyPublishers#ofFile(Path)} does.
+ * The file is mapped {@link #MAP_SIZE} bytes at a time, and sent in chunks of <code>chunkSize</code> bytes, as they are
+ * requested.
+ * <p>
+ * The length of the body is the size of the file when the publisher is created (presigned storage URLs reject chunked
+ * uploads). The file must not change before the request completes. Each subscription (a retried request) sends the
+ * file again.
+ *
+ * @since 2025.18
+ */
+public class FileChannelBodyPublisher implements BodyPublisher {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    public static final long MAP_SIZE = 16L * 1024 * 1024;
+
+    protected final Path path;
+
+    protected final long length;
+
+    protected final int chunkSize;
+
+    /**
+     * @throws IOException if the size of the file cannot be read (no such file...)
+     */
+    public FileChannelBodyPublisher(Path path) throws IOException {
+        this(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    public FileChannelBodyPublisher(Path path, int chunkSize) throws IOException {
+        this.path = path;
+        this.chunkSize = Math.max(chunkSize, 1);
+        length = Files.size(path);
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        subscriber.onSubscribe(new FileSubscription(subscriber));
+    }
+
+    /*
+     * Emits the chunks as they are requested. Only one thread at a time emits (request() may be called from onNext, or
+     * from another thread), the others leave their work to it.
+     */
+    protected class FileSubscription implements Flow.Subscription {
+
+        protected final Flow.Subscriber<? super ByteBuffer> subscriber;
+
+        protected final AtomicLong demand = new AtomicLong();
+
+        protected final AtomicInteger wip = new AtomicInteger();
+
+        protected volatile boolean done = false;
+
+        protected FileChannel channel;
+
+        protected MappedByteBuffer mapped;
+
+        protected long position = 0;
+
+        protected FileSubscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                done = true;
+                close();
+                subscriber.onError(new IllegalArgumentException("Non-positive request: " + n));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            drain();
+        }
+
+        protected void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!done && demand.get() > 0) {
+                    ByteBuffer chunk;
+                    try {
+                        chunk = next();
+                    } catch (IOException | RuntimeException e) {
+                        done = true;
+                        close();
+                        subscriber.onError(e);
+                        return;
+                    }
+                    if (chunk == null) {
+                        done = true;
+                        close();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(chunk);
+                }
+                if (done) {
+                    close();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /*
+         * The next chunk, null at the end of the file
+         */
+        protected ByteBuffer next() throws IOException {
+            if (position >= length) {
+                return null;
+            }
+            if (mapped == null || !mapped.hasRemaining()) {
+                if (channel == null) {
+                    channel = FileChannel.open(path, StandardOpenOption.READ);
+                }
+                mapped = channel.map(MapMode.READ_ONLY, position, Math.min(MAP_SIZE, length - position));
+            }
+            int size = Math.min(chunkSize, mapped.remaining());
+            ByteBuffer chunk = mapped.slice(mapped.position(), size);
+            mapped.position(mapped.position() + size);
+            position += size;
+            return chunk;
+        }
+
+        // The mapped buffers stay valid once the channel is closed
+        protected void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // Read only, nothing lost
+                }
+                channel = null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Wraps a shared <code>java.net.http.HttpClient</code>, so connections (and TLS sessions) are kept alive and reused
+ * between calls instead of paying a new TCP + TLS handshake for every request. HTTP/2 is negotiated (ALPN) when the
+ * server supports it, and requests are then multiplexed on a single connection.
+ * <p>
+ * The JDK client has no per-client limits, so:
+ * <ul>
+ * <li><code>maxConnections</code> is enforced as a max number of concurrent requests (which, for HTTP/1.1 servers, is
+ * the max number of open connections)</li>
+ * <li><code>idleTimeoutSeconds</code>: when the pool was not used for this duration, the client is shut down (closing
+ * its connections) and a new one is created at next call. This avoids reusing connections already dropped by a load
+ * balancer, so it should be lower than the server-side idle timeout.</li>
+ * </ul>
+ * Slots are handed out asynchronously (see {@link #acquireAsync()}): a caller waiting for a slot does not block a
+ * thread, so a single worker can have many requests queued or in flight.
+ *
+ * @since 2025.18
+ */
+public class HttpClientPool {
+
+    private static final Logger log = LogManager.getLogger(HttpClientPool.class);
+
+    protected static HttpClientPool defaultPool = null;
+
+    protected ServiceCallSettings settings;
+
+    protected int available;
+
+    protected Deque<CompletableFuture<HttpClient>> waiters = new ArrayDeque<>();
+
+    protected ExecutorService executor;
+
+    protected HttpClient client = null;
+
+    protected int inFlight = 0;
+
+    protected long lastActivity = 0;
+
+    protected boolean closed = false;
+
+    public HttpClientPool(ServiceCallSettings settings) {
+        this.settings = settings;
+        available = settings.getMaxConnections();
+
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "cic-http-" + settings.getName() + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @return the pool shared by all the {@link ServiceCall} not bound to a configuration
+     * @since 2025.18
+     */
+    public static synchronized HttpClientPool getDefault() {
+        if (defaultPool == null) {
+            defaultPool = new HttpClientPool(ServiceCallSettings.DEFAULT);
+        }
+        return defaultPool;
+    }
+
+    public ServiceCallSettings getSettings() {
+        return settings;
+    }
+
+    protected HttpClient newClient() {
+        return HttpClient.newBuilder()
+                         .version(settings.isHttp2() ? Version.HTTP_2 : Version.HTTP_1_1)
+                         .followRedirects(Redirect.NORMAL)
+                         .connectTimeout(Duration.ofSeconds(settings.getConnectTimeoutSeconds()))
+                         .executor(executor)
+                         .build();
+    }
+
+    /**
+     * @return the executor used by the client, and by the services to run their polling attempts
+     * @since 2025.18
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Returns a future completed with the client to use as soon as a slot is free (immediately if there is one). Every
+     * successful acquisition must be balanced by a call to {@link #release()}, once the response body has been fully
+     * read.
+     * <p>
+     * A caller that gives up before getting its slot just cancels the future.
+     *
+     * @return the shared client, when a slot is available
+     * @since 2025.18
+     */
+    public CompletableFuture<HttpClient> acquireAsync() {
+
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("HTTP client pool '" + settings.getName() + "' is closed."));
+            }
+            if (available > 0) {
+                available -= 1;
+                return CompletableFuture.completedFuture(nextClient());
+            }
+            CompletableFuture<HttpClient> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void release() {
+
+        CompletableFuture<HttpClient> next = null;
+        HttpClient nextClient = null;
+        synchronized (this) {
+            inFlight -= 1;
+            lastActivity = System.currentTimeMillis();
+
+            // Hand the slot over to the first waiter still interested in it
+            while ((next = waiters.poll()) != null && next.isDone()) {
+                // Cancelled
+            }
+            if (next == null || closed) {
+                available += 1;
+            } else {
+                nextClient = nextClient();
+            }
+        }
+
+        // Outside the lock, the waiter's continuation runs in this thread
+        if (next != null) {
+            if (nextClient != null) {
+                if (!next.complete(nextClient)) {
+                    // Cancelled in the meantime
+                    release();
+                }
+            } else {
+                next.completeExceptionally(
+                        new IllegalStateException("HTTP client pool '" + settings.getName() + "' is closed."));
+            }
+        }
+    }
+
+    protected synchronized HttpClient nextClient() {
+
+        if (closed) {
+            throw new IllegalStateException("HTTP client pool '" + settings.getName() + "' is closed.");
+        }
+
+        long now = System.currentTimeMillis();
+        if (client != null && inFlight == 0 && now - lastActivity > settings.getIdleTimeoutSeconds() * 1000L) {
+            log.debug("HTTP client pool '{}' was idle for more than {}s, recycling its connections.",
+                    settings.getName(), settings.getIdleTimeoutSeconds());
+            client.shutdown();
+            client = null;
+        }
+
+        if (client == null) {
+            client = newClient();
+        }
+
+        inFlight += 1;
+        lastActivity = now;
+
+        return client;
+    }
+
+    /**
+     * Shuts down the client. In-flight requests are allowed to complete, queued ones fail.
+     *
+     * @since 2025.18
+     */
+    public void close() {
+
+        Deque<CompletableFuture<HttpClient>> pending;
+        synchronized (this) {
+            closed = true;
+            if (client != null) {
+                client.shutdown();
+                client = null;
+            }
+            pending = waiters;
+            waiters = new ArrayDeque<>();
+        }
+        pending.forEach(w -> w.completeExceptionally(
+                new IllegalStateException("HTTP client pool '" + settings.getName() + "' is closed.")));
+        // The executor is not shut down: in-flight requests still use it. Its (daemon) threads end when idle.
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.util.concurrent.CompletableFuture;
+
+import org.nuxeo.ecm.core.api.Blob;
+
+/**
+ * The default {@link CICTransport}: sends the requests over the network, with the pooled <code>HttpClient</code>.
+ *
+ * @since 2025.18
+ */
+public class HttpTransport implements CICTransport {
+
+    public static final String NAME = "http";
+
+    public static final HttpTransport INSTANCE = new HttpTransport();
+
+    @Override
+    public CompletableFuture<HttpResponse<Blob>> sendAsync(HttpClient client, HttpRequest request,
+            BodyHandler<Blob> bodyHandler) {
+        return client.sendAsync(request, bodyHandler);
+    }
+
+}
@@ -0,0 +1,359 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.nuxeo.ecm.core.api.Blob;
+
+/**
+ * A {@link CICTransport} answering from canned fixtures, with a simulated latency. No request leaves the server: used
+ * to benchmark the flows, or to run them without a CIC account.
+ * <p>
+ * A fixture matches a method and a path pattern (<code>*</code> matches within a path segment, <code>**</code> across
+ * segments; the host and the query are ignored), and gives the status, headers and body of the response. Fixtures are
+ * tried in their order: a fixture limited to a number of <code>times</code> is skipped once used up, so a sequence
+ * (like "202 twice, then 200") is a list of fixtures for the same path. A request matching no fixture gets a 404.
+ * <p>
+ * Properties:
+ * <ul>
+ * <li><code>fixtures</code>: comma-separated list of fixture files. A file is a JSON array of fixtures, or one fixture
+ * per line. For example:
+ * <code>{"method": "GET", "path": "/content/process/&#42;/results", "status": 200, "body": {...}, "times": 1}</code>.
+ * A fixture can also have <code>headers</code> (a JSON object), its own <code>latencyMS</code>, and a binary body in
+ * <code>bodyBase64</code>.</li>
+ * <li><code>latencyMS</code>: the default latency of a response (default 0)</li>
+ * <li><code>jitterMS</code>: a random delay, up to this value, added to the latency (default 0)</li>
+ * </ul>
+ * The request body is read (so uploads take the time to read the file) and discarded.
+ *
+ * @since 2025.18
+ */
+public class InMemoryTransport implements CICTransport {
+
+    private static final Logger log = LogManager.getLogger(InMemoryTransport.class);
+
+    public static final String FIXTURES_PROPERTY = "fixtures";
+
+    public static final String LATENCY_PROPERTY = "latencyMS";
+
+    public static final String JITTER_PROPERTY = "jitterMS";
+
+    protected final List<Fixture> fixtures = new CopyOnWriteArrayList<>();
+
+    protected volatile long latencyMS = 0;
+
+    protected volatile long jitterMS = 0;
+
+    @Override
+    public void init(Map<String, String> properties) {
+
+        latencyMS = Long.parseLong(properties.getOrDefault(LATENCY_PROPERTY, "0").trim());
+        jitterMS = Long.parseLong(properties.getOrDefault(JITTER_PROPERTY, "0").trim());
+        String files = properties.get(FIXTURES_PROPERTY);
+        if (StringUtils.isNotBlank(files)) {
+            for (String file : StringUtils.split(files, ',')) {
+                try {
+                    loadFixtures(Path.of(file.trim()));
+                } catch (IOException e) {
+                    log.error("Cannot load the fixtures of {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the fixtures of a file: a JSON array, or one JSON object per line.
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void loadFixtures(Path file) throws IOException {
+
+        String content = Files.readString(file, StandardCharsets.UTF_8).trim();
+        List<Fixture> loaded = new ArrayList<>();
+        if (content.startsWith("[")) {
+            JSONArray array = new JSONArray(content);
+            for (int i = 0; i < array.length(); i++) {
+                loaded.add(Fixture.fromJson(array.getJSONObject(i)));
+            }
+        } else {
+            for (String line : content.split("\\R")) {
+                if (StringUtils.isNotBlank(line)) {
+                    loaded.add(Fixture.fromJson(new JSONObject(line)));
+                }
+            }
+        }
+        fixtures.addAll(loaded);
+        log.info("{} fixture(s) loaded from {}", loaded.size(), file);
+    }
+
+    public InMemoryTransport addFixture(Fixture fixture) {
+        fixtures.add(fixture);
+        return this;
+    }
+
+    public void clearFixtures() {
+        fixtures.clear();
+    }
+
+    public void setLatency(long latencyMS, long jitterMS) {
+        this.latencyMS = latencyMS;
+        this.jitterMS = jitterMS;
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse<Blob>> sendAsync(HttpClient client, HttpRequest request,
+            BodyHandler<Blob> bodyHandler) {
+
+        String path = request.uri().getPath();
+        Fixture fixture = fixtures.stream().filter(f -> f.matches(request.method(), path)).findFirst().orElse(null);
+
+        long delay = fixture != null && fixture.latencyMS >= 0 ? fixture.latencyMS : latencyMS;
+        if (jitterMS > 0) {
+            delay += ThreadLocalRandom.current().nextLong(jitterMS + 1);
+        }
+
+        return drain(request).thenComposeAsync(bytes -> {
+            if (fixture == null) {
+                log.warn("No fixture for {} {}, returning a 404", request.method(), path);
+                return CannedHttpResponse.of(request, 404, null, null, bodyHandler);
+            }
+            return CannedHttpResponse.of(request, fixture.status, fixture.headers, fixture.body, bodyHandler);
+        }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Reads the body of the request and discards it
+     *
+     * @param request
+     * @return the future number of bytes read
+     */
+    protected static CompletableFuture<Long> drain(HttpRequest request) {
+
+        Optional<BodyPublisher> publisher = request.bodyPublisher();
+        if (publisher.isEmpty()) {
+            return CompletableFuture.completedFuture(0L);
+        }
+
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        publisher.get().subscribe(new Flow.Subscriber<ByteBuffer>() {
+
+            long count;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                count += item.remaining();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(count);
+            }
+        });
+        return done;
+    }
+
+    /**
+     * A canned response
+     */
+    public static class Fixture {
+
+        protected final String method;
+
+        protected final String path;
+
+        protected final Pattern pattern;
+
+        protected final int status;
+
+        protected final byte[] body;
+
+        protected final Map<String, List<String>> headers = new HashMap<>();
+
+        protected long latencyMS = -1;
+
+        // Set by times()
+        protected boolean limited = false;
+
+        protected final AtomicInteger remaining = new AtomicInteger();
+
+        protected final AtomicInteger hits = new AtomicInteger();
+
+        /**
+         * @param method, null or "*" for any method
+         * @param path, pattern of the path (<code>*</code> within a segment, <code>**</code> across segments)
+         * @param status
+         * @param body, can be null
+         */
+        public Fixture(String method, String path, int status, String body) {
+            this(method, path, status, body == null ? null : body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @param method, null or "*" for any method
+         * @param path, pattern of the path
+         * @param status
+         * @param body, can be null
+         */
+        public Fixture(String method, String path, int status, byte[] body) {
+            this.method = StringUtils.isBlank(method) ? "*" : method.toUpperCase();
+            this.path = path;
+            pattern = toPattern(path);
+            this.status = status;
+            this.body = body;
+            headers.put("Content-Type", List.of("application/json"));
+        }
+
+        public static Fixture fromJson(JSONObject json) {
+
+            Object body = json.opt("body");
+            byte[] bytes;
+            if (json.has("bodyBase64")) {
+                bytes = Base64.getDecoder().decode(json.getString("bodyBase64"));
+            } else {
+                bytes = body == null || body == JSONObject.NULL ? null
+                        : body.toString().getBytes(StandardCharsets.UTF_8);
+            }
+            Fixture fixture = new Fixture(json.optString("method", "*"), json.getString("path"),
+                    json.optInt("status", 200), bytes);
+            JSONObject headers = json.optJSONObject("headers");
+            if (headers != null) {
+                for (String name : headers.keySet()) {
+                    fixture.withHeader(name, headers.getString(name));
+                }
+            }
+            if (json.has("latencyMS")) {
+                fixture.withLatency(json.getLong("latencyMS"));
+            }
+            if (json.has("times")) {
+                fixture.times(json.getInt("times"));
+            }
+            return fixture;
+        }
+
+        protected static Pattern toPattern(String glob) {
+
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < glob.length(); i++) {
+                char c = glob.charAt(i);
+                if (c == '*') {
+                    boolean any = i + 1 < glob.length() && glob.charAt(i + 1) == '*';
+                    regex.append(any ? ".*" : "[^/]*");
+                    i += any ? 1 : 0;
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            return Pattern.compile(regex.toString());
+        }
+
+        public Fixture withHeader(String name, String value) {
+            // Header names are case insensitive
+            headers.keySet().removeIf(name::equalsIgnoreCase);
+            headers.put(name, List.of(value));
+            return this;
+        }
+
+        /**
+         * @param value, the latency of this fixture, instead of the default one of the transport
+         */
+        public Fixture withLatency(long value) {
+            latencyMS = value;
+            return this;
+        }
+
+        /**
+         * @param count, the fixture is used this number of times only
+         */
+        public Fixture times(int count) {
+            limited = true;
+            remaining.set(count);
+            return this;
+        }
+
+        /**
+         * @return the number of requests this fixture answered
+         */
+        public int getHits() {
+            return hits.get();
+        }
+
+        /*
+         * A limited fixture is used up when it matches
+         */
+        protected boolean matches(String requestMethod, String requestPath) {
+
+            if (!"*".equals(method) && !method.equalsIgnoreCase(requestMethod)) {
+                return false;
+            }
+            if (!pattern.matcher(requestPath).matches()) {
+                return false;
+            }
+            if (limited && remaining.getAndUpdate(n -> n > 0 ? n - 1 : n) <= 0) {
+                return false;
+            }
+            hits.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "Fixture [method=" + method + ", path=" + path + ", status=" + status + "]";
+        }
+    }
+
+}
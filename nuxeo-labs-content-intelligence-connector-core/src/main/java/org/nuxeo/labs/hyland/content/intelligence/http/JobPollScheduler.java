@@ -0,0 +1,305 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.time.Duration;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.nuxeo.runtime.api.Framework;
+
+/**
+ * Polls all the pending CIC jobs (KE results, KD answers, DC results, ...) from a small shared pool of threads. No
+ * thread is held while a job waits for its next attempt.
+ * <ul>
+ * <li>Fairness: at most <code>maxConcurrent</code> attempts run at the same time. Jobs due for an attempt beyond that
+ * wait in a queue, the one due for the longest time first, so a burst of jobs does not starve the others.</li>
+ * <li>Deadlines: a job stops when its deadline cannot fit another interval, with its last result, instead of waiting
+ * for an attempt that would fail anyway.</li>
+ * </ul>
+ * Cancelling the future returned by {@link #poll(String, IntFunction, BiPredicate, int, int, Deadline) poll} stops
+ * the polling of the job.
+ *
+ * @since 2025.18
+ */
+public class JobPollScheduler {
+
+    private static final Logger log = LogManager.getLogger(JobPollScheduler.class);
+
+    public static final String THREADS_PARAM = "nuxeo.hyland.cic.poll.threads";
+
+    public static final int DEFAULT_THREADS = 2;
+
+    public static final String MAX_CONCURRENT_PARAM = "nuxeo.hyland.cic.poll.maxConcurrent";
+
+    public static final int DEFAULT_MAX_CONCURRENT = 32;
+
+    protected static JobPollScheduler instance = null;
+
+    protected final ScheduledExecutorService timer;
+
+    protected final int maxConcurrent;
+
+    // Jobs due for an attempt, waiting for a slot
+    protected final PriorityQueue<PollJob<?>> due = new PriorityQueue<>();
+
+    protected int running = 0;
+
+    protected final AtomicInteger pending = new AtomicInteger();
+
+    protected final AtomicLong sequence = new AtomicLong();
+
+    protected class PollJob<T> implements Comparable<PollJob<?>> {
+
+        protected final String name;
+
+        protected final CompletableFuture<T> promise = new CompletableFuture<>();
+
+        protected final IntFunction<CompletableFuture<T>> attempt;
+
+        protected final BiPredicate<Integer, T> isDone;
+
+        protected final int maxTries;
+
+        // Attempts done => delay before the next one
+        protected final IntUnaryOperator intervalsMS;
+
+        protected final Deadline deadline;
+
+        protected int count = 0;
+
+        protected long dueSince;
+
+        protected long order;
+
+        protected PollJob(String name, IntFunction<CompletableFuture<T>> attempt, BiPredicate<Integer, T> isDone,
+                int maxTries, IntUnaryOperator intervalsMS, Deadline deadline) {
+            this.name = name;
+            this.attempt = attempt;
+            this.isDone = isDone;
+            this.maxTries = maxTries;
+            this.intervalsMS = intervalsMS;
+            this.deadline = deadline == null ? Deadline.NONE : deadline;
+        }
+
+        @Override
+        public int compareTo(PollJob<?> other) {
+            int result = Long.compare(dueSince, other.dueSince);
+            return result != 0 ? result : Long.compare(order, other.order);
+        }
+
+        protected void run() {
+
+            if (promise.isDone()) {
+                // Cancelled while waiting for a thread
+                finish();
+                return;
+            }
+            count++;
+            CompletableFuture<T> oneAttempt;
+            try {
+                oneAttempt = attempt.apply(count);
+            } catch (RuntimeException e) {
+                finish();
+                promise.completeExceptionally(e);
+                return;
+            }
+            oneAttempt.whenComplete((result, error) -> {
+                finish();
+                if (error != null) {
+                    promise.completeExceptionally(error);
+                    return;
+                }
+                try {
+                    next(result);
+                } catch (RuntimeException e) {
+                    promise.completeExceptionally(e);
+                }
+            });
+        }
+
+        protected void next(T result) {
+
+            if (promise.isDone()) {
+                return;
+            }
+            if (isDone.test(count, result) || count >= maxTries) {
+                promise.complete(result);
+                return;
+            }
+            int intervalMS = Math.max(intervalsMS.applyAsInt(count), 0);
+            Duration remaining = deadline.remaining();
+            if (remaining != null && remaining.toMillis() < intervalMS) {
+                log.warn("{}: deadline reached after {} attempt(s), giving up.", name, count);
+                promise.complete(result);
+                return;
+            }
+            timer.schedule(() -> makeDue(this), intervalMS, TimeUnit.MILLISECONDS);
+        }
+
+        protected void start() {
+            int initialDelayMS = Math.max(intervalsMS.applyAsInt(0), 0);
+            Duration remaining = deadline.remaining();
+            if (remaining != null && remaining.toMillis() < initialDelayMS) {
+                // At least one attempt
+                initialDelayMS = (int) remaining.toMillis();
+            }
+            if (initialDelayMS == 0) {
+                makeDue(this);
+            } else {
+                timer.schedule(() -> makeDue(this), initialDelayMS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * @param threads, threads starting the attempts (the calls themselves are asynchronous)
+     * @param maxConcurrent, max. number of attempts running at the same time
+     */
+    public JobPollScheduler(int threads, int maxConcurrent) {
+        this.maxConcurrent = Math.max(maxConcurrent, 1);
+        AtomicInteger count = new AtomicInteger();
+        timer = Executors.newScheduledThreadPool(Math.max(threads, 1), r -> {
+            Thread t = new Thread(r, "cic-poll-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @return the scheduler shared by all the services, configured with {@link #THREADS_PARAM} and
+     *         {@link #MAX_CONCURRENT_PARAM}
+     */
+    public static synchronized JobPollScheduler getInstance() {
+        if (instance == null) {
+            int threads = Integer.parseInt(Framework.getProperty(THREADS_PARAM, String.valueOf(DEFAULT_THREADS)));
+            int maxConcurrent = Integer.parseInt(
+                    Framework.getProperty(MAX_CONCURRENT_PARAM, String.valueOf(DEFAULT_MAX_CONCURRENT)));
+            instance = new JobPollScheduler(threads, maxConcurrent);
+        }
+        return instance;
+    }
+
+    /**
+     * Calls <code>attempt</code> (with the attempt number, starting at 1) until <code>isDone</code> returns true,
+     * <code>maxTries</code> is reached or the deadline cannot fit another interval, waiting <code>intervalMS</code>
+     * between attempts. The future is completed with the last result.
+     *
+     * @param name, for logs
+     * @param attempt
+     * @param isDone, receives the attempt number and its result
+     * @param maxTries
+     * @param intervalMS
+     * @param deadline, the deadline of the job
+     * @return the last result
+     */
+    public <T> CompletableFuture<T> poll(String name, IntFunction<CompletableFuture<T>> attempt,
+            BiPredicate<Integer, T> isDone, int maxTries, int intervalMS, Deadline deadline) {
+
+        return poll(name, attempt, isDone, maxTries, count -> count == 0 ? 0 : intervalMS, deadline);
+    }
+
+    /**
+     * Same as {@link #poll(String, IntFunction, BiPredicate, int, int, Deadline)}, with variable intervals (see
+     * {@link AdaptivePolling}).
+     *
+     * @param intervalsMS, receives the number of attempts done (0 for the first one), returns the delay before the
+     *            next attempt
+     */
+    public <T> CompletableFuture<T> poll(String name, IntFunction<CompletableFuture<T>> attempt,
+            BiPredicate<Integer, T> isDone, int maxTries, IntUnaryOperator intervalsMS, Deadline deadline) {
+
+        PollJob<T> job = new PollJob<>(name, attempt, isDone, maxTries, intervalsMS, deadline);
+        pending.incrementAndGet();
+        job.promise.whenComplete((r, t) -> {
+            pending.decrementAndGet();
+            // Cancelled while waiting for a slot
+            synchronized (this) {
+                due.remove(job);
+            }
+        });
+        job.start();
+
+        return job.promise;
+    }
+
+    protected synchronized void makeDue(PollJob<?> job) {
+        if (job.promise.isDone()) {
+            return;
+        }
+        job.dueSince = System.nanoTime();
+        job.order = sequence.incrementAndGet();
+        due.add(job);
+        dispatch();
+    }
+
+    protected synchronized void dispatch() {
+        while (running < maxConcurrent && !due.isEmpty()) {
+            PollJob<?> job = due.poll();
+            if (job.promise.isDone()) {
+                continue;
+            }
+            running++;
+            try {
+                timer.execute(job::run);
+            } catch (RuntimeException e) {
+                running--;
+                job.promise.completeExceptionally(e);
+            }
+        }
+    }
+
+    // An attempt is done: its slot goes to the next due job
+    protected synchronized void finish() {
+        running--;
+        dispatch();
+    }
+
+    /**
+     * @return the number of jobs being polled
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * @return the number of attempts running
+     */
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    /**
+     * @return the number of jobs due for an attempt, waiting for a slot
+     */
+    public synchronized int getWaitingCount() {
+        return due.size();
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the bytes sent by a <code>BodyPublisher</code>, and how long it took. The counters are reset at each
+ * subscription (a retried request sends the body again).
+ * <p>
+ * Optionally, it also computes the digest of the bytes sent (see {@link #getDigest()}), so a file is hashed while it
+ * uploads, without reading it twice.
+ *
+ * @since 2025.18
+ */
+public class MeteredBodyPublisher implements BodyPublisher {
+
+    protected final BodyPublisher delegate;
+
+    protected final AtomicLong bytes = new AtomicLong();
+
+    protected volatile long startNanos = 0;
+
+    protected volatile long endNanos = 0;
+
+    protected final String digestAlgorithm;
+
+    protected volatile MessageDigest digest = null;
+
+    protected volatile String digestHex = null;
+
+    public MeteredBodyPublisher(BodyPublisher delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * @param digestAlgorithm, for example "MD5", null to not compute the digest
+     */
+    public MeteredBodyPublisher(BodyPublisher delegate, String digestAlgorithm) {
+        this.delegate = delegate;
+        this.digestAlgorithm = digestAlgorithm;
+        if (digestAlgorithm != null) {
+            // Fails now if unknown
+            newDigest();
+        }
+    }
+
+    protected MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(digestAlgorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unknown digest algorithm: " + digestAlgorithm, e);
+        }
+    }
+
+    @Override
+    public long contentLength() {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+
+        bytes.set(0);
+        endNanos = 0;
+        startNanos = System.nanoTime();
+        digest = digestAlgorithm == null ? null : newDigest();
+        digestHex = null;
+
+        delegate.subscribe(new Flow.Subscriber<ByteBuffer>() {
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                bytes.addAndGet(item.remaining());
+                MessageDigest md = digest;
+                if (md != null) {
+                    md.update(item.duplicate());
+                }
+                subscriber.onNext(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                endNanos = System.nanoTime();
+                MessageDigest md = digest;
+                if (md != null) {
+                    digestHex = HexFormat.of().formatHex(md.digest());
+                }
+                subscriber.onComplete();
+            }
+        });
+    }
+
+    /**
+     * @return the number of bytes sent by the last subscription
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * @return how long the last subscription took to send the whole body, null if it did not complete
+     */
+    public Duration getDuration() {
+        long end = endNanos;
+        return end == 0 ? null : Duration.ofNanos(end - startNanos);
+    }
+
+    /**
+     * @return the digest (hex) of the bytes sent by the last subscription, null if it did not complete, or if no
+     *         digest algorithm was given
+     */
+    public String getDigest() {
+        return digestHex;
+    }
+
+}
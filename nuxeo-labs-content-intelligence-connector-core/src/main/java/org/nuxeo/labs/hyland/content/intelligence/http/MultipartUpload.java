@@ -0,0 +1,271 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Uploads a big file in parts, in parallel, to the presigned URLs of a multipart upload (S3 style: one presigned URL
+ * per part, then a presigned URL completing the upload).
+ * <p>
+ * Every part is a PUT of its range of the file, retried on its own according to the {@link RetryPolicy} of the
+ * <code>ServiceCall</code>. At most <code>concurrency</code> parts are sent at the same time. The ETag of every
+ * uploaded part is kept, so if a part still fails, calling {@link #uploadAsync()} again only sends the missing parts
+ * ({@link #uploadAndCompleteAsync(String)} does it once).
+ *
+ * @since 2025.18
+ */
+public class MultipartUpload {
+
+    private static final Logger log = LogManager.getLogger(MultipartUpload.class);
+
+    protected final ServiceCall serviceCall;
+
+    protected final File file;
+
+    protected final String contentType;
+
+    protected final long partSize;
+
+    protected final int concurrency;
+
+    protected final List<String> partUrls;
+
+    protected final CallOptions options;
+
+    // partNumber (starting at 1) => ETag
+    protected final Map<Integer, String> etags = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param serviceCall
+     * @param file
+     * @param contentType
+     * @param partSize, size of every part but the last one
+     * @param concurrency, max. number of parts sent at the same time
+     * @param partUrls, the presigned URL of every part, in order. Must match {@link #partCount(long, long)}
+     * @param options
+     */
+    public MultipartUpload(ServiceCall serviceCall, File file, String contentType, long partSize, int concurrency,
+            List<String> partUrls, CallOptions options) {
+        if (partUrls.size() != partCount(file.length(), partSize)) {
+            throw new IllegalArgumentException("Expected " + partCount(file.length(), partSize) + " part URLs, got "
+                    + partUrls.size());
+        }
+        this.serviceCall = serviceCall;
+        this.file = file;
+        this.contentType = contentType;
+        this.partSize = partSize;
+        this.concurrency = Math.max(concurrency, 1);
+        this.partUrls = List.copyOf(partUrls);
+        this.options = options == null ? CallOptions.of(EndpointFamily.UPLOAD) : options;
+    }
+
+    public static int partCount(long fileLength, long partSize) {
+        return (int) Math.max(1, (fileLength + partSize - 1) / partSize);
+    }
+
+    /**
+     * Sends the parts not uploaded yet.
+     *
+     * @return a successful result (with the upload stats of the whole file) once all the parts are uploaded, else the
+     *         result of the first part that failed
+     */
+    public CompletableFuture<ServiceCallResult> uploadAsync() {
+
+        ConcurrentLinkedQueue<Integer> todo = new ConcurrentLinkedQueue<>();
+        for (int partNumber = 1; partNumber <= partUrls.size(); partNumber++) {
+            if (!etags.containsKey(partNumber)) {
+                todo.add(partNumber);
+            }
+        }
+
+        AtomicReference<ServiceCallResult> failure = new AtomicReference<>();
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(concurrency, todo.size()); i++) {
+            workers.add(nextPart(todo, failure));
+        }
+
+        return CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).thenApply(v -> {
+            if (failure.get() != null) {
+                return failure.get();
+            }
+            ServiceCallResult result = new ServiceCallResult("{}", 200, "OK");
+            result.setUploadStats(file.length(), Duration.ofNanos(System.nanoTime() - start));
+            return result;
+        });
+    }
+
+    protected CompletableFuture<Void> nextPart(ConcurrentLinkedQueue<Integer> todo,
+            AtomicReference<ServiceCallResult> failure) {
+
+        Integer partNumber = failure.get() == null ? todo.poll() : null;
+        if (partNumber == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long offset = (partNumber - 1) * partSize;
+        long length = Math.min(partSize, file.length() - offset);
+        BodyPublisher publisher = BodyPublishers.fromPublisher(
+                BodyPublishers.ofInputStream(() -> openRange(offset, length)), length);
+
+        return serviceCall.sendAsync("PUT", partUrls.get(partNumber - 1), Map.of("Content-Type", contentType),
+                publisher, options).thenCompose(result -> {
+                    String etag = result.getETag();
+                    if (result.callWasSuccesful() && etag != null) {
+                        etags.put(partNumber, etag);
+                        return nextPart(todo, failure);
+                    }
+                    if (result.callWasSuccesful()) {
+                        result = new ServiceCallResult("{}", -1, "No ETag returned for part " + partNumber);
+                    }
+                    log.warn("Upload of part {}/{} of {} failed: {} {}", partNumber, partUrls.size(), file.getName(),
+                            result.getResponseCode(), result.getResponseMessage());
+                    failure.compareAndSet(null, result);
+                    return CompletableFuture.completedFuture(null);
+                });
+    }
+
+    protected InputStream openRange(long offset, long length) {
+        try {
+            return new FileRangeInputStream(FileChannel.open(file.toPath(), StandardOpenOption.READ), offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the ETag of every uploaded part, by part number
+     */
+    public Map<Integer, String> getETags() {
+        return etags;
+    }
+
+    public boolean isComplete() {
+        return etags.size() == partUrls.size();
+    }
+
+    /**
+     * @return the body of the <code>CompleteMultipartUpload</code> request
+     */
+    public String getCompleteMultipartUploadXml() {
+        StringBuilder xml = new StringBuilder("<CompleteMultipartUpload>");
+        etags.forEach((partNumber, etag) -> xml.append("<Part><PartNumber>")
+                                                .append(partNumber)
+                                                .append("</PartNumber><ETag>")
+                                                .append(etag.replace("&", "&amp;")
+                                                            .replace("<", "&lt;")
+                                                            .replace(">", "&gt;"))
+                                                .append("</ETag></Part>"));
+        return xml.append("</CompleteMultipartUpload>").toString();
+    }
+
+    /**
+     * Uploads the missing parts, then completes the upload.
+     *
+     * @param completeUrl, the presigned URL completing the upload
+     * @return the result of the completion, or of the first part that failed
+     */
+    public CompletableFuture<ServiceCallResult> uploadAndCompleteAsync(String completeUrl) {
+
+        return uploadAsync().thenCompose(uploaded -> {
+            if (uploaded.callFailed() && !uploaded.circuitWasOpen() && !options.getDeadline().isExpired()) {
+                // Resume once: the parts already uploaded are not sent again
+                log.warn("Resuming the upload of {}, {}/{} parts uploaded.", file.getName(), etags.size(),
+                        partUrls.size());
+                return uploadAsync();
+            }
+            return CompletableFuture.completedFuture(uploaded);
+        }).thenCompose(uploaded -> {
+            if (uploaded.callFailed()) {
+                return CompletableFuture.completedFuture(uploaded);
+            }
+            return serviceCall.postAsync(completeUrl, Map.of("Content-Type", "application/xml"),
+                    getCompleteMultipartUploadXml(), options.idempotent(true)).thenApply(completed -> {
+                        if (completed.callWasSuccesful()) {
+                            completed.setResponse("{}");
+                            completed.setUploadStats(uploaded.getUploadedBytes(), uploaded.getUploadDuration());
+                        }
+                        return completed;
+                    });
+        });
+    }
+
+    /*
+     * Reads a range of a file with positional reads (no shared position between the parts)
+     */
+    protected static class FileRangeInputStream extends InputStream {
+
+        protected final FileChannel channel;
+
+        protected long position;
+
+        protected final long end;
+
+        protected FileRangeInputStream(FileChannel channel, long offset, long length) {
+            this.channel = channel;
+            position = offset;
+            end = offset + length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int toRead = (int) Math.min(len, end - position);
+            int count = channel.read(ByteBuffer.wrap(b, off, toRead), position);
+            if (count > 0) {
+                position += count;
+            }
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,271 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+/**
+ * Keeps a few presigned upload URLs (and their object keys) ready, per content type, so an upload does not have to
+ * wait for its presign call.
+ * <p>
+ * For each content type, the pool holds up to a target number of URLs, refilled in the background after every
+ * {@link #take(String, Supplier) take}. The target follows the demand: it grows (up to <code>maxSize</code>) each
+ * time a caller finds no URL ready, and shrinks each time a URL expires unused. A URL is used only if it is still
+ * valid for a while: its expiration is the <code>X-Amz-Date</code> + <code>X-Amz-Expires</code> of the URL, if
+ * any, else <code>ttl</code> after it was fetched (the earliest of both).
+ * <p>
+ * When no URL is ready, or when the pool is disabled (<code>maxSize</code> is 0), the caller fetches one on demand.
+ *
+ * @since 2025.18
+ */
+public class PresignedUrlPool {
+
+    private static final Logger log = LogManager.getLogger(PresignedUrlPool.class);
+
+    public static final int DEFAULT_TTL_SECONDS = 300;
+
+    protected static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    protected record Presigned(String response, Instant expiration) {
+    }
+
+    protected static class Slot {
+
+        protected final Deque<Presigned> ready = new ArrayDeque<>();
+
+        protected int target = 0;
+
+        protected int pending = 0;
+    }
+
+    protected final int maxSize;
+
+    protected final Duration ttl;
+
+    // Minimum remaining validity of a URL handed out, so the upload has time to start
+    protected final Duration margin;
+
+    protected final Function<String, CompletableFuture<ServiceCallResult>> fetcher;
+
+    protected final Map<String, Slot> slots = new HashMap<>();
+
+    protected final AtomicLong hits = new AtomicLong();
+
+    protected final AtomicLong misses = new AtomicLong();
+
+    protected volatile boolean closed = false;
+
+    /**
+     * @param maxSize, max. number of URLs kept ready per content type, 0 disables the pool
+     * @param ttlSeconds, max. age of a URL, <= 0 means the default value
+     * @param fetcher, calls the presign endpoint for a content type (in the background)
+     */
+    public PresignedUrlPool(int maxSize, int ttlSeconds,
+            Function<String, CompletableFuture<ServiceCallResult>> fetcher) {
+        this.maxSize = Math.max(maxSize, 0);
+        ttl = Duration.ofSeconds(ttlSeconds > 0 ? ttlSeconds : DEFAULT_TTL_SECONDS);
+        margin = ttl.dividedBy(4).compareTo(Duration.ofMinutes(1)) < 0 ? ttl.dividedBy(4) : Duration.ofMinutes(1);
+        this.fetcher = fetcher;
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && !closed;
+    }
+
+    /**
+     * Returns the response of a presign call for this content type: a prefetched one if any, else the result of
+     * <code>onDemand</code>. Either way, the pool is then refilled in the background.
+     *
+     * @param contentType
+     * @param onDemand, calls the presign endpoint when no URL is ready
+     * @return the presign result
+     */
+    public CompletableFuture<ServiceCallResult> take(String contentType,
+            Supplier<CompletableFuture<ServiceCallResult>> onDemand) {
+
+        if (!isEnabled()) {
+            return onDemand.get();
+        }
+
+        Presigned presigned;
+        synchronized (this) {
+            Slot slot = slots.computeIfAbsent(contentType, k -> new Slot());
+            presigned = pollValid(slot);
+            if (presigned == null && slot.target < maxSize) {
+                // Demand is higher than what we keep ready
+                slot.target++;
+            }
+        }
+        refill(contentType);
+
+        if (presigned == null) {
+            misses.incrementAndGet();
+            return onDemand.get();
+        }
+        hits.incrementAndGet();
+        return CompletableFuture.completedFuture(new ServiceCallResult(presigned.response(), 200, "OK"));
+    }
+
+    // Called while holding the lock
+    protected Presigned pollValid(Slot slot) {
+
+        Instant limit = Instant.now().plus(margin);
+        Presigned presigned;
+        while ((presigned = slot.ready.pollFirst()) != null) {
+            if (presigned.expiration().isAfter(limit)) {
+                return presigned;
+            }
+            // Expired unused: we keep too many
+            slot.target = Math.max(1, slot.target - 1);
+        }
+        return null;
+    }
+
+    protected void refill(String contentType) {
+
+        int count;
+        synchronized (this) {
+            Slot slot = slots.get(contentType);
+            count = slot.target - slot.ready.size() - slot.pending;
+            if (count <= 0) {
+                return;
+            }
+            slot.pending += count;
+        }
+
+        for (int i = 0; i < count; i++) {
+            CompletableFuture<ServiceCallResult> fetched;
+            try {
+                fetched = fetcher.apply(contentType);
+            } catch (RuntimeException e) {
+                fetched = CompletableFuture.failedFuture(e);
+            }
+            fetched.whenComplete((result, t) -> {
+                Presigned presigned = null;
+                if (t == null && result.callWasSuccesful()) {
+                    String response = result.getResponse();
+                    presigned = new Presigned(response, expiration(response, Instant.now()));
+                } else {
+                    log.debug("Prefetching a presigned URL for {} failed: {}", contentType,
+                            t != null ? t.toString() : result.getResponseCode() + " " + result.getResponseMessage());
+                }
+                synchronized (this) {
+                    Slot slot = slots.get(contentType);
+                    slot.pending--;
+                    if (presigned != null && !closed) {
+                        slot.ready.addLast(presigned);
+                    }
+                }
+            });
+        }
+    }
+
+    /*
+     * The earliest of fetched + ttl and of the expiration of an S3 presigned URL (X-Amz-Date + X-Amz-Expires)
+     */
+    protected Instant expiration(String response, Instant fetched) {
+
+        Instant expiration = fetched.plus(ttl);
+        String url = new JSONObject(response).optString("presignedUrl", null);
+        if (StringUtils.isBlank(url)) {
+            return expiration;
+        }
+        String date = null;
+        long expires = -1;
+        String query = URI.create(url).getRawQuery();
+        for (String param : StringUtils.split(StringUtils.defaultString(query), '&')) {
+            if (param.startsWith("X-Amz-Date=")) {
+                date = param.substring("X-Amz-Date=".length());
+            } else if (param.startsWith("X-Amz-Expires=")) {
+                expires = NumberUtils.toLong(param.substring("X-Amz-Expires=".length()), -1);
+            }
+        }
+        if (date != null && expires > 0) {
+            try {
+                Instant signed = LocalDateTime.parse(date, AMZ_DATE).toInstant(ZoneOffset.UTC);
+                Instant urlExpiration = signed.plusSeconds(expires);
+                if (urlExpiration.isBefore(expiration)) {
+                    expiration = urlExpiration;
+                }
+            } catch (DateTimeParseException e) {
+                log.debug("Unexpected X-Amz-Date: {}", date);
+            }
+        }
+        return expiration;
+    }
+
+    /**
+     * @return the number of URLs ready for this content type
+     */
+    public synchronized int getReadyCount(String contentType) {
+        Slot slot = slots.get(contentType);
+        return slot == null ? 0 : slot.ready.size();
+    }
+
+    /**
+     * @return the number of URLs this pool tries to keep ready for this content type
+     */
+    public synchronized int getTargetSize(String contentType) {
+        Slot slot = slots.get(contentType);
+        return slot == null ? 0 : slot.target;
+    }
+
+    /**
+     * @return the number of takes served by a prefetched URL
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of takes that had to fetch a URL on demand
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Drops the URLs ready, and stops prefetching
+     */
+    public synchronized void close() {
+        closed = true;
+        slots.values().forEach(slot -> slot.ready.clear());
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+/**
+ * A client-side rate limit: at most <code>permits</code> calls every <code>periodSeconds</code>, for one
+ * {@link EndpointFamily} of a configuration. Unused permits accumulate up to <code>permits</code>, so a burst of that
+ * size is allowed after an idle period.
+ *
+ * @since 2025.18
+ */
+public class RateLimit {
+
+    protected int permits;
+
+    protected int periodSeconds;
+
+    /**
+     * @param permits, must be > 0
+     * @param periodSeconds, <= 0 means 1 second
+     */
+    public RateLimit(int permits, int periodSeconds) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be > 0");
+        }
+        this.permits = permits;
+        this.periodSeconds = periodSeconds > 0 ? periodSeconds : 1;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getPeriodSeconds() {
+        return periodSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return permits + "/" + periodSeconds + "s";
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Makes callers wait (without blocking a thread) before sending a request, so a configuration stays under its
+ * {@link RateLimit}.
+ *
+ * @since 2025.18
+ */
+public interface RateLimiter {
+
+    /**
+     * @param executor, where to complete the future after a wait
+     * @return a future completed when the call can be sent
+     */
+    CompletableFuture<Void> acquireAsync(Executor executor);
+
+}
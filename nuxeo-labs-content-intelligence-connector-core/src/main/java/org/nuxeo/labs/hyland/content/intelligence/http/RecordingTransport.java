@@ -0,0 +1,442 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+import org.nuxeo.ecm.core.api.Blob;
+import org.nuxeo.labs.hyland.content.intelligence.service.transport.CICTransportService;
+import org.nuxeo.runtime.api.Framework;
+
+/**
+ * A {@link CICTransport} sending the requests through another transport (<code>http</code> by default), and appending
+ * every exchange to a capture file, one JSON object per line. A capture can be replayed by the {@link ReplayTransport},
+ * and each of its lines also is a fixture of the {@link InMemoryTransport}.
+ * <p>
+ * A line has the method, the host and the path of the request (the segments looking like ids replaced with
+ * <code>*</code>, the query dropped), its headers and body, the status, headers and body of the response, the
+ * <code>latencyMS</code> of the exchange and its <code>timestamp</code>. Secrets are not captured: the headers holding
+ * credentials or tokens are dropped, and the tokens, secrets and passwords of the bodies are masked. A body bigger
+ * than <code>maxBodyKB</code> is replaced with its length (and, for a response, its SHA-256).
+ * <p>
+ * Properties:
+ * <ul>
+ * <li><code>delegate</code>: the name of the transport sending the requests (default <code>http</code>)</li>
+ * <li><code>file</code>: the capture file (default <code>cic-capture.jsonl</code> in the log directory of the
+ * server)</li>
+ * <li><code>maxFileMB</code>: the capture file is rotated (to <code>file.1</code>, <code>file.2</code>, ...) when it
+ * reaches this size (default 100)</li>
+ * <li><code>maxFiles</code>: the number of files kept, the current one included (default 5)</li>
+ * <li><code>maxBodyKB</code>: the maximum size of a captured body (default 64)</li>
+ * </ul>
+ * Lines are written by a single background thread, in the order the exchanges end.
+ *
+ * @since 2025.18
+ */
+public class RecordingTransport implements CICTransport {
+
+    private static final Logger log = LogManager.getLogger(RecordingTransport.class);
+
+    public static final String DELEGATE_PROPERTY = "delegate";
+
+    public static final String FILE_PROPERTY = "file";
+
+    public static final String MAX_FILE_MB_PROPERTY = "maxFileMB";
+
+    public static final String MAX_FILES_PROPERTY = "maxFiles";
+
+    public static final String MAX_BODY_KB_PROPERTY = "maxBodyKB";
+
+    public static final String DEFAULT_FILE_NAME = "cic-capture.jsonl";
+
+    public static final int DEFAULT_MAX_FILE_MB = 100;
+
+    public static final int DEFAULT_MAX_FILES = 5;
+
+    public static final int DEFAULT_MAX_BODY_KB = 64;
+
+    public static final String REDACTED = "***";
+
+    protected static final Set<String> SECRET_HEADERS = Set.of("authorization", "proxy-authorization", "cookie",
+            "set-cookie");
+
+    protected static final Pattern SECRET_HEADER = Pattern.compile("(?i).*(token|secret|api-?key|password).*");
+
+    // Describe the encoding of the body, which is captured decoded
+    protected static final Set<String> BODY_HEADERS = Set.of("content-encoding", "content-length",
+            "transfer-encoding");
+
+    protected static final Pattern SECRET_JSON = Pattern.compile(
+            "(\"(?:access_token|refresh_token|id_token|client_secret|password)\"\\s*:\\s*\")[^\"]*\"");
+
+    protected static final Pattern SECRET_FORM = Pattern.compile(
+            "((?:^|&)(?:access_token|refresh_token|client_secret|password)=)[^&]*");
+
+    protected String delegateName = HttpTransport.NAME;
+
+    protected volatile CICTransport delegate;
+
+    protected Path file;
+
+    protected long maxFileBytes = DEFAULT_MAX_FILE_MB * 1024L * 1024L;
+
+    protected int maxFiles = DEFAULT_MAX_FILES;
+
+    protected int maxBodyBytes = DEFAULT_MAX_BODY_KB * 1024;
+
+    protected final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "cic-capture");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only used by the writer thread
+    protected OutputStream out;
+
+    protected long size;
+
+    @Override
+    public void init(Map<String, String> properties) {
+
+        delegateName = StringUtils.defaultIfBlank(properties.get(DELEGATE_PROPERTY), HttpTransport.NAME);
+        String fileName = properties.get(FILE_PROPERTY);
+        if (StringUtils.isBlank(fileName)) {
+            String logDir = Framework.getProperty("nuxeo.log.dir", System.getProperty("java.io.tmpdir"));
+            file = Path.of(logDir, DEFAULT_FILE_NAME);
+        } else {
+            file = Path.of(fileName.trim());
+        }
+        maxFileBytes = toInt(properties.get(MAX_FILE_MB_PROPERTY), DEFAULT_MAX_FILE_MB) * 1024L * 1024L;
+        maxFiles = Math.max(1, toInt(properties.get(MAX_FILES_PROPERTY), DEFAULT_MAX_FILES));
+        maxBodyBytes = toInt(properties.get(MAX_BODY_KB_PROPERTY), DEFAULT_MAX_BODY_KB) * 1024;
+        log.info("Capturing the CIC exchanges sent through '{}' to {}", delegateName, file);
+    }
+
+    protected static int toInt(String value, int defaultValue) {
+        try {
+            return StringUtils.isBlank(value) ? defaultValue : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value '{}', using {}", value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void setDelegate(CICTransport delegate) {
+        this.delegate = delegate;
+    }
+
+    /*
+     * Resolved on first use: the transports are contributed in any order
+     */
+    protected CICTransport getDelegate() {
+
+        if (delegate == null) {
+            CICTransportService service = Framework.getService(CICTransportService.class);
+            CICTransport found = service == null ? null : service.getTransport(delegateName);
+            if (found == null || found == this) {
+                log.error("Unknown or invalid delegate transport '{}', using '{}'", delegateName, HttpTransport.NAME);
+                found = HttpTransport.INSTANCE;
+            }
+            delegate = found;
+        }
+        return delegate;
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse<Blob>> sendAsync(HttpClient client, HttpRequest request,
+            BodyHandler<Blob> bodyHandler) {
+
+        Instant timestamp = Instant.now();
+        long start = System.nanoTime();
+        return getDelegate().sendAsync(client, request, bodyHandler).whenComplete((response, error) -> {
+            long latencyMS = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            // The response body is read now: the caller may delete its temporary file once it has it
+            JSONObject record = toRecord(request, response, error, timestamp, latencyMS);
+            requestBody(request).exceptionally(t -> null).thenAcceptAsync(bytes -> {
+                addRequestBody(record, request, bytes);
+                append(record);
+            }, writer);
+        });
+    }
+
+    protected JSONObject toRecord(HttpRequest request, HttpResponse<Blob> response, Throwable error,
+            Instant timestamp, long latencyMS) {
+
+        JSONObject record = new JSONObject();
+        record.put("timestamp", timestamp.toString());
+        record.put("method", request.method());
+        record.put("host", request.uri().getHost());
+        record.put("path", ServiceCallMetrics.templatePath(request.uri().getPath(), "*"));
+        record.put("latencyMS", latencyMS);
+        record.put("requestHeaders", headers(request.headers().map()));
+
+        if (response == null) {
+            record.put("status", -1);
+            record.put("error",
+                    error == null ? "No response" : error.getClass().getSimpleName() + ": " + error.getMessage());
+            return record;
+        }
+
+        record.put("status", response.statusCode());
+        record.put("headers", headers(response.headers().map()));
+        Blob body = response.body();
+        if (body != null) {
+            try {
+                addResponseBody(record, body);
+            } catch (IOException e) {
+                log.warn("Cannot capture the body of the response of {} {}: {}", request.method(), request.uri(),
+                        e.getMessage());
+            }
+        }
+        return record;
+    }
+
+    protected static JSONObject headers(Map<String, List<String>> headers) {
+
+        JSONObject json = new JSONObject();
+        headers.forEach((name, values) -> {
+            String lower = name.toLowerCase();
+            if (!lower.startsWith(":") && !SECRET_HEADERS.contains(lower) && !BODY_HEADERS.contains(lower)
+                    && !SECRET_HEADER.matcher(lower).matches()) {
+                json.put(name, String.join(", ", values));
+            }
+        });
+        return json;
+    }
+
+    protected void addResponseBody(JSONObject record, Blob body) throws IOException {
+
+        long length = body.getLength();
+        if (length >= 0 && length <= maxBodyBytes) {
+            byte[] bytes = body.getByteArray();
+            if (isText(body.getMimeType())) {
+                record.put("body", redact(new String(bytes, StandardCharsets.UTF_8)));
+            } else {
+                record.put("bodyBase64", Base64.getEncoder().encodeToString(bytes));
+            }
+            return;
+        }
+
+        MessageDigest digest = sha256();
+        long count = 0;
+        try (InputStream in = body.getStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+                count += read;
+            }
+        }
+        record.put("bodyLength", count);
+        record.put("bodySha256", HexFormat.of().formatHex(digest.digest()));
+    }
+
+    protected void addRequestBody(JSONObject record, HttpRequest request, byte[] bytes) {
+
+        if (bytes != null) {
+            String mimeType = request.headers().firstValue("Content-Type").orElse(null);
+            if (isText(mimeType)) {
+                record.put("requestBody", redact(new String(bytes, StandardCharsets.UTF_8)));
+            } else {
+                record.put("requestBodyBase64", Base64.getEncoder().encodeToString(bytes));
+            }
+        } else {
+            long length = request.bodyPublisher().map(BodyPublisher::contentLength).orElse(0L);
+            if (length != 0) {
+                record.put("requestBodyLength", length);
+            }
+        }
+    }
+
+    /*
+     * Small, not encoded, request bodies are read again (string and byte array publishers support it). Others
+     * (uploads...) are not: only their length is captured.
+     */
+    protected CompletableFuture<byte[]> requestBody(HttpRequest request) {
+
+        Optional<BodyPublisher> publisher = request.bodyPublisher();
+        long length = publisher.map(BodyPublisher::contentLength).orElse(0L);
+        if (length <= 0 || length > maxBodyBytes || request.headers().firstValue("Content-Encoding").isPresent()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<byte[]> done = new CompletableFuture<>();
+        publisher.get().subscribe(new Flow.Subscriber<ByteBuffer>() {
+
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                bytes.writeBytes(chunk);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(bytes.toByteArray());
+            }
+        });
+        return done;
+    }
+
+    protected static boolean isText(String mimeType) {
+        return mimeType == null || mimeType.startsWith("text/") || mimeType.contains("json")
+                || mimeType.contains("xml") || mimeType.contains("x-www-form-urlencoded");
+    }
+
+    /**
+     * @param body
+     * @return the body, the values of the tokens, secrets and passwords (JSON or form-encoded) masked
+     */
+    public static String redact(String body) {
+        String redacted = SECRET_JSON.matcher(body).replaceAll("$1" + REDACTED + "\"");
+        return SECRET_FORM.matcher(redacted).replaceAll("$1" + REDACTED);
+    }
+
+    protected static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /*
+     * Called by the writer thread only
+     */
+    protected void append(JSONObject record) {
+
+        byte[] line = (record.toString() + "\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            if (out == null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                size = Files.size(file);
+            }
+            if (size > 0 && size + line.length > maxFileBytes) {
+                rotate();
+            }
+            out.write(line);
+            out.flush();
+            size += line.length;
+        } catch (IOException e) {
+            log.warn("Cannot write to the capture file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /*
+     * file.(maxFiles - 2) => file.(maxFiles - 1), ..., file => file.1, the oldest one is dropped
+     */
+    protected void rotate() throws IOException {
+
+        out.close();
+        for (int i = maxFiles - 1; i > 0; i--) {
+            Path from = rotated(i - 1);
+            if (Files.exists(from)) {
+                Files.move(from, rotated(i), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.deleteIfExists(file);
+        out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = 0;
+    }
+
+    /**
+     * @param index
+     * @return the capture file (0), or one of its rotated files
+     */
+    public Path rotated(int index) {
+        return index == 0 ? file : file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    /**
+     * Waits for the pending lines to be written
+     */
+    public void flush() {
+        CompletableFuture.runAsync(() -> {
+        }, writer).join();
+    }
+
+    @Override
+    public void close() {
+
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("Cannot close the capture file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+}
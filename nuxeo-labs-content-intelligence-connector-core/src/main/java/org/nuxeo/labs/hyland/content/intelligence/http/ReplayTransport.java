@@ -0,0 +1,134 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+/**
+ * Replays the exchanges captured by the {@link RecordingTransport}: the requests are answered, without any network,
+ * with the responses captured for the same method and path, in their order. Once the responses of a path are used up,
+ * the last one is repeated (a job polled more times than during the capture stays in its final state).
+ * <p>
+ * Properties (plus the ones of the {@link InMemoryTransport}, fixtures are tried after the recordings):
+ * <ul>
+ * <li><code>recordings</code>: comma-separated list of capture files, oldest first (for example
+ * <code>cic-capture.jsonl.1,cic-capture.jsonl</code>)</li>
+ * <li><code>latencyScale</code>: factor applied to the captured latencies (default 1, the original latencies; 0
+ * answers immediately)</li>
+ * </ul>
+ * Exchanges that failed without a response are skipped, and responses whose body was too big to be captured are
+ * replayed with an empty body.
+ *
+ * @since 2025.18
+ */
+public class ReplayTransport extends InMemoryTransport {
+
+    private static final Logger log = LogManager.getLogger(ReplayTransport.class);
+
+    public static final String RECORDINGS_PROPERTY = "recordings";
+
+    public static final String LATENCY_SCALE_PROPERTY = "latencyScale";
+
+    protected double latencyScale = 1;
+
+    @Override
+    public void init(Map<String, String> properties) {
+
+        String scale = properties.get(LATENCY_SCALE_PROPERTY);
+        if (StringUtils.isNotBlank(scale)) {
+            try {
+                latencyScale = Math.max(0, Double.parseDouble(scale.trim()));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid {} '{}', using 1", LATENCY_SCALE_PROPERTY, scale);
+            }
+        }
+
+        String files = properties.get(RECORDINGS_PROPERTY);
+        if (StringUtils.isNotBlank(files)) {
+            List<Path> paths = new ArrayList<>();
+            for (String file : StringUtils.split(files, ',')) {
+                paths.add(Path.of(file.trim()));
+            }
+            try {
+                loadRecordings(paths);
+            } catch (IOException e) {
+                log.error("Cannot load the recordings {}: {}", files, e.getMessage());
+            }
+        }
+
+        super.init(properties);
+    }
+
+    public void setLatencyScale(double latencyScale) {
+        this.latencyScale = latencyScale;
+    }
+
+    /**
+     * Adds the exchanges of capture files, served after the ones already loaded
+     *
+     * @param files, oldest first
+     * @throws IOException
+     */
+    public void loadRecordings(List<Path> files) throws IOException {
+
+        List<Fixture> loaded = new ArrayList<>();
+        Map<String, Fixture> lastByEndpoint = new HashMap<>();
+        int noBody = 0;
+        for (Path file : files) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+                JSONObject record = new JSONObject(line);
+                if (record.optInt("status", -1) < 0) {
+                    continue;
+                }
+                if (record.has("bodySha256")) {
+                    noBody++;
+                }
+                Fixture fixture = Fixture.fromJson(record)
+                                         .withLatency(Math.round(record.optLong("latencyMS", 0) * latencyScale));
+                loaded.add(fixture);
+                lastByEndpoint.put(fixture.method + " " + fixture.path, fixture);
+            }
+        }
+
+        // Served once each, in order, the last one of each endpoint forever
+        loaded.stream().filter(f -> lastByEndpoint.get(f.method + " " + f.path) != f).forEach(f -> f.times(1));
+        fixtures.addAll(loaded);
+
+        log.info("{} exchange(s) loaded from {}", loaded.size(), files);
+        if (noBody > 0) {
+            log.warn("{} response(s) were too big to be captured, they are replayed with an empty body", noBody);
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * When and how long to wait before retrying a failed call.
+ * <p>
+ * What can be retried depends on the call being idempotent (see {@link CallOptions#isIdempotent(String)}):
+ * <ul>
+ * <li>Idempotent calls (GET, PUT to a presigned URL, polls, ...) are retried on 408, 429, 5xx and I/O errors</li>
+ * <li>Other calls (starting a processing, asking a question, ...) are retried only when the service did not process
+ * the request for sure: 429, 503, or the connection could not even be established</li>
+ * </ul>
+ * The delay grows exponentially from <code>initialDelayMS</code> up to <code>maxDelayMS</code>, with a random jitter
+ * (so concurrent callers do not retry all at the same time). A <code>Retry-After</code> sent by the service is
+ * honored, but if it is longer than <code>maxDelayMS</code>, the call is not retried and the result is returned (with
+ * {@link ServiceCallResult#getRetryAfter()}) so the caller can reschedule.
+ *
+ * @since 2025.18
+ */
+public class RetryPolicy {
+
+    public static final int DEFAULT_MAX_RETRIES = 3;
+
+    public static final int DEFAULT_INITIAL_DELAY_MS = 500;
+
+    public static final int DEFAULT_MAX_DELAY_MS = 30000;
+
+    public static final RetryPolicy DEFAULT = new RetryPolicy(DEFAULT_MAX_RETRIES, DEFAULT_INITIAL_DELAY_MS,
+            DEFAULT_MAX_DELAY_MS);
+
+    public static final RetryPolicy NONE = new RetryPolicy(0, DEFAULT_INITIAL_DELAY_MS, DEFAULT_MAX_DELAY_MS);
+
+    protected int maxRetries;
+
+    protected int initialDelayMS;
+
+    protected int maxDelayMS;
+
+    /**
+     * @param maxRetries, 0 (or less) means no retry
+     * @param initialDelayMS, delay before the first retry (before jitter). <= 0 means the default value
+     * @param maxDelayMS, max. delay between two attempts. <= 0 means the default value
+     */
+    public RetryPolicy(int maxRetries, int initialDelayMS, int maxDelayMS) {
+        this.maxRetries = Math.max(maxRetries, 0);
+        this.initialDelayMS = initialDelayMS > 0 ? initialDelayMS : DEFAULT_INITIAL_DELAY_MS;
+        this.maxDelayMS = maxDelayMS > 0 ? maxDelayMS : DEFAULT_MAX_DELAY_MS;
+        if (this.maxDelayMS < this.initialDelayMS) {
+            this.maxDelayMS = this.initialDelayMS;
+        }
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public int getInitialDelayMS() {
+        return initialDelayMS;
+    }
+
+    public int getMaxDelayMS() {
+        return maxDelayMS;
+    }
+
+    /**
+     * @param statusCode
+     * @param idempotent
+     * @return true if a call that returned this status can be sent again
+     */
+    public boolean isRetryable(int statusCode, boolean idempotent) {
+        if (statusCode == 429 || statusCode == 503) {
+            // Rejected before being processed
+            return true;
+        }
+        return idempotent && (statusCode == 408 || statusCode == 500 || statusCode == 502 || statusCode == 504);
+    }
+
+    /**
+     * @param error, the error of the call (unwrapped)
+     * @param idempotent
+     * @return true if a call that failed with this error can be sent again
+     */
+    public boolean isRetryable(Throwable error, boolean idempotent) {
+        if (isConnectFailure(error)) {
+            // Nothing was sent
+            return true;
+        }
+        return idempotent && error instanceof IOException;
+    }
+
+    protected static boolean isConnectFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param retry, the retry number, starting at 1
+     * @param retryAfter, as sent by the service. Can be null
+     * @return the delay before the retry, or null if the call must not be retried (<code>retryAfter</code> above
+     *         <code>maxDelayMS</code>)
+     */
+    public Duration delayBeforeRetry(int retry, Duration retryAfter) {
+
+        if (retryAfter != null) {
+            return retryAfter.toMillis() > maxDelayMS ? null : retryAfter;
+        }
+
+        // Exponential, "equal jitter": half of the delay is fixed, the other half is random
+        long delay = initialDelayMS * (1L << Math.min(retry - 1, 20));
+        delay = Math.min(delay, maxDelayMS);
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy [maxRetries=" + maxRetries + ", initialDelayMS=" + initialDelayMS + ", maxDelayMS="
+                + maxDelayMS + "]";
+    }
+
+}
@@ -18,25 +18,81 @@
  */
 package org.nuxeo.labs.hyland.content.intelligence.http;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.net.http.HttpResponse.ResponseInfo;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.nuxeo.ecm.core.api.Blob;
+import org.nuxeo.labs.hyland.content.intelligence.service.transport.CICTransportService;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.CICTracer;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.Span;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.kv.KeyValueService;
 
 /**
  * Utility class, centralizing the HTTP calls and returning a <code>ServiceCallResult</code>
+ * <p>
+ * Since 2025.18, calls go through a shared {@link HttpClientPool} (keep-alive, HTTP/2, TLS session reuse). Services
+ * get one <code>ServiceCall</code> per configuration (see
+ * <code>AbstractCICServiceComponent#getServiceCall(String)</code>), the no-arg constructor uses a default pool shared
+ * by all callers.
+ * <p>
+ * Every call has a non-blocking <code>xxxAsync</code> version returning a <code>CompletableFuture</code>, the blocking
+ * methods just wait for it.
+ * <p>
+ * Every call is bounded by the connect and read timeouts of the settings. A call can also be given
+ * {@link CallOptions}: its {@link EndpointFamily} selects the read timeout, and its {@link Deadline} caps the whole
+ * call (waiting for a connection included) to the remaining budget of the flow it belongs to.
+ * <p>
+ * Transient failures are retried with an exponential backoff, according to the {@link RetryPolicy} of the settings.
+ * Calls to a rate limited {@link EndpointFamily} first wait for a permit of its {@link RateLimiter}.
+ * <p>
+ * When an {@link EndpointFamily} keeps failing, its {@link CircuitBreaker} opens: calls are not sent for a while, they
+ * immediately return a {@link ServiceCallResult#CIRCUIT_OPEN} result.
+ * <p>
+ * Responses can be compressed (gzip, deflate), they are decoded transparently. Big request bodies of
+ * {@link EndpointFamily#PROCESS} calls can be gzipped (see {@link ServiceCallSettings#isCompressRequests()}).
+ * <p>
+ * Requests are sent by the {@link CICTransport} of the settings: over the network by default, or by any transport
+ * contributed to the <code>CICTransportService</code>.
+ * <p>
+ * A request whose bearer token is rejected (401) is sent again, once, with a new token from the
+ * {@link TokenRefresher}, if any.
+ * <p>
+ * Every request is recorded in the Nuxeo metrics (see {@link ServiceCallMetrics}). When the {@link CallOptions} have a
+ * span, the call is traced as a child span, and its trace is sent in a <code>traceparent</code> header.
  * 
  * @since 2023
  */
@@ -44,6 +100,169 @@ public class ServiceCall {
 
     private static final Logger log = LogManager.getLogger(ServiceCall.class);
 
+    // Headers the JDK client sets itself, and refuses to get from the caller
+    protected static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    static {
+        RESTRICTED_HEADERS.addAll(Set.of("Connection", "Content-Length", "Expect", "Host", "Upgrade"));
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public static final String DEADLINE_EXCEEDED = "Deadline exceeded";
+
+    /**
+     * The encodings decoded by {@link SpillingBodySubscriber}
+     *
+     * @since 2025.18
+     */
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /**
+     * The <code>KeyValueStore</code> holding the counters of the cluster-wide rate limits
+     *
+     * @since 2025.18
+     */
+    public static final String RATE_LIMITS_KV_STORE = "cic-ratelimits";
+
+    protected HttpClientPool pool;
+
+    protected Map<EndpointFamily, RateLimiter> rateLimiters = new EnumMap<>(EndpointFamily.class);
+
+    protected Map<EndpointFamily, CircuitBreaker> circuitBreakers = new EnumMap<>(EndpointFamily.class);
+
+    protected ServiceCallMetrics metrics;
+
+    protected CICTransport transport = HttpTransport.INSTANCE;
+
+    // Set by the AuthenticationToken of the configuration
+    protected volatile TokenRefresher tokenRefresher;
+
+    public ServiceCall() {
+        pool = HttpClientPool.getDefault();
+        metrics = new ServiceCallMetrics(pool.getSettings().getService(), pool.getSettings().getConfig());
+    }
+
+    /**
+     * @param settings
+     * @since 2025.18
+     */
+    public ServiceCall(ServiceCallSettings settings) {
+        pool = new HttpClientPool(settings);
+        metrics = new ServiceCallMetrics(settings.getService(), settings.getConfig());
+        transport = findTransport(settings.getTransport());
+        settings.getRateLimits().forEach((family, limit) -> rateLimiters.put(family, newRateLimiter(family, limit)));
+        if (settings.getCircuitBreakerFailureThreshold() > 0) {
+            for (EndpointFamily family : EndpointFamily.values()) {
+                circuitBreakers.put(family, new CircuitBreaker(settings.getCircuitBreakerFailureThreshold(),
+                        settings.getCircuitBreakerOpenSeconds()));
+            }
+        }
+    }
+
+    protected CICTransport findTransport(String name) {
+
+        if (HttpTransport.NAME.equals(name)) {
+            return HttpTransport.INSTANCE;
+        }
+        CICTransportService transports = Framework.getService(CICTransportService.class);
+        CICTransport found = transports == null ? null : transports.getTransport(name);
+        if (found == null) {
+            log.error("{}: unknown transport '{}', using '{}'.", pool.getSettings().getName(), name,
+                    HttpTransport.NAME);
+            return HttpTransport.INSTANCE;
+        }
+        return found;
+    }
+
+    protected RateLimiter newRateLimiter(EndpointFamily family, RateLimit limit) {
+
+        ServiceCallSettings settings = pool.getSettings();
+        if (settings.isClusterWideRateLimits()) {
+            KeyValueService kvs = Framework.getService(KeyValueService.class);
+            if (kvs != null) {
+                String key = "cic:ratelimit:" + settings.getName() + ":" + family.name().toLowerCase();
+                return new ClusterRateLimiter(kvs.getKeyValueStore(RATE_LIMITS_KV_STORE), key, limit);
+            }
+            log.warn("No KeyValueService, rate limit of {} for {} is local to this node.", family, settings.getName());
+        }
+        return new TokenBucketRateLimiter(limit);
+    }
+
+    /**
+     * @return the transport sending the requests
+     * @since 2025.18
+     */
+    public CICTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Replaces the transport, typically with an {@link InMemoryTransport} in tests and benchmarks
+     *
+     * @param transport
+     * @since 2025.18
+     */
+    public void setTransport(CICTransport transport) {
+        this.transport = transport == null ? HttpTransport.INSTANCE : transport;
+    }
+
+    /**
+     * @return the refresher of the bearer token of the requests, can be null
+     * @since 2025.18
+     */
+    public TokenRefresher getTokenRefresher() {
+        return tokenRefresher;
+    }
+
+    /**
+     * When a request with a bearer token is rejected (401), a new token is asked to <code>tokenRefresher</code>, and
+     * the request is sent again with it, once.
+     *
+     * @param tokenRefresher, null to disable
+     * @since 2025.18
+     */
+    public void setTokenRefresher(TokenRefresher tokenRefresher) {
+        this.tokenRefresher = tokenRefresher;
+    }
+
+    /**
+     * @param family
+     * @return the circuit breaker of this family, or null if there is none
+     * @since 2025.18
+     */
+    public CircuitBreaker getCircuitBreaker(EndpointFamily family) {
+        return circuitBreakers.get(family);
+    }
+
+    /**
+     * @return the settings of the underlying connection pool
+     * @since 2025.18
+     */
+    public ServiceCallSettings getSettings() {
+        return pool.getSettings();
+    }
+
+    /**
+     * @return the executor of the underlying connection pool (daemon threads), where continuations of async calls can
+     *         run
+     * @since 2025.18
+     */
+    public Executor getExecutor() {
+        return pool.getExecutor();
+    }
+
+    /**
+     * Releases the connections of this <code>ServiceCall</code> (does nothing for the default, shared, one)
+     * 
+     * @since 2025.18
+     */
+    public void close() {
+        if (pool != HttpClientPool.getDefault()) {
+            pool.close();
+        }
+    }
+
     /**
      * Query params, if any, must be handled but the caller (and appended to the url, with the correct encoding)
      * 
@@ -54,93 +273,139 @@ public class ServiceCall {
      */
     public ServiceCallResult get(String url, Map<String, String> headers) {
 
-        ServiceCallResult result = null;
+        return await(getAsync(url, headers));
+    }
 
-        HttpURLConnection connection = null;
-        try {
-            // Create the URL object
-            URL theUrl = new URI(url).toURL();
-            connection = (HttpURLConnection) theUrl.openConnection();
-            connection.setRequestMethod("GET");
+    /**
+     * Non-blocking version of {@link #get(String, Map)}. The future is never completed exceptionally, errors are
+     * returned as a failed <code>ServiceCallResult</code> (same as the blocking call).
+     * 
+     * @param url
+     * @param headers. Can be null.
+     * @return a future ServiceCallResult
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> getAsync(String url, Map<String, String> headers) {
 
-            if (headers != null) {
-                headers.forEach(connection::setRequestProperty);
-            }
+        return getAsync(url, headers, CallOptions.DEFAULT);
+    }
 
-            result = readResponse(connection);
+    /**
+     * @since 2025.18
+     */
+    public ServiceCallResult get(String url, Map<String, String> headers, CallOptions options) {
 
-        } catch (IOException | URISyntaxException e) {
-            log.error("Error: {}", e.getMessage());
-            result = new ServiceCallResult("{}", -1, e.getClass().getSimpleName() + ": " + e.getMessage());
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-                connection = null;
-            }
-        }
+        return await(getAsync(url, headers, options));
+    }
 
-        return result;
+    /**
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> getAsync(String url, Map<String, String> headers,
+            CallOptions options) {
+
+        return sendAsync("GET", url, headers, BodyPublishers.noBody(), options);
     }
 
     /*
      * Just to centralize the calls. For now, they are the same
      * (may change in the future, depending on the change sin the service API)
      */
-    protected ServiceCallResult postOrPut(String httpMethod, String url, Map<String, String> headers, String body) {
+    protected CompletableFuture<ServiceCallResult> postOrPutAsync(String httpMethod, String url,
+            Map<String, String> headers, String body, CallOptions options) {
 
-        ServiceCallResult result = null;
+        if (body == null) {
+            return sendAsync(httpMethod, url, headers, BodyPublishers.noBody(), options);
+        }
 
-        HttpURLConnection connection = null;
-        try {
-            // Create the URL object
-            URL theUrl = new URI(url).toURL();
-            connection = (HttpURLConnection) theUrl.openConnection();
-            // POST or PUT
-            connection.setRequestMethod(httpMethod);
-
-            if (headers != null) {
-                headers.forEach(connection::setRequestProperty);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ServiceCallSettings settings = pool.getSettings();
+        if (settings.isCompressRequests() && options != null && options.getFamily() == EndpointFamily.PROCESS
+                && bytes.length >= settings.getCompressRequestsMinKB() * 1024L) {
+            try {
+                bytes = gzip(bytes);
+                Map<String, String> gzipHeaders = headers == null ? new HashMap<>() : new HashMap<>(headers);
+                gzipHeaders.put("Content-Encoding", "gzip");
+                headers = gzipHeaders;
+            } catch (IOException e) {
+                log.warn("Failed to compress the request body, sent as is: {}", e.getMessage());
             }
+        }
 
-            connection.setDoOutput(true);
-            if (body != null) {
-                try (OutputStream os = connection.getOutputStream()) {
-                    byte[] input = body.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                }
-            }
+        return sendAsync(httpMethod, url, headers, BodyPublishers.ofByteArray(bytes), options);
+    }
 
-            result = readResponse(connection);
+    protected static byte[] gzip(byte[] bytes) throws IOException {
 
-        } catch (IOException | URISyntaxException e) {
-            log.error("Error: {}", e.getMessage());
-            result = new ServiceCallResult("{}", -1, e.getClass().getSimpleName() + ": " + e.getMessage());
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-                connection = null;
-            }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
         }
-
-        return result;
+        return out.toByteArray();
     }
 
     public ServiceCallResult post(String url, Map<String, String> headers, String body) {
 
-        ServiceCallResult result = postOrPut("POST", url, headers, body);
+        ServiceCallResult result = await(postAsync(url, headers, body));
 
         return result;
     }
 
+    /**
+     * @since 2025.18
+     */
+    public ServiceCallResult post(String url, Map<String, String> headers, String body, CallOptions options) {
+
+        return await(postAsync(url, headers, body, options));
+    }
+
     public ServiceCallResult put(String url, Map<String, String> headers, String body) {
 
-        ServiceCallResult result = postOrPut("PUT", url, headers, body);
+        ServiceCallResult result = await(putAsync(url, headers, body));
 
         return result;
     }
 
+    /**
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> postAsync(String url, Map<String, String> headers, String body) {
+
+        return postAsync(url, headers, body, CallOptions.DEFAULT);
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> postAsync(String url, Map<String, String> headers, String body,
+            CallOptions options) {
+
+        return postOrPutAsync("POST", url, headers, body, options);
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> putAsync(String url, Map<String, String> headers, String body) {
+
+        return putAsync(url, headers, body, CallOptions.DEFAULT);
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> putAsync(String url, Map<String, String> headers, String body,
+            CallOptions options) {
+
+        return postOrPutAsync("PUT", url, headers, body, options);
+    }
+
     /**
      * The "response" field of <code>ServiceCallResult</code> is always an empty JSON object, "{}".
+     * <p>
+     * Since 2025.18, the file is sent from buffers mapped in memory, without a copy in a heap buffer (see
+     * {@link FileChannelBodyPublisher}), and the result gives the upload throughput (see
+     * {@link ServiceCallResult#getUploadThroughput()}).
      * 
      * @param file
      * @param targetUrl
@@ -151,75 +416,512 @@ public class ServiceCall {
      */
     public ServiceCallResult uploadFileWithPut(File file, String targetUrl, String contentType) {
 
+        return await(uploadFileWithPutAsync(file, targetUrl, contentType));
+    }
+
+    /**
+     * Non-blocking version of {@link #uploadFileWithPut(File, String, String)}. The file must not be deleted before
+     * the future completes.
+     * 
+     * @param file
+     * @param targetUrl
+     * @param contentType
+     * @return a future ServiceCallResult
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> uploadFileWithPutAsync(File file, String targetUrl,
+            String contentType) {
+
+        return uploadFileWithPutAsync(file, targetUrl, contentType, CallOptions.of(EndpointFamily.UPLOAD));
+    }
+
+    /**
+     * @param file
+     * @param targetUrl
+     * @param contentType
+     * @param options
+     * @return a future ServiceCallResult
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> uploadFileWithPutAsync(File file, String targetUrl,
+            String contentType, CallOptions options) {
+
         if (!file.exists() || !file.isFile()) {
             throw new IllegalArgumentException("Invalid file: " + file.getAbsolutePath());
         }
 
-        ServiceCallResult result;
+        // The file is sent in buffers mapped from a FileChannel, no copy in a heap buffer. Its fixed length is
+        // required: presigned storage URLs reject chunked uploads
+        MeteredBodyPublisher publisher;
+        try {
+            publisher = new MeteredBodyPublisher(new FileChannelBodyPublisher(file.toPath()),
+                    options == null ? null : options.getContentDigest());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid file: " + file.getAbsolutePath(), e);
+        }
+
+        return sendAsync("PUT", targetUrl, Map.of("Content-Type", contentType), publisher, options).thenApply(
+                result -> {
+                    if (result.callWasSuccesful()) {
+                        result.setResponse("{}");
+                        result.setContentDigest(publisher.getDigest());
+                    }
+                    result.setUploadStats(publisher.getBytes(), publisher.getDuration());
+                    if (result.getUploadDuration() != null) {
+                        log.debug("Uploaded {} bytes in {} ms ({} KB/s)", result.getUploadedBytes(),
+                                result.getUploadDuration().toMillis(), (long) (result.getUploadThroughput() / 1024));
+                    }
+                    return result;
+                });
+    }
 
+    /**
+     * Builds the request, waits (without blocking) for a client from the pool, runs the request and reads the
+     * response.
+     * <p>
+     * The returned future is never completed exceptionally. Cancelling it while it waits for a slot in the pool
+     * removes it from the queue.
+     * <p>
+     * The response headers must be received within the read timeout of the endpoint family, and the whole call must
+     * complete before the deadline. Else, the result is a failure (code -1).
+     * <p>
+     * If the circuit of the endpoint family is open, nothing is sent and the result has the
+     * {@link ServiceCallResult#CIRCUIT_OPEN} code.
+     * 
+     * @since 2025.18
+     */
+    protected CompletableFuture<ServiceCallResult> sendAsync(String httpMethod, String url,
+            Map<String, String> headers, BodyPublisher publisher, CallOptions options) {
+
+        if (options == null) {
+            options = CallOptions.DEFAULT;
+        }
+        EndpointFamily family = options.getFamily();
+        Span span = options.getSpan().child("HTTP " + httpMethod);
+
+        Deadline deadline = options.getDeadline();
+        if (deadline.isExpired()) {
+            log.warn("{} {}: {}", httpMethod, url, DEADLINE_EXCEEDED);
+            return completed(span, new ServiceCallResult("{}", -1, DEADLINE_EXCEEDED));
+        }
+
+        // Presigned URLs: no header that was not signed
+        if (span.isRecording() && family != EndpointFamily.UPLOAD && !url.contains("X-Amz-")) {
+            headers = headers == null ? new HashMap<>() : new HashMap<>(headers);
+            headers.put("traceparent", span.getTraceparent());
+        }
+
+        HttpRequest request;
         try {
-            HttpURLConnection connection = (HttpURLConnection) new URI(targetUrl).toURL().openConnection();
-            connection.setDoOutput(true);
-            connection.setRequestMethod("PUT");
-            connection.setRequestProperty("Content-Type", contentType);
-            connection.setFixedLengthStreamingMode(file.length());
-
-            try (OutputStream out = connection.getOutputStream(); InputStream in = new FileInputStream(file)) {
-
-                byte[] buffer = new byte[8192];
-                int bytesRead;
-                while ((bytesRead = in.read(buffer)) != -1) {
-                    out.write(buffer, 0, bytesRead);
-                }
-                out.flush();
+            Duration timeout = deadline.cap(pool.getSettings().getReadTimeout(family));
+            request = buildRequest(httpMethod, url, headers, publisher, timeout);
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            log.error("Error: {}", e.getMessage());
+            return completed(span,
+                    new ServiceCallResult("{}", -1, e.getClass().getSimpleName() + ": " + e.getMessage()));
+        }
+        if (span.isRecording()) {
+            span.setAttribute("endpoint", metrics.endpointTemplate(family, request.uri()));
+        }
 
-                result = new ServiceCallResult("{}", connection.getResponseCode(), connection.getResponseMessage());
+        CircuitBreaker breaker = circuitBreakers.get(family);
+        if (breaker != null && !breaker.tryAcquire()) {
+            metrics.circuitRejected(family);
+            return completed(span, circuitOpenResult(family, breaker));
+        }
 
-            } catch (IOException e) {
-                log.error("Error uploading file with PUT", e);
-                result = new ServiceCallResult("{}", -1, e.getMessage());
+        CompletableFuture<ServiceCallResult> promise = new CompletableFuture<>();
+        // What the current attempt waits for: a permit of the rate limiter, or a slot in the pool
+        AtomicReference<CompletableFuture<?>> pending = new AtomicReference<>();
+        sendAttempt(promise, pending, request, options, options.isIdempotent(httpMethod), 0, false);
+
+        Duration remaining = deadline.remaining();
+        if (remaining != null) {
+            promise.orTimeout(remaining.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        // The span ends before the caller sees the result
+        CompletableFuture<ServiceCallResult> result = promise.exceptionally(this::errorResult)
+                                                            .whenComplete((r, t) -> CICTracer.end(span, r, t));
+
+        result.whenComplete((r, t) -> {
+            // Cancelled by the caller => no more attempts
+            promise.cancel(false);
+            // Cancelled, or deadline reached, while waiting for a permit or a slot => leave the queue (no-op if the
+            // slot was acquired: the request then ends by its own timeout, capped to the deadline, and releases it)
+            CompletableFuture<?> current = pending.get();
+            if (current != null) {
+                current.cancel(false);
             }
 
-            return result;
+            // Cancelled or out of time: says nothing about the endpoint (other outcomes are recorded by sendAttempt)
+            if (breaker != null && (t != null || DEADLINE_EXCEEDED.equals(r.getResponseMessage()))) {
+                breaker.onIgnored();
+            }
+
+            // Cancelled by the caller
+            if (t != null) {
+                CICTracer.end(span, r, t);
+            }
+        });
+
+        return result;
+    }
 
-        } catch (IOException  | URISyntaxException e) {
-            log.error("Error uploading file with PUT {}: {}", e.getClass().getSimpleName(), e);
-            result = new ServiceCallResult("{}", -1, e.getClass().getSimpleName() + ": " + e.getMessage());
+    protected static CompletableFuture<ServiceCallResult> completed(Span span, ServiceCallResult result) {
+        CICTracer.end(span, result, null);
+        return CompletableFuture.completedFuture(result);
+    }
+
+    /**
+     * Updates the circuit breaker of the family with the final result of a call (retries done)
+     *
+     * @since 2025.18
+     */
+    protected void recordOutcome(EndpointFamily family, ServiceCallResult result) {
+
+        CircuitBreaker breaker = circuitBreakers.get(family);
+        if (breaker == null || DEADLINE_EXCEEDED.equals(result.getResponseMessage())) {
+            return;
+        }
+        if (!CircuitBreaker.isFailure(result)) {
+            breaker.onSuccess();
+        } else if (breaker.onFailure()) {
+            log.warn("{}: circuit opened for {} calls, after {} {}.", pool.getSettings().getName(), family,
+                    result.getResponseCode(), result.getResponseMessage());
         }
+    }
+
+    protected ServiceCallResult circuitOpenResult(EndpointFamily family, CircuitBreaker breaker) {
+
+        String msg = "Circuit open for " + family + " calls of " + pool.getSettings().getName();
+        log.debug(msg);
+        ServiceCallResult result = new ServiceCallResult("{}", ServiceCallResult.CIRCUIT_OPEN, msg);
+        result.setRetryAfter(breaker.remainingOpenTime());
 
         return result;
+    }
+
+    /**
+     * One attempt of a call. If it fails and the {@link RetryPolicy} allows it, the next attempt is scheduled after a
+     * delay (without blocking a thread), as long as the deadline is not reached. Else the promise is completed with
+     * the result, and its retry count.
+     * <p>
+     * If the bearer token of the request is rejected, and the request was not already sent again with a new token
+     * (<code>reauthenticated</code>), it is sent again with a new one. This is not a retry.
+     *
+     * @since 2025.18
+     */
+    protected void sendAttempt(CompletableFuture<ServiceCallResult> promise,
+            AtomicReference<CompletableFuture<?>> pendingRef, HttpRequest request, CallOptions options,
+            boolean idempotent, int retries, boolean reauthenticated) {
+
+        if (promise.isDone()) {
+            return;
+        }
+
+        Deadline deadline = options.getDeadline();
+        HttpRequest attemptRequest = request;
+        if (retries > 0 && !deadline.isNone()) {
+            // Less time left than for the first attempt
+            if (deadline.isExpired()) {
+                promise.complete(new ServiceCallResult("{}", -1, DEADLINE_EXCEEDED));
+                return;
+            }
+            attemptRequest = HttpRequest.newBuilder(request, (name, value) -> true)
+                                        .timeout(deadline.cap(
+                                                pool.getSettings().getReadTimeout(options.getFamily())))
+                                        .build();
+        }
+        final HttpRequest toSend = attemptRequest;
+        String endpoint = metrics.endpointTemplate(options.getFamily(), toSend.uri());
+
+        // Wait for the rate limiter, then for a connection
+        RateLimiter limiter = rateLimiters.get(options.getFamily());
+        CompletableFuture<Void> permit = limiter == null ? CompletableFuture.completedFuture(null)
+                : limiter.acquireAsync(pool.getExecutor());
+        pendingRef.set(permit);
+
+        permit.thenCompose(v -> {
+            CompletableFuture<HttpClient> slot = pool.acquireAsync();
+            pendingRef.set(slot);
+            if (promise.isDone()) {
+                // Cancelled/timed out meanwhile
+                slot.cancel(false);
+            }
+            return slot;
+        }).thenCompose(client -> {
+            CompletableFuture<HttpResponse<Blob>> response;
+            long start = System.nanoTime();
+            metrics.requestStarted();
+            try {
+                response = transport.sendAsync(client, toSend, this::bodySubscriber);
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response = response.whenComplete((r, t) -> metrics.requestDone(toSend.method(), endpoint,
+                    System.nanoTime() - start, r == null ? -1 : r.statusCode(),
+                    toSend.bodyPublisher().map(BodyPublisher::contentLength).orElse(-1L),
+                    r == null || r.body() == null ? -1 : r.body().getLength()));
+            return response.thenApply(this::readResponse).whenComplete((r, t) -> pool.release());
+        }).whenComplete((result, error) -> {
+            try {
+                if (promise.isDone()) {
+                    return;
+                }
+
+                String rejectedToken = error == null && result.getResponseCode() == 401 ? bearerToken(toSend) : null;
+                TokenRefresher refresher = tokenRefresher;
+                if (rejectedToken != null && refresher != null && !reauthenticated) {
+                    final ServiceCallResult rejected = result;
+                    refresher.refreshRejectedToken(rejectedToken).whenComplete((token, t) -> {
+                        try {
+                            if (t != null || StringUtils.isBlank(token) || token.equals(rejectedToken)) {
+                                log.warn("{} {}: 401, and no new auth token.", toSend.method(),
+                                        toSend.uri().getHost());
+                                rejected.setRetryCount(retries);
+                                recordOutcome(options.getFamily(), rejected);
+                                promise.complete(rejected);
+                            } else {
+                                HttpRequest renewed = HttpRequest.newBuilder(request,
+                                        (name, value) -> !"Authorization".equalsIgnoreCase(name))
+                                                                 .header("Authorization", "Bearer " + token)
+                                                                 .build();
+                                sendAttempt(promise, pendingRef, renewed, options, idempotent, retries, true);
+                            }
+                        } catch (RuntimeException e) {
+                            promise.completeExceptionally(e);
+                        }
+                    });
+                    return;
+                }
+
+                RetryPolicy policy = pool.getSettings().getRetryPolicy();
+                boolean retryable;
+                if (error != null) {
+                    retryable = policy.isRetryable(unwrap(error), idempotent);
+                    result = errorResult(error);
+                } else {
+                    retryable = policy.isRetryable(result.getResponseCode(), idempotent);
+                }
 
+                Duration delay = null;
+                if (retryable && retries < policy.getMaxRetries()) {
+                    delay = policy.delayBeforeRetry(retries + 1, result.getRetryAfter());
+                }
+                Duration remaining = deadline.remaining();
+                if (delay != null && (remaining == null || remaining.compareTo(delay) > 0)) {
+                    log.warn("{} {}: {} {}. Retry {}/{} in {} ms.", toSend.method(), toSend.uri().getHost(),
+                            result.getResponseCode(), result.getResponseMessage(), retries + 1,
+                            policy.getMaxRetries(), delay.toMillis());
+                    metrics.retried(options.getFamily());
+                    CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, pool.getExecutor())
+                                     .execute(() -> sendAttempt(promise, pendingRef, request, options, idempotent,
+                                             retries + 1, reauthenticated));
+                } else {
+                    result.setRetryCount(retries);
+                    recordOutcome(options.getFamily(), result);
+                    promise.complete(result);
+                }
+            } catch (RuntimeException e) {
+                promise.completeExceptionally(e);
+            }
+        });
+    }
+
+    protected static String bearerToken(HttpRequest request) {
+        String authorization = request.headers().firstValue("Authorization").orElse(null);
+        return authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
     }
 
     /**
-     * Utility, used by other methods (get, post, put), cone the call returns a status >= 200 < 300.
-     * The "response" field of <code>Response</code> is always an empty JSON object, "{}".
+     * Waits for an async call to complete. Used by the blocking methods.
      * 
-     * @param connection
-     * @return
-     * @throws IOException
-     * @since 2023
+     * @since 2025.18
      */
-    public ServiceCallResult readResponse(HttpURLConnection connection) throws IOException {
+    protected ServiceCallResult await(CompletableFuture<ServiceCallResult> future) {
 
-        ServiceCallResult result = null;
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return new ServiceCallResult("{}", -1, "Interrupted while waiting for the response");
+        } catch (ExecutionException e) {
+            return errorResult(e.getCause());
+        }
+    }
 
-        int responseCode = connection.getResponseCode();
-        if (ServiceCallResult.isHttpSuccess(responseCode)) {
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
-                StringBuilder responseStr = new StringBuilder();
-                String line;
-                while ((line = br.readLine()) != null) {
-                    responseStr.append(line.trim());
+    /*
+     * The JDK client often throws exceptions with no message (ConnectException, ...) => use the cause
+     */
+    protected ServiceCallResult errorResult(Throwable e) {
+
+        e = unwrap(e);
+
+        String msg = e.getMessage();
+        Throwable cause = e.getCause();
+        while (msg == null && cause != null) {
+            msg = cause.getMessage() == null ? null : cause.getClass().getSimpleName() + ": " + cause.getMessage();
+            cause = cause.getCause();
+        }
+        if (e instanceof TimeoutException) {
+            // From orTimeout(), see sendAsync()
+            log.warn("Error: {}", DEADLINE_EXCEEDED);
+            return new ServiceCallResult("{}", -1, DEADLINE_EXCEEDED);
+        }
+        if (msg == null) {
+            msg = "(no message)";
+        }
+        log.error("Error: {}", msg);
+
+        return new ServiceCallResult("{}", -1, e.getClass().getSimpleName() + ": " + msg);
+    }
+
+    /**
+     * @return the actual error, out of its CompletionException/ExecutionException/UncheckedIOException wrappers
+     * @since 2025.18
+     */
+    protected static Throwable unwrap(Throwable e) {
+
+        while ((e instanceof CompletionException || e instanceof ExecutionException
+                || e instanceof UncheckedIOException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    protected HttpRequest buildRequest(String httpMethod, String url, Map<String, String> headers,
+            BodyPublisher publisher, Duration timeout) throws URISyntaxException {
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(new URI(url)).method(httpMethod, publisher);
+        if (timeout != null && timeout.isPositive()) {
+            builder.timeout(timeout);
+        }
+
+        boolean hasAcceptEncoding = false;
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                String name = header.getKey();
+                if (header.getValue() == null) {
+                    continue;
                 }
-                result = new ServiceCallResult(responseStr.toString(), responseCode, connection.getResponseMessage());
+                if (RESTRICTED_HEADERS.contains(name)) {
+                    log.warn("Header '{}' is handled by the HTTP client, value ignored.", name);
+                    continue;
+                }
+                hasAcceptEncoding |= "Accept-Encoding".equalsIgnoreCase(name);
+                builder.header(name, header.getValue());
             }
-        } else {
-            result = new ServiceCallResult("{}", responseCode, connection.getResponseMessage());
+        }
+        if (!hasAcceptEncoding && pool.getSettings().isAcceptCompressedResponses()) {
+            builder.header("Accept-Encoding", ACCEPT_ENCODING);
         }
 
+        return builder.build();
+    }
+
+    /*
+     * Successful responses are received in a Blob, spilled to a temporary file when big. Others are discarded (the
+     * service only returns an error message, we give the caller the status)
+     */
+    protected BodySubscriber<Blob> bodySubscriber(ResponseInfo responseInfo) {
+
+        if (ServiceCallResult.isHttpSuccess(responseInfo.statusCode())) {
+            return SpillingBodySubscriber.of(responseInfo, pool.getSettings().getMaxInMemoryResponseKB() * 1024L);
+        }
+        return BodySubscribers.replacing(null);
+    }
+
+    /**
+     * Utility, used by other methods (get, post, put), once the call returns.
+     * <br>
+     * For a successful call (status >= 200 < 300), the body is returned as is (no more line trimming, since 2025.18)
+     * and, if big, is not loaded in memory (see {@link ServiceCallResult#getResponseBlob()}).
+     * <br>
+     * Else the "response" field of <code>ServiceCallResult</code> is always an empty JSON object, "{}".
+     * 
+     * @param response
+     * @return the ServiceCallResult
+     * @since 2023
+     */
+    public ServiceCallResult readResponse(HttpResponse<Blob> response) {
+
+        int responseCode = response.statusCode();
+        if (ServiceCallResult.isHttpSuccess(responseCode)) {
+            ServiceCallResult result = new ServiceCallResult(response.body(), responseCode, reasonPhrase(responseCode));
+            result.setETag(response.headers().firstValue("ETag").orElse(null));
+            return result;
+        }
+
+        ServiceCallResult result = new ServiceCallResult("{}", responseCode, reasonPhrase(responseCode));
+        result.setRetryAfter(retryAfter(response));
+
         return result;
     }
 
+    /**
+     * @param response
+     * @return the value of the <code>Retry-After</code> header (delay in seconds or HTTP date), or null
+     * @since 2025.18
+     */
+    protected static Duration retryAfter(HttpResponse<?> response) {
+
+        String value = response.headers().firstValue("Retry-After").orElse(null);
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        value = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(Long.parseLong(value), 0));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration delay = Duration.between(ZonedDateTime.now(date.getZone()), date);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException e2) {
+                log.warn("Invalid Retry-After header: {}", value);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * The JDK client does not expose the reason phrase of the status line (and there is none in HTTP/2), callers still
+     * expect a <code>responseMessage</code>.
+     * 
+     * @param statusCode
+     * @return the standard reason phrase for the status code
+     * @since 2025.18
+     */
+    public static String reasonPhrase(int statusCode) {
+        return switch (statusCode) {
+        case 200 -> "OK";
+        case 201 -> "Created";
+        case 202 -> "Accepted";
+        case 204 -> "No Content";
+        case 206 -> "Partial Content";
+        case 301 -> "Moved Permanently";
+        case 302 -> "Found";
+        case 304 -> "Not Modified";
+        case 400 -> "Bad Request";
+        case 401 -> "Unauthorized";
+        case 403 -> "Forbidden";
+        case 404 -> "Not Found";
+        case 405 -> "Method Not Allowed";
+        case 408 -> "Request Timeout";
+        case 409 -> "Conflict";
+        case 413 -> "Payload Too Large";
+        case 415 -> "Unsupported Media Type";
+        case 422 -> "Unprocessable Entity";
+        case 429 -> "Too Many Requests";
+        case 500 -> "Internal Server Error";
+        case 501 -> "Not Implemented";
+        case 502 -> "Bad Gateway";
+        case 503 -> "Service Unavailable";
+        case 504 -> "Gateway Timeout";
+        default -> "HTTP " + statusCode;
+        };
+    }
+
 }
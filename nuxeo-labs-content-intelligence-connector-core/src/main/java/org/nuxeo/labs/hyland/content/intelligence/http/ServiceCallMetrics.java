@@ -0,0 +1,155 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.nuxeo.runtime.metrics.MetricsService;
+
+import io.dropwizard.metrics5.Counter;
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+
+/**
+ * Records the HTTP calls of a {@link ServiceCall} in the Nuxeo metrics registry (published to JMX, Graphite,
+ * Prometheus... depending on the Nuxeo configuration). All the metrics are tagged with the <code>service</code> (KE,
+ * KD, ...) and the <code>config</code> (the descriptor name):
+ * <ul>
+ * <li><code>nuxeo.cic.http.requests</code>: timer (latency of every HTTP request, retries included), also tagged with
+ * <code>method</code> and <code>endpoint</code></li>
+ * <li><code>nuxeo.cic.http.responses</code>: counter, also tagged with <code>endpoint</code> and <code>status</code>
+ * (the HTTP status, or <code>error</code> when no response was received)</li>
+ * <li><code>nuxeo.cic.http.bytes.sent</code> and <code>nuxeo.cic.http.bytes.received</code>: counters, also tagged
+ * with <code>endpoint</code>. Received bytes are the bytes of the (decoded) body of successful responses</li>
+ * <li><code>nuxeo.cic.http.retries</code> and <code>nuxeo.cic.http.circuit.rejected</code>: counters, also tagged
+ * with <code>family</code></li>
+ * <li><code>nuxeo.cic.http.inflight</code>: number of requests being sent</li>
+ * </ul>
+ * The <code>endpoint</code> is a template of the path: ids are replaced with <code>{id}</code> (for example
+ * <code>/content/process/{id}/results</code>). Calls to presigned URLs all use the <code>presigned</code> endpoint.
+ *
+ * @since 2025.18
+ */
+public class ServiceCallMetrics {
+
+    public static final String PREFIX = "nuxeo.cic.http";
+
+    /** Max. number of endpoint templates, the others are counted as "other" */
+    public static final int MAX_ENDPOINTS = 200;
+
+    protected static final Pattern ID_SEGMENT = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|\\d+|(?=.*\\d)[\\w.~%-]{20,}");
+
+    protected final MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
+
+    protected final MetricName base;
+
+    protected final Counter inFlight;
+
+    protected static final Set<String> ENDPOINTS = ConcurrentHashMap.newKeySet();
+
+    public ServiceCallMetrics(String service, String config) {
+        base = MetricName.build(PREFIX)
+                         .tagged("service", StringUtils.defaultIfBlank(service, "default"), "config",
+                                 StringUtils.defaultIfBlank(config, "default"));
+        inFlight = registry.counter(base.resolve("inflight"));
+    }
+
+    /**
+     * @param family
+     * @param uri
+     * @return the template of the path of the URI, ids replaced with <code>{id}</code>
+     */
+    public String endpointTemplate(EndpointFamily family, URI uri) {
+
+        if (family == EndpointFamily.UPLOAD || uri.getRawQuery() != null && uri.getRawQuery().contains("X-Amz-")) {
+            return "presigned";
+        }
+
+        String endpoint = templatePath(uri.getPath(), "{id}");
+
+        if (!ENDPOINTS.contains(endpoint) && ENDPOINTS.size() >= MAX_ENDPOINTS) {
+            return "other";
+        }
+        ENDPOINTS.add(endpoint);
+        return endpoint;
+    }
+
+    /**
+     * @param path
+     * @param placeholder
+     * @return the path, the segments looking like ids (UUIDs, numbers, long tokens with digits) replaced with
+     *         <code>placeholder</code>
+     */
+    public static String templatePath(String path, String placeholder) {
+
+        if (StringUtils.isBlank(path)) {
+            return "/";
+        }
+        StringBuilder template = new StringBuilder();
+        for (String segment : StringUtils.split(path, '/')) {
+            template.append('/').append(ID_SEGMENT.matcher(segment).matches() ? placeholder : segment);
+        }
+        return template.isEmpty() ? "/" : template.toString();
+    }
+
+    public void requestStarted() {
+        inFlight.inc();
+    }
+
+    /**
+     * @param method
+     * @param endpoint, see {@link #endpointTemplate(EndpointFamily, URI)}
+     * @param nanos, duration of the request
+     * @param status, the HTTP status, -1 if no response was received
+     * @param bytesSent, the length of the request body (-1 if unknown)
+     * @param bytesReceived, the length of the response body (-1 if unknown)
+     */
+    public void requestDone(String method, String endpoint, long nanos, int status, long bytesSent,
+            long bytesReceived) {
+
+        inFlight.dec();
+
+        MetricName tagged = base.tagged("endpoint", endpoint);
+        registry.timer(tagged.resolve("requests").tagged("method", method)).update(nanos, TimeUnit.NANOSECONDS);
+        registry.counter(tagged.resolve("responses").tagged("status", status < 0 ? "error" : String.valueOf(status)))
+                .inc();
+        if (bytesSent > 0) {
+            registry.counter(tagged.resolve("bytes.sent")).inc(bytesSent);
+        }
+        if (bytesReceived > 0) {
+            registry.counter(tagged.resolve("bytes.received")).inc(bytesReceived);
+        }
+    }
+
+    public void retried(EndpointFamily family) {
+        registry.counter(base.resolve("retries").tagged("family", family.name().toLowerCase())).inc();
+    }
+
+    public void circuitRejected(EndpointFamily family) {
+        registry.counter(base.resolve("circuit.rejected").tagged("family", family.name().toLowerCase())).inc();
+    }
+
+}
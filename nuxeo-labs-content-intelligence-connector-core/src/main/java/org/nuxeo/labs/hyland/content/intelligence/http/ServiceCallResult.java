@@ -18,26 +18,69 @@
  */
 package org.nuxeo.labs.hyland.content.intelligence.http;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.nuxeo.ecm.core.api.Blob;
+import org.nuxeo.ecm.core.api.Blobs;
 import org.nuxeo.ecm.core.api.NuxeoException;
+import org.nuxeo.runtime.api.Framework;
 
 /**
  * Class handling the result of a HTTP call to the service.
+ * <p>
+ * Since 2025.18, the response of a successful call is a <code>Blob</code> (in memory, or in a temporary file for big
+ * responses, see {@link SpillingBodySubscriber}). It is read as a String only when needed. Callers handling big
+ * results should use {@link #getResponseBlob()}, {@link #getResponseAsJSONObject()} (parsed from the stream) or
+ * {@link #toJsonBlob()} rather than {@link #getResponse()}.
  * 
  * @since 2023
  */
 public class ServiceCallResult {
 
+    /**
+     * Response code of a call that was not sent because the circuit of the endpoint is open (see
+     * {@link CircuitBreaker}). <code>getRetryAfter()</code> tells when to try again.
+     *
+     * @since 2025.18
+     */
+    public static final int CIRCUIT_OPEN = -3;
+
     protected String response;
 
+    protected Blob responseBlob = null;
+
     protected int responseCode;
 
     protected String responseMessage;
 
     protected JSONArray objectKeysMapping = null;
 
+    protected int retryCount = 0;
+
+    protected Duration retryAfter = null;
+
+    protected long uploadedBytes = 0;
+
+    protected Duration uploadDuration = null;
+
+    protected String etag = null;
+
+    protected String contentDigest = null;
+
     public ServiceCallResult(String response, int responseCode, String responseMessage) {
         super();
         this.response = response;
@@ -53,6 +96,19 @@ public class ServiceCallResult {
         this.objectKeysMapping = objectKeysMapping;
     }
 
+    /**
+     * @param responseBlob, the body of the response, read only when needed
+     * @param responseCode
+     * @param responseMessage
+     * @since 2025.18
+     */
+    public ServiceCallResult(Blob responseBlob, int responseCode, String responseMessage) {
+        super();
+        this.responseBlob = responseBlob;
+        this.responseCode = responseCode;
+        this.responseMessage = responseMessage;
+    }
+
     // M%ainly used in unit tests.
     public ServiceCallResult(String jsonStr) {
         JSONObject obj = new JSONObject(jsonStr);
@@ -71,7 +127,14 @@ public class ServiceCallResult {
 
         JSONObject obj = new JSONObject();
 
-        if (StringUtils.isNotBlank(response)) {
+        char first = response == null && responseBlob != null ? firstChar() : 0;
+        if (first != 0) {
+            if (first == '[') {
+                obj.put("response", new JSONArray(responseTokener()));
+            } else {
+                obj.put("response", new JSONObject(responseTokener()));
+            }
+        } else if (StringUtils.isNotBlank(loadResponse())) {
             if (response.startsWith("[")) {
                 obj.put("response", new JSONArray(response));
             } else {
@@ -87,10 +150,132 @@ public class ServiceCallResult {
         obj.put("responseCode", responseCode);
         obj.put("responseMessage", (responseMessage == null ? "" : responseMessage));
         obj.put("objectKeysMapping", objectKeysMapping);
+        putTransportInfo(obj);
 
         return obj;
     }
 
+    protected void putTransportInfo(JSONObject obj) {
+
+        if (retryCount > 0) {
+            obj.put("retryCount", retryCount);
+        }
+        if (uploadDuration != null) {
+            JSONObject upload = new JSONObject();
+            upload.put("bytes", uploadedBytes);
+            upload.put("durationMS", uploadDuration.toMillis());
+            upload.put("bytesPerSecond", (long) getUploadThroughput());
+            obj.put("upload", upload);
+        }
+    }
+
+    /**
+     * @return true if the call was not sent because the endpoint is considered down
+     * @since 2025.18
+     */
+    public boolean circuitWasOpen() {
+        return responseCode == CIRCUIT_OPEN;
+    }
+
+    /**
+     * @return the number of times the call was retried before getting this result (see {@link RetryPolicy})
+     * @since 2025.18
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    /**
+     * @return the delay asked by the service in the <code>Retry-After</code> header (429, 503), or null
+     * @since 2025.18
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return the number of bytes of an upload (see {@link ServiceCall#uploadFileWithPut(File, String, String)})
+     * @since 2025.18
+     */
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    /**
+     * @return how long it took to send the file of an upload, null if this was not an upload or the file was not
+     *         fully sent
+     * @since 2025.18
+     */
+    public Duration getUploadDuration() {
+        return uploadDuration;
+    }
+
+    /**
+     * @return the upload throughput, in bytes per second. -1 if unknown
+     * @since 2025.18
+     */
+    public double getUploadThroughput() {
+        if (uploadDuration == null) {
+            return -1;
+        }
+        long nanos = Math.max(uploadDuration.toNanos(), 1);
+        return uploadedBytes * 1_000_000_000d / nanos;
+    }
+
+    /**
+     * @return the <code>ETag</code> header of a successful response, if any (uploaded part of a
+     *         {@link MultipartUpload})
+     * @since 2025.18
+     */
+    public String getETag() {
+        return etag;
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void setETag(String etag) {
+        this.etag = etag;
+    }
+
+    /**
+     * @return the digest (hex) of the uploaded file, if it was computed while uploading (see
+     *         {@link CallOptions#withContentDigest(String)})
+     * @since 2025.18
+     */
+    public String getContentDigest() {
+        return contentDigest;
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void setContentDigest(String contentDigest) {
+        this.contentDigest = contentDigest;
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void setUploadStats(long uploadedBytes, Duration uploadDuration) {
+        this.uploadedBytes = uploadedBytes;
+        this.uploadDuration = uploadDuration;
+    }
+
     /**
      * @return the JSON String of this object
      * @since 2023
@@ -106,6 +291,54 @@ public class ServiceCallResult {
         return obj.toString(indentFactor);
     }
 
+    /**
+     * Same as <code>Blobs.createJSONBlob(toJsonString())</code>, but when the response was written to a temporary file
+     * (big response), the result is streamed to another temporary file: the response is never loaded in memory.
+     * 
+     * @return the JSON of this object, as a Blob
+     * @throws IOException
+     * @since 2025.18
+     */
+    public Blob toJsonBlob() throws IOException {
+
+        if (response != null || responseBlob == null || responseBlob.getFile() == null) {
+            return Blobs.createJSONBlob(toJsonString());
+        }
+
+        char first = firstChar();
+        if (first != '{' && first != '[') {
+            return Blobs.createJSONBlob(toJsonString());
+        }
+
+        JSONObject obj = new JSONObject();
+        obj.put("responseCode", responseCode);
+        obj.put("responseMessage", (responseMessage == null ? "" : responseMessage));
+        obj.put("objectKeysMapping", objectKeysMapping);
+        putTransportInfo(obj);
+        String head = obj.toString();
+
+        File file = Framework.createTempFile("cic-result-", ".json");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+                InputStream in = responseBlob.getStream()) {
+            // Remove the closing }, then append the response as is
+            out.write(head.substring(0, head.length() - 1).getBytes(StandardCharsets.UTF_8));
+            out.write(",\"response\":".getBytes(StandardCharsets.UTF_8));
+            if (StandardCharsets.UTF_8.equals(responseCharset())) {
+                in.transferTo(out);
+            } else {
+                out.write(new String(in.readAllBytes(), responseCharset()).getBytes(StandardCharsets.UTF_8));
+            }
+            out.write('}');
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        }
+
+        Blob blob = Blobs.createBlob(file, "application/json", "UTF-8");
+        Framework.trackFile(file, blob);
+        return blob;
+    }
+
     /**
      * Some APIs don't return a JSON object (nor array).
      * And it even may be quoted/double quoted in the response.
@@ -115,7 +348,7 @@ public class ServiceCallResult {
      */
     public String getResponse() {
 
-        if (StringUtils.isBlank(response)) {
+        if (StringUtils.isBlank(loadResponse())) {
             return response;
         }
 
@@ -142,6 +375,73 @@ public class ServiceCallResult {
      */
     public void setResponse(String response) {
         this.response = response;
+        this.responseBlob = null;
+    }
+
+    /**
+     * Returns the raw response as a blob, without loading it in memory if it was not already.
+     * 
+     * @return the response as a Blob (null if there is no response)
+     * @since 2025.18
+     */
+    public Blob getResponseBlob() {
+        if (responseBlob == null && response != null) {
+            return Blobs.createBlob(response, "application/json", "UTF-8");
+        }
+        return responseBlob;
+    }
+
+    /*
+     * Reads the blob the first time the response is needed as a String. Only leading/trailing whitespace is removed.
+     */
+    protected String loadResponse() {
+        if (response == null && responseBlob != null) {
+            try {
+                response = responseBlob.getString().strip();
+            } catch (IOException e) {
+                throw new NuxeoException("Failed to read the response", e);
+            }
+        }
+        return response;
+    }
+
+    protected Charset responseCharset() {
+        String encoding = responseBlob.getEncoding();
+        return StringUtils.isBlank(encoding) ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+    }
+
+    /*
+     * Parsing from the stream, the response is never loaded as a String.
+     */
+    protected JSONTokener responseTokener() {
+        try {
+            return new JSONTokener(new InputStreamReader(responseBlob.getStream(), responseCharset()));
+        } catch (IOException e) {
+            throw new NuxeoException("Failed to read the response", e);
+        }
+    }
+
+    /*
+     * First non whitespace character of the response, 0 if none
+     */
+    protected char firstChar() {
+
+        if (response != null || responseBlob == null) {
+            String str = response == null ? "" : response.strip();
+            return str.isEmpty() ? 0 : str.charAt(0);
+        }
+
+        try (InputStream in = new BufferedInputStream(responseBlob.getStream())) {
+            int c;
+            while ((c = in.read()) != -1) {
+                if (!Character.isWhitespace(c)) {
+                    return (char) c;
+                }
+            }
+            return 0;
+        } catch (IOException e) {
+            throw new NuxeoException("Failed to read the response", e);
+        }
     }
 
     /**
@@ -151,6 +451,14 @@ public class ServiceCallResult {
      * @since 2023
      */
     public JSONObject getResponseAsJSONObject() {
+        if (response == null && responseBlob != null) {
+            char first = firstChar();
+            if (first != '{' && first != '[') {
+                throw new NuxeoException(
+                        "response is a simple string, cannot be converted to JSON Object. Call getResponse() instead.");
+            }
+            return new JSONObject(responseTokener());
+        }
         if (response != null && !response.startsWith("{") && !response.startsWith("[")) {
             throw new NuxeoException(
                     "response is a simple string, cannot be converted to JSON Object. Call getResponse() instead.");
@@ -169,6 +477,8 @@ public class ServiceCallResult {
 
         String resultStr;
 
+        loadResponse();
+
         if (response == null) {
             resultStr = "{\"result\": null}";
 
@@ -213,6 +523,13 @@ public class ServiceCallResult {
      * @since 2023
      */
     public JSONArray getResponseAsJSONArray() {
+        if (response == null && responseBlob != null) {
+            if (firstChar() != '[') {
+                throw new NuxeoException(
+                        "response is a simple string, cannot be converted to JSON Array. Call getResponse() instead.");
+            }
+            return new JSONArray(responseTokener());
+        }
         if (response != null && !response.startsWith("[")) {
             throw new NuxeoException(
                     "response is a simple string, cannot be converted to JSON Array. Call getResponse() instead.");
@@ -0,0 +1,555 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * HTTP settings of a {@link ServiceCall}. Built from a service descriptor (see
+ * {@code AbstractServiceDescriptor#getServiceCallSettings()}), so every configuration (KE "default", KD "tenantA",
+ * ...) gets its own connection pool.
+ *
+ * @since 2025.18
+ */
+public class ServiceCallSettings {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 20;
+
+    public static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 60;
+
+    public static final int DEFAULT_MAX_IN_MEMORY_RESPONSE_KB = 1024;
+
+    public static final int DEFAULT_CONNECT_TIMEOUT_SECONDS = 10;
+
+    public static final int DEFAULT_READ_TIMEOUT_SECONDS = 120;
+
+    /** Uploads of big files to presigned URLs can take a while */
+    public static final int DEFAULT_UPLOAD_READ_TIMEOUT_SECONDS = 600;
+
+    public static final int DEFAULT_DEADLINE_SECONDS = 600;
+
+    public static final int DEFAULT_COMPRESS_REQUESTS_MIN_KB = 16;
+
+    public static final int DEFAULT_MULTIPART_PART_SIZE_MB = 16;
+
+    public static final int DEFAULT_MULTIPART_CONCURRENCY = 4;
+
+    public static final int DEFAULT_UPLOAD_CONCURRENCY = 4;
+
+    /** Used by {@link ServiceCall#ServiceCall()}, when there is no descriptor (presigned URLs, ...) */
+    public static final ServiceCallSettings DEFAULT = new ServiceCallSettings("default", DEFAULT_MAX_CONNECTIONS,
+            DEFAULT_IDLE_TIMEOUT_SECONDS, true);
+
+    protected String name;
+
+    protected int maxConnections;
+
+    protected int idleTimeoutSeconds;
+
+    protected boolean http2;
+
+    protected int maxInMemoryResponseKB = DEFAULT_MAX_IN_MEMORY_RESPONSE_KB;
+
+    protected int connectTimeoutSeconds = DEFAULT_CONNECT_TIMEOUT_SECONDS;
+
+    protected int readTimeoutSeconds = DEFAULT_READ_TIMEOUT_SECONDS;
+
+    protected Map<EndpointFamily, Integer> readTimeoutsSeconds = new EnumMap<>(
+            Map.of(EndpointFamily.UPLOAD, DEFAULT_UPLOAD_READ_TIMEOUT_SECONDS));
+
+    protected int deadlineSeconds = DEFAULT_DEADLINE_SECONDS;
+
+    protected RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+
+    protected Map<EndpointFamily, RateLimit> rateLimits = new EnumMap<>(EndpointFamily.class);
+
+    protected boolean clusterWideRateLimits = false;
+
+    protected int circuitBreakerFailureThreshold = CircuitBreaker.DEFAULT_FAILURE_THRESHOLD;
+
+    protected int circuitBreakerOpenSeconds = CircuitBreaker.DEFAULT_OPEN_SECONDS;
+
+    protected boolean acceptCompressedResponses = true;
+
+    protected boolean compressRequests = false;
+
+    protected int compressRequestsMinKB = DEFAULT_COMPRESS_REQUESTS_MIN_KB;
+
+    protected int multipartThresholdMB = 0;
+
+    protected int multipartPartSizeMB = DEFAULT_MULTIPART_PART_SIZE_MB;
+
+    protected int multipartConcurrency = DEFAULT_MULTIPART_CONCURRENCY;
+
+    protected int uploadConcurrency = DEFAULT_UPLOAD_CONCURRENCY;
+
+    protected int presignPoolMaxSize = 0;
+
+    protected int presignPoolTtlSeconds = PresignedUrlPool.DEFAULT_TTL_SECONDS;
+
+    protected String transport = HttpTransport.NAME;
+
+    protected String service;
+
+    protected String config;
+
+    /**
+     * @param name, used for logging only
+     * @param maxConnections, max. concurrent requests for this pool. <= 0 means the default value
+     * @param idleTimeoutSeconds, the pool is dropped (and its connections closed) after this time without any call. <=
+     *            0 means the default value
+     * @param http2, if true, HTTP/2 is negotiated when the server supports it. Else, HTTP/1.1 only.
+     */
+    public ServiceCallSettings(String name, int maxConnections, int idleTimeoutSeconds, boolean http2) {
+        this.name = name;
+        this.maxConnections = maxConnections > 0 ? maxConnections : DEFAULT_MAX_CONNECTIONS;
+        this.idleTimeoutSeconds = idleTimeoutSeconds > 0 ? idleTimeoutSeconds : DEFAULT_IDLE_TIMEOUT_SECONDS;
+        this.http2 = http2;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the service (KE, KD, ...) using these settings, used to tag the metrics
+     * @since 2025.18
+     */
+    public String getService() {
+        return service;
+    }
+
+    /**
+     * @return the name of the configuration using these settings, used to tag the metrics
+     * @since 2025.18
+     */
+    public String getConfig() {
+        return config;
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void setMetricsTags(String service, String config) {
+        this.service = service;
+        this.config = config;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getIdleTimeoutSeconds() {
+        return idleTimeoutSeconds;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    /**
+     * @return the size above which a successful response is written to a temporary file
+     * @since 2025.18
+     */
+    public int getMaxInMemoryResponseKB() {
+        return maxInMemoryResponseKB;
+    }
+
+    /**
+     * @param maxInMemoryResponseKB, <= 0 means the default value
+     * @since 2025.18
+     */
+    public void setMaxInMemoryResponseKB(int maxInMemoryResponseKB) {
+        this.maxInMemoryResponseKB = maxInMemoryResponseKB > 0 ? maxInMemoryResponseKB
+                : DEFAULT_MAX_IN_MEMORY_RESPONSE_KB;
+    }
+
+    /**
+     * @return the max. time to establish a connection
+     * @since 2025.18
+     */
+    public int getConnectTimeoutSeconds() {
+        return connectTimeoutSeconds;
+    }
+
+    /**
+     * @param connectTimeoutSeconds, <= 0 means the default value
+     * @since 2025.18
+     */
+    public void setConnectTimeoutSeconds(int connectTimeoutSeconds) {
+        this.connectTimeoutSeconds = connectTimeoutSeconds > 0 ? connectTimeoutSeconds
+                : DEFAULT_CONNECT_TIMEOUT_SECONDS;
+    }
+
+    /**
+     * @return the max. time to wait for a response, when there is no specific value for the endpoint family
+     * @since 2025.18
+     */
+    public int getReadTimeoutSeconds() {
+        return readTimeoutSeconds;
+    }
+
+    /**
+     * @param readTimeoutSeconds, <= 0 means the default value
+     * @since 2025.18
+     */
+    public void setReadTimeoutSeconds(int readTimeoutSeconds) {
+        this.readTimeoutSeconds = readTimeoutSeconds > 0 ? readTimeoutSeconds : DEFAULT_READ_TIMEOUT_SECONDS;
+    }
+
+    /**
+     * @param family
+     * @return the read timeout for this family, or the general one
+     * @since 2025.18
+     */
+    public int getReadTimeoutSeconds(EndpointFamily family) {
+        return readTimeoutsSeconds.getOrDefault(family, readTimeoutSeconds);
+    }
+
+    /**
+     * @param family
+     * @return the read timeout for this family, as a <code>Duration</code>
+     * @since 2025.18
+     */
+    public Duration getReadTimeout(EndpointFamily family) {
+        return Duration.ofSeconds(getReadTimeoutSeconds(family));
+    }
+
+    /**
+     * @param family
+     * @param seconds, <= 0 removes the specific value (the general read timeout is used)
+     * @since 2025.18
+     */
+    public void setReadTimeoutSeconds(EndpointFamily family, int seconds) {
+        if (seconds > 0) {
+            readTimeoutsSeconds.put(family, seconds);
+        } else {
+            readTimeoutsSeconds.remove(family);
+        }
+    }
+
+    /**
+     * @return the total time budget of a flow (presign, upload, process, poll, ...)
+     * @since 2025.18
+     */
+    public int getDeadlineSeconds() {
+        return deadlineSeconds;
+    }
+
+    /**
+     * @param deadlineSeconds, <= 0 means no deadline
+     * @since 2025.18
+     */
+    public void setDeadlineSeconds(int deadlineSeconds) {
+        this.deadlineSeconds = Math.max(deadlineSeconds, 0);
+    }
+
+    /**
+     * @return a new deadline for a flow, starting now
+     * @since 2025.18
+     */
+    public Deadline newDeadline() {
+        return Deadline.in(Duration.ofSeconds(deadlineSeconds));
+    }
+
+    /**
+     * @return the retry policy of the calls
+     * @since 2025.18
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * @param retryPolicy, null means no retry
+     * @since 2025.18
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy == null ? RetryPolicy.NONE : retryPolicy;
+    }
+
+    /**
+     * @param family
+     * @return the rate limit of this family, or null if not limited
+     * @since 2025.18
+     */
+    public RateLimit getRateLimit(EndpointFamily family) {
+        return rateLimits.get(family);
+    }
+
+    /**
+     * @return the rate limits, per endpoint family
+     * @since 2025.18
+     */
+    public Map<EndpointFamily, RateLimit> getRateLimits() {
+        return rateLimits;
+    }
+
+    /**
+     * @param family
+     * @param rateLimit, null removes the limit
+     * @since 2025.18
+     */
+    public void setRateLimit(EndpointFamily family, RateLimit rateLimit) {
+        if (rateLimit == null) {
+            rateLimits.remove(family);
+        } else {
+            rateLimits.put(family, rateLimit);
+        }
+    }
+
+    /**
+     * @return true if the rate limits are shared by all the nodes of the cluster
+     * @since 2025.18
+     */
+    public boolean isClusterWideRateLimits() {
+        return clusterWideRateLimits;
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void setClusterWideRateLimits(boolean clusterWideRateLimits) {
+        this.clusterWideRateLimits = clusterWideRateLimits;
+    }
+
+    /**
+     * @return the number of consecutive failures opening the circuit of an endpoint family, 0 if there is no circuit
+     *         breaker
+     * @since 2025.18
+     */
+    public int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    /**
+     * @param circuitBreakerFailureThreshold, <= 0 disables the circuit breakers
+     * @since 2025.18
+     */
+    public void setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+        this.circuitBreakerFailureThreshold = Math.max(circuitBreakerFailureThreshold, 0);
+    }
+
+    /**
+     * @return how long an open circuit rejects the calls before letting a probe through
+     * @since 2025.18
+     */
+    public int getCircuitBreakerOpenSeconds() {
+        return circuitBreakerOpenSeconds;
+    }
+
+    /**
+     * @param circuitBreakerOpenSeconds, <= 0 means the default value
+     * @since 2025.18
+     */
+    public void setCircuitBreakerOpenSeconds(int circuitBreakerOpenSeconds) {
+        this.circuitBreakerOpenSeconds = circuitBreakerOpenSeconds > 0 ? circuitBreakerOpenSeconds
+                : CircuitBreaker.DEFAULT_OPEN_SECONDS;
+    }
+
+    /**
+     * @return true if the calls ask for compressed responses (<code>Accept-Encoding: gzip, deflate</code>)
+     * @since 2025.18
+     */
+    public boolean isAcceptCompressedResponses() {
+        return acceptCompressedResponses;
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void setAcceptCompressedResponses(boolean acceptCompressedResponses) {
+        this.acceptCompressedResponses = acceptCompressedResponses;
+    }
+
+    /**
+     * @return true if big request bodies of {@link EndpointFamily#PROCESS} calls are sent gzipped
+     * @since 2025.18
+     */
+    public boolean isCompressRequests() {
+        return compressRequests;
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void setCompressRequests(boolean compressRequests) {
+        this.compressRequests = compressRequests;
+    }
+
+    /**
+     * @return the min. size of a request body to compress it
+     * @since 2025.18
+     */
+    public int getCompressRequestsMinKB() {
+        return compressRequestsMinKB;
+    }
+
+    /**
+     * @param compressRequestsMinKB, < 0 means the default value
+     * @since 2025.18
+     */
+    public void setCompressRequestsMinKB(int compressRequestsMinKB) {
+        this.compressRequestsMinKB = compressRequestsMinKB < 0 ? DEFAULT_COMPRESS_REQUESTS_MIN_KB
+                : compressRequestsMinKB;
+    }
+
+    /**
+     * @return the min. size of a file to upload it in parts (see {@link MultipartUpload}), 0 if disabled
+     * @since 2025.18
+     */
+    public int getMultipartThresholdMB() {
+        return multipartThresholdMB;
+    }
+
+    /**
+     * @param multipartThresholdMB, <= 0 disables multipart uploads
+     * @since 2025.18
+     */
+    public void setMultipartThresholdMB(int multipartThresholdMB) {
+        this.multipartThresholdMB = Math.max(multipartThresholdMB, 0);
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public int getMultipartPartSizeMB() {
+        return multipartPartSizeMB;
+    }
+
+    /**
+     * @param multipartPartSizeMB, <= 0 means the default value
+     * @since 2025.18
+     */
+    public void setMultipartPartSizeMB(int multipartPartSizeMB) {
+        this.multipartPartSizeMB = multipartPartSizeMB > 0 ? multipartPartSizeMB : DEFAULT_MULTIPART_PART_SIZE_MB;
+    }
+
+    /**
+     * @return the max. number of parts of a file sent at the same time
+     * @since 2025.18
+     */
+    public int getMultipartConcurrency() {
+        return multipartConcurrency;
+    }
+
+    /**
+     * @param multipartConcurrency, <= 0 means the default value
+     * @since 2025.18
+     */
+    public void setMultipartConcurrency(int multipartConcurrency) {
+        this.multipartConcurrency = multipartConcurrency > 0 ? multipartConcurrency : DEFAULT_MULTIPART_CONCURRENCY;
+    }
+
+    /**
+     * @return the max. number of files of a batch being presigned or uploaded at the same time
+     * @since 2025.18
+     */
+    public int getUploadConcurrency() {
+        return uploadConcurrency;
+    }
+
+    /**
+     * @param uploadConcurrency, <= 0 means the default value
+     * @since 2025.18
+     */
+    public void setUploadConcurrency(int uploadConcurrency) {
+        this.uploadConcurrency = uploadConcurrency > 0 ? uploadConcurrency : DEFAULT_UPLOAD_CONCURRENCY;
+    }
+
+    /**
+     * @return the max. number of presigned URLs prefetched per content type, 0 if disabled
+     * @since 2025.18
+     */
+    public int getPresignPoolMaxSize() {
+        return presignPoolMaxSize;
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void setPresignPoolMaxSize(int presignPoolMaxSize) {
+        this.presignPoolMaxSize = Math.max(presignPoolMaxSize, 0);
+    }
+
+    /**
+     * @return the max. age of a prefetched presigned URL
+     * @since 2025.18
+     */
+    public int getPresignPoolTtlSeconds() {
+        return presignPoolTtlSeconds;
+    }
+
+    /**
+     * @param presignPoolTtlSeconds, <= 0 means the default value
+     * @since 2025.18
+     */
+    public void setPresignPoolTtlSeconds(int presignPoolTtlSeconds) {
+        this.presignPoolTtlSeconds = presignPoolTtlSeconds > 0 ? presignPoolTtlSeconds
+                : PresignedUrlPool.DEFAULT_TTL_SECONDS;
+    }
+
+    /**
+     * @param fileLength
+     * @return the number of parts to upload a file of this size, 0 if it must be uploaded in one PUT
+     * @since 2025.18
+     */
+    public int getMultipartPartCount(long fileLength) {
+        if (multipartThresholdMB <= 0 || fileLength < multipartThresholdMB * 1024L * 1024L) {
+            return 0;
+        }
+        return MultipartUpload.partCount(fileLength, multipartPartSizeMB * 1024L * 1024L);
+    }
+
+    /**
+     * @return the name of the {@link CICTransport} sending the requests
+     * @since 2025.18
+     */
+    public String getTransport() {
+        return transport;
+    }
+
+    /**
+     * @since 2025.18
+     */
+    public void setTransport(String transport) {
+        this.transport = StringUtils.isBlank(transport) ? HttpTransport.NAME : transport.trim();
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceCallSettings [name=" + name + ", maxConnections=" + maxConnections + ", idleTimeoutSeconds="
+                + idleTimeoutSeconds + ", http2=" + http2 + ", maxInMemoryResponseKB=" + maxInMemoryResponseKB
+                + ", connectTimeoutSeconds=" + connectTimeoutSeconds + ", readTimeoutSeconds=" + readTimeoutSeconds
+                + ", readTimeoutsSeconds=" + readTimeoutsSeconds + ", deadlineSeconds=" + deadlineSeconds
+                + ", retryPolicy=" + retryPolicy + ", rateLimits=" + rateLimits + ", clusterWideRateLimits="
+                + clusterWideRateLimits + ", circuitBreakerFailureThreshold=" + circuitBreakerFailureThreshold
+                + ", circuitBreakerOpenSeconds=" + circuitBreakerOpenSeconds + ", acceptCompressedResponses="
+                + acceptCompressedResponses + ", compressRequests=" + compressRequests + ", compressRequestsMinKB="
+                + compressRequestsMinKB + ", multipartThresholdMB=" + multipartThresholdMB + ", multipartPartSizeMB="
+                + multipartPartSizeMB + ", multipartConcurrency=" + multipartConcurrency + ", uploadConcurrency="
+                + uploadConcurrency + ", presignPoolMaxSize=" + presignPoolMaxSize + ", presignPoolTtlSeconds="
+                + presignPoolTtlSeconds + ", transport=" + transport + "]";
+    }
+
+}
@@ -0,0 +1,293 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.nuxeo.ecm.core.api.Blob;
+import org.nuxeo.ecm.core.api.Blobs;
+import org.nuxeo.runtime.api.Framework;
+
+/**
+ * Receives a response body as a <code>Blob</code>, without ever holding more than <code>maxInMemory</code> bytes on
+ * the heap: up to this size, the body is kept in memory. Above, it is written to a temporary file (deleted when the
+ * blob is garbage collected).
+ * <p>
+ * The body is stored as received, byte for byte, once decoded: a <code>gzip</code> or <code>deflate</code>
+ * <code>Content-Encoding</code> is decompressed (the compressed bytes are received first, then inflated with the same
+ * memory limit). Other encodings are not supported, the body is then returned as received.
+ *
+ * @since 2025.18
+ */
+public class SpillingBodySubscriber implements BodySubscriber<Blob> {
+
+    private static final Logger log = LogManager.getLogger(SpillingBodySubscriber.class);
+
+    protected long maxInMemory;
+
+    protected String mimeType;
+
+    protected String encoding;
+
+    protected String contentEncoding;
+
+    protected ByteArrayOutputStream memory = new ByteArrayOutputStream();
+
+    protected File file = null;
+
+    protected OutputStream fileOut = null;
+
+    protected Flow.Subscription subscription;
+
+    protected CompletableFuture<Blob> result = new CompletableFuture<>();
+
+    public SpillingBodySubscriber(long maxInMemory, String mimeType, String encoding) {
+        this(maxInMemory, mimeType, encoding, null);
+    }
+
+    /**
+     * @param contentEncoding, the <code>Content-Encoding</code> of the body, decoded on completion. Null or
+     *            <code>identity</code> if not encoded.
+     * @since 2025.18
+     */
+    public SpillingBodySubscriber(long maxInMemory, String mimeType, String encoding, String contentEncoding) {
+        this.maxInMemory = maxInMemory;
+        this.mimeType = mimeType;
+        this.encoding = encoding;
+        if (StringUtils.isNotBlank(contentEncoding) && !"identity".equalsIgnoreCase(contentEncoding.trim())) {
+            this.contentEncoding = contentEncoding.trim().toLowerCase();
+        }
+    }
+
+    /**
+     * Reads mime type and charset from the <code>Content-Type</code> header. Defaults to JSON/UTF-8, which is what CIC
+     * returns. The body is decoded according to its <code>Content-Encoding</code>.
+     *
+     * @param responseInfo
+     * @param maxInMemory
+     * @return a new subscriber
+     * @since 2025.18
+     */
+    public static SpillingBodySubscriber of(ResponseInfo responseInfo, long maxInMemory) {
+
+        String mimeType = "application/json";
+        String encoding = "UTF-8";
+
+        String contentType = responseInfo.headers().firstValue("Content-Type").orElse(null);
+        if (StringUtils.isNotBlank(contentType)) {
+            String[] parts = contentType.split(";");
+            if (StringUtils.isNotBlank(parts[0])) {
+                mimeType = parts[0].trim();
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.regionMatches(true, 0, "charset=", 0, 8)) {
+                    encoding = StringUtils.strip(param.substring(8), "\"");
+                }
+            }
+        }
+
+        String contentEncoding = responseInfo.headers().firstValue("Content-Encoding").orElse(null);
+
+        return new SpillingBodySubscriber(maxInMemory, mimeType, encoding, contentEncoding);
+    }
+
+    @Override
+    public CompletionStage<Blob> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+
+        if (result.isDone()) {
+            return;
+        }
+
+        try {
+            for (ByteBuffer buffer : items) {
+                if (buffer.hasArray()) {
+                    write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                    buffer.position(buffer.limit());
+                } else {
+                    byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    write(bytes, 0, bytes.length);
+                }
+            }
+        } catch (IOException e) {
+            subscription.cancel();
+            fail(e);
+        }
+    }
+
+    protected void write(byte[] bytes, int offset, int length) throws IOException {
+
+        if (fileOut == null && memory.size() + length > maxInMemory) {
+            spill();
+        }
+        OutputStream out = fileOut != null ? fileOut : memory;
+        out.write(bytes, offset, length);
+    }
+
+    protected void spill() throws IOException {
+
+        file = Framework.createTempFile("cic-response-", ".tmp");
+        fileOut = new BufferedOutputStream(new FileOutputStream(file));
+        memory.writeTo(fileOut);
+        memory = null;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+
+        if (result.isDone()) {
+            return;
+        }
+
+        Blob blob;
+        try {
+            blob = toBlob();
+            if (contentEncoding != null) {
+                blob = decode(blob);
+            }
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+
+        result.complete(blob);
+    }
+
+    protected Blob toBlob() throws IOException {
+
+        if (fileOut == null) {
+            Blob blob = Blobs.createBlob(memory.toByteArray(), mimeType);
+            blob.setEncoding(encoding);
+            return blob;
+        }
+
+        fileOut.close();
+        Blob blob = Blobs.createBlob(file, mimeType, encoding);
+        Framework.trackFile(file, blob);
+        return blob;
+    }
+
+    /*
+     * Inflates the received body. Several encodings are applied in the order they are listed, so they are removed in
+     * reverse order.
+     */
+    protected Blob decode(Blob received) throws IOException {
+
+        String[] encodings = contentEncoding.split(",");
+        for (String enc : encodings) {
+            enc = enc.trim();
+            if (!enc.equals("gzip") && !enc.equals("x-gzip") && !enc.equals("deflate") && !enc.equals("identity")) {
+                log.warn("Unsupported Content-Encoding '{}', body returned as received.", contentEncoding);
+                return received;
+            }
+        }
+
+        Blob blob = received;
+        for (int i = encodings.length - 1; i >= 0; i--) {
+            SpillingBodySubscriber decoded = new SpillingBodySubscriber(maxInMemory, mimeType, encoding);
+            try (InputStream in = decodingStream(blob.getStream(), encodings[i].trim())) {
+                byte[] buffer = new byte[8192];
+                int count;
+                while ((count = in.read(buffer)) != -1) {
+                    decoded.write(buffer, 0, count);
+                }
+            } catch (IOException e) {
+                decoded.fail(e);
+                throw e;
+            }
+            if (file != null && blob == received) {
+                // The compressed body is not needed anymore
+                file.delete();
+            }
+            blob = decoded.toBlob();
+        }
+
+        return blob;
+    }
+
+    protected static InputStream decodingStream(InputStream in, String contentEncoding) throws IOException {
+
+        switch (contentEncoding) {
+        case "gzip":
+        case "x-gzip":
+            return new GZIPInputStream(in, 8192);
+        case "deflate":
+            // Should be zlib-wrapped (RFC 9110), but some servers send raw deflate
+            PushbackInputStream pushback = new PushbackInputStream(in, 2);
+            byte[] header = pushback.readNBytes(2);
+            pushback.unread(header);
+            boolean zlib = header.length == 2 && (header[0] & 0x0F) == 8
+                    && (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31 == 0;
+            return new InflaterInputStream(pushback, new Inflater(!zlib), 8192);
+        default:
+            return in;
+        }
+    }
+
+    protected void fail(Throwable throwable) {
+
+        if (fileOut != null) {
+            try {
+                fileOut.close();
+            } catch (IOException e) {
+                // Ignore, we are failing anyway
+            }
+            file.delete();
+        }
+        result.completeExceptionally(throwable);
+    }
+
+}
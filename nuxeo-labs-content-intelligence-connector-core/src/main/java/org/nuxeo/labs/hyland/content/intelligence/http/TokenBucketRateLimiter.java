@@ -0,0 +1,73 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local (this node only) token bucket. Callers reserve a token and wait until it is available, so they are served in
+ * order.
+ *
+ * @since 2025.18
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    protected double capacity;
+
+    protected double nanosPerToken;
+
+    // Can be negative: tokens reserved by waiting callers
+    protected double tokens;
+
+    protected long lastRefill;
+
+    public TokenBucketRateLimiter(RateLimit limit) {
+        capacity = limit.getPermits();
+        nanosPerToken = TimeUnit.SECONDS.toNanos(limit.getPeriodSeconds()) / capacity;
+        tokens = capacity;
+        lastRefill = System.nanoTime();
+    }
+
+    /**
+     * @return the time to wait before using the reserved token, in nanoseconds
+     */
+    protected synchronized long reserve() {
+
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+        lastRefill = now;
+
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * nanosPerToken);
+    }
+
+    @Override
+    public CompletableFuture<Void> acquireAsync(Executor executor) {
+
+        long wait = reserve();
+        if (wait == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, executor));
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.http;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gives a {@link ServiceCall} a new bearer token when the one of a request is rejected (401). The request is then
+ * sent again, once, with the new token.
+ *
+ * @since 2025.18
+ */
+@FunctionalInterface
+public interface TokenRefresher {
+
+    /**
+     * Must not block the calling thread: concurrent calls for the same rejected token share the same refresh.
+     *
+     * @param rejected, the token rejected by the service
+     * @return the future new token, <code>null</code> if none could be obtained
+     */
+    CompletableFuture<String> refreshRejectedToken(String rejected);
+
+}
@@ -18,16 +18,43 @@
  */
 package org.nuxeo.labs.hyland.content.intelligence.service;
 
+import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.nuxeo.ecm.core.api.NuxeoException;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationToken;
+import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationTokenRegistry;
+import org.nuxeo.labs.hyland.content.intelligence.authentication.ClusterTokenStore;
+import org.nuxeo.labs.hyland.content.intelligence.http.AdaptivePolling;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.Deadline;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
+import org.nuxeo.labs.hyland.content.intelligence.http.JobPollScheduler;
+import org.nuxeo.labs.hyland.content.intelligence.http.MultipartUpload;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.CICTracer;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.Span;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.kv.KeyValueService;
 import org.nuxeo.runtime.model.ComponentContext;
 import org.nuxeo.runtime.model.DefaultComponent;
 import org.nuxeo.runtime.model.Extension;
@@ -44,6 +71,12 @@ public abstract class AbstractCICServiceComponent<D extends AbstractServiceDescr
 
     protected Map<String, D> contribs = new HashMap<>();
 
+    // One ServiceCall (so, one connection pool) per configuration. Created lazily.
+    protected Map<String, ServiceCall> serviceCalls = new ConcurrentHashMap<>();
+
+    // The token of each configuration, acquired by initAuthTokens() from the AuthenticationTokenRegistry
+    protected Map<String, AuthenticationToken> authTokens = new ConcurrentHashMap<>();
+
     // ======================================================================
     // ======================================================================
     // Shared code for the services
@@ -74,6 +107,327 @@ public abstract class AbstractCICServiceComponent<D extends AbstractServiceDescr
         return token.getToken();
     }
 
+    /**
+     * Non-blocking version of <code>getToken</code>, for the token of a configuration of this service: a missing or
+     * expired token is obtained in the background.
+     *
+     * @return the future token, <code>null</code> if the configuration has none
+     * @since 2025.18
+     */
+    protected CompletableFuture<String> getTokenAsync(String configName) {
+
+        AuthenticationToken token = authTokens.get(checkConfigName(configName));
+        return token == null ? CompletableFuture.completedFuture(null) : token.getTokenAsync();
+    }
+
+    /**
+     * Returns the <code>ServiceCall</code> bound to this configuration, so calls reuse its pooled connections.
+     * If there is no such configuration, returns a <code>ServiceCall</code> using the default, shared, pool.
+     *
+     * @param configName
+     * @return the ServiceCall to use for this configuration
+     * @since 2025.18
+     */
+    public ServiceCall getServiceCall(String configName) {
+
+        String name = checkConfigName(configName);
+        return serviceCalls.computeIfAbsent(name, k -> {
+            D desc = getDescriptor(k);
+            return desc == null ? new ServiceCall() : new ServiceCall(desc.getServiceCallSettings());
+        });
+    }
+
+    /**
+     * Closes the connection pools, and releases the auth tokens (their background renewal stops when no other
+     * configuration uses them). To be called by the <code>stop()</code> method of every service.
+     *
+     * @since 2025.18
+     */
+    protected void closeServiceCalls() {
+        AuthenticationTokenRegistry registry = AuthenticationTokenRegistry.getInstance();
+        authTokens.forEach((name, token) -> registry.release(token, serviceCalls.get(name)));
+        authTokens.clear();
+        serviceCalls.values().forEach(ServiceCall::close);
+        serviceCalls.clear();
+    }
+
+    /**
+     * Starts the time budget of a flow (presign, upload, process, poll, ...), as set in the <code>http</code>
+     * settings of the configuration. Every call of the flow receives it (see
+     * {@link org.nuxeo.labs.hyland.content.intelligence.http.CallOptions}).
+     *
+     * @param configName
+     * @return a new deadline
+     * @since 2025.18
+     */
+    protected Deadline newDeadline(String configName) {
+        return getServiceCall(configName).getSettings().newDeadline();
+    }
+
+    /**
+     * @param configName
+     * @param file
+     * @return the number of parts to ask the presign endpoint for, 0 if the file is uploaded in one PUT
+     * @since 2025.18
+     */
+    protected int getMultipartPartCount(String configName, File file) {
+        return getMultipartPartCount(configName, file.length());
+    }
+
+    /**
+     * @param configName
+     * @param length, the length of the file
+     * @return the number of parts to ask the presign endpoint for, 0 if the file is uploaded in one PUT
+     * @since 2025.18
+     */
+    protected int getMultipartPartCount(String configName, long length) {
+        return getServiceCall(configName).getSettings().getMultipartPartCount(length);
+    }
+
+    /**
+     * Uploads a file to the presigned URL(s) returned by a presign call. If the presign response describes a
+     * multipart upload (a <code>parts</code> array of presigned URLs and a <code>completeUrl</code> or
+     * <code>complete_url</code>), and multipart uploads are enabled for this size of file, the file is uploaded in
+     * parts (see {@link MultipartUpload}). Else it is sent in one PUT to <code>putUrl</code>.
+     *
+     * @param configName
+     * @param file
+     * @param contentType
+     * @param presignResponse
+     * @param putUrl, the single presigned URL
+     * @param deadline
+     * @param span, the span of the upload step, the HTTP calls are its children
+     * @return the result of the upload
+     * @since 2025.18
+     */
+    protected CompletableFuture<ServiceCallResult> uploadFileAsync(String configName, File file, String contentType,
+            JSONObject presignResponse, String putUrl, Deadline deadline, Span span) {
+
+        return uploadFileAsync(configName, file, contentType, presignResponse, putUrl, deadline, span, null);
+    }
+
+    /**
+     * Same as {@link #uploadFileAsync(String, File, String, JSONObject, String, Deadline, Span)}, computing the digest
+     * of the file while it is sent in one PUT (see {@link ServiceCallResult#getContentDigest()}). Not computed for
+     * multipart uploads (their parts are sent at the same time).
+     *
+     * @param digestAlgorithm, null to not compute the digest
+     * @since 2025.18
+     */
+    protected CompletableFuture<ServiceCallResult> uploadFileAsync(String configName, File file, String contentType,
+            JSONObject presignResponse, String putUrl, Deadline deadline, Span span, String digestAlgorithm) {
+
+        ServiceCall serviceCall = getServiceCall(configName);
+        CallOptions options = CallOptions.of(EndpointFamily.UPLOAD, deadline).withSpan(span);
+
+        JSONArray parts = presignResponse.optJSONArray("parts");
+        String completeUrl = presignResponse.optString("completeUrl", presignResponse.optString("complete_url", null));
+        if (getMultipartPartCount(configName, file) > 0 && parts != null && !parts.isEmpty()
+                && StringUtils.isNotBlank(completeUrl)) {
+            List<String> partUrls = new ArrayList<>();
+            for (int i = 0; i < parts.length(); i++) {
+                partUrls.add(parts.getString(i));
+            }
+            // The service may have chosen another number of parts
+            long partSize = (file.length() + partUrls.size() - 1) / partUrls.size();
+            try {
+                MultipartUpload upload = new MultipartUpload(serviceCall, file, contentType, partSize,
+                        serviceCall.getSettings().getMultipartConcurrency(), partUrls, options);
+                return upload.uploadAndCompleteAsync(completeUrl);
+            } catch (IllegalArgumentException e) {
+                LogManager.getLogger(getClass())
+                          .warn("{}: unexpected parts for {}, uploading in one PUT ({})", getServiceLabel(),
+                                  file.getName(), e.getMessage());
+            }
+        }
+
+        return serviceCall.uploadFileWithPutAsync(file, putUrl, contentType,
+                digestAlgorithm == null ? options : options.withContentDigest(digestAlgorithm));
+    }
+
+    /**
+     * Runs a flow (enrichment, curation, question, ...) in a new span: the root of a new trace, or a child of the
+     * current span of the thread (see {@link Span#makeCurrent()}). The flow receives this span, its steps are traced
+     * with {@link #traced(Span, String, Function)}.
+     *
+     * @param name
+     * @param configName
+     * @param flow
+     * @return the result of the flow
+     * @since 2025.18
+     */
+    protected CompletableFuture<ServiceCallResult> tracedFlow(String name, String configName,
+            Function<Span, CompletableFuture<ServiceCallResult>> flow) {
+
+        Span span = CICTracer.startSpan(name)
+                             .setAttribute("service", getServiceLabel())
+                             .setAttribute("config", checkConfigName(configName));
+        try {
+            return endWhenDone(span, flow.apply(span));
+        } catch (RuntimeException e) {
+            CICTracer.end(span, null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * @param span
+     * @param future
+     * @return a future completed as <code>future</code>, once <code>span</code> is ended with its outcome
+     * @since 2025.18
+     */
+    protected <T> CompletableFuture<T> endWhenDone(Span span, CompletableFuture<T> future) {
+        if (!span.isRecording()) {
+            return future;
+        }
+        return future.whenComplete((result, error) -> CICTracer.end(span, result, error));
+    }
+
+    /**
+     * Runs one step of a flow (presign, upload, process, poll, ...) in a child span of <code>parent</code>. The step
+     * receives this span, to pass it to its HTTP calls (see {@link CallOptions#withSpan(Span)}).
+     *
+     * @param parent
+     * @param name
+     * @param step
+     * @return the result of the step
+     * @since 2025.18
+     */
+    protected CompletableFuture<ServiceCallResult> traced(Span parent, String name,
+            Function<Span, CompletableFuture<ServiceCallResult>> step) {
+
+        Span span = parent.child(name);
+        try {
+            return endWhenDone(span, step.apply(span));
+        } catch (RuntimeException e) {
+            CICTracer.end(span, null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the authentication token in a "token" span, child of the flow span. The token being cached, the next
+     * calls of the flow get it immediately.
+     *
+     * @param parent
+     * @param token
+     * @return the token
+     * @since 2025.18
+     */
+    protected String tracedToken(Span parent, Supplier<String> token) {
+
+        Span span = parent.child("token");
+        try {
+            String value = token.get();
+            if (StringUtils.isBlank(value)) {
+                span.setError("No token");
+            }
+            return value;
+        } catch (RuntimeException e) {
+            CICTracer.end(span, null, e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Non-blocking polling: calls <code>attempt</code> (with the attempt number, starting at 1) until
+     * <code>isDone</code> returns true, <code>maxTries</code> is reached or the deadline expires, waiting
+     * <code>intervalMS</code> between attempts without holding a thread. The future is completed with the last
+     * result. The polling also stops when an attempt returns a {@link ServiceCallResult#CIRCUIT_OPEN} result.
+     * <p>
+     * All the jobs, of all the services, are polled by the shared {@link JobPollScheduler}. Each attempt starts once
+     * the token of the configuration is available (see {@link #getTokenAsync(String)}), so a token being fetched does
+     * not hold a thread of the scheduler. Cancelling the returned future stops the polling.
+     *
+     * @param configName, the configuration
+     * @param attempt
+     * @param isDone, receives the attempt number and its result
+     * @param maxTries
+     * @param intervalMS
+     * @param deadline, the deadline of the flow
+     * @return the last result
+     * @since 2025.18
+     */
+    protected <T> CompletableFuture<T> pollAsync(String configName, IntFunction<CompletableFuture<T>> attempt,
+            BiPredicate<Integer, T> isDone, int maxTries, int intervalMS, Deadline deadline) {
+
+        return pollAsync(configName, null, attempt, isDone, maxTries, intervalMS, deadline);
+    }
+
+    /**
+     * Same as {@link #pollAsync(String, IntFunction, BiPredicate, int, int, Deadline)}, with intervals learned from
+     * the previous jobs of the same kind, if {@link AdaptivePolling} is enabled. The latency of the job is recorded
+     * when <code>isDone</code> returns true.
+     *
+     * @param latencyKey, the kind of job (see {@link AdaptivePolling#key(String, String, long)}), null to poll at
+     *            <code>intervalMS</code>
+     * @since 2025.18
+     */
+    protected <T> CompletableFuture<T> pollAsync(String configName, String latencyKey,
+            IntFunction<CompletableFuture<T>> attempt, BiPredicate<Integer, T> isDone, int maxTries, int intervalMS,
+            Deadline deadline) {
+
+        AdaptivePolling adaptive = AdaptivePolling.getInstance();
+        IntUnaryOperator intervals = latencyKey == null ? count -> count == 0 ? 0 : intervalMS
+                : adaptive.intervals(latencyKey, intervalMS);
+        int tries = latencyKey == null ? maxTries : AdaptivePolling.maxTries(intervals, maxTries, intervalMS);
+        long start = System.nanoTime();
+
+        String name = getServiceLabel() + "/" + checkConfigName(configName);
+        // The attempt then finds the token cached
+        IntFunction<CompletableFuture<T>> withToken = count -> getTokenAsync(configName).thenCompose(
+                token -> attempt.apply(count));
+        return JobPollScheduler.getInstance().poll(name, withToken, (count, result) -> {
+            if (isDone.test(count, result)) {
+                // (Not a failure: not how long the job takes)
+                if (latencyKey != null
+                        && !(result instanceof ServiceCallResult callResult && callResult.callFailed())) {
+                    adaptive.record(latencyKey, Duration.ofNanos(System.nanoTime() - start), count == 1);
+                }
+                return true;
+            }
+            if (result instanceof ServiceCallResult callResult && callResult.circuitWasOpen()) {
+                LogManager.getLogger(getClass())
+                          .warn("{}: circuit open after {} attempt(s), giving up.", getServiceLabel(), count);
+                return true;
+            }
+            return false;
+        }, tries, intervals, deadline);
+    }
+
+    /**
+     * Waits for the result of one of the <code>xxxAsync</code> methods. Used by their blocking counterpart, so they
+     * throw the same exceptions as before (a <code>NuxeoException</code> typically).
+     *
+     * @param future
+     * @return the result
+     * @since 2025.18
+     */
+    protected <T> T await(CompletableFuture<T> future) {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new NuxeoException("Interrupted while waiting for " + getServiceLabel() + " results", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error err) {
+                throw err;
+            }
+            throw new NuxeoException(cause);
+        }
+    }
+
     public List<String> getContribNames() {
         if(contribs == null) {
             contribs = new HashMap<>();
@@ -107,16 +461,38 @@ public abstract class AbstractCICServiceComponent<D extends AbstractServiceDescr
             return null;
         }
 
+        // Configurations (of this service or not) with the same credentials share the same token
+        AuthenticationTokenRegistry registry = AuthenticationTokenRegistry.getInstance();
         Map<String, AuthenticationToken> tokens = new HashMap<>();
         for (D desc : getContribMap().values()) {
-            AuthenticationToken token = tokenFactory.apply(desc);
+            AuthenticationToken token = registry.acquire(tokenFactory.apply(desc), getServiceCall(desc.getName()));
+            if (desc.isClusterTokenCache() && token.getClusterTokenStore() == null) {
+                KeyValueService kvs = Framework.getService(KeyValueService.class);
+                if (kvs == null) {
+                    LogManager.getLogger(this.getClass())
+                              .warn("No KeyValueService, the auth token of {} configuration '{}' is not shared.",
+                                      getServiceLabel(), desc.getName());
+                } else {
+                    token.setClusterTokenStore(
+                            new ClusterTokenStore(kvs.getKeyValueStore(ClusterTokenStore.KV_STORE), token));
+                }
+            }
             tokens.put(desc.getName(), token);
+            authTokens.put(desc.getName(), token);
             desc.checkConfigAndLogErrors();
         }
 
         return tokens;
     }
 
+    // The configuration changed => its pool must be rebuilt with the new settings
+    protected void discardServiceCall(String configName) {
+        ServiceCall previous = serviceCalls.remove(configName);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
     // Internal, private, called by registerExtension(...)
     @SuppressWarnings("unchecked")
     private void registerDescriptorExtension(Extension extension, String extensionPoint) {
@@ -133,6 +509,7 @@ public abstract class AbstractCICServiceComponent<D extends AbstractServiceDescr
             for (Object contribution : contributions) {
                 D descriptor = (D) contribution;
                 contribs.put(descriptor.getName(), descriptor);
+                discardServiceCall(descriptor.getName());
             }
         }
     }
@@ -153,6 +530,7 @@ public abstract class AbstractCICServiceComponent<D extends AbstractServiceDescr
             for (Object contribution : contributions) {
                 D descriptor = (D) contribution;
                 contribs.remove(descriptor.getName());
+                discardServiceCall(descriptor.getName());
             }
         }
     }
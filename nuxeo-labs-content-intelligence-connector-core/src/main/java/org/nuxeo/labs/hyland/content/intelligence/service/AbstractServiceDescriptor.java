@@ -18,10 +18,23 @@
  */
 package org.nuxeo.labs.hyland.content.intelligence.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
 import org.nuxeo.common.xmap.annotation.XNode;
+import org.nuxeo.common.xmap.annotation.XNodeList;
+import org.nuxeo.common.xmap.annotation.XNodeMap;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationTokenParams;
+import org.nuxeo.labs.hyland.content.intelligence.http.CircuitBreaker;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
+import org.nuxeo.labs.hyland.content.intelligence.http.HttpTransport;
+import org.nuxeo.labs.hyland.content.intelligence.http.PresignedUrlPool;
+import org.nuxeo.labs.hyland.content.intelligence.http.RetryPolicy;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
 
 /**
  * KD/KE/DC/... Descriptors have most of their fields in common
@@ -50,6 +63,219 @@ public abstract class AbstractServiceDescriptor {
     @XNode("clientSecret")
     protected String clientSecret;
 
+    /**
+     * Optional. If true, the auth token is shared with the other nodes of the cluster (encrypted in the
+     * KeyValueStore), see {@link org.nuxeo.labs.hyland.content.intelligence.authentication.ClusterTokenStore}
+     *
+     * @since 2025.18
+     */
+    @XNode("clusterTokenCache")
+    protected boolean clusterTokenCache = false;
+
+    /**
+     * Optional. Max. number of concurrent requests (so, of open connections for HTTP/1.1 servers) of the connection
+     * pool used for this configuration.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/maxConnections")
+    protected int httpMaxConnections = ServiceCallSettings.DEFAULT_MAX_CONNECTIONS;
+
+    /**
+     * Optional. After this time without any call, the pooled connections are closed.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/idleTimeoutSeconds")
+    protected int httpIdleTimeoutSeconds = ServiceCallSettings.DEFAULT_IDLE_TIMEOUT_SECONDS;
+
+    /**
+     * Optional. Set to false to force HTTP/1.1
+     *
+     * @since 2025.18
+     */
+    @XNode("http/http2")
+    protected boolean http2 = true;
+
+    /**
+     * Optional. Successful responses larger than this are written to a temporary file instead of being held in memory
+     *
+     * @since 2025.18
+     */
+    @XNode("http/maxInMemoryResponseKB")
+    protected int httpMaxInMemoryResponseKB = ServiceCallSettings.DEFAULT_MAX_IN_MEMORY_RESPONSE_KB;
+
+    /**
+     * Optional. Max. time to establish a connection.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/connectTimeoutSeconds")
+    protected int httpConnectTimeoutSeconds = ServiceCallSettings.DEFAULT_CONNECT_TIMEOUT_SECONDS;
+
+    /**
+     * Optional. Max. time to wait for a response.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/readTimeoutSeconds")
+    protected int httpReadTimeoutSeconds = ServiceCallSettings.DEFAULT_READ_TIMEOUT_SECONDS;
+
+    /**
+     * Optional. Read timeout per endpoint family (auth, presign, upload, process, poll), overriding
+     * <code>readTimeoutSeconds</code>.
+     *
+     * @since 2025.18
+     */
+    @XNodeMap(value = "http/readTimeouts/timeout", key = "@endpoint", type = HashMap.class, componentType = Integer.class)
+    protected Map<String, Integer> httpReadTimeouts = new HashMap<>();
+
+    /**
+     * Optional. Total time budget of a flow (presign/upload/process/poll, question/answer, ...). 0 means no deadline.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/deadlineSeconds")
+    protected int httpDeadlineSeconds = ServiceCallSettings.DEFAULT_DEADLINE_SECONDS;
+
+    /**
+     * Optional. Max. number of retries of a call failing with a transient error. 0 disables the retries.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/retry/maxRetries")
+    protected int httpRetryMaxRetries = RetryPolicy.DEFAULT_MAX_RETRIES;
+
+    /**
+     * Optional. Delay before the first retry, doubled at each retry (with a random jitter).
+     *
+     * @since 2025.18
+     */
+    @XNode("http/retry/initialDelayMS")
+    protected int httpRetryInitialDelayMS = RetryPolicy.DEFAULT_INITIAL_DELAY_MS;
+
+    /**
+     * Optional. Max. delay between two attempts. A longer <code>Retry-After</code> from the service is not waited for.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/retry/maxDelayMS")
+    protected int httpRetryMaxDelayMS = RetryPolicy.DEFAULT_MAX_DELAY_MS;
+
+    /**
+     * Optional. Client-side rate limits, per endpoint family.
+     *
+     * @since 2025.18
+     */
+    @XNodeList(value = "http/rateLimits/rateLimit", type = ArrayList.class, componentType = RateLimitDescriptor.class)
+    protected List<RateLimitDescriptor> httpRateLimits = new ArrayList<>();
+
+    /**
+     * Optional. If true, the rate limits are shared by all the nodes of the cluster (counted in the KeyValueStore)
+     *
+     * @since 2025.18
+     */
+    @XNode("http/rateLimits@clusterWide")
+    protected boolean httpRateLimitsClusterWide = false;
+
+    /**
+     * Optional. Consecutive failures (after retries) opening the circuit of an endpoint family. 0 disables the
+     * circuit breakers.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/circuitBreaker/failureThreshold")
+    protected int httpCircuitBreakerFailureThreshold = CircuitBreaker.DEFAULT_FAILURE_THRESHOLD;
+
+    /**
+     * Optional. How long an open circuit fails fast before letting a call probe the endpoint.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/circuitBreaker/openSeconds")
+    protected int httpCircuitBreakerOpenSeconds = CircuitBreaker.DEFAULT_OPEN_SECONDS;
+
+    /**
+     * Optional. Ask for compressed (gzip, deflate) responses, decoded transparently.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/compression/responses")
+    protected boolean httpCompressResponses = true;
+
+    /**
+     * Optional. Send big request bodies of "process" calls (enrichment, questions, agents) gzipped.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/compression/requests")
+    protected boolean httpCompressRequests = false;
+
+    /**
+     * Optional. Min. size of a request body to gzip it.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/compression/requestMinKB")
+    protected int httpCompressRequestMinKB = ServiceCallSettings.DEFAULT_COMPRESS_REQUESTS_MIN_KB;
+
+    /**
+     * Optional. Files of at least this size are uploaded in parts, when the presign endpoint supports it. 0 (default)
+     * disables multipart uploads.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/multipart/thresholdMB")
+    protected int httpMultipartThresholdMB = 0;
+
+    /**
+     * Optional. Size of the parts of a multipart upload.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/multipart/partSizeMB")
+    protected int httpMultipartPartSizeMB = ServiceCallSettings.DEFAULT_MULTIPART_PART_SIZE_MB;
+
+    /**
+     * Optional. Max. number of parts of a file uploaded at the same time.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/multipart/concurrency")
+    protected int httpMultipartConcurrency = ServiceCallSettings.DEFAULT_MULTIPART_CONCURRENCY;
+
+    /**
+     * Optional. Max. number of files of a batch being presigned or uploaded at the same time.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/uploadConcurrency")
+    protected int httpUploadConcurrency = ServiceCallSettings.DEFAULT_UPLOAD_CONCURRENCY;
+
+    /**
+     * Optional. Max. number of presigned upload URLs prefetched per content type. 0 (default) disables it.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/presignPool/maxSize")
+    protected int httpPresignPoolMaxSize = 0;
+
+    /**
+     * Optional. Max. age of a prefetched presigned URL.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/presignPool/ttlSeconds")
+    protected int httpPresignPoolTtlSeconds = PresignedUrlPool.DEFAULT_TTL_SECONDS;
+
+    /**
+     * Optional. Name of the transport sending the requests, contributed to the <code>CICTransportService</code>.
+     *
+     * @since 2025.18
+     */
+    @XNode("http/transport")
+    protected String httpTransport = HttpTransport.NAME;
+
     protected AuthenticationTokenParams authTokenParams;
 
     protected abstract Logger log();
@@ -72,6 +298,13 @@ public abstract class AbstractServiceDescriptor {
         return baseUrl;
     }
 
+    /**
+     * @since 2025.18
+     */
+    public boolean isClusterTokenCache() {
+        return clusterTokenCache;
+    }
+
     public AuthenticationTokenParams getAuthenticationTokenParams() {
         if (authTokenParams == null) {
             authTokenParams = new AuthenticationTokenParams(tokenGrantType, tokenScope, clientId, clientSecret,
@@ -80,6 +313,58 @@ public abstract class AbstractServiceDescriptor {
         return authTokenParams;
     }
 
+    /**
+     * @return the HTTP settings for this configuration
+     * @since 2025.18
+     */
+    public ServiceCallSettings getServiceCallSettings() {
+        ServiceCallSettings settings = new ServiceCallSettings(serviceLabel() + "/" + name, httpMaxConnections,
+                httpIdleTimeoutSeconds, http2);
+        settings.setMetricsTags(serviceLabel(), name);
+        settings.setMaxInMemoryResponseKB(httpMaxInMemoryResponseKB);
+        settings.setConnectTimeoutSeconds(httpConnectTimeoutSeconds);
+        settings.setReadTimeoutSeconds(httpReadTimeoutSeconds);
+        httpReadTimeouts.forEach((endpoint, seconds) -> {
+            EndpointFamily family = EndpointFamily.fromName(endpoint);
+            if (family == null) {
+                log().warn("Unknown endpoint '{}' in readTimeouts of {} configuration '{}', ignored.", endpoint,
+                        serviceLabel(), name);
+            } else {
+                settings.setReadTimeoutSeconds(family, seconds == null ? 0 : seconds);
+            }
+        });
+        settings.setDeadlineSeconds(httpDeadlineSeconds);
+        settings.setRetryPolicy(new RetryPolicy(httpRetryMaxRetries, httpRetryInitialDelayMS, httpRetryMaxDelayMS));
+        for (RateLimitDescriptor rateLimit : httpRateLimits) {
+            EndpointFamily family = EndpointFamily.fromName(rateLimit.getEndpoint());
+            if (family == null) {
+                log().warn("Unknown endpoint '{}' in rateLimits of {} configuration '{}', ignored.",
+                        rateLimit.getEndpoint(), serviceLabel(), name);
+                continue;
+            }
+            try {
+                settings.setRateLimit(family, rateLimit.toRateLimit());
+            } catch (IllegalArgumentException e) {
+                log().warn("Invalid rateLimit for '{}' in {} configuration '{}': {}. Ignored.", rateLimit.getEndpoint(),
+                        serviceLabel(), name, e.getMessage());
+            }
+        }
+        settings.setClusterWideRateLimits(httpRateLimitsClusterWide);
+        settings.setCircuitBreakerFailureThreshold(httpCircuitBreakerFailureThreshold);
+        settings.setCircuitBreakerOpenSeconds(httpCircuitBreakerOpenSeconds);
+        settings.setAcceptCompressedResponses(httpCompressResponses);
+        settings.setCompressRequests(httpCompressRequests);
+        settings.setCompressRequestsMinKB(httpCompressRequestMinKB);
+        settings.setMultipartThresholdMB(httpMultipartThresholdMB);
+        settings.setMultipartPartSizeMB(httpMultipartPartSizeMB);
+        settings.setMultipartConcurrency(httpMultipartConcurrency);
+        settings.setUploadConcurrency(httpUploadConcurrency);
+        settings.setPresignPoolMaxSize(httpPresignPoolMaxSize);
+        settings.setPresignPoolTtlSeconds(httpPresignPoolTtlSeconds);
+        settings.setTransport(httpTransport);
+        return settings;
+    }
+
     public boolean hasAllValues() {
         if (StringUtils.isBlank(authenticationBaseUrl) || StringUtils.isBlank(baseUrl)
                 || StringUtils.isBlank(tokenGrantType) || StringUtils.isBlank(tokenScope)
@@ -0,0 +1,51 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.service;
+
+import org.nuxeo.common.xmap.annotation.XNode;
+import org.nuxeo.common.xmap.annotation.XObject;
+import org.nuxeo.labs.hyland.content.intelligence.http.RateLimit;
+
+/**
+ * A <code>&lt;rateLimit endpoint="process" permits="10" periodSeconds="60"/&gt;</code> element of the
+ * <code>&lt;http&gt;</code> settings of a descriptor.
+ *
+ * @since 2025.18
+ */
+@XObject("rateLimit")
+public class RateLimitDescriptor {
+
+    @XNode("@endpoint")
+    protected String endpoint;
+
+    @XNode("@permits")
+    protected int permits;
+
+    @XNode("@periodSeconds")
+    protected int periodSeconds = 1;
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public RateLimit toRateLimit() {
+        return new RateLimit(permits, periodSeconds);
+    }
+
+}
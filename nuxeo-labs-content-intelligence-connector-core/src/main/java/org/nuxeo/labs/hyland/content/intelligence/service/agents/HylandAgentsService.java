@@ -20,6 +20,7 @@ package org.nuxeo.labs.hyland.content.intelligence.service.agents;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -85,6 +86,15 @@ public interface HylandAgentsService {
     public ServiceCallResult invokeAgent(AgentType agentType, String configName, String agentId, String versionId,
             String payloadJsonStr, Map<String, String> extraHeaders);
 
+    /**
+     * Non-blocking version of <code>invokeAgent(...)</code>. Configuration errors (no authentication info, ...) are
+     * thrown at call time, HTTP errors are returned in the ServiceCallResult.
+     * 
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> invokeAgentAsync(AgentType agentType, String configName,
+            String agentId, String versionId, String payloadJsonStr, Map<String, String> extraHeaders);
+
     /**
      * @return the list of contributions
      * @since 2023
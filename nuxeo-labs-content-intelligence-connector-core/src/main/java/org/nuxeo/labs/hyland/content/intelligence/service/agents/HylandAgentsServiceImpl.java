@@ -21,12 +21,14 @@ package org.nuxeo.labs.hyland.content.intelligence.service.agents;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang3.StringUtils;
 import org.nuxeo.ecm.core.api.NuxeoException;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationToken;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationTokenAgents;
-import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
 import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
 import org.nuxeo.labs.hyland.content.intelligence.service.AbstractCICServiceComponent;
 import org.nuxeo.labs.hyland.content.intelligence.service.CICServiceConstants;
@@ -44,8 +46,6 @@ public class HylandAgentsServiceImpl extends AbstractCICServiceComponent<AgentDe
 
     protected static Map<String, AuthenticationToken> agentsAuthTokens = null;
 
-    protected static ServiceCall serviceCall = new ServiceCall();
-
     // ====================> Extensions points
     protected static final String EXT_POINT_AGENT = "agent";
 
@@ -97,7 +97,7 @@ public class HylandAgentsServiceImpl extends AbstractCICServiceComponent<AgentDe
             }
         }
 
-        result = serviceCall.get(targetUrl, headers);
+        result = getServiceCall(configName).get(targetUrl, headers);
 
         return result;
     }
@@ -135,7 +135,7 @@ public class HylandAgentsServiceImpl extends AbstractCICServiceComponent<AgentDe
             }
         }
 
-        result = serviceCall.get(targetUrl, headers);
+        result = getServiceCall(configName).get(targetUrl, headers);
 
         return result;
 
@@ -145,7 +145,12 @@ public class HylandAgentsServiceImpl extends AbstractCICServiceComponent<AgentDe
     public ServiceCallResult invokeAgent(AgentType agentType, String configName, String agentId, String versionId,
             String payloadJsonStr, Map<String, String> extraHeaders) {
 
-        ServiceCallResult result = null;
+        return await(invokeAgentAsync(agentType, configName, agentId, versionId, payloadJsonStr, extraHeaders));
+    }
+
+    @Override
+    public CompletableFuture<ServiceCallResult> invokeAgentAsync(AgentType agentType, String configName,
+            String agentId, String versionId, String payloadJsonStr, Map<String, String> extraHeaders) {
 
         // Get auth token
         String bearer = getToken(configName);
@@ -186,9 +191,8 @@ public class HylandAgentsServiceImpl extends AbstractCICServiceComponent<AgentDe
             }
         }
 
-        result = serviceCall.post(targetUrl, headers, payloadJsonStr);
-
-        return result;
+        return getServiceCall(configName).postAsync(targetUrl, headers, payloadJsonStr,
+                CallOptions.of(EndpointFamily.PROCESS, newDeadline(configName)));
     }
 
     // ====================> Service
@@ -225,7 +229,7 @@ public class HylandAgentsServiceImpl extends AbstractCICServiceComponent<AgentDe
     @Override
     public void stop(ComponentContext context) throws InterruptedException {
 
-        // log.warn("Stop component");
+        closeServiceCalls();
     }
 
 }
@@ -28,7 +28,6 @@ import org.apache.logging.log4j.Logger;
 import org.nuxeo.ecm.core.api.DocumentModel;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationToken;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationTokenContentLake;
-import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
 import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
 import org.nuxeo.labs.hyland.content.intelligence.service.AbstractCICServiceComponent;
 import org.nuxeo.labs.hyland.content.intelligence.service.CICServiceConstants;
@@ -60,8 +59,6 @@ public class ContentLakeServiceImpl extends AbstractCICServiceComponent<ContentL
 
     protected static String defaultSourceId;
 
-    protected static ServiceCall serviceCall = new ServiceCall();
-
     // ====================> Extensions points
     public static final String EXT_POINT_CONTENTLAKE = "contentLake";
 
@@ -150,7 +147,7 @@ public class ContentLakeServiceImpl extends AbstractCICServiceComponent<ContentL
         headers.put("Authorization", "Bearer " + bearer);
 
         // Call
-        ServiceCallResult result = serviceCall.get(targetUrl, headers);
+        ServiceCallResult result = getServiceCall(configName).get(targetUrl, headers);
 
         return result;
     }
@@ -192,7 +189,7 @@ public class ContentLakeServiceImpl extends AbstractCICServiceComponent<ContentL
     @Override
     public void stop(ComponentContext context) throws InterruptedException {
 
-        // log.warn("Stop component");
+        closeServiceCalls();
     }
 
 }
@@ -21,6 +21,7 @@ package org.nuxeo.labs.hyland.content.intelligence.service.datacuration;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.nuxeo.ecm.core.api.Blob;
 import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
@@ -73,6 +74,29 @@ public interface HylandDCService {
      */
     public ServiceCallResult curate(String configName, File file, String jsonOptions) throws IOException;
 
+    /**
+     * Non-blocking version of <code>curate(String, Blob, String)</code>: upload and polling of the results run without
+     * blocking the calling thread (including between two polling attempts).
+     * <br>
+     * HTTP errors are returned in the ServiceCallResult, as with the blocking method. Other errors (no authentication
+     * info, ...) complete the future exceptionally.
+     * 
+     * @param configName
+     * @param blob
+     * @param jsonOptions
+     * @return a future ServiceCallResult
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> curateAsync(String configName, Blob blob, String jsonOptions);
+
+    /**
+     * Non-blocking version of <code>curate(String, File, String)</code>. The file must not be deleted before the
+     * future completes.
+     * 
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> curateAsync(String configName, File file, String jsonOptions);
+
     /**
      * maxRetries and sleepInterval are configurations, they can be tuned with this method.
      * <br>
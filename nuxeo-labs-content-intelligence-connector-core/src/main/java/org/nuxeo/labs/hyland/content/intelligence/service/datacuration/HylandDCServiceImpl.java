@@ -23,6 +23,8 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -33,8 +35,12 @@ import org.nuxeo.ecm.core.api.CloseableFile;
 import org.nuxeo.ecm.core.api.NuxeoException;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationToken;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationTokenEnrichment;
-import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.AdaptivePolling;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.Deadline;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
 import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.Span;
 import org.nuxeo.labs.hyland.content.intelligence.service.AbstractCICServiceComponent;
 import org.nuxeo.labs.hyland.content.intelligence.service.CICServiceConstants;
 import org.nuxeo.labs.hyland.content.intelligence.service.ServicesUtils;
@@ -70,8 +76,6 @@ public class HylandDCServiceImpl extends AbstractCICServiceComponent<DCDescripto
 
     protected static int pullResultsSleepIntervalMS;
 
-    protected static ServiceCall serviceCall = new ServiceCall();
-
     // ====================> Extensions points
     protected static final String EXT_POINT_DC = "dataCuration";
 
@@ -180,63 +184,113 @@ public class HylandDCServiceImpl extends AbstractCICServiceComponent<DCDescripto
     @Override
     public ServiceCallResult curate(String configName, File file, String jsonOptions) throws IOException {
 
-        ServiceCallResult result;
-        JSONObject jsonPresign;
-        String jobId = null;
-        String getUrl = null;
-        String putUrl = null;
-
-        // ====================> 1. Get auth token
-        String bearer = getDCToken(configName);
-        if (StringUtils.isBlank(bearer)) {
-            throw new NuxeoException("No authentication info for calling the Data Curation service, for configuration '"
-                    + configName + "'.");
+        return await(curateAsync(configName, file, jsonOptions));
+    }
+
+    @Override
+    public CompletableFuture<ServiceCallResult> curateAsync(String configName, Blob blob, String jsonOptions) {
+
+        CloseableFile closFile;
+        try {
+            closFile = blob.getCloseableFile();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
         }
 
-        // ====================> 2. Get presigned stuff
-        DCDescriptor config = getDCDescriptor(configName);
-        String targetUrl = config.getBaseUrl();
-        targetUrl += "/presign";
+        // The file must exist until the upload is done
+        return curateAsync(configName, closFile.getFile(), jsonOptions).whenComplete((result, error) -> {
+            try {
+                closFile.close();
+            } catch (IOException e) {
+                log.error("Failed to close the CloseableFile", e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<ServiceCallResult> curateAsync(String configName, File file, String jsonOptions) {
 
+        return tracedFlow("dc.curate", configName, span -> curateAsync(configName, file, jsonOptions, span));
+    }
+
+    /*
+     * Each step (token, presign, upload, polls) is traced as a child of span
+     */
+    protected CompletableFuture<ServiceCallResult> curateAsync(String configName, File file, String jsonOptions,
+            Span span) {
+
+        String targetUrl;
         Map<String, String> headers = new HashMap<>();
-        headers.put("Accept", "*/*");
-        headers.put("Authorization", "Bearer " + bearer);
-        // headers.put("Content-Type", "application/json");
+        Deadline deadline;
+        try {
+            // The whole flow, polling included, stops at this deadline
+            deadline = newDeadline(configName);
 
-        if (StringUtils.isBlank(jsonOptions)) {
-            jsonOptions = DATA_CURATION_PRESIGN_DEFAULT_OPTIONS;
+            // ====================> 1. Get auth token
+            String bearer = tracedToken(span, () -> getDCToken(configName));
+            if (StringUtils.isBlank(bearer)) {
+                throw new NuxeoException(
+                        "No authentication info for calling the Data Curation service, for configuration '"
+                                + configName + "'.");
+            }
+
+            // ====================> 2. Get presigned stuff
+            DCDescriptor config = getDCDescriptor(configName);
+            targetUrl = config.getBaseUrl();
+            targetUrl += "/presign";
+
+            headers.put("Accept", "*/*");
+            headers.put("Authorization", "Bearer " + bearer);
+            // headers.put("Content-Type", "application/json");
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
 
-        result = serviceCall.post(targetUrl, headers, jsonOptions);
-        if (result.callFailed()) {
-            return result;
+        if (StringUtils.isBlank(jsonOptions)) {
+            jsonOptions = DATA_CURATION_PRESIGN_DEFAULT_OPTIONS;
         }
-        jsonPresign = result.getResponseAsJSONObject();
-        jobId = jsonPresign.getString("job_id");
-        putUrl = jsonPresign.getString("put_url");
-        getUrl = jsonPresign.getString("get_url");
-
-        // ====================> 3. Upload with PUT
-        result = serviceCall.uploadFileWithPut(file, putUrl, "application/octet-stream");
-        if (result.callFailed()) {
-            return result;
+        int parts = getMultipartPartCount(configName, file);
+        if (parts > 0) {
+            jsonOptions = new JSONObject(jsonOptions).put("parts", parts).toString();
         }
 
-        // ====================> 4. Pull results
-        result = pullDataCurationResults(configName, jobId, getUrl);
-
-        return result;
+        // Presigning twice just creates an unused job => safe to retry
+        String presignUrl = targetUrl;
+        String presignBody = jsonOptions;
+        CompletableFuture<ServiceCallResult> presign = traced(span, "presign",
+                s -> getServiceCall(configName).postAsync(presignUrl, headers, presignBody,
+                        CallOptions.of(EndpointFamily.PRESIGN, deadline).idempotent(true).withSpan(s)));
+        return presign.thenCompose(result -> {
+            if (result.callFailed()) {
+                return CompletableFuture.completedFuture(result);
+            }
+            JSONObject jsonPresign = result.getResponseAsJSONObject();
+            String jobId = jsonPresign.getString("job_id");
+            String putUrl = jsonPresign.getString("put_url");
+            String getUrl = jsonPresign.getString("get_url");
+
+            // ====================> 3. Upload with PUT
+            return traced(span, "upload", s -> uploadFileAsync(configName, file, "application/octet-stream",
+                    jsonPresign, putUrl, deadline, s)).thenCompose(uploadResult -> {
+                        if (uploadResult.callFailed()) {
+                            return CompletableFuture.completedFuture(uploadResult);
+                        }
+                        // ====================> 4. Pull results
+                        return pullDataCurationResultsAsync(configName, jobId, getUrl,
+                                AdaptivePolling.key("DC", "curate", file.length()), deadline, span);
+                    });
+        });
 
     }
 
     /*
      * Pull to dataCurationEndPoint/status/job_id until getting it "Done"
      * Once "Done", just GET at the getUrl (presigned)
+     * Since 2025.18, the polling does not block a thread between two attempts, and its intervals can be learned from
+     * the previous jobs of the same kind (latencyKey).
      */
-    protected ServiceCallResult pullDataCurationResults(String configName, String jobId, String getUrl) {
-
-        ServiceCallResult result = null;
-        int count = 1;
+    protected CompletableFuture<ServiceCallResult> pullDataCurationResultsAsync(String configName, String jobId,
+            String getUrl, String latencyKey, Deadline deadline, Span span) {
 
         if (StringUtils.isBlank(jobId) || StringUtils.isBlank(getUrl)) {
             throw new IllegalArgumentException("jobId and/or getUrl - presigned - is/are null");
@@ -244,16 +298,10 @@ public class HylandDCServiceImpl extends AbstractCICServiceComponent<DCDescripto
 
         DCDescriptor config = getDCDescriptor(configName);
         String targetUrl = config.getBaseUrl() + "/status/" + jobId;
-        boolean gotIt = false;
-        do {
-            if (count > 1) {
-                try {
-                    Thread.sleep(pullResultsSleepIntervalMS);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new NuxeoException("Interrupted while polling Data Curation results", e);
-                }
-            }
+        AtomicBoolean gotIt = new AtomicBoolean(false);
+        return pollAsync(configName, latencyKey, count -> traced(span, "poll", s -> {
+            s.setAttribute("attempt", count);
+            CallOptions pollOptions = CallOptions.of(EndpointFamily.POLL, deadline).withSpan(s);
             if (count > (pullResultsMaxTries / 2)) {
                 log.warn("Pulling Data Curation results is taking time. This is the call #{} (max calls: {})", count,
                         pullResultsMaxTries);
@@ -269,36 +317,32 @@ public class HylandDCServiceImpl extends AbstractCICServiceComponent<DCDescripto
             Map<String, String> headers = new HashMap<>();
             headers.put("Authorization", "Bearer " + bearer);
 
-            result = serviceCall.get(targetUrl, headers);
-            if (result.callWasSuccesful()) {
-                JSONObject resultJson = result.getResponseAsJSONObject();
-                String responseJobId = resultJson.getString("jobId");
-                if (!responseJobId.equals(jobId)) {
-                    String msg = "Received OK for a different jobID. Expected jobId: " + jobId + ", received: "
-                            + responseJobId;
-                    log.warn(msg);
-                    // Not really a HTTP status, right?
-                    // But this is needed with the while(...) part.
-                    result = new ServiceCallResult("{}", -2, msg);
-                } else {
+            return getServiceCall(configName).getAsync(targetUrl, headers, pollOptions).thenCompose(result -> {
+                if (result.callWasSuccesful()) {
+                    JSONObject resultJson = result.getResponseAsJSONObject();
+                    String responseJobId = resultJson.getString("jobId");
+                    if (!responseJobId.equals(jobId)) {
+                        String msg = "Received OK for a different jobID. Expected jobId: " + jobId + ", received: "
+                                + responseJobId;
+                        log.warn(msg);
+                        // Not really a HTTP status, right?
+                        // But this is needed to keep on polling.
+                        return CompletableFuture.completedFuture(new ServiceCallResult("{}", -2, msg));
+                    }
                     String status = resultJson.getString("status");
                     if ("done".equalsIgnoreCase(status)) {
-                        // Just GET at the presigned URL, no headers required
-                        result = serviceCall.get(getUrl, null);
-                        if (result.callWasSuccesful()) {
-                            gotIt = true;
-                        }
-                    } else {
-                        log.info("Pulling Data Curation status for job {}, status: {}", jobId, status);
+                        // Just GET at the presigned URL, no headers required.
+                        // (A big output is received in a temporary file, not in memory)
+                        return getServiceCall(configName).getAsync(getUrl, null, pollOptions).thenApply(getResult -> {
+                            gotIt.set(getResult.callWasSuccesful());
+                            return getResult;
+                        });
                     }
+                    log.info("Pulling Data Curation status for job {}, status: {}", jobId, status);
                 }
-            }
-
-            count += 1;
-
-        } while (!gotIt && count <= pullResultsMaxTries);
-
-        return result;
+                return CompletableFuture.completedFuture(result);
+            });
+        }), (count, result) -> gotIt.get(), pullResultsMaxTries, pullResultsSleepIntervalMS, deadline);
 
     }
 
@@ -341,7 +385,7 @@ public class HylandDCServiceImpl extends AbstractCICServiceComponent<DCDescripto
     @Override
     public void stop(ComponentContext context) throws InterruptedException {
 
-        // Nothing for now
+        closeServiceCalls();
 
     }
 
@@ -20,6 +20,7 @@ package org.nuxeo.labs.hyland.content.intelligence.service.discovery;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
 
@@ -52,6 +53,15 @@ public interface HylandKDService {
     public ServiceCallResult invokeDiscovery(String configName, String httpMethod, String endpoint, String jsonPayload,
             Map<String, String> extraHeaders);
 
+    /**
+     * Non-blocking version of
+     * <code>invokeDiscovery(String, String, String, String, Map&lt;String, String&gt;)</code>
+     * 
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> invokeDiscoveryAsync(String configName, String httpMethod,
+            String endpoint, String jsonPayload, Map<String, String> extraHeaders);
+
     /**
      * Convenience method when no extra header is required. See
      * <code>ServiceCallResult invokeDiscovery(String httpMethod, String endpoint, String jsonPayload, Map<String, String> extraHeaders)</code>
@@ -110,6 +120,14 @@ public interface HylandKDService {
     public ServiceCallResult askQuestion(String configName, String agentId, String question,
             List<String> contextObjectIds, String extraPayloadJsonStr, Map<String, String> extraHeaders);
 
+    /**
+     * Non-blocking version of <code>askQuestion(...)</code>
+     * 
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> askQuestionAsync(String configName, String agentId, String question,
+            List<String> contextObjectIds, String extraPayloadJsonStr, Map<String, String> extraHeaders);
+
     /**
      * Pull the result. This can take teim, implementation should details the number of tries, the timeout, etc.
      * <br>
@@ -124,6 +142,15 @@ public interface HylandKDService {
      */
     public ServiceCallResult getAnswer(String configName, String questionId, Map<String, String> extraHeaders);
 
+    /**
+     * Non-blocking version of <code>getAnswer(String, String, Map&lt;String, String&gt;)</code>. No thread is blocked
+     * between two polling attempts.
+     * 
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> getAnswerAsync(String configName, String questionId,
+            Map<String, String> extraHeaders);
+
     /**
      * Only question is required:
      * - agentId can be read from configuration
@@ -143,6 +170,27 @@ public interface HylandKDService {
      */
     public ServiceCallResult askQuestionAndGetAnswer(String configName, String agentId, String question,
             List<String> contextObjectIds, String extraPayloadJsonStr, Map<String, String> extraHeaders);
+
+    /**
+     * Non-blocking version of <code>askQuestionAndGetAnswer(...)</code>: asking the question and polling for the
+     * answer run without blocking the calling thread (including between two polling attempts), so a single thread can
+     * wait for many answers at the same time.
+     * <br>
+     * HTTP errors are returned in the ServiceCallResult, as with the blocking method. Other errors (no agentId, no
+     * authentication info, ...) complete the future exceptionally.
+     * 
+     * @param configName
+     * @param agentId
+     * @param question
+     * @param contextObjectIds
+     * @param extraPayloadJsonStr
+     * @param extraHeaders
+     * @return a future ServiceCallResult
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> askQuestionAndGetAnswerAsync(String configName, String agentId,
+            String question, List<String> contextObjectIds, String extraPayloadJsonStr,
+            Map<String, String> extraHeaders);
     
     /**
      * 
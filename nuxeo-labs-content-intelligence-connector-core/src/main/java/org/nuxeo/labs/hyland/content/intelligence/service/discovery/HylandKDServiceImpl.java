@@ -22,6 +22,8 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -31,8 +33,12 @@ import org.json.JSONObject;
 import org.nuxeo.ecm.core.api.NuxeoException;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationToken;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationTokenDiscovery;
-import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.AdaptivePolling;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.Deadline;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
 import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.Span;
 import org.nuxeo.labs.hyland.content.intelligence.service.AbstractCICServiceComponent;
 import org.nuxeo.labs.hyland.content.intelligence.service.CICServiceConstants;
 import org.nuxeo.labs.hyland.content.intelligence.service.ServicesUtils;
@@ -78,8 +84,6 @@ public class HylandKDServiceImpl extends AbstractCICServiceComponent<KDDescripto
 
     protected static int pullResultsSleepIntervalMS;
 
-    protected static ServiceCall serviceCall = new ServiceCall();
-
     // ====================> Extensions points
     protected static final String EXT_POINT_KD = "knowledgeDiscovery";
 
@@ -134,7 +138,23 @@ public class HylandKDServiceImpl extends AbstractCICServiceComponent<KDDescripto
     public ServiceCallResult invokeDiscovery(String configName, String httpMethod, String endpoint, String jsonPayload,
             Map<String, String> extraHeaders) {
 
-        ServiceCallResult result = null;
+        return await(invokeDiscoveryAsync(configName, httpMethod, endpoint, jsonPayload, extraHeaders));
+    }
+
+    @Override
+    public CompletableFuture<ServiceCallResult> invokeDiscoveryAsync(String configName, String httpMethod,
+            String endpoint, String jsonPayload, Map<String, String> extraHeaders) {
+
+        return invokeDiscoveryAsync(configName, httpMethod, endpoint, jsonPayload, extraHeaders, CallOptions.DEFAULT);
+    }
+
+    /*
+     * The options set the timeouts (endpoint family) and the deadline of the flow the call belongs to
+     */
+    protected CompletableFuture<ServiceCallResult> invokeDiscoveryAsync(String configName, String httpMethod,
+            String endpoint, String jsonPayload, Map<String, String> extraHeaders, CallOptions options) {
+
+        CompletableFuture<ServiceCallResult> result = null;
 
         // Get auth token
         String bearer = getToken(configName);
@@ -181,15 +201,15 @@ public class HylandKDServiceImpl extends AbstractCICServiceComponent<KDDescripto
         httpMethod = httpMethod.toUpperCase();
         switch (httpMethod) {
         case "GET":
-            result = serviceCall.get(targetUrl, headers);
+            result = getServiceCall(configName).getAsync(targetUrl, headers, options);
             break;
 
         case "POST":
-            result = serviceCall.post(targetUrl, headers, jsonPayload);
+            result = getServiceCall(configName).postAsync(targetUrl, headers, jsonPayload, options);
             break;
 
         case "PUT":
-            result = serviceCall.put(targetUrl, headers, jsonPayload);
+            result = getServiceCall(configName).putAsync(targetUrl, headers, jsonPayload, options);
             break;
 
         default:
@@ -216,7 +236,21 @@ public class HylandKDServiceImpl extends AbstractCICServiceComponent<KDDescripto
     public ServiceCallResult askQuestion(String configName, String agentId, String question,
             List<String> contextObjectIds, String extraPayloadJsonStr, Map<String, String> extraHeaders) {
 
-        ServiceCallResult result = null;
+        return await(askQuestionAsync(configName, agentId, question, contextObjectIds, extraPayloadJsonStr,
+                extraHeaders));
+    }
+
+    @Override
+    public CompletableFuture<ServiceCallResult> askQuestionAsync(String configName, String agentId, String question,
+            List<String> contextObjectIds, String extraPayloadJsonStr, Map<String, String> extraHeaders) {
+
+        return askQuestionAsync(configName, agentId, question, contextObjectIds, extraPayloadJsonStr, extraHeaders,
+                Deadline.NONE, Span.NOOP);
+    }
+
+    protected CompletableFuture<ServiceCallResult> askQuestionAsync(String configName, String agentId,
+            String question, List<String> contextObjectIds, String extraPayloadJsonStr,
+            Map<String, String> extraHeaders, Deadline deadline, Span span) {
 
         // 1. Get an agent (we use any agent here)
         if (StringUtils.isBlank(agentId)) {
@@ -242,96 +276,107 @@ public class HylandKDServiceImpl extends AbstractCICServiceComponent<KDDescripto
             }
         }
 
-        result = invokeDiscovery(configName, "POST", endPoint, payload.toString(), extraHeaders);
-
-        return result;
+        return traced(span, "process", s -> invokeDiscoveryAsync(configName, "POST", endPoint, payload.toString(),
+                extraHeaders, CallOptions.of(EndpointFamily.PROCESS, deadline).withSpan(s)));
     }
 
     @Override
     public ServiceCallResult getAnswer(String configName, String questionId, Map<String, String> extraHeaders) {
 
-        ServiceCallResult result = null;
+        return await(getAnswerAsync(configName, questionId, extraHeaders));
+    }
 
-        // Get the answer. This is a loop-pull. For now, we hard code the tries
+    @Override
+    public CompletableFuture<ServiceCallResult> getAnswerAsync(String configName, String questionId,
+            Map<String, String> extraHeaders) {
+
+        return getAnswerAsync(configName, questionId, extraHeaders, AdaptivePolling.key("KD", "answer", 0),
+                newDeadline(configName), Span.NOOP);
+    }
+
+    /*
+     * Since 2025.18, the polling does not block a thread between two attempts, and stops at the deadline. Its intervals
+     * can be learned from the previous questions of the same kind (latencyKey).
+     */
+    protected CompletableFuture<ServiceCallResult> getAnswerAsync(String configName, String questionId,
+            Map<String, String> extraHeaders, String latencyKey, Deadline deadline, Span span) {
+
+        // Get the answer. This is a loop-pull.
         String endPoint = "/qna/questions/" + questionId + "/answer";
-        int count = 0;
-        JSONObject response;
-        boolean gotIt = false;
-        int lastResponseCode = 0;
-        do {
-            count += 1;
+        AtomicInteger lastResponseCode = new AtomicInteger(0);
+        CallOptions pollOptions = CallOptions.of(EndpointFamily.POLL, deadline);
 
+        return pollAsync(configName, latencyKey, count -> traced(span, "poll", s -> {
             if (count == pullResultsMaxTries) {
                 log.warn("getAnswer() for question {} is taking time. This is the last try, {}/{} (Last responseCode {}).",
-                        questionId, count, pullResultsMaxTries, lastResponseCode);
+                        questionId, count, pullResultsMaxTries, lastResponseCode.get());
             } else if (count == 5 || (count > 5 && (count - 5) % 2 == 0)) {
                 log.warn("getAnswer() for question {}, call {}/{} (Last responseCode {}).",
-                        questionId, count, pullResultsMaxTries, lastResponseCode);
+                        questionId, count, pullResultsMaxTries, lastResponseCode.get());
             }
 
-            result = invokeDiscovery(configName, "GET", endPoint, null, extraHeaders);
-            lastResponseCode = result.getResponseCode();
+            return invokeDiscoveryAsync(configName, "GET", endPoint, null, extraHeaders,
+                    pollOptions.withSpan(s.setAttribute("attempt", count)));
+
+        }), (count, result) -> {
+            lastResponseCode.set(result.getResponseCode());
             // We need a 200
             if (!result.callResponseOK()) {
                 // If in OK range or a 404 => continue, else, force stop.
                 // Sometimes, early call (right after asking the question) returns a 404
                 // and another call works. Let's say we consider a real error if the 404
                 // is returned up to 3 times pullResultsSleepIntervalMS
-                if (result.callFailed() && lastResponseCode != 404 && count > 4) {
-                    gotIt = true;
-                } else {
-                    sleepBetweenPullAttempts();
-                }
-            } else {
-                response = result.getResponseAsJSONObject();
-                // When asked too quickly, we can get a 200 OK with a null answer.
-                // In this case, response.getString("answer") throws an error
-                String answer = response.optString("answer", null);
-                String responseCompleteness = response.optString("responseCompleteness", "");
-                gotIt = StringUtils.isNotBlank(answer) && "complete".equalsIgnoreCase(responseCompleteness);
-                if (!gotIt) {
-                    sleepBetweenPullAttempts();
-                }
+                return result.callFailed() && result.getResponseCode() != 404 && count > 4;
             }
-
-        } while (!gotIt && count < pullResultsMaxTries);
-
-        return result;
-    }
-
-    /**
-     * Sleep between Discovery polling attempts. If the thread is interrupted, the interrupt status is restored
-     * and the polling loop is aborted by wrapping the cause in a {@link NuxeoException}.
-     *
-     * @since 2025.16
-     */
-    protected void sleepBetweenPullAttempts() {
-        try {
-            Thread.sleep(pullResultsSleepIntervalMS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new NuxeoException("Interrupted while polling Knowledge Discovery results", e);
-        }
+            JSONObject response = result.getResponseAsJSONObject();
+            // When asked too quickly, we can get a 200 OK with a null answer.
+            // In this case, response.getString("answer") throws an error
+            String answer = response.optString("answer", null);
+            String responseCompleteness = response.optString("responseCompleteness", "");
+            return StringUtils.isNotBlank(answer) && "complete".equalsIgnoreCase(responseCompleteness);
+
+        }, pullResultsMaxTries, pullResultsSleepIntervalMS, deadline);
     }
 
     @Override
     public ServiceCallResult askQuestionAndGetAnswer(String configName, String agentId, String question,
             List<String> contextObjectIds, String extraPayloadJsonStr, Map<String, String> extraHeaders) {
 
-        ServiceCallResult result = null;
-
-        // 1. Ask the question
-        result = askQuestion(configName, agentId, question, contextObjectIds, extraPayloadJsonStr, extraHeaders);
-        if (result.getResponseCode() != 202) {
-            return result;
-        }
-        JSONObject response = result.getResponseAsJSONObject();
-        String questionId = response.getString("questionId");
+        return await(askQuestionAndGetAnswerAsync(configName, agentId, question, contextObjectIds,
+                extraPayloadJsonStr, extraHeaders));
+    }
 
-        // 2. Pull the answer
-        result = getAnswer(configName, questionId, extraHeaders);
+    @Override
+    public CompletableFuture<ServiceCallResult> askQuestionAndGetAnswerAsync(String configName, String agentId,
+            String question, List<String> contextObjectIds, String extraPayloadJsonStr,
+            Map<String, String> extraHeaders) {
 
-        return result;
+        // Each step (token, question, polls) is traced as a child of the flow span
+        try {
+            return tracedFlow("kd.askQuestionAndGetAnswer", configName, span -> {
+                // 1. Ask the question
+                // The whole flow, polling included, stops at this deadline
+                Deadline deadline = newDeadline(configName);
+                tracedToken(span, () -> getToken(configName));
+                CompletableFuture<ServiceCallResult> asked = askQuestionAsync(configName, agentId, question,
+                        contextObjectIds, extraPayloadJsonStr, extraHeaders, deadline, span);
+
+                return asked.thenCompose(result -> {
+                    if (result.getResponseCode() != 202) {
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    JSONObject response = result.getResponseAsJSONObject();
+                    String questionId = response.getString("questionId");
+
+                    // 2. Pull the answer
+                    return getAnswerAsync(configName, questionId, extraHeaders,
+                            AdaptivePolling.key("KD", agentId, question == null ? 0 : question.length()), deadline,
+                            span);
+                });
+            });
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
     // ======================================================================
@@ -458,6 +503,6 @@ public class HylandKDServiceImpl extends AbstractCICServiceComponent<KDDescripto
     @Override
     public void stop(ComponentContext context) throws InterruptedException {
 
-        // log.warn("Stop component");
+        closeServiceCalls();
     }
 }
@@ -0,0 +1,369 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.service.enrichment;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.nuxeo.runtime.kv.KeyValueStore;
+import org.nuxeo.runtime.metrics.MetricsService;
+
+import io.dropwizard.metrics5.Counter;
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+
+/**
+ * Caches the Knowledge Enrichment result of a content, by digest of the content and fingerprint of the request
+ * (actions, classes, similar metadata and extra payload, instructions and maxWordCount included). Enriching the same
+ * content the same way again (same file in several documents, new version with the same blob, run again after an
+ * error...) then skips the whole presign/upload/process/poll cycle.
+ * <p>
+ * The results are stored in the {@link #KV_STORE} KeyValueStore, for {@link #TTL_SECONDS_PARAM} (at most
+ * {@link #MAX_STORE_ENTRIES_PARAM} at a time), and the most recently used ones also in memory (at most
+ * {@link #MAX_MEMORY_ENTRIES_PARAM}), until the expiry stored with them. Results bigger than
+ * {@link #MAX_ENTRY_BYTES_PARAM} (embeddings of big files...) are not cached. Only successful results are cached.
+ * <p>
+ * Hits and misses are counted in the <code>nuxeo.cic.enrichment.cache.hits</code> and
+ * <code>nuxeo.cic.enrichment.cache.misses</code> metrics.
+ *
+ * @since 2025.18
+ */
+public class EnrichmentResultCache {
+
+    private static final Logger log = LogManager.getLogger(EnrichmentResultCache.class);
+
+    public static final String ENABLED_PARAM = "nuxeo.hyland.cic.enrichment.resultCache";
+
+    public static final String TTL_SECONDS_PARAM = "nuxeo.hyland.cic.enrichment.resultCache.ttlSeconds";
+
+    public static final int DEFAULT_TTL_SECONDS = 7 * 24 * 3600;
+
+    public static final String MAX_ENTRY_BYTES_PARAM = "nuxeo.hyland.cic.enrichment.resultCache.maxEntryBytes";
+
+    public static final int DEFAULT_MAX_ENTRY_BYTES = 256 * 1024;
+
+    public static final String MAX_MEMORY_ENTRIES_PARAM = "nuxeo.hyland.cic.enrichment.resultCache.maxMemoryEntries";
+
+    public static final int DEFAULT_MAX_MEMORY_ENTRIES = 1000;
+
+    /**
+     * Max. number of results in the KeyValueStore. When reached, the new results are cached in memory only, until the
+     * oldest expire. 0 or less: no limit (the store is then bounded by the TTL only).
+     */
+    public static final String MAX_STORE_ENTRIES_PARAM = "nuxeo.hyland.cic.enrichment.resultCache.maxStoreEntries";
+
+    public static final int DEFAULT_MAX_STORE_ENTRIES = 10000;
+
+    /**
+     * Algorithm of the digest computed while uploading the contents that have none. MD5 is the default digest of the
+     * Nuxeo blobs, so a file and a blob with the same content share their result.
+     */
+    public static final String DIGEST_ALGORITHM = "MD5";
+
+    public static final String KV_STORE = "cic-ke-results";
+
+    public static final String METRICS_PREFIX = "nuxeo.cic.enrichment.cache";
+
+    protected static final String KEY_PREFIX = "cic:ke:";
+
+    protected static final String COUNT_KEY_PREFIX = "cic:ke-count:";
+
+    protected static final String EXPIRES_AT = "expiresAt";
+
+    protected static final String RESULT = "result";
+
+    protected final KeyValueStore store;
+
+    protected final long ttlSeconds;
+
+    protected final int maxEntryBytes;
+
+    protected final int maxMemoryEntries;
+
+    protected final int maxStoreEntries;
+
+    protected final Map<String, CachedResult> memory;
+
+    protected final AtomicLong hits = new AtomicLong();
+
+    protected final AtomicLong misses = new AtomicLong();
+
+    protected final MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
+
+    protected record CachedResult(String json, long expiresAt) {
+    }
+
+    public EnrichmentResultCache(KeyValueStore store, long ttlSeconds, int maxEntryBytes, int maxMemoryEntries) {
+        this(store, ttlSeconds, maxEntryBytes, maxMemoryEntries, DEFAULT_MAX_STORE_ENTRIES);
+    }
+
+    public EnrichmentResultCache(KeyValueStore store, long ttlSeconds, int maxEntryBytes, int maxMemoryEntries,
+            int maxStoreEntries) {
+        this.store = store;
+        this.ttlSeconds = Math.max(1, ttlSeconds);
+        this.maxEntryBytes = maxEntryBytes;
+        this.maxMemoryEntries = maxMemoryEntries;
+        this.maxStoreEntries = maxStoreEntries;
+        // Access order: the least recently used is removed first
+        memory = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > EnrichmentResultCache.this.maxMemoryEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the fingerprint of a request: what, besides the content, makes its result
+     */
+    public static String fingerprint(List<String> actions, List<String> classes, String similarMetadataJsonArrayStr,
+            JSONObject extraJsonPayload, boolean useKEV2) {
+
+        List<String> sortedActions = actions == null ? List.of() : actions.stream().sorted().toList();
+        List<String> sortedClasses = classes == null ? List.of() : classes.stream().sorted().toList();
+        Object similar = StringUtils.isBlank(similarMetadataJsonArrayStr) ? null
+                : new JSONArray(similarMetadataJsonArrayStr);
+        return String.join("\n", "v2=" + useKEV2, "actions=" + sortedActions, "classes=" + sortedClasses,
+                "similar=" + canonical(similar), "extra=" + canonical(extraJsonPayload));
+    }
+
+    /*
+     * Same JSON => same String, whatever the order of the keys
+     */
+    protected static String canonical(Object value) {
+
+        if (value instanceof JSONObject obj) {
+            Map<String, String> sorted = new TreeMap<>();
+            for (String key : obj.keySet()) {
+                sorted.put(key, canonical(obj.get(key)));
+            }
+            StringBuilder sb = new StringBuilder("{");
+            sorted.forEach((k, v) -> sb.append(JSONObject.quote(k)).append(':').append(v).append(','));
+            return sb.append('}').toString();
+        }
+        if (value instanceof JSONArray arr) {
+            List<String> items = new ArrayList<>();
+            arr.forEach(item -> items.add(canonical(item)));
+            return "[" + String.join(",", items) + "]";
+        }
+        if (value == null || value == JSONObject.NULL) {
+            return "null";
+        }
+        return value instanceof String str ? JSONObject.quote(str) : value.toString();
+    }
+
+    /**
+     * @return the key of the result of a content (its digest) for a request (its fingerprint) in a configuration
+     */
+    public String key(String configName, String digest, String fingerprint) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                                       .digest(String.join("\n", StringUtils.defaultString(configName), digest,
+                                               fingerprint).getBytes(StandardCharsets.UTF_8));
+            return KEY_PREFIX + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the cached result (a copy, without <code>objectKey</code>), null if none
+     */
+    public JSONObject get(String configName, String key) {
+
+        String json = null;
+        synchronized (memory) {
+            CachedResult cached = memory.get(key);
+            if (cached != null) {
+                if (cached.expiresAt() > System.currentTimeMillis()) {
+                    json = cached.json();
+                } else {
+                    memory.remove(key);
+                }
+            }
+        }
+        if (json == null) {
+            json = fromStore(key);
+        }
+
+        JSONObject result = null;
+        if (json != null) {
+            try {
+                result = new JSONObject(json);
+            } catch (JSONException e) {
+                log.warn("Invalid cached KE result, ignoring it: {}", e.toString());
+            }
+        }
+        if (result == null) {
+            misses.incrementAndGet();
+            counter(configName, "misses").inc();
+        } else {
+            hits.incrementAndGet();
+            counter(configName, "hits").inc();
+        }
+        return result;
+    }
+
+    /**
+     * Caches the result of a content, if it is successful (every action) and not too big
+     *
+     * @param result, an item of the <code>results</code> of the response (its <code>objectKey</code> is not stored)
+     */
+    public void put(String key, JSONObject result) {
+
+        if (!isSuccessful(result)) {
+            return;
+        }
+        JSONObject toCache = new JSONObject(result.toString());
+        toCache.remove("objectKey");
+        String json = toCache.toString();
+        if (json.length() > maxEntryBytes) {
+            log.debug("KE result of {} chars not cached (max. {})", json.length(), maxEntryBytes);
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+        if (reserveStoreEntry()) {
+            store.put(key, new JSONObject().put(EXPIRES_AT, expiresAt).put(RESULT, toCache).toString(), ttlSeconds);
+        } else {
+            log.debug("KE result cache: {} results in the store, caching in memory only", maxStoreEntries);
+        }
+        remember(key, json, expiresAt);
+    }
+
+    /*
+     * The results are counted per period of ttlSeconds: the ones still in the store were put during the current period
+     * or the previous one. The count is an upper bound (a result put again is counted twice).
+     */
+    protected boolean reserveStoreEntry() {
+
+        if (maxStoreEntries <= 0) {
+            return true;
+        }
+        long period = System.currentTimeMillis() / (ttlSeconds * 1000);
+        String countKey = COUNT_KEY_PREFIX + period;
+        Long previous = store.getLong(COUNT_KEY_PREFIX + (period - 1));
+        long count = store.addAndGet(countKey, 1);
+        if (count == 1) {
+            store.setTTL(countKey, 2 * ttlSeconds);
+        }
+        if (count + (previous == null ? 0 : previous) > maxStoreEntries) {
+            store.addAndGet(countKey, -1);
+            return false;
+        }
+        return true;
+    }
+
+    /*
+     * The entry is stored with its expiry ({"expiresAt": ..., "result": {...}}), so the memory does not keep it longer
+     * than the store
+     */
+    protected String fromStore(String key) {
+
+        String stored = store.getString(key);
+        if (stored == null) {
+            return null;
+        }
+        JSONObject entry;
+        try {
+            entry = new JSONObject(stored);
+        } catch (JSONException e) {
+            log.warn("Invalid cached KE result, ignoring it: {}", e.toString());
+            return null;
+        }
+        long expiresAt = entry.optLong(EXPIRES_AT);
+        JSONObject result = entry.optJSONObject(RESULT);
+        if (result == null || expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        String json = result.toString();
+        remember(key, json, expiresAt);
+        return json;
+    }
+
+    protected void remember(String key, String json, long expiresAt) {
+        if (maxMemoryEntries > 0) {
+            synchronized (memory) {
+                memory.put(key, new CachedResult(json, expiresAt));
+            }
+        }
+    }
+
+    /*
+     * Every action succeeded ({"objectKey": ..., "imageDescription": {"isSuccess": true, "result": ...}, ...})
+     */
+    protected boolean isSuccessful(JSONObject result) {
+
+        boolean hasAction = false;
+        for (String key : result.keySet()) {
+            JSONObject action = result.optJSONObject(key);
+            if (action == null) {
+                continue;
+            }
+            hasAction = true;
+            Object error = action.opt("error");
+            if (!action.optBoolean("isSuccess", true)
+                    || (error != null && error != JSONObject.NULL && !String.valueOf(error).isEmpty())
+                    || action.opt("result") == null || action.opt("result") == JSONObject.NULL) {
+                return false;
+            }
+        }
+        return hasAction;
+    }
+
+    protected Counter counter(String configName, String name) {
+        return registry.counter(MetricName.build(METRICS_PREFIX, name)
+                                          .tagged("config", StringUtils.defaultIfBlank(configName, "default")));
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of results in memory
+     */
+    public int getMemorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+}
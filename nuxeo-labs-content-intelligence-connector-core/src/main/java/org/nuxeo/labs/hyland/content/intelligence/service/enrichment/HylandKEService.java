@@ -21,6 +21,7 @@ package org.nuxeo.labs.hyland.content.intelligence.service.enrichment;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.nuxeo.ecm.core.api.Blob;
 import org.nuxeo.ecm.core.api.DocumentModel;
@@ -67,6 +68,10 @@ import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
  * }
  * </pre>
  * 
+ * Since 2025.18, when the results are cached (see EnrichmentResultCache), <code>"bypassCache": true</code> in
+ * extraJsonPayloadStr sends the contents even if their result is cached (and caches the new result). It is not sent
+ * to the service.
+ * 
  * @since 2025.16 (note: not properly tracked, exact first-release version unknown)
  */
 @SuppressWarnings("rawtypes")
@@ -192,6 +197,17 @@ public interface HylandKEService {
             List<String> actions, List<String> classes, String similarMetadataJsonArrayStr, String extraJsonPayloadStr)
             throws IOException;
 
+    /**
+     * Non-blocking version of
+     * <code>sendForEnrichment(String, List&lt;ContentToProcess&gt;, List, List, String, String)</code>. The
+     * <code>ContentToProcess</code> objects are closed once uploaded.
+     * 
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> sendForEnrichmentAsync(String configName,
+            List<ContentToProcess> contentObjects, List<String> actions, List<String> classes,
+            String similarMetadataJsonArrayStr, String extraJsonPayloadStr);
+
     /**
      * After calling one of the sendForEnrichment() method, pull the results with getJobIdResult().
      * The HTTP response mayb not be 200. it could be for example 202, "accepted"
@@ -207,6 +223,34 @@ public interface HylandKEService {
      */
     public ServiceCallResult getJobIdResult(String configName, String jobId) throws IOException;
 
+    /**
+     * Non-blocking version of <code>getJobIdResult(String, String)</code>
+     * 
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> getJobIdResultAsync(String configName, String jobId);
+
+    /**
+     * After calling one of the sendForEnrichment() methods, polls the results of the job until they are available, as
+     * the enrich() methods do (same max. tries and interval, see <code>setPullResultsSettings</code>).
+     * <br>
+     * configName is the contribution to read for authentication and misc. If null or "", we use "default" (contributed
+     * by the plugin and using config. parameters)
+     * 
+     * @param configName
+     * @param processingId, the <code>processingId</code> returned by sendForEnrichment()
+     * @return a ServiceCallResult, with a 200 response code if the results were available
+     * @since 2025.18
+     */
+    public ServiceCallResult pullEnrichmentResults(String configName, String processingId);
+
+    /**
+     * Non-blocking version of <code>pullEnrichmentResults(String, String)</code>
+     * 
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> pullEnrichmentResultsAsync(String configName, String processingId);
+
     /**
      * High level call performing all the different serial requests to the service (authenticate, then ask for presigned
      * url, then send the file, etc.)
@@ -268,6 +312,27 @@ public interface HylandKEService {
     public ServiceCallResult enrich(String configName, List<ContentToProcess> contentObjects, List<String> actions,
             List<String> classes, String similarMetadataJsonArrayStr, String extraJsonPayloadStr) throws IOException;
 
+    /**
+     * Non-blocking version of <code>enrich(String, List&lt;ContentToProcess&gt;, List, List, String, String)</code>:
+     * uploads, processing request and polling of the results run without blocking the calling thread (including
+     * between two polling attempts), so a single thread can drive many enrichments at the same time.
+     * <br>
+     * HTTP errors are returned in the ServiceCallResult, as with the blocking method. Other errors (no authentication
+     * info, ...) complete the future exceptionally.
+     * 
+     * @param configName
+     * @param contentObjects
+     * @param actions
+     * @param classes
+     * @param similarMetadataJsonArrayStr
+     * @param extraJsonPayloadStr
+     * @return a future ServiceCallResult
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> enrichAsync(String configName, List<ContentToProcess> contentObjects,
+            List<String> actions, List<String> classes, String similarMetadataJsonArrayStr,
+            String extraJsonPayloadStr);
+
     /**
      * Call the KE service, using the configuration parameters (clientId, clientSecret, endpoints, …). This is a kind of
      * "low-level" call to the service.
@@ -292,6 +357,14 @@ public interface HylandKEService {
     public ServiceCallResult invokeEnrichment(String configName, String httpMethod, String endpoint,
             String jsonPayload);
 
+    /**
+     * Non-blocking version of <code>invokeEnrichment(String, String, String, String)</code>
+     * 
+     * @since 2025.18
+     */
+    public CompletableFuture<ServiceCallResult> invokeEnrichmentAsync(String configName, String httpMethod,
+            String endpoint, String jsonPayload);
+
     /**
      * maxRetries and sleepInterval are configurations, they can be tuned with this method.
      * <br>
@@ -22,15 +22,25 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 import org.nuxeo.ecm.core.api.Blob;
 import org.nuxeo.ecm.core.api.DocumentModel;
@@ -40,11 +50,19 @@ import org.nuxeo.ecm.platform.picture.api.adapters.MultiviewPicture;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationToken;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationTokenEnrichment;
 import org.nuxeo.labs.hyland.content.intelligence.ContentToProcess;
-import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.AdaptivePolling;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.Deadline;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
+import org.nuxeo.labs.hyland.content.intelligence.http.PresignedUrlPool;
 import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.Span;
 import org.nuxeo.labs.hyland.content.intelligence.service.AbstractCICServiceComponent;
 import org.nuxeo.labs.hyland.content.intelligence.service.CICServiceConstants;
 import org.nuxeo.labs.hyland.content.intelligence.service.ServicesUtils;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.kv.KeyValueService;
 import org.nuxeo.runtime.model.ComponentContext;
 
 public class HylandKEServiceImpl extends AbstractCICServiceComponent<KEDescriptor> implements HylandKEService {
@@ -57,6 +75,12 @@ public class HylandKEServiceImpl extends AbstractCICServiceComponent<KEDescripto
 
     public static final String KE_MAX_WORD_COUNT_PROPERTY = "maxWordCount";
 
+    /** @since 2025.18 */
+    public static final String KE_BYPASS_CACHE_PROPERTY = "bypassCache";
+
+    /** Object keys of the contents whose result was cached (not uploaded) */
+    protected static final String CACHED_OBJECT_KEY_PREFIX = "cached-";
+
     public static final String ENRICHMENT_CLIENT_ID_PARAM = "nuxeo.hyland.cic.enrichment.clientId";
 
     public static final String ENRICHMENT_CLIENT_SECRET_PARAM = "nuxeo.hyland.cic.enrichment.clientSecret";
@@ -73,14 +97,19 @@ public class HylandKEServiceImpl extends AbstractCICServiceComponent<KEDescripto
 
     protected static Map<String, AuthenticationToken> enrichmentAuthTokens = null;
 
+    // Presigned upload URLs prefetched for each configuration (if enabled in its http settings)
+    protected Map<String, PresignedUrlPool> presignedUrlPools = new ConcurrentHashMap<>();
+
+    protected volatile EnrichmentResultCache resultCache = null;
+
+    protected volatile UploadedObjectKeys uploadedObjectKeys = null;
+
     protected static int pullResultsMaxTries;
 
     protected static int pullResultsSleepIntervalMS;
 
     public static final String CUSTOM_ID_PREFIX = "CUSTOM_ID-";
 
-    protected static ServiceCall serviceCall = new ServiceCall();
-
     protected static boolean useKEV2 = true;
 
     // ====================> Extensions points
@@ -207,11 +236,20 @@ public class HylandKEServiceImpl extends AbstractCICServiceComponent<KEDescripto
     @Override
     public ServiceCallResult getJobIdResult(String configName, String jobId) {
 
-        ServiceCallResult result = null;
+        return await(getJobIdResultAsync(configName, jobId));
+    }
 
-        result = invokeEnrichment(configName, "GET", "/content/process/" + jobId + "/results", null);
+    @Override
+    public CompletableFuture<ServiceCallResult> getJobIdResultAsync(String configName, String jobId) {
 
-        return result;
+        return getJobIdResultAsync(configName, jobId, Deadline.NONE, Span.NOOP);
+    }
+
+    protected CompletableFuture<ServiceCallResult> getJobIdResultAsync(String configName, String jobId,
+            Deadline deadline, Span span) {
+
+        return invokeEnrichmentAsync(configName, "GET", "/content/process/" + jobId + "/results", null,
+                CallOptions.of(EndpointFamily.POLL, deadline).withSpan(span));
     }
 
     @Override
@@ -260,67 +298,343 @@ public class HylandKEServiceImpl extends AbstractCICServiceComponent<KEDescripto
             List<String> actions, List<String> classes, String similarMetadataJsonArrayStr, String extraJsonPayloadStr)
             throws IOException {
 
-        ServiceCallResult result = null;
-        JSONObject serviceResponse;
+        return await(sendForEnrichmentAsync(configName, contentObjects, actions, classes, similarMetadataJsonArrayStr,
+                extraJsonPayloadStr));
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public CompletableFuture<ServiceCallResult> sendForEnrichmentAsync(String configName,
+            List<ContentToProcess> contentObjects, List<String> actions, List<String> classes,
+            String similarMetadataJsonArrayStr, String extraJsonPayloadStr) {
+
+        return tracedFlow("ke.sendForEnrichment", configName,
+                span -> sendForEnrichmentAsync(configName, contentObjects, actions, classes,
+                        similarMetadataJsonArrayStr, extraJsonPayloadStr, newDeadline(configName), span));
+    }
+
+    /*
+     * All the calls (presign, upload, process) share the deadline. If a circuit is open (CIC is degraded), the flow
+     * stops and returns its result. Each step is traced as a child of span.
+     */
+    @SuppressWarnings("rawtypes")
+    protected CompletableFuture<ServiceCallResult> sendForEnrichmentAsync(String configName,
+            List<ContentToProcess> contentObjects, List<String> actions, List<String> classes,
+            String similarMetadataJsonArrayStr, String extraJsonPayloadStr, Deadline deadline, Span span) {
 
-        // (1. Token will be handled at first call)
+        return sendForEnrichmentAsync(configName, contentObjects, actions, classes, similarMetadataJsonArrayStr,
+                extraJsonPayloadStr, deadline, span, getUploadedObjectKeys());
+    }
 
-        // 2. Get presigned URL for every file
-        String errMsg;
+    /*
+     * uploadedKeys, if not null, gives the objectKey of the contents uploaded recently, which are not uploaded again
+     */
+    @SuppressWarnings("rawtypes")
+    protected CompletableFuture<ServiceCallResult> sendForEnrichmentAsync(String configName,
+            List<ContentToProcess> contentObjects, List<String> actions, List<String> classes,
+            String similarMetadataJsonArrayStr, String extraJsonPayloadStr, Deadline deadline, Span span,
+            UploadedObjectKeys uploadedKeys) {
+
+        // 1. Token (cached, then used by every call)
+        tracedToken(span, () -> getKEToken(configName));
+
+        // Contents uploaded recently (by a previous action) reuse their objectKey. Not twice in the same call, each
+        // content must have its own result.
+        List<ContentToProcess> reused = new ArrayList<>();
+        ConcurrentLinkedQueue<ContentToProcess> todo = new ConcurrentLinkedQueue<>();
+        Set<String> reusedKeys = new HashSet<>();
         for (ContentToProcess content : contentObjects) {
+            String objectKey = uploadedKeys == null ? null
+                    : uploadedKeys.get(checkConfigName(configName), content.getDigest(), content.getMimeType());
+            if (objectKey != null && reusedKeys.add(objectKey)) {
+                content.setObjectKey(objectKey);
+                content.setProcessingSuccess(true);
+                reused.add(content);
+            } else {
+                todo.add(content);
+            }
+        }
+        span.setAttribute("reusedObjectKeys", reused.size());
 
-            result = invokeEnrichment(configName, "GET",
-                    "/files/upload/presigned-url?contentType=" + content.getMimeType().replace("/", "%2F"), null);
-            if (result.callFailed()) {
-                // return result;
+        return uploadAndProcessAsync(configName, contentObjects, todo, uploadedKeys, actions, classes,
+                similarMetadataJsonArrayStr, extraJsonPayloadStr, deadline, span).thenCompose(result -> {
+                    if (reused.isEmpty() || !result.callFailed()) {
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    // Whatever the error, these objectKeys are not reused again
+                    reused.forEach(c -> uploadedKeys.remove(c.getObjectKey()));
+                    List<ContentToProcess> rejected = getRejectedObjectKeys(result, reused);
+                    if (rejected.isEmpty()) {
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    // The service may have deleted a file before the end of the TTL: upload these contents again,
+                    // the others keep their objectKey
+                    log.warn("Process call with reused objectKeys failed ({}), uploading {} content(s) again",
+                            result.getResponseCode(), rejected.size());
+                    rejected.forEach(c -> {
+                        c.setObjectKey(null);
+                        c.setProcessingSuccess(false);
+                    });
+                    return uploadAndProcessAsync(configName, contentObjects, new ConcurrentLinkedQueue<>(rejected),
+                            uploadedKeys, actions, classes, similarMetadataJsonArrayStr, extraJsonPayloadStr,
+                            deadline, span);
+                });
+    }
 
-                errMsg = "Failed getting a presigned URL for content ID <" + content.getSourceId() + ">, File name <"
-                        + content.getFile().getName() + ">.";
-                log.error(errMsg);
-                content.setErrorMessage(errMsg);
-                content.setProcessingSuccess(false);
-                continue;
+    /*
+     * Uploads the contents of todo, then processes all the contents uploaded successfully
+     */
+    @SuppressWarnings("rawtypes")
+    protected CompletableFuture<ServiceCallResult> uploadAndProcessAsync(String configName,
+            List<ContentToProcess> contentObjects, Queue<ContentToProcess> todo, UploadedObjectKeys uploadedKeys,
+            List<String> actions, List<String> classes, String similarMetadataJsonArrayStr, String extraJsonPayloadStr,
+            Deadline deadline, Span span) {
+
+        // 2. and 3. Get presigned URL for every file, and upload the file
+        return uploadAllAsync(configName, contentObjects, todo, uploadedKeys, deadline, span).thenCompose(
+                circuitOpen -> {
+                    if (circuitOpen != null) {
+                        return CompletableFuture.completedFuture(circuitOpen);
+                    }
+                    // 4. Get available actions
+                    // (Not needed here)
+
+                    // 5. Process
+                    List<String> objectKeys = contentObjects.stream()
+                                                            .filter(ContentToProcess::isProcessingSuccess)
+                                                            .map(ContentToProcess::getObjectKey)
+                                                            .collect(Collectors.toList());
+
+                    JSONObject payload = buildProcessActionPayload(objectKeys, actions, classes,
+                            similarMetadataJsonArrayStr, extraJsonPayloadStr);
+                    return traced(span, "process", s -> invokeEnrichmentAsync(configName, "POST", "/content/process",
+                            payload.toString(), CallOptions.of(EndpointFamily.PROCESS, deadline).withSpan(s)));
+                });
+    }
+
+    /*
+     * Gets a presigned URL for the contents of todo, and uploads them. uploadConcurrency files at the same time, so the
+     * presign of a file overlaps the upload of the others. Then closes the files fetched for contentObjects, and
+     * remembers the objectKeys in uploadedKeys (if not null). The future is completed with the result telling the
+     * circuit is open, null if it was not.
+     */
+    @SuppressWarnings("rawtypes")
+    protected CompletableFuture<ServiceCallResult> uploadAllAsync(String configName,
+            List<ContentToProcess> contentObjects, Queue<ContentToProcess> todo, UploadedObjectKeys uploadedKeys,
+            Deadline deadline, Span span) {
+
+        AtomicReference<ServiceCallResult> circuitOpen = new AtomicReference<>();
+        List<ContentToProcess> uploaded = new ArrayList<>(todo);
+        int concurrency = getServiceCall(configName).getSettings().getUploadConcurrency();
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(concurrency, todo.size()); i++) {
+            workers.add(nextPresignAndUpload(configName, todo, deadline, circuitOpen, span));
+        }
+        CompletableFuture<Void> uploads = CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new));
+
+        // We need to cleanup and close() any potential CloseableFile fetched during the uploads
+        return uploads.whenComplete((v, t) -> {
+            for (ContentToProcess content : contentObjects) {
+                content.close();
             }
+            if (uploadedKeys != null) {
+                uploaded.stream()
+                        .filter(ContentToProcess::isProcessingSuccess)
+                        .forEach(c -> uploadedKeys.put(checkConfigName(configName), c.getDigest(), c.getMimeType(),
+                                c.getObjectKey()));
+            }
+        }).thenApply(v -> circuitOpen.get());
+    }
+
+    /*
+     * The reused contents the process call rejected (400, 404 or 410): the item of the response "results" carrying
+     * their objectKey has an error ({"results": [{"objectKey": "...", "error": "..."}, ...]}). Other errors (classes,
+     * instructions, ...) would fail the same with new objectKeys.
+     */
+    @SuppressWarnings("rawtypes")
+    protected List<ContentToProcess> getRejectedObjectKeys(ServiceCallResult result, List<ContentToProcess> reused) {
 
-            serviceResponse = result.getResponseAsJSONObject();
-            String presignedUrl = serviceResponse.getString("presignedUrl");
-            String objectKey = serviceResponse.getString("objectKey");
-            content.setObjectKey(objectKey);
-
-            // 3. Upload file to this URL
-            result = serviceCall.uploadFileWithPut(content.getFile(), presignedUrl, content.getMimeType());
-            if (result.callFailed()) {
-                errMsg = "Failed uploading content ID <" + content.getSourceId() + ">, File name <\"\n"
-                        + content.getFile().getName() + ">.";
-                log.error(errMsg);
-                content.setErrorMessage(errMsg);
-                content.setProcessingSuccess(false);
+        int code = result.getResponseCode();
+        if (!result.callFailed() || (code != 400 && code != 404 && code != 410)) {
+            return List.of();
+        }
+        JSONObject response;
+        try {
+            response = new JSONObject(StringUtils.defaultIfBlank(result.getResponse(), "{}"));
+        } catch (JSONException e) {
+            return List.of();
+        }
+        JSONArray results = response.optJSONArray("results");
+        if (results == null) {
+            return List.of();
+        }
+        Set<String> rejectedKeys = new HashSet<>();
+        for (int i = 0; i < results.length(); i++) {
+            JSONObject item = results.optJSONObject(i);
+            if (item == null) {
                 continue;
             }
+            Object error = item.opt("error");
+            if ((error != null && error != JSONObject.NULL && !String.valueOf(error).isEmpty())
+                    || !item.optBoolean("isSuccess", true)) {
+                rejectedKeys.add(item.optString("objectKey"));
+            }
+        }
+        return reused.stream().filter(c -> rejectedKeys.contains(c.getObjectKey())).toList();
+    }
 
-            content.setProcessingSuccess(true);
+    /*
+     * Presigns and uploads the contents of todo, one after the other, until there is none left or the circuit is open
+     */
+    @SuppressWarnings("rawtypes")
+    protected CompletableFuture<Void> nextPresignAndUpload(String configName, Queue<ContentToProcess> todo,
+            Deadline deadline, AtomicReference<ServiceCallResult> circuitOpen, Span span) {
 
+        ContentToProcess content = circuitOpen.get() == null ? todo.poll() : null;
+        if (content == null) {
+            return CompletableFuture.completedFuture(null);
         }
+        return presignAndUploadAsync(configName, content, deadline, circuitOpen, span).thenCompose(
+                v -> nextPresignAndUpload(configName, todo, deadline, circuitOpen, span));
+    }
 
-        // We need to cleanup and close() any potential CloseableFile fetched during the loop
-        for (ContentToProcess content : contentObjects) {
-            content.close();
+    /*
+     * Get a presigned URL for the content, then upload it. Errors are stored in the content object, the future always
+     * completes normally. A result telling the circuit is open is also stored in circuitOpen.
+     */
+    @SuppressWarnings("rawtypes")
+    protected CompletableFuture<Void> presignAndUploadAsync(String configName, ContentToProcess content,
+            Deadline deadline, AtomicReference<ServiceCallResult> circuitOpen, Span span) {
+
+        String presignUrl = getPresignPath(content.getMimeType());
+        // The length of a blob, so a remote blob is fetched only once, for the upload
+        int parts = getMultipartPartCount(configName, content.getLength());
+        if (parts > 0) {
+            presignUrl += "&parts=" + parts;
         }
 
-        // 4. Get available actions
-        // (Not needed here)
+        // Single PUT uploads can use a prefetched URL
+        String url = presignUrl;
+        PresignedUrlPool pool = parts > 0 ? null : getPresignedUrlPool(configName);
+        return traced(span, "presign", s -> {
+            Supplier<CompletableFuture<ServiceCallResult>> onDemand = () -> invokeEnrichmentAsync(configName, "GET",
+                    url, null, CallOptions.of(EndpointFamily.PRESIGN, deadline).withSpan(s));
+            return pool == null ? onDemand.get() : pool.take(content.getMimeType(), onDemand);
+        }).thenCompose(result -> {
+                    if (result.callFailed()) {
+                        String errMsg = "Failed getting a presigned URL for content ID <" + content.getSourceId()
+                                + ">, File name <" + content.getFile().getName() + ">.";
+                        log.error(errMsg);
+                        content.setErrorMessage(errMsg);
+                        content.setProcessingSuccess(false);
+                        if (result.circuitWasOpen()) {
+                            circuitOpen.set(result);
+                        }
+                        return CompletableFuture.completedFuture(null);
+                    }
 
-        // 5. Process
-        List<String> objectKeys = contentObjects.stream()
-                                                .filter(ContentToProcess::isProcessingSuccess)
-                                                .map(ContentToProcess::getObjectKey)
-                                                .collect(Collectors.toList());
+                    JSONObject serviceResponse = result.getResponseAsJSONObject();
+                    String presignedUrl = serviceResponse.getString("presignedUrl");
+                    String objectKey = serviceResponse.getString("objectKey");
+                    content.setObjectKey(objectKey);
+
+                    // Contents without digest are hashed while they upload, so their result can be cached
+                    String digestAlgorithm = content.getDigest() == null
+                            && (getResultCache() != null || getUploadedObjectKeys() != null)
+                            ? EnrichmentResultCache.DIGEST_ALGORITHM
+                            : null;
+                    CompletableFuture<ServiceCallResult> upload = traced(span, "upload",
+                            s -> uploadFileAsync(configName, content.getFile(), content.getMimeType(), serviceResponse,
+                                    presignedUrl, deadline, s, digestAlgorithm));
+                    return upload.thenAccept(uploadResult -> {
+                        if (uploadResult.callFailed()) {
+                            String errMsg = "Failed uploading content ID <" + content.getSourceId()
+                                    + ">, File name <" + content.getFile().getName() + ">.";
+                            log.error(errMsg);
+                            content.setErrorMessage(errMsg);
+                            content.setProcessingSuccess(false);
+                            if (uploadResult.circuitWasOpen()) {
+                                circuitOpen.set(uploadResult);
+                            }
+                        } else {
+                            content.setProcessingSuccess(true);
+                            if (uploadResult.getContentDigest() != null) {
+                                content.setDigest(uploadResult.getContentDigest());
+                            }
+                        }
+                    });
+                });
+    }
 
-        JSONObject payload = buildProcessActionPayload(objectKeys, actions, classes, similarMetadataJsonArrayStr,
-                extraJsonPayloadStr);
-        result = invokeEnrichment(configName, "POST", "/content/process", payload.toString());
+    protected String getPresignPath(String mimeType) {
+        return "/files/upload/presigned-url?contentType=" + mimeType.replace("/", "%2F");
+    }
 
-        return result;
+    /**
+     * @return the pool of prefetched presigned URLs of the configuration, null if disabled
+     * @since 2025.18
+     */
+    public PresignedUrlPool getPresignedUrlPool(String configName) {
+
+        PresignedUrlPool pool = presignedUrlPools.computeIfAbsent(checkConfigName(configName), name -> {
+            ServiceCallSettings settings = getServiceCall(name).getSettings();
+            return new PresignedUrlPool(settings.getPresignPoolMaxSize(), settings.getPresignPoolTtlSeconds(),
+                    mimeType -> invokeEnrichmentAsync(name, "GET", getPresignPath(mimeType), null,
+                            CallOptions.of(EndpointFamily.PRESIGN)));
+        });
+        return pool.isEnabled() ? pool : null;
+    }
+
+    /**
+     * @return the cache of the enrichment results, null if disabled (see {@link EnrichmentResultCache#ENABLED_PARAM})
+     * @since 2025.18
+     */
+    public EnrichmentResultCache getResultCache() {
+
+        if (!Boolean.parseBoolean(Framework.getProperty(EnrichmentResultCache.ENABLED_PARAM, "false"))) {
+            return null;
+        }
+        if (resultCache == null) {
+            synchronized (this) {
+                if (resultCache == null) {
+                    KeyValueService kvs = Framework.getService(KeyValueService.class);
+                    resultCache = new EnrichmentResultCache(kvs.getKeyValueStore(EnrichmentResultCache.KV_STORE),
+                            ServicesUtils.configParamToInt(EnrichmentResultCache.TTL_SECONDS_PARAM,
+                                    EnrichmentResultCache.DEFAULT_TTL_SECONDS),
+                            ServicesUtils.configParamToInt(EnrichmentResultCache.MAX_ENTRY_BYTES_PARAM,
+                                    EnrichmentResultCache.DEFAULT_MAX_ENTRY_BYTES),
+                            ServicesUtils.configParamToInt(EnrichmentResultCache.MAX_MEMORY_ENTRIES_PARAM,
+                                    EnrichmentResultCache.DEFAULT_MAX_MEMORY_ENTRIES),
+                            ServicesUtils.configParamToInt(EnrichmentResultCache.MAX_STORE_ENTRIES_PARAM,
+                                    EnrichmentResultCache.DEFAULT_MAX_STORE_ENTRIES));
+                }
+            }
+        }
+        return resultCache;
+    }
+
+    /**
+     * @return the objectKeys of the contents uploaded recently, null if their reuse is disabled (see
+     *         {@link UploadedObjectKeys#ENABLED_PARAM})
+     * @since 2025.18
+     */
+    public UploadedObjectKeys getUploadedObjectKeys() {
+
+        if (!Boolean.parseBoolean(Framework.getProperty(UploadedObjectKeys.ENABLED_PARAM, "false"))) {
+            return null;
+        }
+        if (uploadedObjectKeys == null) {
+            synchronized (this) {
+                if (uploadedObjectKeys == null) {
+                    uploadedObjectKeys = new UploadedObjectKeys(
+                            ServicesUtils.configParamToInt(UploadedObjectKeys.TTL_SECONDS_PARAM,
+                                    UploadedObjectKeys.DEFAULT_TTL_SECONDS),
+                            ServicesUtils.configParamToInt(UploadedObjectKeys.MAX_ENTRIES_PARAM,
+                                    UploadedObjectKeys.DEFAULT_MAX_ENTRIES));
+                }
+            }
+        }
+        return uploadedObjectKeys;
     }
 
     @Override
@@ -328,8 +642,15 @@ public class HylandKEServiceImpl extends AbstractCICServiceComponent<KEDescripto
     public ServiceCallResult enrich(String configName, List<ContentToProcess> contentObjects, List<String> actions,
             List<String> classes, String similarMetadataJsonArrayStr, String extraJsonPayloadStr) throws IOException {
 
-        ServiceCallResult result = null;
-        JSONObject serviceResponse;
+        return await(enrichAsync(configName, contentObjects, actions, classes, similarMetadataJsonArrayStr,
+                extraJsonPayloadStr));
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public CompletableFuture<ServiceCallResult> enrichAsync(String configName, List<ContentToProcess> contentObjects,
+            List<String> actions, List<String> classes, String similarMetadataJsonArrayStr,
+            String extraJsonPayloadStr) {
 
         if (log.isInfoEnabled()) {
             StringBuilder sb = new StringBuilder("HylandKEServiceImpl#enrich:");
@@ -347,17 +668,125 @@ public class HylandKEServiceImpl extends AbstractCICServiceComponent<KEDescripto
             log.info(sb.toString());
         }
 
-        result = sendForEnrichment(configName, contentObjects, actions, classes, similarMetadataJsonArrayStr,
-                extraJsonPayloadStr);
-        if (result.callFailed()) {
+        return tracedFlow("ke.enrich", configName, span -> {
+            span.setAttribute("contents", contentObjects.size());
+            // The whole flow, polling included, stops at this deadline
+            Deadline deadline = newDeadline(configName);
+
+            // The contents whose result is cached are not sent
+            JSONObject extraJsonPayload = StringUtils.isBlank(extraJsonPayloadStr) ? new JSONObject()
+                    : new JSONObject(extraJsonPayloadStr);
+            boolean bypassCache = extraJsonPayload.optBoolean(KE_BYPASS_CACHE_PROPERTY, false);
+            extraJsonPayload.remove(KE_BYPASS_CACHE_PROPERTY);
+            EnrichmentResultCache cache = getResultCache();
+            String fingerprint = cache == null ? null
+                    : EnrichmentResultCache.fingerprint(actions, classes, similarMetadataJsonArrayStr,
+                            extraJsonPayload, useKEV2);
+            Map<ContentToProcess, JSONObject> cached = cache == null || bypassCache ? new LinkedHashMap<>()
+                    : getCachedResults(cache, configName, fingerprint, contentObjects);
+            List<ContentToProcess> toSend = contentObjects.stream().filter(c -> !cached.containsKey(c)).toList();
+            span.setAttribute("cached", cached.size());
+
+            CompletableFuture<ServiceCallResult> future;
+            if (toSend.isEmpty()) {
+                cached.keySet().forEach(ContentToProcess::close);
+                JSONObject response = new JSONObject();
+                response.put("status", "SUCCESS");
+                response.put("results", new JSONArray());
+                future = CompletableFuture.completedFuture(new ServiceCallResult(response.toString(), 200, "OK"));
+            } else {
+                // Before the upload, which may delete the files
+                String latencyKey = getLatencyKey(toSend, actions);
+                future = sendForEnrichmentAsync(configName, toSend, actions, classes, similarMetadataJsonArrayStr,
+                        extraJsonPayloadStr, deadline, span).thenCompose(result -> {
+                            if (result.callFailed()) {
+                                return CompletableFuture.completedFuture(result);
+                            }
+                            JSONObject serviceResponse = result.getResponseAsJSONObject();
+                            String resultId = serviceResponse.getString("processingId");
+
+                            return pullEnrichmentResultsAsync(configName, resultId, latencyKey, deadline, span);
+                        });
+            }
+
+            return future.thenApply(result -> cache == null ? result
+                    : addCachedResults(result, cache, configName, fingerprint, toSend, cached)).thenApply(result -> {
+                        Span mapping = span.child("mapping");
+                        try {
+                            return addObjectKeysMapping(result, contentObjects);
+                        } finally {
+                            mapping.end();
+                        }
+                    });
+        });
+    }
+
+    /*
+     * The cached results of the contents having a digest
+     */
+    @SuppressWarnings("rawtypes")
+    protected Map<ContentToProcess, JSONObject> getCachedResults(EnrichmentResultCache cache, String configName,
+            String fingerprint, List<ContentToProcess> contentObjects) {
+
+        Map<ContentToProcess, JSONObject> cached = new LinkedHashMap<>();
+        for (ContentToProcess content : contentObjects) {
+            String digest = content == null ? null : content.getDigest();
+            if (digest != null) {
+                JSONObject result = cache.get(configName, cache.key(checkConfigName(configName), digest, fingerprint));
+                if (result != null) {
+                    cached.put(content, result);
+                }
+            }
+        }
+        return cached;
+    }
+
+    /*
+     * Caches the results of the contents sent, and adds the cached results to the response (with an objectKey, so
+     * they are mapped as the others)
+     */
+    @SuppressWarnings("rawtypes")
+    protected ServiceCallResult addCachedResults(ServiceCallResult result, EnrichmentResultCache cache,
+            String configName, String fingerprint, List<ContentToProcess> sent,
+            Map<ContentToProcess, JSONObject> cached) {
+
+        if (!result.callResponseOK()) {
             return result;
         }
-        serviceResponse = result.getResponseAsJSONObject();
-        String resultId = serviceResponse.getString("processingId");
+        JSONObject response = result.getResponseAsJSONObject();
+        JSONArray results = response.optJSONArray("results");
+        if (results == null) {
+            return result;
+        }
+
+        for (int i = 0; i < results.length(); i++) {
+            JSONObject oneResult = results.optJSONObject(i);
+            String objectKey = oneResult == null ? null : oneResult.optString("objectKey", null);
+            ContentToProcess content = objectKey == null ? null
+                    : sent.stream().filter(c -> objectKey.equals(c.getObjectKey())).findFirst().orElse(null);
+            if (content != null && content.getDigest() != null) {
+                cache.put(cache.key(checkConfigName(configName), content.getDigest(), fingerprint), oneResult);
+            }
+        }
 
-        result = pullEnrichmentResults(configName, resultId);
+        if (!cached.isEmpty()) {
+            for (Map.Entry<ContentToProcess, JSONObject> entry : cached.entrySet()) {
+                ContentToProcess content = entry.getKey();
+                content.setObjectKey(CACHED_OBJECT_KEY_PREFIX + UUID.randomUUID());
+                content.setProcessingSuccess(true);
+                results.put(entry.getValue().put("objectKey", content.getObjectKey()));
+            }
+            result.setResponse(response.toString());
+        }
+        return result;
+    }
+
+    /*
+     * Add the info so that caller can map objectKey and their blob/file
+     */
+    @SuppressWarnings("rawtypes")
+    protected ServiceCallResult addObjectKeysMapping(ServiceCallResult result, List<ContentToProcess> contentObjects) {
 
-        // Add the info so that caller can map objectKey and their blob/file
         if (result.callWasSuccesful()) {
             JSONObject response = result.getResponseAsJSONObject();
 
@@ -484,6 +913,9 @@ public class HylandKEServiceImpl extends AbstractCICServiceComponent<KEDescripto
 
         if (!extraJsonPayload.isEmpty()) {
             for (String key : JSONObject.getNames(extraJsonPayload)) {
+                if (KE_BYPASS_CACHE_PROPERTY.equals(key)) {
+                    continue;
+                }
                 if (!useKEV2 || !KE_INSTRUCTIONS_OBJ_IN_EXTRA_PAYLOAD.equals(key)) {
                     payload.put(key, extraJsonPayload.get(key));
                 }
@@ -510,23 +942,38 @@ public class HylandKEServiceImpl extends AbstractCICServiceComponent<KEDescripto
         return result;
     }
 
-    protected ServiceCallResult pullEnrichmentResults(String configName, String resultId) {
+    /*
+     * The kind of job, for AdaptivePolling: the actions, and the total size of the files
+     */
+    protected String getLatencyKey(List<ContentToProcess> contentObjects, List<String> actions) {
+        long size = contentObjects.stream().filter(c -> c != null).mapToLong(ContentToProcess::getLength).sum();
+        String sortedActions = actions == null ? "" : String.join(",", actions.stream().sorted().toList());
+        return AdaptivePolling.key("KE", sortedActions, size);
+    }
 
-        ServiceCallResult result;
-        int count = 1;
+    @Override
+    public ServiceCallResult pullEnrichmentResults(String configName, String processingId) {
 
-        log.info("pullEnrichmentResults for Job ID '{}'.", resultId);
+        return await(pullEnrichmentResultsAsync(configName, processingId));
+    }
 
-        do {
-            if (count > 1) {
-                try {
-                    Thread.sleep(pullResultsSleepIntervalMS);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new NuxeoException("Interrupted while polling Enrichment results", e);
-                }
-            }
+    @Override
+    public CompletableFuture<ServiceCallResult> pullEnrichmentResultsAsync(String configName, String processingId) {
 
+        return tracedFlow("ke.pullEnrichmentResults", configName,
+                span -> pullEnrichmentResultsAsync(configName, processingId, null, newDeadline(configName), span));
+    }
+
+    /*
+     * Since 2025.18, the polling does not block a thread between two attempts, and its intervals can be learned from
+     * the previous jobs of the same kind (latencyKey).
+     */
+    protected CompletableFuture<ServiceCallResult> pullEnrichmentResultsAsync(String configName, String resultId,
+            String latencyKey, Deadline deadline, Span span) {
+
+        log.info("pullEnrichmentResults for Job ID '{}'.", resultId);
+
+        return pollAsync(configName, latencyKey, count -> {
             if (count == pullResultsMaxTries) {
                 log.warn("Pulling Enrichment results is taking time. This is the last try,  {}/{}", count,
                         pullResultsMaxTries);
@@ -539,23 +986,37 @@ public class HylandKEServiceImpl extends AbstractCICServiceComponent<KEDescripto
                 }
             }
 
-            result = getJobIdResult(configName, resultId);
-            count += 1;
+            return traced(span, "poll", s -> getJobIdResultAsync(configName, resultId, deadline,
+                    s.setAttribute("attempt", count)));
 
             // We must get an OK. A 202 "Accepted" for example does not have the full response.
-        } while (!result.callResponseOK() && count <= pullResultsMaxTries);
-
-        return result;
+        }, (count, result) -> result.callResponseOK(), pullResultsMaxTries, pullResultsSleepIntervalMS, deadline);
     }
 
     @Override
     public ServiceCallResult invokeEnrichment(String configName, String httpMethod, String endpoint,
             String jsonPayload) {
 
-        ServiceCallResult result = null;
+        return await(invokeEnrichmentAsync(configName, httpMethod, endpoint, jsonPayload));
+    }
+
+    @Override
+    public CompletableFuture<ServiceCallResult> invokeEnrichmentAsync(String configName, String httpMethod,
+            String endpoint, String jsonPayload) {
+
+        return invokeEnrichmentAsync(configName, httpMethod, endpoint, jsonPayload, CallOptions.DEFAULT);
+    }
+
+    /*
+     * The options set the timeouts (endpoint family) and the deadline of the flow the call belongs to
+     */
+    protected CompletableFuture<ServiceCallResult> invokeEnrichmentAsync(String configName, String httpMethod,
+            String endpoint, String jsonPayload, CallOptions options) {
+
+        CompletableFuture<ServiceCallResult> result = null;
 
         // Get auth token
-        String bearer = getKEToken(null);// enrichmentAuthToken.getToken();
+        String bearer = getKEToken(configName);
         if (StringUtils.isBlank(bearer)) {
             throw new NuxeoException("No authentication info for calling the Enrichment service.");
         }
@@ -580,15 +1041,15 @@ public class HylandKEServiceImpl extends AbstractCICServiceComponent<KEDescripto
         httpMethod = httpMethod.toUpperCase();
         switch (httpMethod) {
         case "GET":
-            result = serviceCall.get(targetUrl, headers);
+            result = getServiceCall(configName).getAsync(targetUrl, headers, options);
             break;
 
         case "POST":
-            result = serviceCall.post(targetUrl, headers, jsonPayload);
+            result = getServiceCall(configName).postAsync(targetUrl, headers, jsonPayload, options);
             break;
 
         case "PUT":
-            result = serviceCall.put(targetUrl, headers, jsonPayload);
+            result = getServiceCall(configName).putAsync(targetUrl, headers, jsonPayload, options);
             break;
 
         default:
@@ -741,7 +1202,9 @@ public class HylandKEServiceImpl extends AbstractCICServiceComponent<KEDescripto
     @Override
     public void stop(ComponentContext context) throws InterruptedException {
 
-        // Nothing for now
+        presignedUrlPools.values().forEach(PresignedUrlPool::close);
+        presignedUrlPools.clear();
+        closeServiceCalls();
 
     }
 
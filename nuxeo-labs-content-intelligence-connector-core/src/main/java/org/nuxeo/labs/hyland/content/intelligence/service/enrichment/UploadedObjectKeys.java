@@ -0,0 +1,138 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.service.enrichment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Remembers the objectKey of the contents uploaded to Knowledge Enrichment, by digest and content type, so several
+ * actions run on the same content (summary, classification, named entities, metadata...) upload it only once: the
+ * next ones skip the presign and upload calls and go straight to <code>/content/process</code>.
+ * <p>
+ * An objectKey is reused for {@link #TTL_SECONDS_PARAM} at most, which must stay below the time the service keeps the
+ * uploaded files. At most {@link #MAX_ENTRIES_PARAM} objectKeys are kept, the least recently used is removed first.
+ *
+ * @since 2025.18
+ */
+public class UploadedObjectKeys {
+
+    public static final String ENABLED_PARAM = "nuxeo.hyland.cic.enrichment.objectKeyReuse";
+
+    public static final String TTL_SECONDS_PARAM = "nuxeo.hyland.cic.enrichment.objectKeyReuse.ttlSeconds";
+
+    public static final int DEFAULT_TTL_SECONDS = 900;
+
+    public static final String MAX_ENTRIES_PARAM = "nuxeo.hyland.cic.enrichment.objectKeyReuse.maxEntries";
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    protected record Uploaded(String objectKey, long expiresAt) {
+    }
+
+    protected final long ttlMs;
+
+    protected final int maxEntries;
+
+    protected final Map<String, Uploaded> uploaded;
+
+    protected final AtomicLong hits = new AtomicLong();
+
+    protected final AtomicLong misses = new AtomicLong();
+
+    public UploadedObjectKeys(int ttlSeconds, int maxEntries) {
+        ttlMs = (ttlSeconds > 0 ? ttlSeconds : DEFAULT_TTL_SECONDS) * 1000L;
+        this.maxEntries = Math.max(maxEntries, 1);
+        // Access order: the least recently used is removed first
+        uploaded = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Uploaded> eldest) {
+                return size() > UploadedObjectKeys.this.maxEntries;
+            }
+        };
+    }
+
+    protected String key(String configName, String digest, String mimeType) {
+        return String.join("\n", StringUtils.defaultString(configName), digest, StringUtils.defaultString(mimeType));
+    }
+
+    /**
+     * @return the objectKey of this content if it was uploaded less than the TTL ago, else null
+     */
+    public String get(String configName, String digest, String mimeType) {
+
+        if (digest == null) {
+            return null;
+        }
+        String key = key(configName, digest, mimeType);
+        synchronized (uploaded) {
+            Uploaded found = uploaded.get(key);
+            if (found != null && found.expiresAt() > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return found.objectKey();
+            }
+            if (found != null) {
+                uploaded.remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String configName, String digest, String mimeType, String objectKey) {
+
+        if (digest == null || objectKey == null) {
+            return;
+        }
+        synchronized (uploaded) {
+            uploaded.put(key(configName, digest, mimeType),
+                    new Uploaded(objectKey, System.currentTimeMillis() + ttlMs));
+        }
+    }
+
+    /**
+     * Forgets an objectKey the service does not accept anymore (the file expired before the TTL...)
+     */
+    public void remove(String objectKey) {
+        synchronized (uploaded) {
+            uploaded.values().removeIf(u -> u.objectKey().equals(objectKey));
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (uploaded) {
+            return uploaded.size();
+        }
+    }
+
+}
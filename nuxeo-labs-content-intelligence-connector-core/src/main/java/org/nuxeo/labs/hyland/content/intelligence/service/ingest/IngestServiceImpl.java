@@ -29,7 +29,6 @@ import org.nuxeo.ecm.core.api.Blob;
 import org.nuxeo.ecm.core.api.DocumentModel;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationToken;
 import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationTokenIngest;
-import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
 import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
 import org.nuxeo.labs.hyland.content.intelligence.service.AbstractCICServiceComponent;
 import org.nuxeo.labs.hyland.content.intelligence.service.CICServiceConstants;
@@ -58,8 +57,6 @@ public class IngestServiceImpl extends AbstractCICServiceComponent<IngestDescrip
 
     protected static String defaultSourceId;
 
-    protected static ServiceCall serviceCall = new ServiceCall();
-
     // ====================> Extensions points
     protected static final String EXT_POINT_INGEST = "ingest";
 
@@ -169,7 +166,7 @@ public class IngestServiceImpl extends AbstractCICServiceComponent<IngestDescrip
         headers.put("hxp-Environment", config.getEnvironment());
 
         // Call
-        result = serviceCall.get(targetUrl, headers);
+        result = getServiceCall(configName).get(targetUrl, headers);
 
         return result;
 
@@ -213,7 +210,7 @@ public class IngestServiceImpl extends AbstractCICServiceComponent<IngestDescrip
     @Override
     public void stop(ComponentContext context) throws InterruptedException {
 
-        // log.warn("Stop component");
+        closeServiceCalls();
     }
 
 }
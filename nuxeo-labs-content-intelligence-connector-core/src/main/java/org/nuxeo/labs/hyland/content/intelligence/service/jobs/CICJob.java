@@ -0,0 +1,153 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.service.jobs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * A job submitted to CIC (its <code>processingId</code>), with what is needed to apply its results to the documents
+ * once done: the operation and its parameters, the documents, and the <code>objectKey</code> -&gt;
+ * <code>sourceId</code> mapping of the uploaded files.
+ *
+ * @since 2025.18
+ */
+public class CICJob {
+
+    protected final String jobId;
+
+    protected final String service;
+
+    protected final String configName;
+
+    protected final String repositoryName;
+
+    protected final List<String> docIds;
+
+    protected final String opClassName;
+
+    protected final String paramsJson;
+
+    protected final JSONArray objectKeysMapping;
+
+    protected final long submittedAt;
+
+    public CICJob(String jobId, String service, String configName, String repositoryName, List<String> docIds,
+            String opClassName, String paramsJson, JSONArray objectKeysMapping) {
+        this(jobId, service, configName, repositoryName, docIds, opClassName, paramsJson, objectKeysMapping,
+                System.currentTimeMillis());
+    }
+
+    protected CICJob(String jobId, String service, String configName, String repositoryName, List<String> docIds,
+            String opClassName, String paramsJson, JSONArray objectKeysMapping, long submittedAt) {
+        this.jobId = jobId;
+        this.service = service;
+        this.configName = configName;
+        this.repositoryName = repositoryName;
+        this.docIds = List.copyOf(docIds);
+        this.opClassName = opClassName;
+        this.paramsJson = paramsJson;
+        this.objectKeysMapping = objectKeysMapping == null ? new JSONArray() : objectKeysMapping;
+        this.submittedAt = submittedAt;
+    }
+
+    public static CICJob fromJson(String json) {
+
+        JSONObject obj = new JSONObject(json);
+        List<String> docIds = new ArrayList<>();
+        JSONArray ids = obj.optJSONArray("docIds");
+        if (ids != null) {
+            ids.forEach(id -> docIds.add(id.toString()));
+        }
+        return new CICJob(obj.getString("jobId"), obj.optString("service", null), obj.optString("configName", null),
+                obj.optString("repositoryName", null), docIds, obj.optString("opClassName", null),
+                obj.optString("paramsJson", null), obj.optJSONArray("objectKeysMapping"), obj.optLong("submittedAt"));
+    }
+
+    public String toJson() {
+
+        JSONObject obj = new JSONObject();
+        obj.put("jobId", jobId);
+        obj.put("service", service);
+        obj.put("configName", configName);
+        obj.put("repositoryName", repositoryName);
+        obj.put("docIds", new JSONArray(docIds));
+        obj.put("opClassName", opClassName);
+        obj.put("paramsJson", paramsJson);
+        obj.put("objectKeysMapping", objectKeysMapping);
+        obj.put("submittedAt", submittedAt);
+        return obj.toString();
+    }
+
+    /**
+     * @return the <code>processingId</code> returned by the service
+     */
+    public String getJobId() {
+        return jobId;
+    }
+
+    /**
+     * @return the label of the service (for example "Knowledge Enrichment")
+     */
+    public String getService() {
+        return service;
+    }
+
+    public String getConfigName() {
+        return configName;
+    }
+
+    public String getRepositoryName() {
+        return repositoryName;
+    }
+
+    /**
+     * @return the ids of the documents of the job (including the ones whose file could not be uploaded)
+     */
+    public List<String> getDocIds() {
+        return docIds;
+    }
+
+    public String getOpClassName() {
+        return opClassName;
+    }
+
+    public String getParamsJson() {
+        return paramsJson;
+    }
+
+    /**
+     * @return the <code>objectKey</code> -&gt; <code>sourceId</code> mapping, as in
+     *         {@link org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult#getObjectKeysMapping()}
+     */
+    public JSONArray getObjectKeysMapping() {
+        return objectKeysMapping;
+    }
+
+    /**
+     * @return when the job was submitted, in ms since the epoch
+     */
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+}
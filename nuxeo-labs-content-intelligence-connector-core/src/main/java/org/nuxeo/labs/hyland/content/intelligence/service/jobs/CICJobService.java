@@ -0,0 +1,102 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.service.jobs;
+
+import java.util.List;
+
+/**
+ * Durable tracking of the jobs submitted to CIC. When enabled (see {@link #DURABLE_PARAM}), the enrichment Works only
+ * submit the files, the job is stored (see {@link CICJobStore}), and a separate
+ * {@link org.nuxeo.labs.hyland.content.intelligence.automation.enrichment.CICJobCollectWork CICJobCollectWork} polls
+ * for its results and writes them in the documents. If the node stops meanwhile, any node resumes the collection
+ * (see {@link #resume()}), instead of uploading and processing the files again.
+ *
+ * @since 2025.18
+ */
+public interface CICJobService {
+
+    public static final String DURABLE_PARAM = "nuxeo.hyland.cic.jobs.durable";
+
+    /**
+     * After this time, a job that could not be collected is dropped, and its documents get a CICError
+     */
+    public static final String MAX_AGE_HOURS_PARAM = "nuxeo.hyland.cic.jobs.maxAgeHours";
+
+    public static final int DEFAULT_MAX_AGE_HOURS = 24;
+
+    /**
+     * Max. time a node collects a job before the others consider it stopped
+     */
+    public static final String LEASE_SECONDS_PARAM = "nuxeo.hyland.cic.jobs.leaseSeconds";
+
+    public static final int DEFAULT_LEASE_SECONDS = 600;
+
+    /**
+     * How often the jobs nobody collects are looked for
+     */
+    public static final String RESUME_INTERVAL_SECONDS_PARAM = "nuxeo.hyland.cic.jobs.resumeIntervalSeconds";
+
+    public static final int DEFAULT_RESUME_INTERVAL_SECONDS = 60;
+
+    /**
+     * @return true if the jobs are tracked (false by default)
+     */
+    public boolean isEnabled();
+
+    /**
+     * Stores the job, and schedules the collection of its results
+     */
+    public void submit(CICJob job);
+
+    /**
+     * @return the job, null if unknown (done, or expired)
+     */
+    public CICJob getJob(String jobId);
+
+    /**
+     * @return the ids of the jobs not collected yet
+     */
+    public List<String> getJobIds();
+
+    /**
+     * @return true if <code>owner</code> can collect the job (no one else is collecting it)
+     */
+    public boolean claim(String jobId, String owner);
+
+    public void release(String jobId, String owner);
+
+    /**
+     * Forgets the job (its results were applied, or it is dropped)
+     */
+    public void remove(String jobId);
+
+    /**
+     * @return true if the job is older than {@link #MAX_AGE_HOURS_PARAM}
+     */
+    public boolean isExpired(CICJob job);
+
+    /**
+     * Schedules the collection of the jobs no one is collecting (node stopped while collecting them). Called
+     * periodically when enabled.
+     *
+     * @return the number of jobs scheduled
+     */
+    public int resume();
+
+}
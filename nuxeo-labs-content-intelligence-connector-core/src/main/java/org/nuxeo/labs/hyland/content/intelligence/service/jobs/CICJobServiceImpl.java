@@ -0,0 +1,170 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.service.jobs;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.nuxeo.ecm.core.work.api.WorkManager;
+import org.nuxeo.ecm.core.work.api.WorkManager.Scheduling;
+import org.nuxeo.labs.hyland.content.intelligence.automation.enrichment.CICJobCollectWork;
+import org.nuxeo.labs.hyland.content.intelligence.service.ServicesUtils;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.kv.KeyValueService;
+import org.nuxeo.runtime.model.ComponentContext;
+import org.nuxeo.runtime.model.DefaultComponent;
+
+/**
+ * Default implementation of {@link CICJobService}.
+ *
+ * @since 2025.18
+ */
+public class CICJobServiceImpl extends DefaultComponent implements CICJobService {
+
+    private static final Logger log = LogManager.getLogger(CICJobServiceImpl.class);
+
+    // Let the node start before resuming the jobs
+    protected static final long RESUME_INITIAL_DELAY_SECONDS = 30;
+
+    protected boolean enabled;
+
+    protected Duration maxAge;
+
+    protected long leaseSeconds;
+
+    protected volatile CICJobStore store;
+
+    protected ScheduledExecutorService resumer;
+
+    @Override
+    public void start(ComponentContext context) {
+
+        enabled = Boolean.parseBoolean(Framework.getProperty(DURABLE_PARAM, "false"));
+        maxAge = Duration.ofHours(ServicesUtils.configParamToInt(MAX_AGE_HOURS_PARAM, DEFAULT_MAX_AGE_HOURS));
+        leaseSeconds = ServicesUtils.configParamToInt(LEASE_SECONDS_PARAM, DEFAULT_LEASE_SECONDS);
+        if (!enabled) {
+            return;
+        }
+
+        int interval = ServicesUtils.configParamToInt(RESUME_INTERVAL_SECONDS_PARAM, DEFAULT_RESUME_INTERVAL_SECONDS);
+        resumer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cic-jobs-resume");
+            t.setDaemon(true);
+            return t;
+        });
+        resumer.scheduleWithFixedDelay(() -> {
+            try {
+                resume();
+            } catch (RuntimeException e) {
+                log.warn("Cannot resume the CIC jobs: {}", e.toString());
+            }
+        }, RESUME_INITIAL_DELAY_SECONDS, interval, TimeUnit.SECONDS);
+        log.info("Durable CIC jobs enabled (max age: {} h, lease: {} s)", maxAge.toHours(), leaseSeconds);
+    }
+
+    @Override
+    public void stop(ComponentContext context) throws InterruptedException {
+
+        if (resumer != null) {
+            resumer.shutdownNow();
+            resumer = null;
+        }
+    }
+
+    protected CICJobStore getStore() {
+
+        if (store == null) {
+            // Kept a bit longer than maxAge, so the collection can record the error on the documents
+            long ttl = maxAge.plusHours(1).toSeconds();
+            store = new CICJobStore(
+                    Framework.getService(KeyValueService.class).getKeyValueStore(CICJobStore.KV_STORE), ttl);
+        }
+        return store;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void submit(CICJob job) {
+
+        getStore().put(job);
+        log.info("Tracking CIC job {} ({} document(s))", job.getJobId(), job.getDocIds().size());
+        schedule(job.getJobId());
+    }
+
+    protected void schedule(String jobId) {
+        Framework.getService(WorkManager.class)
+                 .schedule(new CICJobCollectWork(jobId), Scheduling.IF_NOT_SCHEDULED, false);
+    }
+
+    @Override
+    public CICJob getJob(String jobId) {
+        return getStore().get(jobId);
+    }
+
+    @Override
+    public List<String> getJobIds() {
+        return getStore().getJobIds();
+    }
+
+    @Override
+    public boolean claim(String jobId, String owner) {
+        return getStore().claim(jobId, owner, leaseSeconds);
+    }
+
+    @Override
+    public void release(String jobId, String owner) {
+        getStore().release(jobId, owner);
+    }
+
+    @Override
+    public void remove(String jobId) {
+        getStore().remove(jobId);
+    }
+
+    @Override
+    public boolean isExpired(CICJob job) {
+        return System.currentTimeMillis() - job.getSubmittedAt() > maxAge.toMillis();
+    }
+
+    @Override
+    public int resume() {
+
+        int count = 0;
+        for (String jobId : getJobIds()) {
+            if (!getStore().isClaimed(jobId)) {
+                schedule(jobId);
+                count++;
+            }
+        }
+        if (count > 0) {
+            log.info("Resuming the collection of {} CIC job(s)", count);
+        }
+        return count;
+    }
+
+}
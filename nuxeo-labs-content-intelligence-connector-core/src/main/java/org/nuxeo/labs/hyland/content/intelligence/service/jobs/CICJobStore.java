@@ -0,0 +1,169 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.service.jobs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.nuxeo.runtime.kv.KeyValueStore;
+
+/**
+ * Persists the in-flight {@link CICJob}s in a {@link KeyValueStore}, so they are visible to all the nodes and survive
+ * a restart. A job has a lease: the node collecting its results holds it, the others leave the job alone until the
+ * lease expires (node stopped meanwhile).
+ *
+ * @since 2025.18
+ */
+public class CICJobStore {
+
+    private static final Logger log = LogManager.getLogger(CICJobStore.class);
+
+    public static final String KV_STORE = "cic-jobs";
+
+    protected static final String JOB_PREFIX = "cic:job:";
+
+    protected static final String INDEX_KEY = "cic:jobs";
+
+    protected static final String LEASE_SUFFIX = ":lease";
+
+    protected final KeyValueStore store;
+
+    protected final long jobTtlSeconds;
+
+    /**
+     * @param store, the store
+     * @param jobTtlSeconds, how long a job is kept in the store (then dropped even if never collected)
+     */
+    public CICJobStore(KeyValueStore store, long jobTtlSeconds) {
+        this.store = store;
+        this.jobTtlSeconds = jobTtlSeconds;
+    }
+
+    protected String jobKey(String jobId) {
+        return JOB_PREFIX + jobId;
+    }
+
+    protected String leaseKey(String jobId) {
+        return JOB_PREFIX + jobId + LEASE_SUFFIX;
+    }
+
+    public void put(CICJob job) {
+        store.put(jobKey(job.getJobId()), job.toJson(), jobTtlSeconds);
+        updateIndex(ids -> {
+            if (!ids.contains(job.getJobId())) {
+                ids.add(job.getJobId());
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * @return the job, null if unknown (done, or expired)
+     */
+    public CICJob get(String jobId) {
+
+        String json = store.getString(jobKey(jobId));
+        if (StringUtils.isBlank(json)) {
+            return null;
+        }
+        try {
+            return CICJob.fromJson(json);
+        } catch (JSONException e) {
+            log.warn("Invalid job {} in the store, ignoring it: {}", jobId, e.toString());
+            return null;
+        }
+    }
+
+    public void remove(String jobId) {
+        store.put(jobKey(jobId), (String) null);
+        store.put(leaseKey(jobId), (String) null);
+        updateIndex(ids -> {
+            ids.remove(jobId);
+            return ids;
+        });
+    }
+
+    /**
+     * @return the ids of the jobs of the store. The ones that expired meanwhile are removed from the list.
+     */
+    public List<String> getJobIds() {
+
+        List<String> ids = readIndex(store.getString(INDEX_KEY));
+        List<String> expired = ids.stream().filter(id -> store.getString(jobKey(id)) == null).toList();
+        if (!expired.isEmpty()) {
+            updateIndex(current -> {
+                current.removeAll(expired);
+                return current;
+            });
+            ids.removeAll(expired);
+        }
+        return ids;
+    }
+
+    /**
+     * @param owner, identifies the caller
+     * @param leaseSeconds, after this time, the lease is released even if the owner did not release it
+     * @return true if owner now holds the lease of the job, false if another owner holds it
+     */
+    public boolean claim(String jobId, String owner, long leaseSeconds) {
+        return store.compareAndSet(leaseKey(jobId), null, owner, leaseSeconds);
+    }
+
+    public void release(String jobId, String owner) {
+        store.compareAndSet(leaseKey(jobId), owner, null);
+    }
+
+    /**
+     * @return true if someone holds the lease of the job
+     */
+    public boolean isClaimed(String jobId) {
+        return store.getString(leaseKey(jobId)) != null;
+    }
+
+    protected List<String> readIndex(String value) {
+
+        List<String> ids = new ArrayList<>();
+        if (StringUtils.isNotBlank(value)) {
+            new JSONArray(value).forEach(id -> ids.add(id.toString()));
+        }
+        return ids;
+    }
+
+    /*
+     * The nodes may update the index at the same time: compare-and-set until no one else changed it meanwhile
+     */
+    protected void updateIndex(UnaryOperator<List<String>> update) {
+
+        while (true) {
+            String current = store.getString(INDEX_KEY);
+            List<String> ids = update.apply(readIndex(current));
+            String updated = ids.isEmpty() ? null : new JSONArray(ids).toString();
+            if (StringUtils.equals(current, updated) || store.compareAndSet(INDEX_KEY, current, updated)) {
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.service.transport;
+
+import java.util.List;
+
+import org.nuxeo.labs.hyland.content.intelligence.http.CICTransport;
+
+/**
+ * Gives the {@link CICTransport}s contributed to the <code>transports</code> extension point. A configuration (KE, KD,
+ * ...) selects its transport by name, in its <code>&lt;http&gt;&lt;transport&gt;</code> setting.
+ *
+ * @since 2025.18
+ */
+public interface CICTransportService {
+
+    /**
+     * @param name
+     * @return the transport, or null if there is no such contribution. Transports are created on first use, and shared.
+     */
+    CICTransport getTransport(String name);
+
+    List<String> getTransportNames();
+
+}
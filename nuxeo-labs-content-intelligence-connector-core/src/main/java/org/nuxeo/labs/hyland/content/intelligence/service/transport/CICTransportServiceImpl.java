@@ -0,0 +1,96 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.service.transport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.nuxeo.labs.hyland.content.intelligence.http.CICTransport;
+import org.nuxeo.runtime.model.ComponentContext;
+import org.nuxeo.runtime.model.ComponentInstance;
+import org.nuxeo.runtime.model.DefaultComponent;
+
+/**
+ * @since 2025.18
+ */
+public class CICTransportServiceImpl extends DefaultComponent implements CICTransportService {
+
+    private static final Logger log = LogManager.getLogger(CICTransportServiceImpl.class);
+
+    public static final String EXT_POINT_TRANSPORTS = "transports";
+
+    protected Map<String, TransportDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    protected Map<String, CICTransport> transports = new ConcurrentHashMap<>();
+
+    @Override
+    public CICTransport getTransport(String name) {
+
+        TransportDescriptor desc = descriptors.get(name);
+        if (desc == null) {
+            return null;
+        }
+        return transports.computeIfAbsent(name, k -> desc.newTransport());
+    }
+
+    @Override
+    public List<String> getTransportNames() {
+        return new ArrayList<>(descriptors.keySet());
+    }
+
+    @Override
+    public void registerContribution(Object contribution, String extensionPoint, ComponentInstance contributor) {
+        if (EXT_POINT_TRANSPORTS.equals(extensionPoint)) {
+            TransportDescriptor desc = (TransportDescriptor) contribution;
+            descriptors.put(desc.getName(), desc);
+            closeTransport(desc.getName());
+        }
+    }
+
+    @Override
+    public void unregisterContribution(Object contribution, String extensionPoint, ComponentInstance contributor) {
+        if (EXT_POINT_TRANSPORTS.equals(extensionPoint)) {
+            TransportDescriptor desc = (TransportDescriptor) contribution;
+            descriptors.remove(desc.getName());
+            closeTransport(desc.getName());
+        }
+    }
+
+    protected void closeTransport(String name) {
+        CICTransport transport = transports.remove(name);
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (RuntimeException e) {
+                log.warn("Error closing the CIC transport '{}': {}", name, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void deactivate(ComponentContext context) {
+        new ArrayList<>(transports.keySet()).forEach(this::closeTransport);
+        super.deactivate(context);
+    }
+
+}
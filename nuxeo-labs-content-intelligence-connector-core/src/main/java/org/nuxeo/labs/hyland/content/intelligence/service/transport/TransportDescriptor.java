@@ -0,0 +1,73 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.service.transport;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.nuxeo.common.xmap.annotation.XNode;
+import org.nuxeo.common.xmap.annotation.XNodeMap;
+import org.nuxeo.common.xmap.annotation.XObject;
+import org.nuxeo.ecm.core.api.NuxeoException;
+import org.nuxeo.labs.hyland.content.intelligence.http.CICTransport;
+
+/**
+ * A <code>&lt;transport name="..." class="..."&gt;</code> contribution, with its
+ * <code>&lt;property name="..."&gt;</code> elements.
+ *
+ * @since 2025.18
+ */
+@XObject("transport")
+public class TransportDescriptor {
+
+    @XNode("@name")
+    protected String name;
+
+    @XNode("@class")
+    protected Class<? extends CICTransport> klass;
+
+    @XNodeMap(value = "property", key = "@name", type = HashMap.class, componentType = String.class)
+    protected Map<String, String> properties = new HashMap<>();
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return a new, initialized, instance of the transport
+     */
+    public CICTransport newTransport() {
+
+        if (klass == null) {
+            throw new NuxeoException("No class for the CIC transport '" + name + "'.");
+        }
+        try {
+            CICTransport transport = klass.getDeclaredConstructor().newInstance();
+            transport.init(properties);
+            return transport;
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            throw new NuxeoException("Cannot instantiate the CIC transport '" + name + "'", e);
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.tracing;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.runtime.api.Framework;
+
+/**
+ * Starts the spans of the CIC flows and sends them to the exporters.
+ * <p>
+ * Configuration properties:
+ * <ul>
+ * <li>{@link #ENABLED_PARAM}: <code>false</code> to disable tracing (default <code>true</code>)</li>
+ * <li>{@link #EXPORTERS_PARAM}: comma-separated list of {@link SpanExporter} class names (default
+ * {@link LogSpanExporter})</li>
+ * </ul>
+ * Exporters can also be added at runtime, see {@link #addExporter(SpanExporter)}.
+ *
+ * @since 2025.18
+ */
+public class CICTracer {
+
+    private static final Logger log = LogManager.getLogger(CICTracer.class);
+
+    public static final String ENABLED_PARAM = "nuxeo.hyland.cic.tracing.enabled";
+
+    public static final String EXPORTERS_PARAM = "nuxeo.hyland.cic.tracing.exporters";
+
+    protected static volatile List<SpanExporter> exporters;
+
+    protected static volatile boolean enabled = true;
+
+    private CICTracer() {
+        // static utility class
+    }
+
+    protected static List<SpanExporter> getExporters() {
+        if (exporters == null) {
+            synchronized (CICTracer.class) {
+                if (exporters == null) {
+                    exporters = loadExporters();
+                }
+            }
+        }
+        return exporters;
+    }
+
+    protected static List<SpanExporter> loadExporters() {
+
+        enabled = !"false".equalsIgnoreCase(Framework.getProperty(ENABLED_PARAM, "true"));
+
+        List<SpanExporter> loaded = new CopyOnWriteArrayList<>();
+        String classNames = Framework.getProperty(EXPORTERS_PARAM, LogSpanExporter.class.getName());
+        for (String className : StringUtils.split(classNames, ", ")) {
+            try {
+                loaded.add((SpanExporter) Class.forName(className, true, CICTracer.class.getClassLoader())
+                                               .getDeclaredConstructor()
+                                               .newInstance());
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                log.error("Cannot instantiate the span exporter {}, ignored: {}", className, e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * @return true unless tracing was disabled (see {@link #ENABLED_PARAM})
+     */
+    public static boolean isEnabled() {
+        getExporters();
+        return enabled;
+    }
+
+    /**
+     * @param name
+     * @return a new span, child of the current span of the thread if any (see {@link Span#makeCurrent()}). A
+     *         {@link Span#NOOP} span if tracing is disabled.
+     */
+    public static Span startSpan(String name) {
+
+        if (!isEnabled()) {
+            return Span.NOOP;
+        }
+        Span current = Span.current();
+        return current == null ? new Span(name, null) : current.child(name);
+    }
+
+    /**
+     * Ends the span with the outcome of its step: the status of a {@link ServiceCallResult} (and its retries), or an
+     * error.
+     *
+     * @param span
+     * @param result, can be null
+     * @param error, can be null
+     */
+    public static void end(Span span, Object result, Throwable error) {
+
+        if (!span.isRecording()) {
+            return;
+        }
+        if (error != null) {
+            span.setError(error.getClass().getSimpleName() + ": " + error.getMessage());
+        } else if (result instanceof ServiceCallResult callResult) {
+            span.setAttribute("status", callResult.getResponseCode());
+            if (callResult.getRetryCount() > 0) {
+                span.setAttribute("retries", callResult.getRetryCount());
+            }
+            if (callResult.callFailed()) {
+                span.setError(callResult.getResponseMessage());
+            }
+        }
+        span.end();
+    }
+
+    public static void addExporter(SpanExporter exporter) {
+        getExporters().add(exporter);
+    }
+
+    public static void removeExporter(SpanExporter exporter) {
+        getExporters().remove(exporter);
+    }
+
+    protected static void export(Span span) {
+        for (SpanExporter exporter : getExporters()) {
+            try {
+                exporter.export(span);
+            } catch (RuntimeException e) {
+                log.warn("Span exporter {} failed: {}", exporter.getClass().getName(), e.getMessage());
+            }
+        }
+    }
+
+}
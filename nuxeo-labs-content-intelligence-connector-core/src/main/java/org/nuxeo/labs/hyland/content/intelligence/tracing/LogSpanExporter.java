@@ -0,0 +1,73 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.tracing;
+
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The default {@link SpanExporter}: logs every trace (at DEBUG level), when its root span ends, as a tree of spans with
+ * their duration and attributes. For example:
+ *
+ * <pre>
+ * Trace 4bf92f3577b34da6a3ce929d0e0e4736
+ *   ke.enrich 5230 ms {service=Knowledge Enrichment, config=default}
+ *     token 2 ms
+ *     presign 121 ms {status=200}
+ *       HTTP GET 119 ms {endpoint=/files/upload/presigned-url, status=200}
+ *     ...
+ * </pre>
+ *
+ * @since 2025.18
+ */
+public class LogSpanExporter implements SpanExporter {
+
+    private static final Logger log = LogManager.getLogger(LogSpanExporter.class);
+
+    @Override
+    public void export(Span span) {
+
+        if (!span.isRoot() || !log.isDebugEnabled()) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder("Trace ").append(span.getTraceId());
+        append(sb, span, 1);
+        log.debug(sb.toString());
+    }
+
+    protected void append(StringBuilder sb, Span span, int depth) {
+
+        sb.append('\n').append("  ".repeat(depth)).append(span.getName());
+        sb.append(' ').append(span.getDuration() == null ? "(not ended)" : span.getDuration().toMillis() + " ms");
+        Map<String, Object> attributes = span.getAttributes();
+        if (!attributes.isEmpty()) {
+            sb.append(' ').append(attributes);
+        }
+        if (span.isError()) {
+            sb.append(" ERROR: ").append(span.getError());
+        }
+        for (Span child : span.getChildren()) {
+            append(sb, child, depth + 1);
+        }
+    }
+
+}
@@ -0,0 +1,255 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.tracing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One timed step of a CIC flow (the whole enrichment, a presign call, one poll, ...). Spans of a flow share the same
+ * trace id and form a tree: every span but the root has a parent.
+ * <p>
+ * Spans are created with {@link CICTracer#startSpan(String)} (a root span, or a child of the current span of the
+ * thread) or {@link #child(String)}, and must be ended with {@link #end()}. Once ended, the span is given to the
+ * exporters (see {@link SpanExporter}). When tracing is disabled, {@link #NOOP} is used: it records nothing.
+ * <p>
+ * As the flows are asynchronous, the span is passed explicitly from one step to the next (in
+ * {@link org.nuxeo.labs.hyland.content.intelligence.http.CallOptions} for HTTP calls). {@link #makeCurrent()} is only
+ * used to make a blocking call (like <code>HylandKEService#enrich</code>) a child of the caller's span.
+ *
+ * @since 2025.18
+ */
+public class Span {
+
+    /** A span that records nothing, its children are also NOOP */
+    public static final Span NOOP = new Span();
+
+    protected static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    protected final String name;
+
+    protected final String traceId;
+
+    protected final String spanId;
+
+    protected final Span parent;
+
+    protected final Instant startTime;
+
+    protected final long startNanos;
+
+    protected volatile long endNanos = -1;
+
+    protected final Map<String, Object> attributes = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    protected volatile String error;
+
+    protected final Queue<Span> children = new ConcurrentLinkedQueue<>();
+
+    protected final AtomicBoolean ended = new AtomicBoolean();
+
+    // NOOP
+    private Span() {
+        name = "noop";
+        traceId = null;
+        spanId = null;
+        parent = null;
+        startTime = null;
+        startNanos = 0;
+        ended.set(true);
+    }
+
+    protected Span(String name, Span parent) {
+        this.name = name;
+        this.parent = parent;
+        traceId = parent == null ? randomHex(16) : parent.traceId;
+        spanId = randomHex(8);
+        startTime = Instant.now();
+        startNanos = System.nanoTime();
+        if (parent != null) {
+            parent.children.add(this);
+        }
+    }
+
+    protected static String randomHex(int bytes) {
+        StringBuilder sb = new StringBuilder(bytes * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < bytes; i++) {
+            sb.append(String.format("%02x", random.nextInt(256)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the span of the current thread (see {@link #makeCurrent()}), or null
+     */
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @param childName
+     * @return a new span, child of this one
+     */
+    public Span child(String childName) {
+        return isRecording() ? new Span(childName, this) : NOOP;
+    }
+
+    /**
+     * @return false for {@link #NOOP}
+     */
+    public boolean isRecording() {
+        return this != NOOP;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (isRecording() && key != null && value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Flags the span as failed
+     *
+     * @param message
+     * @return this span
+     */
+    public Span setError(String message) {
+        if (isRecording()) {
+            error = message == null ? "error" : message;
+        }
+        return this;
+    }
+
+    /**
+     * Ends the span and exports it. Calling it again does nothing.
+     */
+    public void end() {
+        if (ended.compareAndSet(false, true)) {
+            endNanos = System.nanoTime();
+            CICTracer.export(this);
+        }
+    }
+
+    /**
+     * Makes this span the current span of the thread, until the scope is closed. Spans started with
+     * {@link CICTracer#startSpan(String)} in this thread are then its children.
+     *
+     * @return the scope, to close
+     */
+    public Scope makeCurrent() {
+        Span previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * @return the value of a W3C <code>traceparent</code> header, so the service can join its own spans to this trace
+     */
+    public String getTraceparent() {
+        return isRecording() ? "00-" + traceId + "-" + spanId + "-01" : null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public Span getParent() {
+        return parent;
+    }
+
+    public boolean isRoot() {
+        return parent == null;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return the duration of the span, null if it is not ended
+     */
+    public Duration getDuration() {
+        return endNanos < 0 ? null : Duration.ofNanos(endNanos - startNanos);
+    }
+
+    public boolean isEnded() {
+        return ended.get();
+    }
+
+    public Map<String, Object> getAttributes() {
+        synchronized (attributes) {
+            return new LinkedHashMap<>(attributes);
+        }
+    }
+
+    public boolean isError() {
+        return error != null;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return the children, in their creation order
+     */
+    public List<Span> getChildren() {
+        return List.copyOf(children);
+    }
+
+    @Override
+    public String toString() {
+        return "Span [name=" + name + ", traceId=" + traceId + ", spanId=" + spanId + "]";
+    }
+
+    /**
+     * See {@link Span#makeCurrent()}
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.tracing;
+
+/**
+ * Receives every span, once ended. Children end before their parent, so an exporter only interested in whole traces
+ * can wait for the root span ({@link Span#isRoot()}) and walk its children.
+ * <p>
+ * Implementations must have a public no-arg constructor (see {@link CICTracer#EXPORTERS_PARAM}), be thread safe and
+ * not block: they are called by the threads running the flows.
+ *
+ * @since 2025.18
+ */
+public interface SpanExporter {
+
+    void export(Span span);
+
+}
@@ -0,0 +1,170 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.nuxeo.labs.hyland.content.intelligence.http.RetryPolicy;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs a local HTTP server for the tests of the transport (no CIC account needed). The path of a request drives its
+ * response: {@code /status/<code>}, {@code /flaky/<n>} (503 the first n times), {@code /slow}, {@code /sleep/<ms>},
+ * {@code /big/<size>}, {@code /compressed/<size>}, {@code /multiline}.
+ *
+ * @since 2025.18
+ */
+public abstract class AbstractServiceCallTest {
+
+    protected static final String MULTILINE_JSON = "{\n  \"text\": \"  indented  \",\n  \"n\": 1\n}\n";
+
+    protected HttpServer server;
+
+    protected String baseUrl;
+
+    // Client ports seen by the server. Same port => same (reused) connection
+    protected Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<>());
+
+    protected ServiceCall serviceCall;
+
+    protected AtomicInteger concurrent = new AtomicInteger();
+
+    protected AtomicInteger maxConcurrent = new AtomicInteger();
+
+    // Number of requests received per path
+    protected Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    // Last body received per path
+    protected Map<String, byte[]> bodies = new ConcurrentHashMap<>();
+
+    // Last traceparent header received per path
+    protected Map<String, String> traceparents = new ConcurrentHashMap<>();
+
+    @Before
+    public void startServer() throws IOException {
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        ServiceCallSettings settings = new ServiceCallSettings("test", 4, 60, false);
+        // Fast retries, so tests hitting closed ports do not wait
+        settings.setRetryPolicy(new RetryPolicy(3, 10, 100));
+        serviceCall = new ServiceCall(settings);
+    }
+
+    @After
+    public void stopServer() {
+        serviceCall.close();
+        server.stop(0);
+    }
+
+    protected void handle(HttpExchange exchange) throws IOException {
+
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+
+        String requestPath = exchange.getRequestURI().getPath();
+        long sleepMS = requestPath.startsWith("/slow") ? 100
+                : requestPath.startsWith("/sleep/") ? Long.parseLong(requestPath.substring(7)) : 0;
+        if (sleepMS > 0) {
+            try {
+                Thread.sleep(sleepMS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        concurrent.decrementAndGet();
+
+        byte[] received = exchange.getRequestBody().readAllBytes();
+        String path = exchange.getRequestURI().getPath();
+        int hitCount = hits.computeIfAbsent(path, k -> new AtomicInteger()).incrementAndGet();
+        bodies.put(path, received);
+        String traceparent = exchange.getRequestHeaders().getFirst("traceparent");
+        if (traceparent != null) {
+            traceparents.put(path, traceparent);
+        }
+        int status = path.startsWith("/status/") ? Integer.parseInt(path.substring(8)) : 200;
+        if (path.startsWith("/flaky/") && hitCount <= Integer.parseInt(path.substring(7))) {
+            // Fails the first N times
+            status = 503;
+        }
+        if (status == 429) {
+            exchange.getResponseHeaders().add("Retry-After", "2");
+        }
+
+        String json = "{\"method\": \"" + exchange.getRequestMethod() + "\", \"received\": " + received.length + "}";
+        if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            String unzipped = new String(new GZIPInputStream(new ByteArrayInputStream(received)).readAllBytes(),
+                    StandardCharsets.UTF_8);
+            json = "{\"gzipped\": " + received.length + ", \"received\": " + unzipped.length() + "}";
+        }
+        if (path.startsWith("/multiline")) {
+            json = MULTILINE_JSON;
+        } else if (path.startsWith("/big/")) {
+            json = "{\"data\": \"" + "x".repeat(Integer.parseInt(path.substring(5))) + "\"}";
+        } else if (path.startsWith("/compressed/")) {
+            json = "{\"data\": \"" + "x".repeat(Integer.parseInt(path.substring(12))) + "\"}";
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (path.startsWith("/compressed/") && acceptEncoding != null) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            boolean gzip = acceptEncoding.contains("gzip");
+            try (OutputStream out = gzip ? new GZIPOutputStream(compressed) : new DeflaterOutputStream(compressed)) {
+                out.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", gzip ? "gzip" : "deflate");
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().add("ETag", "\"" + path + "\"");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.AdaptivePolling;
+import org.nuxeo.labs.hyland.content.intelligence.http.Deadline;
+import org.nuxeo.labs.hyland.content.intelligence.http.JobPollScheduler;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the poll intervals learned from the latency of the previous jobs (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestAdaptivePolling {
+
+    @Test
+    public void shouldAdaptPollIntervals() {
+
+        assertEquals("0", AdaptivePolling.sizeBucket(0));
+        assertEquals("1KB", AdaptivePolling.sizeBucket(10));
+        assertEquals("4KB", AdaptivePolling.sizeBucket(3000));
+        assertEquals("1024KB", AdaptivePolling.sizeBucket(1024 * 1024));
+        assertEquals("2048KB", AdaptivePolling.sizeBucket(1024 * 1024 + 1));
+        assertEquals("KE|image-description|4KB", AdaptivePolling.key("KE", "image-description", 3000));
+
+        AdaptivePolling adaptive = new AdaptivePolling(true, 1000);
+        String key = AdaptivePolling.key("KE", "image-description", 3000);
+
+        // Not enough samples: fixed interval
+        IntUnaryOperator intervals = adaptive.intervals(key, 5000);
+        assertEquals(0, intervals.applyAsInt(0));
+        assertEquals(5000, intervals.applyAsInt(1));
+        for (int latency : new int[] { 38000, 41000, 40000, 39000, 90000 }) {
+            adaptive.record(key, Duration.ofMillis(latency));
+        }
+        assertEquals(Long.valueOf(39000), adaptive.getExpectedLatencyMS(key));
+
+        // First poll at the expected latency (25th percentile), then widening intervals, up to the fixed one
+        intervals = adaptive.intervals(key, 5000);
+        assertEquals(39000, intervals.applyAsInt(0));
+        assertEquals(1000, intervals.applyAsInt(1));
+        assertEquals(1500, intervals.applyAsInt(2));
+        assertEquals(2250, intervals.applyAsInt(3));
+        assertEquals(5000, intervals.applyAsInt(10));
+        // Polls at least as long as before (25 x 5 s)
+        int tries = AdaptivePolling.maxTries(intervals, 25, 5000);
+        long total = IntStream.range(0, tries).map(intervals).sum();
+        assertTrue(total >= 25 * 5000);
+        assertTrue(tries < 25 + 10);
+
+        // Other kind of job
+        assertNull(adaptive.getExpectedLatencyMS(AdaptivePolling.key("KE", "image-description", 30000000)));
+
+        // Disabled: nothing learned
+        AdaptivePolling disabled = new AdaptivePolling(false, 1000);
+        IntStream.range(0, 10).forEach(i -> disabled.record(key, Duration.ofSeconds(40)));
+        assertEquals(5000, disabled.intervals(key, 5000).applyAsInt(1));
+        assertEquals(0, disabled.intervals(key, 5000).applyAsInt(0));
+
+        // The scheduler waits for the first interval
+        JobPollScheduler scheduler = new JobPollScheduler(1, 2);
+        long start = System.nanoTime();
+        scheduler.poll("adaptive", count -> CompletableFuture.completedFuture(count), (count, result) -> true, 5,
+                count -> count == 0 ? 200 : 10, Deadline.NONE).join();
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 190);
+    }
+
+    @Test
+    public void shouldFollowDroppingLatencies() {
+
+        AdaptivePolling adaptive = new AdaptivePolling(true, 1000);
+        String key = AdaptivePolling.key("KE", "image-description", 3000);
+        IntStream.range(0, AdaptivePolling.WINDOW).forEach(i -> adaptive.record(key, Duration.ofSeconds(40)));
+        assertEquals(40000, adaptive.intervals(key, 5000).applyAsInt(0));
+
+        // The jobs now take 10 s: simulates their polling
+        for (int job = 0; job < 100; job++) {
+            IntUnaryOperator intervals = adaptive.intervals(key, 5000);
+            long elapsed = 0;
+            int count = 0;
+            while (elapsed < 10000) {
+                elapsed += intervals.applyAsInt(count);
+                count++;
+            }
+            adaptive.record(key, Duration.ofMillis(elapsed), count == 1);
+        }
+        int first = adaptive.intervals(key, 5000).applyAsInt(0);
+        assertTrue("First poll at " + first, first <= 10000 && first >= 5000);
+
+        // Slower again: follows them up
+        for (int job = 0; job < 100; job++) {
+            adaptive.record(key, Duration.ofSeconds(20));
+        }
+        assertEquals(20000, adaptive.intervals(key, 5000).applyAsInt(0));
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.HttpClientPool;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the asynchronous calls of ServiceCall and the waiting for a connection against a local HTTP server (no CIC
+ * account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestAsyncServiceCall extends AbstractServiceCallTest {
+
+    @Test
+    public void shouldRunAsyncCalls() {
+
+        // 20 calls from a single thread, the pool allows 4 at a time
+        List<CompletableFuture<ServiceCallResult>> futures = IntStream.range(0, 20)
+                                                                      .mapToObj(i -> serviceCall.getAsync(
+                                                                              baseUrl + "/slow/" + i, null))
+                                                                      .toList();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        futures.forEach(f -> assertEquals(200, f.join().getResponseCode()));
+        assertTrue(maxConcurrent.get() <= 4);
+
+        ServiceCallResult result = serviceCall.postAsync(baseUrl + "/post", null, "hello").join();
+        assertTrue(result.getResponse().contains("\"received\": 5"));
+
+        // Errors do not complete the future exceptionally
+        result = serviceCall.getAsync("http://127.0.0.1:1/nothing", null).join();
+        assertEquals(-1, result.getResponseCode());
+    }
+
+    @Test
+    public void shouldQueueWhenPoolIsFull() {
+
+        HttpClientPool pool = new HttpClientPool(new ServiceCallSettings("queue", 1, 60, false));
+        try {
+            CompletableFuture<?> first = pool.acquireAsync();
+            CompletableFuture<?> second = pool.acquireAsync();
+            CompletableFuture<?> third = pool.acquireAsync();
+            assertTrue(first.isDone());
+            assertFalse(second.isDone());
+
+            // A cancelled waiter does not get the slot
+            second.cancel(false);
+            pool.release();
+            assertTrue(third.isDone());
+            assertFalse(third.isCompletedExceptionally());
+        } finally {
+            pool.close();
+        }
+    }
+
+}
@@ -0,0 +1,339 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationToken;
+import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationTokenEnrichment;
+import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationTokenParams;
+import org.nuxeo.labs.hyland.content.intelligence.authentication.AuthenticationTokenRegistry;
+import org.nuxeo.labs.hyland.content.intelligence.authentication.ClusterTokenStore;
+import org.nuxeo.labs.hyland.content.intelligence.http.RetryPolicy;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.kv.KeyValueService;
+import org.nuxeo.runtime.kv.KeyValueStore;
+import org.nuxeo.runtime.test.runner.Deploy;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests the refresh of the auth tokens against a local HTTP server (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+@Deploy("org.nuxeo.runtime.kv")
+public class TestAuthenticationToken {
+
+    protected HttpServer server;
+
+    protected String baseUrl;
+
+    protected ServiceCall serviceCall;
+
+    protected AuthenticationToken token;
+
+    protected AtomicInteger authHits = new AtomicInteger();
+
+    // The only token accepted by /secure
+    protected volatile String acceptedToken = "";
+
+    protected volatile int expiresIn = 3600;
+
+    @Before
+    public void startServer() throws IOException {
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        ServiceCallSettings settings = new ServiceCallSettings("auth", 20, 60, false);
+        settings.setRetryPolicy(new RetryPolicy(0, 10, 100));
+        serviceCall = new ServiceCall(settings);
+        token = new AuthenticationTokenEnrichment(baseUrl + "/auth",
+                new AuthenticationTokenParams("client_credentials", "scope", "id", "secret", null));
+        token.setServiceCall(serviceCall);
+    }
+
+    @After
+    public void stopServer() {
+        token.close();
+        serviceCall.close();
+        server.stop(0);
+    }
+
+    protected void handle(HttpExchange exchange) throws IOException {
+
+        exchange.getRequestBody().readAllBytes();
+        String path = exchange.getRequestURI().getPath();
+        int status = 200;
+        String json = "{}";
+        if (path.equals("/auth")) {
+            try {
+                // Long enough for concurrent callers to overlap
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            acceptedToken = "token-" + authHits.incrementAndGet();
+            json = "{\"access_token\": \"" + acceptedToken + "\", \"expires_in\": " + expiresIn + "}";
+        } else if (!("Bearer " + acceptedToken).equals(exchange.getRequestHeaders().getFirst("Authorization"))
+                || path.equals("/forbidden")) {
+            status = 401;
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    protected Map<String, String> bearer(String value) {
+        return Map.of("Authorization", "Bearer " + value);
+    }
+
+    @Test
+    public void shouldFetchOnceForConcurrentCallers() {
+
+        List<CompletableFuture<String>> futures = IntStream.range(0, 20)
+                                                           .mapToObj(i -> CompletableFuture.supplyAsync(
+                                                                   token::getToken, Executors.newCachedThreadPool()))
+                                                           .toList();
+        futures.forEach(f -> assertEquals("token-1", f.join()));
+        assertEquals(1, authHits.get());
+
+        assertEquals("token-1", token.getToken());
+        assertEquals(1, authHits.get());
+    }
+
+    @Test
+    public void shouldRefreshRejectedTokenOnce() {
+
+        String first = token.getToken();
+        assertEquals(200, serviceCall.get(baseUrl + "/secure", bearer(first)).getResponseCode());
+
+        // Revoked by the service
+        acceptedToken = "none";
+        List<CompletableFuture<ServiceCallResult>> futures = IntStream.range(0, 10)
+                                                                      .mapToObj(i -> serviceCall.getAsync(
+                                                                              baseUrl + "/secure", bearer(first)))
+                                                                      .toList();
+        futures.forEach(f -> assertEquals(200, f.join().getResponseCode()));
+        assertEquals(2, authHits.get());
+        assertEquals("token-2", token.getToken());
+
+        // Sent again once only
+        ServiceCallResult result = serviceCall.get(baseUrl + "/forbidden", bearer(token.getToken()));
+        assertEquals(401, result.getResponseCode());
+        assertEquals(3, authHits.get());
+        assertEquals(0, result.getRetryCount());
+    }
+
+    @Test
+    public void shouldRenewBeforeExpiration() throws InterruptedException {
+
+        // Expires in 2 seconds (15 s of margin), renewed after 1
+        expiresIn = 17;
+        assertEquals("token-1", token.getToken());
+        Thread.sleep(1500);
+        assertEquals(2, authHits.get());
+        // Renewed: no wait
+        assertEquals("token-2", token.getToken());
+        assertEquals(2, authHits.get());
+
+        // Used since renewed => renewed again
+        Thread.sleep(1500);
+        assertEquals(3, authHits.get());
+
+        // Not used anymore => not renewed
+        Thread.sleep(1500);
+        assertEquals(3, authHits.get());
+        assertTrue(token.getToken().startsWith("token-"));
+    }
+
+    @Test
+    public void shouldShareTokenAcrossNodes() {
+
+        KeyValueStore store = Framework.getService(KeyValueService.class).getKeyValueStore("test-tokens");
+        AuthenticationTokenParams params = new AuthenticationTokenParams("client_credentials", "scope", "id", "secret",
+                null);
+        // Two nodes
+        ServiceCall otherCall = new ServiceCall(new ServiceCallSettings("auth-node2", 20, 60, false));
+        AuthenticationToken other = new AuthenticationTokenEnrichment(baseUrl + "/auth", params);
+        other.setServiceCall(otherCall);
+        ClusterTokenStore shared = new ClusterTokenStore(store, token);
+        token.setClusterTokenStore(shared);
+        other.setClusterTokenStore(new ClusterTokenStore(store, other));
+        try {
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(token::getToken,
+                    Executors.newCachedThreadPool());
+            CompletableFuture<String> second = CompletableFuture.supplyAsync(other::getToken,
+                    Executors.newCachedThreadPool());
+            assertEquals("token-1", first.join());
+            assertEquals("token-1", second.join());
+            assertEquals(1, authHits.get());
+
+            // Not in clear in the store
+            String stored = store.getString(shared.getKey());
+            assertFalse(stored.contains("token-1"));
+
+            // Rejected: one node gets a new token, the other one reuses it
+            acceptedToken = "none";
+            assertEquals(200, serviceCall.get(baseUrl + "/secure", bearer("token-1")).getResponseCode());
+            assertEquals(200, otherCall.get(baseUrl + "/secure", bearer("token-1")).getResponseCode());
+            assertEquals(2, authHits.get());
+            assertEquals("token-2", other.getToken());
+
+            // Other credentials (same keys as AuthenticationTokenRegistry): not shared
+            AuthenticationToken otherGrant = new AuthenticationTokenEnrichment(baseUrl + "/auth",
+                    new AuthenticationTokenParams("password", "scope", "id", "secret", null));
+            assertNotEquals(shared.getKey(), new ClusterTokenStore(store, otherGrant).getKey());
+            AuthenticationTokenParams otherParams = new AuthenticationTokenParams("client_credentials", "scope",
+                    "id", "other", null);
+            AuthenticationToken intruder = new AuthenticationTokenEnrichment(baseUrl + "/auth", otherParams);
+            intruder.setServiceCall(otherCall);
+            ClusterTokenStore intruderStore = new ClusterTokenStore(store, intruder);
+            assertNotEquals(shared.getKey(), intruderStore.getKey());
+            intruder.setClusterTokenStore(intruderStore);
+            assertEquals("token-3", intruder.getToken());
+            assertEquals(3, authHits.get());
+            intruder.close();
+        } finally {
+            other.close();
+            otherCall.close();
+        }
+    }
+
+    @Test
+    public void shouldNotHoldThreadsWhileAnotherNodeGetsTheToken() throws Exception {
+
+        KeyValueStore store = Framework.getService(KeyValueService.class).getKeyValueStore("test-tokens-async");
+        AuthenticationTokenParams params = new AuthenticationTokenParams("client_credentials", "scope", "id", "secret",
+                null);
+        ServiceCall otherCall = new ServiceCall(new ServiceCallSettings("auth-nodes", 20, 60, false));
+        // More nodes than renewal threads
+        List<AuthenticationToken> nodes = IntStream.range(0, 3).mapToObj(i -> {
+            AuthenticationToken node = new AuthenticationTokenEnrichment(baseUrl + "/auth", params);
+            node.setServiceCall(otherCall);
+            node.setClusterTokenStore(new ClusterTokenStore(store, node));
+            return node;
+        }).toList();
+        String lockKey = nodes.get(0).getClusterTokenStore().getKey() + ":lock";
+        AuthenticationToken local = new AuthenticationTokenEnrichment(baseUrl + "/auth",
+                new AuthenticationTokenParams("client_credentials", "scope", "local", "secret", null));
+        local.setServiceCall(otherCall);
+        try {
+            // Another node is getting the token
+            store.put(lockKey, "other-node", 30L);
+            List<CompletableFuture<String>> waiting = nodes.stream().map(AuthenticationToken::getTokenAsync).toList();
+
+            // Meanwhile, the renewal threads are free
+            assertEquals("token-1", local.getTokenAsync().get(5, TimeUnit.SECONDS));
+            assertTrue(waiting.stream().noneMatch(CompletableFuture::isDone));
+
+            // The other node died: one of them gets the token, the others use it
+            store.compareAndSet(lockKey, "other-node", null);
+            for (CompletableFuture<String> future : waiting) {
+                assertEquals("token-2", future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(2, authHits.get());
+        } finally {
+            nodes.forEach(AuthenticationToken::close);
+            local.close();
+            otherCall.close();
+        }
+    }
+
+    @Test
+    public void shouldShareTokenOfSameCredentials() {
+
+        AuthenticationTokenRegistry registry = AuthenticationTokenRegistry.getInstance();
+        int initialSize = registry.size();
+        ServiceCall otherCall = new ServiceCall(new ServiceCallSettings("auth-other", 20, 60, false));
+        ServiceCall thirdCall = new ServiceCall(new ServiceCallSettings("auth-third", 20, 60, false));
+        try {
+            AuthenticationToken shared = registry.acquire(token, serviceCall);
+            assertSame(token, shared);
+            AuthenticationToken same = registry.acquire(new AuthenticationTokenEnrichment(baseUrl + "/auth",
+                    new AuthenticationTokenParams("client_credentials", "scope", "id", "secret", null)), otherCall);
+            assertSame(token, same);
+            AuthenticationToken otherScope = registry.acquire(new AuthenticationTokenEnrichment(baseUrl + "/auth",
+                    new AuthenticationTokenParams("client_credentials", "other", "id", "secret", null)), thirdCall);
+            assertNotSame(token, otherScope);
+            assertEquals(initialSize + 2, registry.size());
+
+            // One token for both configurations, refreshed once when rejected
+            assertEquals("token-1", token.getToken());
+            acceptedToken = "none";
+            assertEquals(200, otherCall.get(baseUrl + "/secure", bearer("token-1")).getResponseCode());
+            assertEquals(200, serviceCall.get(baseUrl + "/secure", bearer("token-1")).getResponseCode());
+            assertEquals(2, authHits.get());
+
+            // Still usable with the other configuration
+            registry.release(token, serviceCall);
+            serviceCall.close();
+            acceptedToken = "none";
+            assertEquals(200, otherCall.get(baseUrl + "/secure", bearer("token-2")).getResponseCode());
+            assertEquals("token-3", token.getToken());
+
+            registry.release(token, otherCall);
+            registry.release(otherScope, thirdCall);
+            assertEquals(initialSize, registry.size());
+        } finally {
+            otherCall.close();
+            thirdCall.close();
+        }
+    }
+
+}
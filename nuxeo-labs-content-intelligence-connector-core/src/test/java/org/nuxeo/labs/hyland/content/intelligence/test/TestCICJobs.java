@@ -0,0 +1,133 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.service.jobs.CICJob;
+import org.nuxeo.labs.hyland.content.intelligence.service.jobs.CICJobStore;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.kv.KeyValueService;
+import org.nuxeo.runtime.kv.KeyValueStore;
+import org.nuxeo.runtime.test.runner.Deploy;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the storage of the durable CIC jobs (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+@Deploy("org.nuxeo.runtime.kv")
+public class TestCICJobs {
+
+    protected KeyValueStore kvs;
+
+    protected CICJobStore store;
+
+    @Before
+    public void initStore() {
+        kvs = Framework.getService(KeyValueService.class).getKeyValueStore("test-jobs");
+        store = new CICJobStore(kvs, 3600);
+        store.getJobIds().forEach(store::remove);
+    }
+
+    protected CICJob newJob(String jobId) {
+        JSONArray mapping = new JSONArray().put(new JSONObject().put("sourceId", "doc-1").put("objectKey", "key-1"));
+        return new CICJob(jobId, "Knowledge Enrichment", "default", "test", List.of("doc-1", "doc-2"),
+                "org.example.SomeOp", "{\"configName\":\"default\"}", mapping);
+    }
+
+    @Test
+    public void shouldStoreJobs() {
+
+        CICJob job = newJob("job-1");
+        store.put(job);
+        store.put(newJob("job-2"));
+        assertEquals(List.of("job-1", "job-2"), store.getJobIds());
+
+        CICJob stored = store.get("job-1");
+        assertNotNull(stored);
+        assertEquals("default", stored.getConfigName());
+        assertEquals("test", stored.getRepositoryName());
+        assertEquals(List.of("doc-1", "doc-2"), stored.getDocIds());
+        assertEquals("org.example.SomeOp", stored.getOpClassName());
+        assertEquals("{\"configName\":\"default\"}", stored.getParamsJson());
+        assertEquals("doc-1", stored.getObjectKeysMapping().getJSONObject(0).getString("sourceId"));
+        assertEquals("key-1", stored.getObjectKeysMapping().getJSONObject(0).getString("objectKey"));
+        assertEquals(job.getSubmittedAt(), stored.getSubmittedAt());
+
+        store.remove("job-1");
+        assertNull(store.get("job-1"));
+        assertEquals(List.of("job-2"), store.getJobIds());
+
+        // Expired meanwhile
+        kvs.put("cic:job:job-2", (String) null);
+        assertTrue(store.getJobIds().isEmpty());
+    }
+
+    @Test
+    public void shouldKeepAllConcurrentJobs() {
+
+        List<CompletableFuture<Void>> puts = IntStream.range(0, 50)
+                                                      .mapToObj(i -> CompletableFuture.runAsync(
+                                                              () -> store.put(newJob("job-" + i))))
+                                                      .toList();
+        CompletableFuture.allOf(puts.toArray(CompletableFuture[]::new)).join();
+        assertEquals(50, store.getJobIds().size());
+    }
+
+    @Test
+    public void shouldCollectOnceAtATime() {
+
+        store.put(newJob("job-1"));
+        assertFalse(store.isClaimed("job-1"));
+
+        assertTrue(store.claim("job-1", "node-1", 60));
+        assertTrue(store.isClaimed("job-1"));
+        assertFalse(store.claim("job-1", "node-2", 60));
+
+        // Only its owner releases it
+        store.release("job-1", "node-2");
+        assertTrue(store.isClaimed("job-1"));
+        store.release("job-1", "node-1");
+        assertFalse(store.isClaimed("job-1"));
+        assertTrue(store.claim("job-1", "node-2", 60));
+
+        store.remove("job-1");
+        assertFalse(store.isClaimed("job-1"));
+    }
+
+}
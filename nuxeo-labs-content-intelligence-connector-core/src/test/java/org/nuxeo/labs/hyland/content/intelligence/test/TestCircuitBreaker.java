@@ -0,0 +1,104 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.CircuitBreaker;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
+import org.nuxeo.labs.hyland.content.intelligence.http.RetryPolicy;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the circuit breakers of the endpoint families against a local HTTP server (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestCircuitBreaker extends AbstractServiceCallTest {
+
+    @Test
+    public void shouldOpenCircuit() throws InterruptedException {
+
+        ServiceCallSettings settings = new ServiceCallSettings("circuit", 4, 60, false);
+        settings.setRetryPolicy(RetryPolicy.NONE);
+        settings.setCircuitBreakerFailureThreshold(3);
+        settings.setCircuitBreakerOpenSeconds(1);
+        ServiceCall breaking = new ServiceCall(settings);
+        try {
+            CallOptions process = CallOptions.of(EndpointFamily.PROCESS);
+            // 4xx do not count, a success resets the count
+            breaking.get(baseUrl + "/status/503", null, process);
+            breaking.get(baseUrl + "/status/404", null, process);
+            breaking.get(baseUrl + "/status/503", null, process);
+            breaking.get(baseUrl + "/status/200", null, process);
+            assertEquals(CircuitBreaker.State.CLOSED, breaking.getCircuitBreaker(EndpointFamily.PROCESS).getState());
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(503, breaking.get(baseUrl + "/status/503", null, process).getResponseCode());
+            }
+            assertEquals(CircuitBreaker.State.OPEN, breaking.getCircuitBreaker(EndpointFamily.PROCESS).getState());
+
+            // Fails fast, without calling the server
+            ServiceCallResult result = breaking.get(baseUrl + "/status/200", null, process);
+            assertEquals(ServiceCallResult.CIRCUIT_OPEN, result.getResponseCode());
+            assertTrue(result.circuitWasOpen());
+            assertNotNull(result.getRetryAfter());
+            assertEquals(1, hits.get("/status/200").get());
+
+            // Other families are not impacted
+            assertEquals(200, breaking.get(baseUrl + "/status/200", null, CallOptions.of(EndpointFamily.POLL))
+                                      .getResponseCode());
+
+            // Half-open: one probe goes through, a success closes the circuit
+            Thread.sleep(1100);
+            result = breaking.get(baseUrl + "/status/200", null, process);
+            assertEquals(200, result.getResponseCode());
+            assertEquals(CircuitBreaker.State.CLOSED, breaking.getCircuitBreaker(EndpointFamily.PROCESS).getState());
+        } finally {
+            breaking.close();
+        }
+
+        // Probe failing => open again
+        CircuitBreaker breaker = new CircuitBreaker(1, 1);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.onFailure());
+        assertFalse(breaker.tryAcquire());
+        Thread.sleep(1100);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // Only one probe at a time
+        assertFalse(breaker.tryAcquire());
+        assertTrue(breaker.onFailure());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the compressed responses and requests against a local HTTP server (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestCompression extends AbstractServiceCallTest {
+
+    @Test
+    public void shouldDecodeCompressedResponses() throws IOException {
+
+        ServiceCallSettings settings = new ServiceCallSettings("compression", 4, 60, false);
+        settings.setMaxInMemoryResponseKB(1);
+        ServiceCall compressed = new ServiceCall(settings);
+        try {
+            // Small, in memory
+            ServiceCallResult result = compressed.get(baseUrl + "/compressed/100", null);
+            assertEquals(200, result.getResponseCode());
+            assertEquals("{\"data\": \"" + "x".repeat(100) + "\"}", result.getResponse());
+
+            // Compressed body is small, decoded one is spilled to disk
+            result = compressed.get(baseUrl + "/compressed/10000", null);
+            assertEquals(10000 + 12, result.getResponseBlob().getLength());
+            assertEquals("{\"data\": \"" + "x".repeat(10000) + "\"}", result.getResponseBlob().getString());
+
+            // deflate
+            result = compressed.get(baseUrl + "/compressed/5000", Map.of("Accept-Encoding", "deflate"));
+            assertEquals("{\"data\": \"" + "x".repeat(5000) + "\"}", result.getResponse());
+        } finally {
+            compressed.close();
+        }
+
+        // Not asked => not compressed
+        settings = new ServiceCallSettings("no-compression", 4, 60, false);
+        settings.setAcceptCompressedResponses(false);
+        ServiceCall uncompressed = new ServiceCall(settings);
+        try {
+            ServiceCallResult result = uncompressed.get(baseUrl + "/compressed/100", null);
+            assertEquals("{\"data\": \"" + "x".repeat(100) + "\"}", result.getResponse());
+        } finally {
+            uncompressed.close();
+        }
+    }
+
+    @Test
+    public void shouldCompressRequests() {
+
+        ServiceCallSettings settings = new ServiceCallSettings("gzip-requests", 4, 60, false);
+        settings.setCompressRequests(true);
+        settings.setCompressRequestsMinKB(1);
+        ServiceCall compressing = new ServiceCall(settings);
+        try {
+            String big = "{\"text\": \"" + "abc".repeat(1000) + "\"}";
+            CallOptions process = CallOptions.of(EndpointFamily.PROCESS);
+
+            String response = compressing.post(baseUrl + "/process", null, big, process).getResponse();
+            assertTrue(response, response.contains("\"gzipped\": "));
+            assertTrue(response, response.endsWith("\"received\": " + big.length() + "}"));
+
+            // Too small
+            response = compressing.post(baseUrl + "/process", null, "{}", process).getResponse();
+            assertFalse(response.contains("gzipped"));
+
+            // Only process calls
+            response = compressing.post(baseUrl + "/other", null, big).getResponse();
+            assertFalse(response.contains("gzipped"));
+        } finally {
+            compressing.close();
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Test;
+import org.nuxeo.ecm.core.api.Blob;
+import org.nuxeo.ecm.core.api.Blobs;
+import org.nuxeo.labs.hyland.content.intelligence.ContentToProcess;
+
+/**
+ * Tests the file of a blob not stored locally (fetched in a temporary file)
+ *
+ * @since 2025.18
+ */
+public class TestContentToProcess {
+
+    @Test
+    public void shouldFetchRemoteBlobOnce() {
+
+        // No local file: fetched in a temporary file
+        Blob blob = Blobs.createBlob("Hello world", "text/plain");
+        ContentToProcess<Blob> content = new ContentToProcess<>("doc-1", blob, "text/plain");
+
+        // Read from the blob, not fetched
+        assertEquals(11, content.getLength());
+
+        File file = content.getFile();
+        assertTrue(file.exists());
+        assertSame(file, content.getFile());
+        assertEquals(11, content.getLength());
+
+        // Deleted when closed, fetched again if needed
+        content.close();
+        assertFalse(file.exists());
+        File again = content.getFile();
+        assertNotEquals(file, again);
+        assertTrue(again.exists());
+        content.close();
+        assertFalse(again.exists());
+    }
+
+}
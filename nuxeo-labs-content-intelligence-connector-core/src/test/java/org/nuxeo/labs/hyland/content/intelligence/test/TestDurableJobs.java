@@ -0,0 +1,238 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.List;
+
+import jakarta.inject.Inject;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.ecm.automation.test.AutomationFeature;
+import org.nuxeo.ecm.core.api.Blobs;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.test.TransactionalFeature;
+import org.nuxeo.ecm.core.work.api.WorkManager;
+import org.nuxeo.labs.hyland.content.intelligence.automation.enrichment.CICEnrichmentWork;
+import org.nuxeo.labs.hyland.content.intelligence.automation.enrichment.CICSummarizeTextOp;
+import org.nuxeo.labs.hyland.content.intelligence.http.InMemoryTransport;
+import org.nuxeo.labs.hyland.content.intelligence.http.InMemoryTransport.Fixture;
+import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.CICEnrichmentHelperImpl;
+import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.HylandKEService;
+import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.HylandKEServiceImpl;
+import org.nuxeo.labs.hyland.content.intelligence.service.jobs.CICJob;
+import org.nuxeo.labs.hyland.content.intelligence.service.jobs.CICJobService;
+import org.nuxeo.labs.hyland.content.intelligence.service.transport.CICTransportService;
+import org.nuxeo.runtime.test.runner.Deploy;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.WithFrameworkProperty;
+
+/**
+ * Tests the durable jobs: submitted by {@link CICEnrichmentWork}, collected by a CICJobCollectWork, answered by the
+ * fixtures of the "memory" transport (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(AutomationFeature.class)
+@Deploy("nuxeo-hyland-content-intelligence-connector-core")
+@Deploy("nuxeo-hyland-content-intelligence-connector-core:memory-transport-configs.xml")
+@WithFrameworkProperty(name = CICJobService.DURABLE_PARAM, value = "true")
+public class TestDurableJobs {
+
+    protected static final String CONFIG = "memory-ke";
+
+    protected static final String PARAMS = "{\"configName\": \"" + CONFIG + "\"}";
+
+    @Inject
+    protected CoreSession session;
+
+    @Inject
+    protected TransactionalFeature txFeature;
+
+    @Inject
+    protected CICJobService jobs;
+
+    @Inject
+    protected CICTransportService transportService;
+
+    @Inject
+    protected WorkManager workManager;
+
+    protected InMemoryTransport transport;
+
+    @Before
+    public void init() {
+        assertTrue(jobs.isEnabled());
+        jobs.getJobIds().forEach(jobs::remove);
+        transport = (InMemoryTransport) transportService.getTransport("memory");
+        transport.clearFixtures();
+        transport.addFixture(
+                new Fixture("POST", "/connect/token", 200, "{\"access_token\": \"xyz\", \"expires_in\": 3600}"));
+    }
+
+    @After
+    public void cleanup() {
+        transport.clearFixtures();
+    }
+
+    protected DocumentModel createTextDoc(String name) {
+        DocumentModel doc = session.createDocumentModel("/", name, "File");
+        doc.setPropertyValue("file:content", (Serializable) Blobs.createBlob("Some text to enrich", "text/plain"));
+        doc = session.createDocument(doc);
+        txFeature.nextTransaction();
+        return doc;
+    }
+
+    protected CICJob newJob(String jobId, DocumentModel doc) {
+        return newJob(jobId, doc, CICSummarizeTextOp.class.getName());
+    }
+
+    protected CICJob newJob(String jobId, DocumentModel doc, String opClassName) {
+        JSONArray mapping = new JSONArray().put(
+                new JSONObject().put("sourceId", doc.getId()).put("objectKey", "key-1"));
+        return new CICJob(jobId, HylandKEService.SERVICE_LABEL, CONFIG, session.getRepositoryName(),
+                List.of(doc.getId()), opClassName, PARAMS, mapping);
+    }
+
+    protected String summaryResults() {
+        JSONObject result = new JSONObject().put("objectKey", "key-1")
+                                            .put("textSummary", new JSONObject().put("result", "A short summary"));
+        return new JSONObject().put("status", "SUCCESS").put("results", new JSONArray().put(result)).toString();
+    }
+
+    @Test
+    public void shouldOnlySubmitTheJob() {
+
+        DocumentModel doc = createTextDoc("file");
+        transport.addFixture(new Fixture("GET", "/files/upload/presigned-url", 200,
+                "{\"presignedUrl\": \"http://s3.invalid/upload/key-1\", \"objectKey\": \"key-1\"}").times(1));
+        transport.addFixture(new Fixture("PUT", "/upload/*", 200, "").withHeader("ETag", "\"abc\""));
+        Fixture process = new Fixture("POST", "/content/process", 200, "{\"processingId\": \"job-1\"}");
+        transport.addFixture(process);
+        Fixture results = new Fixture("GET", "/content/process/job-1/results", 202, "{\"status\": \"PENDING\"}");
+        transport.addFixture(results);
+
+        workManager.schedule(
+                new CICEnrichmentWork(session.getRepositoryName(), List.of(doc.getId()),
+                        CICSummarizeTextOp.class.getName(), PARAMS, false));
+        txFeature.nextTransaction();
+
+        // Submitted, then polled once by its collection only: still processing, the job is kept
+        assertEquals(1, process.getHits());
+        assertEquals(1, results.getHits());
+        CICJob job = jobs.getJob("job-1");
+        assertNotNull(job);
+        assertEquals(List.of(doc.getId()), job.getDocIds());
+        assertEquals(CICSummarizeTextOp.class.getName(), job.getOpClassName());
+        doc = session.getDocument(doc.getRef());
+        assertNull(doc.getPropertyValue(CICEnrichmentHelperImpl.FIELD_SUMMARY));
+        assertFalse(doc.hasFacet(HylandKEServiceImpl.CIC_ERROR_FACET));
+    }
+
+    @Test
+    public void shouldCollectTheResultsOnceReady() {
+
+        DocumentModel doc = createTextDoc("file");
+        String path = "/content/process/job-2/results";
+        Fixture unavailable = new Fixture("GET", path, 503, "{}").times(1);
+        Fixture throttled = new Fixture("GET", path, 429, "{}").times(1);
+        Fixture pending = new Fixture("GET", path, 202, "{\"status\": \"PENDING\"}").times(1);
+        Fixture done = new Fixture("GET", path, 200, summaryResults());
+        transport.addFixture(unavailable).addFixture(throttled).addFixture(pending).addFixture(done);
+
+        jobs.submit(newJob("job-2", doc));
+        txFeature.nextTransaction();
+        assertEquals(1, unavailable.getHits());
+        assertNotNull(jobs.getJob("job-2"));
+
+        // Left for resume() while the results are not available
+        for (Fixture fixture : List.of(throttled, pending)) {
+            assertEquals(1, jobs.resume());
+            txFeature.nextTransaction();
+            assertEquals(1, fixture.getHits());
+            assertNotNull(jobs.getJob("job-2"));
+            assertNull(session.getDocument(doc.getRef()).getPropertyValue(CICEnrichmentHelperImpl.FIELD_SUMMARY));
+        }
+
+        assertEquals(1, jobs.resume());
+        txFeature.nextTransaction();
+        assertEquals(1, done.getHits());
+        assertNull(jobs.getJob("job-2"));
+        doc = session.getDocument(doc.getRef());
+        assertEquals("A short summary", doc.getPropertyValue(CICEnrichmentHelperImpl.FIELD_SUMMARY));
+        assertFalse(doc.hasFacet(HylandKEServiceImpl.CIC_ERROR_FACET));
+    }
+
+    @Test
+    public void shouldKeepTheJobWhenTheResultsAreNotSaved() {
+
+        DocumentModel doc = createTextDoc("file");
+        Fixture done = new Fixture("GET", "/content/process/job-4/results", 200, summaryResults());
+        transport.addFixture(done);
+
+        // Fails while writing the results: the transaction is rolled back
+        jobs.submit(newJob("job-4", doc, "org.nuxeo.labs.NoSuchOp"));
+        txFeature.nextTransaction();
+
+        assertEquals(1, done.getHits());
+        assertNotNull(jobs.getJob("job-4"));
+        // Released, so collected again by resume()
+        assertEquals(1, jobs.resume());
+        txFeature.nextTransaction();
+        assertEquals(2, done.getHits());
+    }
+
+    @Test
+    public void shouldRecordAnErrorForExpiredJobs() {
+
+        DocumentModel doc = createTextDoc("file");
+        Fixture results = new Fixture("GET", "/content/process/job-3/results", 200, summaryResults());
+        transport.addFixture(results);
+
+        // Submitted long ago
+        CICJob expired = CICJob.fromJson(
+                new JSONObject(newJob("job-3", doc).toJson()).put("submittedAt", 0L).toString());
+        assertTrue(jobs.isExpired(expired));
+        jobs.submit(expired);
+        txFeature.nextTransaction();
+
+        // Not polled, dropped with an error on its documents
+        assertEquals(0, results.getHits());
+        assertNull(jobs.getJob("job-3"));
+        doc = session.getDocument(doc.getRef());
+        assertNull(doc.getPropertyValue(CICEnrichmentHelperImpl.FIELD_SUMMARY));
+        assertTrue(doc.hasFacet(HylandKEServiceImpl.CIC_ERROR_FACET));
+        assertEquals(-1L, doc.getPropertyValue(HylandKEServiceImpl.CIC_ERROR_FIELD_RESPONSE_CODE));
+    }
+
+}
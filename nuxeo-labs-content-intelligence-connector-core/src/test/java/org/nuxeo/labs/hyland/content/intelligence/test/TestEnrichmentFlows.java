@@ -0,0 +1,445 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.inject.Inject;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.ecm.automation.AutomationService;
+import org.nuxeo.ecm.automation.OperationContext;
+import org.nuxeo.ecm.automation.test.AutomationFeature;
+import org.nuxeo.ecm.core.api.Blob;
+import org.nuxeo.ecm.core.api.Blobs;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.labs.hyland.content.intelligence.ContentToProcess;
+import org.nuxeo.labs.hyland.content.intelligence.automation.enrichment.CICEnrichDocumentOp;
+import org.nuxeo.labs.hyland.content.intelligence.automation.enrichment.CICSummarizeTextOp;
+import org.nuxeo.labs.hyland.content.intelligence.http.InMemoryTransport;
+import org.nuxeo.labs.hyland.content.intelligence.http.InMemoryTransport.Fixture;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.CICEnrichmentHelperImpl;
+import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.HylandKEService;
+import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.HylandKEServiceImpl;
+import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.UploadedObjectKeys;
+import org.nuxeo.labs.hyland.content.intelligence.service.transport.CICTransportService;
+import org.nuxeo.runtime.test.runner.Deploy;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.WithFrameworkProperty;
+
+/**
+ * Tests the enrichment flows end to end, answered by the fixtures of the "memory" transport (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(AutomationFeature.class)
+@Deploy("nuxeo-hyland-content-intelligence-connector-core")
+@Deploy("nuxeo-hyland-content-intelligence-connector-core:memory-transport-configs.xml")
+public class TestEnrichmentFlows {
+
+    protected static final String CONFIG = "memory-ke";
+
+    @Inject
+    protected CoreSession session;
+
+    @Inject
+    protected AutomationService automationService;
+
+    @Inject
+    protected HylandKEService keService;
+
+    @Inject
+    protected CICTransportService transportService;
+
+    protected InMemoryTransport transport;
+
+    @Before
+    public void initFixtures() {
+        transport = (InMemoryTransport) transportService.getTransport("memory");
+        transport.clearFixtures();
+        transport.addFixture(
+                new Fixture("POST", "/connect/token", 200, "{\"access_token\": \"xyz\", \"expires_in\": 3600}"));
+    }
+
+    @After
+    public void clearFixtures() {
+        transport.clearFixtures();
+    }
+
+    protected DocumentModel createTextDoc(String name) {
+        DocumentModel doc = session.createDocumentModel("/", name, "File");
+        doc.setPropertyValue("file:content", (Serializable) Blobs.createBlob("Some text to enrich", "text/plain"));
+        return session.createDocument(doc);
+    }
+
+    /**
+     * One presigned URL (and objectKey) per content, in this order
+     */
+    /*
+     * Response of a process call rejecting objectKeys
+     */
+    protected String rejectedResponse(String... objectKeys) {
+        JSONArray results = new JSONArray();
+        for (String objectKey : objectKeys) {
+            results.put(new JSONObject().put("objectKey", objectKey).put("error", "File not found"));
+        }
+        return new JSONObject().put("message", "Not found").put("results", results).toString();
+    }
+
+    protected void addUploadFixtures(String... objectKeys) {
+        for (String objectKey : objectKeys) {
+            addPresignFixture(objectKey);
+        }
+        transport.addFixture(new Fixture("PUT", "/upload/*", 200, "").withHeader("ETag", "\"abc\""));
+    }
+
+    protected Fixture addPresignFixture(String objectKey) {
+        Fixture presign = new Fixture("GET", "/files/upload/presigned-url", 200,
+                new JSONObject().put("presignedUrl", "http://s3.invalid/upload/" + objectKey)
+                                .put("objectKey", objectKey)
+                                .toString()).times(1);
+        transport.addFixture(presign);
+        return presign;
+    }
+
+    protected ContentToProcess<Blob> newContent(String sourceId, String text, String digest) {
+        Blob blob = Blobs.createBlob(text, "text/plain");
+        blob.setDigest(digest);
+        return new ContentToProcess<>(sourceId, blob, "text/plain");
+    }
+
+    @SuppressWarnings("rawtypes")
+    protected ServiceCallResult send(ContentToProcess... contents) throws IOException {
+        return send(CONFIG, contents);
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    protected ServiceCallResult send(String configName, ContentToProcess... contents) throws IOException {
+        return keService.sendForEnrichment(configName, (List) List.of(contents), List.of("textSummarization"), null,
+                null, null);
+    }
+
+    /**
+     * Follows the presign and upload requests in flight
+     */
+    protected static class CountingTransport extends InMemoryTransport {
+
+        protected final AtomicInteger presigning = new AtomicInteger();
+
+        protected final AtomicInteger uploading = new AtomicInteger();
+
+        protected final AtomicInteger maxInFlight = new AtomicInteger();
+
+        protected final AtomicBoolean overlapped = new AtomicBoolean();
+
+        @Override
+        public CompletableFuture<HttpResponse<Blob>> sendAsync(HttpClient client, HttpRequest request,
+                BodyHandler<Blob> bodyHandler) {
+
+            String path = request.uri().getPath();
+            AtomicInteger counter = path.startsWith("/files/upload/presigned-url") ? presigning
+                    : path.startsWith("/upload/") ? uploading : null;
+            if (counter == null) {
+                return super.sendAsync(client, request, bodyHandler);
+            }
+            counter.incrementAndGet();
+            maxInFlight.accumulateAndGet(presigning.get() + uploading.get(), Math::max);
+            if (presigning.get() > 0 && uploading.get() > 0) {
+                overlapped.set(true);
+            }
+            return super.sendAsync(client, request, bodyHandler).whenComplete((r, t) -> counter.decrementAndGet());
+        }
+    }
+
+    /**
+     * @return the fixture starting the job
+     */
+    protected Fixture addJobFixtures(String processingId, JSONObject... results) {
+        Fixture process = new Fixture("POST", "/content/process", 200,
+                new JSONObject().put("processingId", processingId).toString()).times(1);
+        transport.addFixture(process);
+        transport.addFixture(new Fixture("GET", "/content/process/" + processingId + "/results", 200,
+                new JSONObject().put("status", "SUCCESS").put("results", new JSONArray(List.of(results))).toString()));
+        return process;
+    }
+
+    protected DocumentModel enrichDocument(DocumentModel doc, String actions) throws Exception {
+        OperationContext ctx = new OperationContext(session);
+        ctx.setInput(doc);
+        Map<String, Object> params = new HashMap<>();
+        params.put("actions", actions);
+        params.put("configName", CONFIG);
+        params.put("saveDocument", true);
+        automationService.run(ctx, CICEnrichDocumentOp.ID, params);
+        return session.getDocument(doc.getRef());
+    }
+
+    @Test
+    public void shouldDispatchTheResultsOfOneJobToEachAction() throws Exception {
+
+        DocumentModel doc = createTextDoc("file");
+        // A previous failure, cleared once all the actions succeed
+        keService.setCICError(doc, HylandKEService.SERVICE_LABEL, 500, "Failed", "Failed", null);
+        doc = session.saveDocument(doc);
+
+        addUploadFixtures("key-1");
+        Fixture process = addJobFixtures("job-1",
+                new JSONObject().put("objectKey", "key-1")
+                                .put("textSummary", new JSONObject().put("result", "A short summary"))
+                                .put("namedEntityText",
+                                        new JSONObject().put("result", new JSONObject().put("person", List.of("Ann")))));
+
+        doc = enrichDocument(doc, "textSummarization,namedEntityRecognitionText");
+
+        assertEquals("A short summary", doc.getPropertyValue(CICEnrichmentHelperImpl.FIELD_SUMMARY));
+        assertTrue(doc.hasFacet(CICEnrichmentHelperImpl.FACET_NAMED_ENTITIES));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> entities = (List<Map<String, Object>>) doc.getPropertyValue(
+                CICEnrichmentHelperImpl.FIELD_NAMED_ENTITIES);
+        assertEquals(1, entities.size());
+        assertEquals("person", entities.get(0).get("entity"));
+        assertFalse(doc.hasFacet(HylandKEServiceImpl.CIC_ERROR_FACET));
+
+        // Both actions were sent in a single job
+        assertEquals(1, process.getHits());
+    }
+
+    @Test
+    public void shouldApplyTheResultOfOneAction() throws Exception {
+
+        DocumentModel doc = createTextDoc("file");
+        keService.setCICError(doc, HylandKEService.SERVICE_LABEL, 500, "Failed", "Failed", null);
+        doc = session.saveDocument(doc);
+
+        addUploadFixtures("key-1");
+        addJobFixtures("job-1", new JSONObject().put("objectKey", "key-1")
+                                                .put("textSummary", new JSONObject().put("result", "A short summary")));
+
+        OperationContext ctx = new OperationContext(session);
+        ctx.setInput(doc);
+        automationService.run(ctx, CICSummarizeTextOp.ID, Map.of("configName", CONFIG, "saveDocument", true));
+        doc = session.getDocument(doc.getRef());
+
+        assertEquals("A short summary", doc.getPropertyValue(CICEnrichmentHelperImpl.FIELD_SUMMARY));
+        assertFalse(doc.hasFacet(HylandKEServiceImpl.CIC_ERROR_FACET));
+    }
+
+    @Test
+    public void shouldKeepTheErrorWhenOneActionFails() throws Exception {
+
+        DocumentModel doc = createTextDoc("file");
+
+        addUploadFixtures("key-1");
+        addJobFixtures("job-1",
+                new JSONObject().put("objectKey", "key-1")
+                                .put("textSummary", new JSONObject().put("result", "A short summary"))
+                                .put("namedEntityText", new JSONObject().put("error", "Model unavailable")));
+
+        doc = enrichDocument(doc, "textSummarization,namedEntityRecognitionText");
+
+        // The successful action is written, the failed one is reported
+        assertEquals("A short summary", doc.getPropertyValue(CICEnrichmentHelperImpl.FIELD_SUMMARY));
+        assertFalse(doc.hasFacet(CICEnrichmentHelperImpl.FACET_NAMED_ENTITIES));
+        assertTrue(doc.hasFacet(HylandKEServiceImpl.CIC_ERROR_FACET));
+        assertEquals("Model unavailable", doc.getPropertyValue(HylandKEServiceImpl.CIC_ERROR_FIELD_MESSAGE));
+    }
+
+    @Test
+    @WithFrameworkProperty(name = UploadedObjectKeys.ENABLED_PARAM, value = "true")
+    public void shouldReuseUploadedObjectKeys() throws Exception {
+
+        addUploadFixtures("key-1", "key-2");
+        addJobFixtures("job-1");
+        ContentToProcess<Blob> first = newContent("doc-1", "First text", "reuse-digest-1");
+        assertEquals(200, send(first, newContent("doc-2", "Second text", "reuse-digest-2")).getResponseCode());
+        // (Uploaded at the same time: key-1 or key-2)
+        String firstKey = first.getObjectKey();
+
+        // Same first content (same digest): only the new one is presigned and uploaded
+        Fixture presign = addPresignFixture("key-3");
+        Fixture process = addJobFixtures("job-2");
+        ContentToProcess<Blob> again = newContent("doc-1", "First text", "reuse-digest-1");
+        ContentToProcess<Blob> other = newContent("doc-3", "Third text", "reuse-digest-3");
+        assertEquals(200, send(again, other).getResponseCode());
+        assertEquals(firstKey, again.getObjectKey());
+        assertEquals("key-3", other.getObjectKey());
+        assertEquals(1, presign.getHits());
+        assertEquals(1, process.getHits());
+    }
+
+    @Test
+    @WithFrameworkProperty(name = UploadedObjectKeys.ENABLED_PARAM, value = "true")
+    public void shouldUploadAgainOnlyTheRejectedObjectKeys() throws Exception {
+
+        UploadedObjectKeys uploadedKeys = ((HylandKEServiceImpl) keService).getUploadedObjectKeys();
+        addUploadFixtures("key-1");
+        addJobFixtures("job-1");
+        assertEquals(200, send(newContent("doc-1", "First text", "rejected-digest-1")).getResponseCode());
+
+        // The service deleted key-1 meanwhile
+        Fixture rejected = new Fixture("POST", "/content/process", 404,
+                rejectedResponse("key-1")).times(1);
+        transport.addFixture(rejected);
+        Fixture presignNew = addPresignFixture("key-2");
+        Fixture presignAgain = addPresignFixture("key-3");
+        Fixture process = addJobFixtures("job-2");
+        ContentToProcess<Blob> again = newContent("doc-1", "First text", "rejected-digest-1");
+        ContentToProcess<Blob> other = newContent("doc-2", "Second text", "rejected-digest-2");
+        assertEquals(200, send(again, other).getResponseCode());
+
+        // The new content keeps its objectKey, only the reused one is uploaded again
+        assertEquals(1, rejected.getHits());
+        assertEquals(1, presignNew.getHits());
+        assertEquals(1, presignAgain.getHits());
+        assertEquals(1, process.getHits());
+        assertEquals("key-2", other.getObjectKey());
+        assertEquals("key-3", again.getObjectKey());
+        assertEquals("key-3", uploadedKeys.get(CONFIG, "rejected-digest-1", "text/plain"));
+    }
+
+    @Test
+    @WithFrameworkProperty(name = UploadedObjectKeys.ENABLED_PARAM, value = "true")
+    public void shouldUploadAgainOnlyTheObjectKeysWithAnError() throws Exception {
+
+        addUploadFixtures("key-1", "key-2");
+        addJobFixtures("job-1");
+        ContentToProcess<Blob> first = newContent("doc-1", "First text", "some-rejected-digest-1");
+        ContentToProcess<Blob> second = newContent("doc-2", "Second text", "some-rejected-digest-2");
+        assertEquals(200, send(first, second).getResponseCode());
+
+        // Both reused, only the objectKey of the first one is rejected
+        JSONObject response = new JSONObject(rejectedResponse(first.getObjectKey()));
+        response.getJSONArray("results").put(new JSONObject().put("objectKey", second.getObjectKey()));
+        Fixture rejected = new Fixture("POST", "/content/process", 400, response.toString()).times(1);
+        transport.addFixture(rejected);
+        Fixture presign = addPresignFixture("key-3");
+        Fixture process = addJobFixtures("job-2");
+        ContentToProcess<Blob> firstAgain = newContent("doc-1", "First text", "some-rejected-digest-1");
+        ContentToProcess<Blob> secondAgain = newContent("doc-2", "Second text", "some-rejected-digest-2");
+        assertEquals(200, send(firstAgain, secondAgain).getResponseCode());
+
+        assertEquals(1, rejected.getHits());
+        assertEquals(1, presign.getHits());
+        assertEquals(1, process.getHits());
+        assertEquals("key-3", firstAgain.getObjectKey());
+        assertEquals(second.getObjectKey(), secondAgain.getObjectKey());
+    }
+
+    @Test
+    @WithFrameworkProperty(name = UploadedObjectKeys.ENABLED_PARAM, value = "true")
+    public void shouldNotUploadAgainOnOtherErrors() throws Exception {
+
+        UploadedObjectKeys uploadedKeys = ((HylandKEServiceImpl) keService).getUploadedObjectKeys();
+        addUploadFixtures("key-1");
+        addJobFixtures("job-1");
+        assertEquals(200, send(newContent("doc-1", "First text", "other-digest-1")).getResponseCode());
+
+        // No error on the item of key-1, even if the message names the field: returned as is, but key-1 is not reused
+        // anymore
+        transport.addFixture(new Fixture("POST", "/content/process", 400,
+                "{\"message\": \"Unknown class, objectKey key-1 not processed\"}"));
+        Fixture presign = addPresignFixture("key-2");
+        ServiceCallResult result = send(newContent("doc-1", "First text", "other-digest-1"));
+        assertEquals(400, result.getResponseCode());
+        assertEquals(0, presign.getHits());
+        assertNull(uploadedKeys.get(CONFIG, "other-digest-1", "text/plain"));
+    }
+
+    @Test
+    public void shouldOverlapPresignAndUpload() throws Exception {
+
+        ServiceCall serviceCall = ((HylandKEServiceImpl) keService).getServiceCall(CONFIG);
+        CountingTransport counting = new CountingTransport();
+        counting.addFixture(
+                new Fixture("POST", "/connect/token", 200, "{\"access_token\": \"xyz\", \"expires_in\": 3600}"));
+        // The second presign is slow: the other worker uploads meanwhile
+        for (int i = 1; i <= 4; i++) {
+            counting.addFixture(new Fixture("GET", "/files/upload/presigned-url", 200,
+                    new JSONObject().put("presignedUrl", "http://s3.invalid/upload/key-" + i)
+                                    .put("objectKey", "key-" + i)
+                                    .toString()).times(1).withLatency(i == 2 ? 300 : 50));
+        }
+        counting.addFixture(new Fixture("PUT", "/upload/*", 200, "").withLatency(200));
+        counting.addFixture(new Fixture("POST", "/content/process", 200, "{\"processingId\": \"job-1\"}"));
+        serviceCall.setTransport(counting);
+        try {
+            ServiceCallResult result = send(newContent("doc-1", "Text 1", null), newContent("doc-2", "Text 2", null),
+                    newContent("doc-3", "Text 3", null), newContent("doc-4", "Text 4", null));
+            assertEquals(200, result.getResponseCode());
+            // uploadConcurrency (2) contents at a time, a presign while an upload
+            assertEquals(2, counting.maxInFlight.get());
+            assertTrue(counting.overlapped.get());
+        } finally {
+            serviceCall.setTransport(transport);
+        }
+    }
+
+    @Test
+    public void shouldStopUploadingWhenTheCircuitOpens() throws Exception {
+
+        Fixture failing = new Fixture("GET", "/files/upload/presigned-url", 503, "{}").times(1);
+        transport.addFixture(failing);
+        Fixture presign = new Fixture("GET", "/files/upload/presigned-url", 200,
+                new JSONObject().put("presignedUrl", "http://s3.invalid/upload/key-1")
+                                .put("objectKey", "key-1")
+                                .toString()).withLatency(200);
+        transport.addFixture(presign);
+        transport.addFixture(new Fixture("PUT", "/upload/*", 200, ""));
+        Fixture process = addJobFixtures("job-1");
+
+        ContentToProcess<Blob> last = newContent("doc-4", "Text 4", null);
+        ServiceCallResult result = send("memory-ke-circuit", newContent("doc-1", "Text 1", null),
+                newContent("doc-2", "Text 2", null), newContent("doc-3", "Text 3", null), last);
+
+        // The first failure opens the circuit: the workers stop, the last content is not even presigned
+        assertTrue(result.circuitWasOpen());
+        assertEquals(1, failing.getHits());
+        assertTrue(presign.getHits() <= 1);
+        assertNull(last.getErrorMessage());
+        assertNull(last.getObjectKey());
+        assertEquals(0, process.getHits());
+    }
+
+}
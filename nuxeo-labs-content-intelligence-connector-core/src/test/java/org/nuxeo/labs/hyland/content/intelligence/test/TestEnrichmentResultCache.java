@@ -0,0 +1,180 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.EnrichmentResultCache;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.kv.KeyValueService;
+import org.nuxeo.runtime.kv.KeyValueStore;
+import org.nuxeo.runtime.test.runner.Deploy;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the cache of the Knowledge Enrichment results (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+@Deploy("org.nuxeo.runtime.kv")
+public class TestEnrichmentResultCache {
+
+    protected KeyValueStore kvs;
+
+    @Before
+    public void initStore() {
+        kvs = Framework.getService(KeyValueService.class).getKeyValueStore("test-ke-results");
+    }
+
+    protected JSONObject result(String objectKey, boolean success) {
+        return new JSONObject("{\"objectKey\": \"" + objectKey + "\", \"imageDescription\": {\"isSuccess\": "
+                + success + ", \"result\": " + (success ? "\"A cat\"" : "null") + ", \"error\": "
+                + (success ? "null" : "\"Failed\"") + "}}");
+    }
+
+    @Test
+    public void shouldFingerprintRequests() {
+
+        String fingerprint = EnrichmentResultCache.fingerprint(List.of("imageDescription", "imageEmbeddings"), null,
+                null, new JSONObject("{\"maxWordCount\": 50, \"instructions\": {\"a\": 1, \"b\": [1, 2]}}"), true);
+        // Same request, other order
+        assertEquals(fingerprint, EnrichmentResultCache.fingerprint(List.of("imageEmbeddings", "imageDescription"),
+                List.of(), "", new JSONObject("{\"instructions\": {\"b\": [1, 2], \"a\": 1}, \"maxWordCount\": 50}"),
+                true));
+        // Other instructions, maxWordCount, classes, version
+        assertNotEquals(fingerprint, EnrichmentResultCache.fingerprint(List.of("imageDescription", "imageEmbeddings"),
+                null, null, new JSONObject("{\"maxWordCount\": 50, \"instructions\": {\"a\": 2, \"b\": [1, 2]}}"),
+                true));
+        assertNotEquals(fingerprint, EnrichmentResultCache.fingerprint(List.of("imageDescription", "imageEmbeddings"),
+                null, null, new JSONObject("{\"maxWordCount\": 60, \"instructions\": {\"a\": 1, \"b\": [1, 2]}}"),
+                true));
+        assertNotEquals(fingerprint, EnrichmentResultCache.fingerprint(List.of("imageDescription", "imageEmbeddings"),
+                List.of("cat"), null,
+                new JSONObject("{\"maxWordCount\": 50, \"instructions\": {\"a\": 1, \"b\": [1, 2]}}"), true));
+        assertNotEquals(fingerprint, EnrichmentResultCache.fingerprint(List.of("imageDescription", "imageEmbeddings"),
+                null, null, new JSONObject("{\"maxWordCount\": 50, \"instructions\": {\"a\": 1, \"b\": [1, 2]}}"),
+                false));
+    }
+
+    @Test
+    public void shouldCacheSuccessfulResults() {
+
+        EnrichmentResultCache cache = new EnrichmentResultCache(kvs, 3600, 1000, 10);
+        String fingerprint = EnrichmentResultCache.fingerprint(List.of("imageDescription"), null, null,
+                new JSONObject(), true);
+        String key = cache.key("default", "digest-1", fingerprint);
+        assertNotEquals(key, cache.key("default", "digest-2", fingerprint));
+        assertNotEquals(key, cache.key("other", "digest-1", fingerprint));
+
+        assertNull(cache.get("default", key));
+        cache.put(key, result("key-1", true));
+        JSONObject cached = cache.get("default", key);
+        assertNotNull(cached);
+        assertFalse(cached.has("objectKey"));
+        assertEquals("A cat", cached.getJSONObject("imageDescription").getString("result"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // Shared with the other nodes
+        EnrichmentResultCache otherNode = new EnrichmentResultCache(kvs, 3600, 1000, 10);
+        assertNotNull(otherNode.get("default", key));
+
+        // Not cached: failed, or too big
+        String failedKey = cache.key("default", "digest-failed", fingerprint);
+        cache.put(failedKey, result("key-2", false));
+        assertNull(cache.get("default", failedKey));
+        String bigKey = cache.key("default", "digest-big", fingerprint);
+        JSONObject big = result("key-3", true);
+        big.getJSONObject("imageDescription").put("result", "x".repeat(2000));
+        cache.put(bigKey, big);
+        assertNull(cache.get("default", bigKey));
+    }
+
+    @Test
+    public void shouldBoundMemory() {
+
+        EnrichmentResultCache cache = new EnrichmentResultCache(kvs, 3600, 1000, 3);
+        for (int i = 0; i < 10; i++) {
+            cache.put(cache.key("default", "digest-" + i, "fp"), result("key-" + i, true));
+        }
+        assertEquals(3, cache.getMemorySize());
+        // Still in the store
+        assertNotNull(cache.get("default", cache.key("default", "digest-0", "fp")));
+    }
+
+    @Test
+    public void shouldNotKeepResultsInMemoryLongerThanInTheStore() throws InterruptedException {
+
+        EnrichmentResultCache cache = new EnrichmentResultCache(kvs, 3600, 1000, 10);
+        JSONObject cached = result("key-1", true);
+        cached.remove("objectKey");
+
+        // Put by another node a while ago: expires in 500 ms, not in ttlSeconds
+        String key = cache.key("default", "digest-old", "fp");
+        kvs.put(key, new JSONObject().put("expiresAt", System.currentTimeMillis() + 500)
+                                     .put("result", cached)
+                                     .toString(), 3600L);
+        assertNotNull(cache.get("default", key));
+        assertEquals(1, cache.getMemorySize());
+        Thread.sleep(600);
+        assertNull(cache.get("default", key));
+        assertEquals(0, cache.getMemorySize());
+
+        // No expiry: ignored
+        String plainKey = cache.key("default", "digest-plain", "fp");
+        kvs.put(plainKey, cached.toString(), 3600L);
+        assertNull(cache.get("default", plainKey));
+    }
+
+    @Test
+    public void shouldBoundTheStore() {
+
+        KeyValueStore bounded = Framework.getService(KeyValueService.class).getKeyValueStore("test-ke-results-bounded");
+        EnrichmentResultCache cache = new EnrichmentResultCache(bounded, 3600, 1000, 10, 3);
+        for (int i = 0; i < 5; i++) {
+            cache.put(cache.key("default", "digest-" + i, "fp"), result("key-" + i, true));
+        }
+        // All in memory, the first 3 only in the store
+        assertEquals(5, cache.getMemorySize());
+        EnrichmentResultCache otherNode = new EnrichmentResultCache(bounded, 3600, 1000, 10, 3);
+        for (int i = 0; i < 5; i++) {
+            JSONObject cached = otherNode.get("default", cache.key("default", "digest-" + i, "fp"));
+            if (i < 3) {
+                assertNotNull(cached);
+            } else {
+                assertNull(cached);
+            }
+        }
+    }
+
+}
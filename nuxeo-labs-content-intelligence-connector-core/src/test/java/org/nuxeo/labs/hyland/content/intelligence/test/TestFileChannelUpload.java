@@ -0,0 +1,115 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.FileChannelBodyPublisher;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the uploads from a FileChannel against a local HTTP server (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestFileChannelUpload extends AbstractServiceCallTest {
+
+    @Test
+    public void shouldSendFileFromMappedBuffers() throws IOException {
+
+        Path path = Files.createTempFile("cic-upload", ".bin");
+        try {
+            byte[] content = new byte[10000];
+            new Random(1).nextBytes(content);
+            Files.write(path, content);
+
+            // Chunks of 3000 bytes, requested one at a time from onNext
+            FileChannelBodyPublisher publisher = new FileChannelBodyPublisher(path, 3000);
+            assertEquals(10000, publisher.contentLength());
+            List<ByteBuffer> chunks = new CopyOnWriteArrayList<>();
+            CompletableFuture<Void> completed = new CompletableFuture<>();
+            publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+
+                Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(ByteBuffer item) {
+                    chunks.add(item);
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    completed.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.complete(null);
+                }
+            });
+            completed.join();
+
+            assertEquals(List.of(3000, 3000, 3000, 1000), chunks.stream().map(ByteBuffer::remaining).toList());
+            assertTrue(chunks.stream().allMatch(ByteBuffer::isDirect));
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            chunks.forEach(chunk -> {
+                byte[] bytes = new byte[chunk.remaining()];
+                chunk.get(bytes);
+                received.writeBytes(bytes);
+            });
+            assertArrayEquals(content, received.toByteArray());
+
+            // Sent through the client with its fixed length
+            ServiceCallResult result = serviceCall.uploadFileWithPut(path.toFile(), baseUrl + "/upload",
+                    "application/pdf");
+            assertEquals(200, result.getResponseCode());
+            assertEquals(10000, result.getUploadedBytes());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.InMemoryTransport.Fixture;
+import org.nuxeo.labs.hyland.content.intelligence.http.InMemoryTransport;
+import org.nuxeo.labs.hyland.content.intelligence.http.RetryPolicy;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the in-memory transport, answering the calls from fixtures (no server, no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestInMemoryTransport {
+
+    @Test
+    public void shouldUseInMemoryTransport() throws IOException {
+
+        ServiceCallSettings settings = new ServiceCallSettings("memory", 4, 60, false);
+        settings.setRetryPolicy(new RetryPolicy(0, 10, 100));
+        ServiceCall stubbed = new ServiceCall(settings);
+        InMemoryTransport transport = new InMemoryTransport();
+        transport.addFixture(new Fixture("GET", "/jobs/*", 202, "{\"status\": \"PENDING\"}").times(2))
+                 .addFixture(new Fixture("GET", "/jobs/*", 200, "{\"status\": \"SUCCESS\"}"))
+                 .addFixture(new Fixture("PUT", "/presigned/**", 200, "").withHeader("ETag", "\"abc\""))
+                 .addFixture(new Fixture("POST", "/slow", 200, "{}").withLatency(200));
+        stubbed.setTransport(transport);
+        File f = Files.createTempFile("cic-memory", ".bin").toFile();
+        try {
+            // No server is listening on this host: everything is answered in-process
+            String base = "http://cic.invalid";
+            assertTrue(stubbed.get(base + "/jobs/1", null).getResponse().contains("PENDING"));
+            assertEquals(202, stubbed.get(base + "/jobs/1", null).getResponseCode());
+            ServiceCallResult result = stubbed.get(base + "/jobs/1", null);
+            assertEquals(200, result.getResponseCode());
+            assertTrue(result.getResponse().contains("SUCCESS"));
+
+            long start = System.nanoTime();
+            assertEquals(200, stubbed.post(base + "/slow", null, "hello").getResponseCode());
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+
+            Files.write(f.toPath(), new byte[50000]);
+            result = stubbed.uploadFileWithPut(f, base + "/presigned/a/b?X-Amz-Signature=x", "application/pdf");
+            assertEquals(200, result.getResponseCode());
+            assertEquals(50000, result.getUploadedBytes());
+
+            assertEquals(404, stubbed.get(base + "/unknown", null).getResponseCode());
+        } finally {
+            f.delete();
+            stubbed.close();
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.Deadline;
+import org.nuxeo.labs.hyland.content.intelligence.http.JobPollScheduler;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the shared scheduler polling the CIC jobs (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestJobPollScheduler {
+
+    @Test
+    public void shouldMultiplexPolls() {
+
+        JobPollScheduler scheduler = new JobPollScheduler(1, 3);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Set<Integer> firstAttemptOrder = Collections.synchronizedSet(new LinkedHashSet<>());
+
+        // 30 jobs, each one done at its 3rd attempt, each attempt taking 20 ms
+        List<CompletableFuture<String>> jobs = IntStream.range(0, 30).mapToObj(job -> scheduler.poll("job-" + job,
+                count -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    firstAttemptOrder.add(job);
+                    return CompletableFuture.supplyAsync(() -> {
+                        inFlight.decrementAndGet();
+                        return "job-" + job + "-" + count;
+                    }, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+                }, (count, result) -> count == 3, 10, 10, Deadline.NONE)).toList();
+        for (int i = 0; i < jobs.size(); i++) {
+            assertEquals("job-" + i + "-3", jobs.get(i).join());
+        }
+        // Never more than maxConcurrent attempts
+        assertTrue(maxInFlight.get() <= 3);
+        // First come, first served
+        assertEquals(IntStream.range(0, 30).boxed().toList(), List.copyOf(firstAttemptOrder));
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals(0, scheduler.getRunningCount());
+
+        // Stops when the deadline cannot fit another interval, with the last result
+        AtomicInteger attempts = new AtomicInteger();
+        long start = System.nanoTime();
+        String last = scheduler.poll("late", count -> CompletableFuture.completedFuture("attempt-" + attempts
+                .incrementAndGet()), (count, result) -> false, 100, 200, Deadline.in(Duration.ofMillis(500))).join();
+        assertEquals(3, attempts.get());
+        assertEquals("attempt-3", last);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 500);
+
+        // Max tries, and cancellation
+        assertEquals("attempt-2", scheduler.poll("max", count -> CompletableFuture.completedFuture(
+                "attempt-" + count), (count, result) -> false, 2, 10, Deadline.NONE).join());
+        CompletableFuture<String> cancelled = scheduler.poll("cancelled",
+                count -> CompletableFuture.completedFuture("attempt-" + attempts.incrementAndGet()),
+                (count, result) -> false, 100, 100, Deadline.NONE);
+        cancelled.cancel(false);
+        int attemptsWhenCancelled = -1;
+        try {
+            // (An attempt already started can still end)
+            Thread.sleep(50);
+            attemptsWhenCancelled = attempts.get();
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        assertEquals(attemptsWhenCancelled, attempts.get());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+}
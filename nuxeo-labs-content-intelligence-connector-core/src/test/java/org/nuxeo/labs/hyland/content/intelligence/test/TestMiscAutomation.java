@@ -20,23 +20,31 @@
 package org.nuxeo.labs.hyland.content.intelligence.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.HashMap;
 import java.util.Map;
 
 import jakarta.inject.Inject;
 
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.nuxeo.ecm.automation.AutomationService;
+import org.nuxeo.ecm.automation.OperationException;
 import org.nuxeo.ecm.automation.OperationContext;
 import org.nuxeo.ecm.automation.test.AutomationFeature;
 import org.nuxeo.ecm.core.api.Blob;
 import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.NuxeoException;
 import org.nuxeo.labs.hyland.content.intelligence.automation.HylandCIGetContributionNamesOp;
+import org.nuxeo.labs.hyland.content.intelligence.automation.enrichment.CICEnrichDocumentOp;
 import org.nuxeo.labs.hyland.content.intelligence.automation.enrichment.ConfigureServiceOp;
 import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.HylandKEService;
 import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.HylandKEServiceImpl;
@@ -119,4 +127,28 @@ public class TestMiscAutomation {
         contribs.toList().contains("more-kd-1");
         
     }
+
+    @Test
+    public void shouldCheckEnrichDocumentActions() throws Exception {
+
+        DocumentModel doc = session.createDocument(session.createDocumentModel("/", "file", "File"));
+        OperationContext ctx = new OperationContext(session);
+        ctx.setInput(doc);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("actions", "textSummarization,notAnAction");
+        try {
+            automationService.run(ctx, CICEnrichDocumentOp.ID, params);
+            fail("An unknown action should be rejected");
+        } catch (OperationException | NuxeoException e) {
+            assertTrue(ExceptionUtils.getRootCauseMessage(e).contains("notAnAction"));
+        }
+
+        // No embeddings configured in the default contribution => nothing to send, unchanged
+        params.put("actions", "textEmbeddings");
+        ctx.setInput(doc);
+        DocumentModel result = (DocumentModel) automationService.run(ctx, CICEnrichDocumentOp.ID, params);
+        assertEquals(doc.getId(), result.getId());
+        assertFalse(result.hasFacet("CICError"));
+    }
 }
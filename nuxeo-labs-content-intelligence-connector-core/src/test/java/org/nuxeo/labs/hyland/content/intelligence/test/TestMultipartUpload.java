@@ -0,0 +1,103 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.MultipartUpload;
+import org.nuxeo.labs.hyland.content.intelligence.http.RetryPolicy;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the uploads in parts to presigned URLs against a local HTTP server (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestMultipartUpload extends AbstractServiceCallTest {
+
+    @Test
+    public void shouldUploadInParts() throws IOException {
+
+        File f = Files.createTempFile("cic-multipart", ".bin").toFile();
+        ServiceCallSettings settings = new ServiceCallSettings("multipart", 4, 60, false);
+        settings.setRetryPolicy(RetryPolicy.NONE);
+        ServiceCall noRetry = new ServiceCall(settings);
+        try {
+            byte[] content = new byte[25000];
+            for (int i = 0; i < content.length; i++) {
+                content[i] = (byte) i;
+            }
+            Files.write(f.toPath(), content);
+
+            assertEquals(3, MultipartUpload.partCount(content.length, 10000));
+            // Part 3 fails the first time
+            List<String> partUrls = List.of(baseUrl + "/part/1", baseUrl + "/part/2", baseUrl + "/flaky/1");
+            MultipartUpload upload = new MultipartUpload(noRetry, f, "application/pdf", 10000, 2, partUrls, null);
+
+            ServiceCallResult result = upload.uploadAsync().join();
+            assertEquals(503, result.getResponseCode());
+            assertFalse(upload.isComplete());
+            assertEquals(2, upload.getETags().size());
+
+            // Resumed: only the missing part is sent, then the upload is completed
+            result = upload.uploadAndCompleteAsync(baseUrl + "/complete").join();
+            assertEquals(200, result.getResponseCode());
+            assertTrue(upload.isComplete());
+            assertEquals(25000, result.getUploadedBytes());
+            assertEquals(1, hits.get("/part/1").get());
+            assertEquals(2, hits.get("/flaky/1").get());
+
+            byte[] part2 = bodies.get("/part/2");
+            assertEquals(10000, part2.length);
+            assertEquals((byte) 10000, part2[0]);
+            assertEquals(5000, bodies.get("/flaky/1").length);
+            assertEquals("<CompleteMultipartUpload><Part><PartNumber>1</PartNumber><ETag>\"/part/1\"</ETag></Part>"
+                    + "<Part><PartNumber>2</PartNumber><ETag>\"/part/2\"</ETag></Part>"
+                    + "<Part><PartNumber>3</PartNumber><ETag>\"/flaky/1\"</ETag></Part></CompleteMultipartUpload>",
+                    new String(bodies.get("/complete"), StandardCharsets.UTF_8));
+        } finally {
+            noRetry.close();
+            f.delete();
+        }
+
+        // Threshold
+        settings.setMultipartThresholdMB(10);
+        settings.setMultipartPartSizeMB(8);
+        assertEquals(0, settings.getMultipartPartCount(9 * 1024 * 1024));
+        assertEquals(2, settings.getMultipartPartCount(10 * 1024 * 1024));
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.PresignedUrlPool;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the prefetching of presigned upload URLs (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestPresignedUrlPool {
+
+    protected CompletableFuture<ServiceCallResult> presignResponse(String objectKey, int expiresSeconds) {
+        String date = ZonedDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'"));
+        String json = "{\"presignedUrl\": \"https://bucket/" + objectKey + "?X-Amz-Date=" + date + "&X-Amz-Expires="
+                + expiresSeconds + "\", \"objectKey\": \"" + objectKey + "\"}";
+        return CompletableFuture.completedFuture(new ServiceCallResult(json, 200, "OK"));
+    }
+
+    @Test
+    public void shouldPrefetchPresignedUrls() {
+
+        String pdf = "application/pdf";
+        AtomicInteger onDemandCount = new AtomicInteger();
+        Supplier<CompletableFuture<ServiceCallResult>> onDemand = () -> presignResponse(
+                "onDemand-" + onDemandCount.incrementAndGet(), 3600);
+
+        // Prefetches complete when we decide
+        List<CompletableFuture<ServiceCallResult>> prefetches = new CopyOnWriteArrayList<>();
+        PresignedUrlPool pool = new PresignedUrlPool(3, 300, contentType -> {
+            CompletableFuture<ServiceCallResult> f = new CompletableFuture<>();
+            prefetches.add(f);
+            return f;
+        });
+
+        // Nothing ready: on demand, and the pool starts prefetching
+        assertEquals("onDemand-1", pool.take(pdf, onDemand).join().getResponseAsJSONObject().getString("objectKey"));
+        assertEquals(1, prefetches.size());
+        // Still nothing ready: demand is higher
+        assertEquals("onDemand-2", pool.take(pdf, onDemand).join().getResponseAsJSONObject().getString("objectKey"));
+        assertEquals(2, pool.getTargetSize(pdf));
+        assertEquals(2, prefetches.size());
+
+        prefetches.get(0).complete(presignResponse("prefetched-1", 3600).join());
+        prefetches.get(1).complete(presignResponse("prefetched-2", 3600).join());
+        assertEquals(2, pool.getReadyCount(pdf));
+        assertEquals("prefetched-1", pool.take(pdf, onDemand).join().getResponseAsJSONObject().getString("objectKey"));
+        // Refilled
+        assertEquals(3, prefetches.size());
+        assertEquals(2, onDemandCount.get());
+        assertEquals(1, pool.getHits());
+        assertEquals(2, pool.getMisses());
+        // Per content type
+        assertEquals(0, pool.getReadyCount("image/png"));
+
+        // A failed prefetch is not kept
+        prefetches.get(2).complete(new ServiceCallResult("{}", 500, "Error"));
+        assertEquals(1, pool.getReadyCount(pdf));
+
+        pool.close();
+        assertEquals("onDemand-3", pool.take(pdf, onDemand).join().getResponseAsJSONObject().getString("objectKey"));
+
+        // URLs expiring too soon are not used, and the pool keeps fewer of them
+        PresignedUrlPool shortLived = new PresignedUrlPool(3, 300, contentType -> presignResponse("short", 30));
+        assertTrue(shortLived.take(pdf, onDemand).join().getResponse().contains("onDemand-4"));
+        assertEquals(1, shortLived.getReadyCount(pdf));
+        assertTrue(shortLived.take(pdf, onDemand).join().getResponse().contains("onDemand-5"));
+        assertEquals(0, shortLived.getHits());
+        shortLived.close();
+
+        // Disabled
+        PresignedUrlPool disabled = new PresignedUrlPool(0, 300, contentType -> {
+            throw new AssertionError("Should not prefetch");
+        });
+        assertFalse(disabled.isEnabled());
+        assertTrue(disabled.take(pdf, onDemand).join().getResponse().contains("onDemand-6"));
+    }
+
+}
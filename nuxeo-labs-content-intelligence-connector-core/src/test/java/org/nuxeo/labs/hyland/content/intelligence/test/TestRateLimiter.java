@@ -0,0 +1,142 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.ClusterRateLimiter;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
+import org.nuxeo.labs.hyland.content.intelligence.http.RateLimit;
+import org.nuxeo.labs.hyland.content.intelligence.http.RateLimiter;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+import org.nuxeo.labs.hyland.content.intelligence.http.TokenBucketRateLimiter;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.kv.KeyValueService;
+import org.nuxeo.runtime.kv.KeyValueStore;
+import org.nuxeo.runtime.test.runner.Deploy;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the client-side rate limiters (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+@Deploy("org.nuxeo.runtime.kv")
+public class TestRateLimiter extends AbstractServiceCallTest {
+
+    protected Executor executor = ForkJoinPool.commonPool();
+
+    protected List<CompletableFuture<Void>> acquire(RateLimiter limiter, int count) {
+        return IntStream.range(0, count).mapToObj(i -> limiter.acquireAsync(executor)).toList();
+    }
+
+    @Test
+    public void shouldLimitLocally() {
+
+        RateLimiter limiter = new TokenBucketRateLimiter(new RateLimit(5, 1));
+
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<Void>> permits = acquire(limiter, 10);
+
+        // The bucket is full at start
+        permits.subList(0, 5).forEach(f -> assertTrue(f.isDone()));
+        assertFalse(permits.get(5).isDone());
+
+        // Then one every 200 ms
+        CompletableFuture.allOf(permits.toArray(new CompletableFuture[0])).join();
+        long duration = System.currentTimeMillis() - start;
+        assertTrue("Took " + duration + "ms", duration >= 900);
+    }
+
+    @Test
+    public void shouldLimitClusterWide() throws InterruptedException {
+
+        KeyValueStore store = Framework.getService(KeyValueService.class).getKeyValueStore("test-ratelimits");
+        // Two nodes, same configuration
+        RateLimiter node1 = new ClusterRateLimiter(store, "test:process", new RateLimit(3, 2));
+        RateLimiter node2 = new ClusterRateLimiter(store, "test:process", new RateLimit(3, 2));
+
+        // Do not start at the very end of a window
+        long inWindow = System.currentTimeMillis() % 2000;
+        if (inWindow > 1500) {
+            Thread.sleep(2000 - inWindow);
+        }
+
+        List<CompletableFuture<Void>> permits = acquire(node1, 2);
+        permits.forEach(f -> assertTrue(f.isDone()));
+        assertTrue(node2.acquireAsync(executor).isDone());
+
+        // Budget used by both nodes => wait for the next window
+        CompletableFuture<Void> next = node2.acquireAsync(executor);
+        assertFalse(next.isDone());
+        next.join();
+
+        // Another limiter (other configuration) is not impacted
+        RateLimiter other = new ClusterRateLimiter(store, "test:poll", new RateLimit(3, 2));
+        assertTrue(other.acquireAsync(executor).isDone());
+    }
+
+    @Test
+    public void shouldRateLimit() {
+
+        ServiceCallSettings settings = new ServiceCallSettings("ratelimits", 10, 60, false);
+        settings.setRateLimit(EndpointFamily.PROCESS, new RateLimit(2, 1));
+        ServiceCall limited = new ServiceCall(settings);
+        try {
+            // Not limited
+            long start = System.currentTimeMillis();
+            List<CompletableFuture<ServiceCallResult>> futures = IntStream.range(0, 5)
+                                                                          .mapToObj(i -> limited.getAsync(
+                                                                                  baseUrl + "/get/" + i, null))
+                                                                          .toList();
+            futures.forEach(f -> assertEquals(200, f.join().getResponseCode()));
+            assertTrue(System.currentTimeMillis() - start < 1000);
+
+            // 2 at once, then one every 500 ms
+            start = System.currentTimeMillis();
+            futures = IntStream.range(0, 5)
+                               .mapToObj(i -> limited.postAsync(baseUrl + "/process/" + i, null, "{}",
+                                       CallOptions.of(EndpointFamily.PROCESS)))
+                               .toList();
+            futures.forEach(f -> assertEquals(200, f.join().getResponseCode()));
+            long duration = System.currentTimeMillis() - start;
+            assertTrue("Took " + duration + "ms", duration >= 1400);
+        } finally {
+            limited.close();
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.HttpTransport;
+import org.nuxeo.labs.hyland.content.intelligence.http.RecordingTransport;
+import org.nuxeo.labs.hyland.content.intelligence.http.ReplayTransport;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the capture of the exchanges and their replay against a local HTTP server (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestRecordingTransport extends AbstractServiceCallTest {
+
+    @Test
+    public void shouldRecordAndReplay() throws IOException {
+
+        Path dir = Files.createTempDirectory("cic-capture");
+        Path file = dir.resolve("capture.jsonl");
+        RecordingTransport recorder = new RecordingTransport();
+        recorder.init(Map.of(RecordingTransport.FILE_PROPERTY, file.toString(), RecordingTransport.MAX_BODY_KB_PROPERTY,
+                "1"));
+        recorder.setDelegate(HttpTransport.INSTANCE);
+        serviceCall.setTransport(recorder);
+        try {
+            serviceCall.post(baseUrl + "/items/1234/data", Map.of("Authorization", "Bearer xyz"),
+                    "{\"client_secret\": \"s3cret\"}");
+            assertEquals(1, serviceCall.get(baseUrl + "/flaky/1", null).getRetryCount());
+            serviceCall.get(baseUrl + "/compressed/5000", null);
+            serviceCall.get(baseUrl + "/sleep/150", null);
+            recorder.flush();
+
+            List<String> lines = Files.readAllLines(file);
+            // Each attempt is captured
+            assertEquals(5, lines.size());
+            String capture = String.join("\n", lines);
+            assertFalse(capture.contains("s3cret"));
+            assertFalse(capture.contains("xyz"));
+            assertTrue(lines.get(0).contains("\"path\":\"/items/*/data\""));
+            assertTrue(lines.get(0).contains("\"requestBody\":\"{\\\"client_secret\\\": \\\"***\\\"}\""));
+            assertTrue(lines.get(1).contains("\"status\":503"));
+            assertTrue(lines.get(3).contains("\"bodySha256\""));
+            assertFalse(lines.get(3).contains("Content-Encoding"));
+        } finally {
+            recorder.close();
+        }
+
+        // Replayed without the server
+        server.stop(0);
+        ReplayTransport replay = new ReplayTransport();
+        replay.loadRecordings(List.of(file));
+        serviceCall.setTransport(replay);
+        ServiceCallResult result = serviceCall.get(baseUrl + "/flaky/1", null);
+        assertEquals(200, result.getResponseCode());
+        assertEquals(1, result.getRetryCount());
+        // Last response of an endpoint is repeated
+        assertEquals(200, serviceCall.get(baseUrl + "/flaky/1", null).getResponseCode());
+        result = serviceCall.post(baseUrl + "/items/5678/data", null, "hello");
+        assertTrue(result.getResponse().contains("\"method\": \"POST\""));
+        long start = System.nanoTime();
+        assertEquals(200, serviceCall.get(baseUrl + "/sleep/150", null).getResponseCode());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+
+        replay = new ReplayTransport();
+        replay.setLatencyScale(0);
+        replay.loadRecordings(List.of(file));
+        serviceCall.setTransport(replay);
+        start = System.nanoTime();
+        assertEquals(200, serviceCall.get(baseUrl + "/sleep/150", null).getResponseCode());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    public void shouldRotateCaptures() throws IOException {
+
+        Path file = Files.createTempDirectory("cic-capture").resolve("capture.jsonl");
+        RecordingTransport recorder = new RecordingTransport() {
+            @Override
+            public void init(Map<String, String> properties) {
+                super.init(properties);
+                // A few lines per file
+                maxFileBytes = 1000;
+            }
+        };
+        recorder.init(Map.of(RecordingTransport.FILE_PROPERTY, file.toString(), RecordingTransport.MAX_FILES_PROPERTY,
+                "3"));
+        recorder.setDelegate(HttpTransport.INSTANCE);
+        serviceCall.setTransport(recorder);
+        try {
+            for (int i = 0; i < 30; i++) {
+                serviceCall.get(baseUrl + "/items/" + i, null);
+            }
+            recorder.flush();
+        } finally {
+            recorder.close();
+        }
+
+        assertTrue(Files.exists(recorder.rotated(1)));
+        assertTrue(Files.exists(recorder.rotated(2)));
+        assertFalse(Files.exists(recorder.rotated(3)));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(Files.size(recorder.rotated(i)) <= 1000);
+        }
+        // The most recent exchange is in the current file
+        assertTrue(Files.readString(file).contains("\"status\":200"));
+    }
+
+}
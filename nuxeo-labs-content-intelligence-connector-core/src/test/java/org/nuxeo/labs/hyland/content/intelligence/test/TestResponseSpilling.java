@@ -0,0 +1,83 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.ecm.core.api.Blob;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests how the responses are kept, in memory or spilled to disk, against a local HTTP server (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestResponseSpilling extends AbstractServiceCallTest {
+
+    @Test
+    public void shouldKeepResponseAsIs() {
+
+        ServiceCallResult result = serviceCall.get(baseUrl + "/multiline", null);
+        assertEquals(200, result.getResponseCode());
+        // Lines are not trimmed and joined anymore, only the trailing newline is removed
+        assertEquals(MULTILINE_JSON.strip(), result.getResponse());
+    }
+
+    @Test
+    public void shouldSpillBigResponses() throws IOException {
+
+        ServiceCallSettings settings = new ServiceCallSettings("spill", 4, 60, false);
+        settings.setMaxInMemoryResponseKB(1);
+        ServiceCall spilling = new ServiceCall(settings);
+        try {
+            ServiceCallResult result = spilling.get(baseUrl + "/multiline", null);
+            assertNull(result.getResponseBlob().getFile());
+
+            result = spilling.get(baseUrl + "/big/5000", null);
+            assertEquals(200, result.getResponseCode());
+            Blob blob = result.getResponseBlob();
+            assertNotNull(blob.getFile());
+            assertEquals(5012, blob.getLength());
+            assertEquals("application/json", blob.getMimeType());
+
+            Blob json = result.toJsonBlob();
+            assertNotNull(json.getFile());
+            String jsonStr = json.getString();
+            assertTrue(jsonStr.startsWith("{"));
+            assertTrue(jsonStr.endsWith("\"response\":{\"data\": \"" + "x".repeat(5000) + "\"}}"));
+        } finally {
+            spilling.close();
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
+import org.nuxeo.labs.hyland.content.intelligence.http.RetryPolicy;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the retries of the transient failures against a local HTTP server (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestRetryPolicy extends AbstractServiceCallTest {
+
+    @Test
+    public void shouldRetryTransientErrors() {
+
+        ServiceCallSettings settings = new ServiceCallSettings("retries", 4, 60, false);
+        settings.setRetryPolicy(new RetryPolicy(3, 10, 100));
+        ServiceCall retrying = new ServiceCall(settings);
+        try {
+            ServiceCallResult result = retrying.get(baseUrl + "/flaky/2", null);
+            assertEquals(200, result.getResponseCode());
+            assertEquals(2, result.getRetryCount());
+            assertEquals(3, hits.get("/flaky/2").get());
+
+            // Not transient
+            result = retrying.get(baseUrl + "/status/404", null);
+            assertEquals(404, result.getResponseCode());
+            assertEquals(0, result.getRetryCount());
+
+            // Idempotent: retried until max retries
+            result = retrying.get(baseUrl + "/status/502", null);
+            assertEquals(502, result.getResponseCode());
+            assertEquals(3, result.getRetryCount());
+            assertEquals(4, hits.get("/status/502").get());
+
+            // POST: a 500 may have been processed => no retry. A 503 was not => retry
+            result = retrying.post(baseUrl + "/status/500", null, "{}");
+            assertEquals(0, result.getRetryCount());
+            assertEquals(1, hits.get("/status/500").get());
+            result = retrying.post(baseUrl + "/flaky/1", null, "{}");
+            assertEquals(200, result.getResponseCode());
+            assertEquals(1, result.getRetryCount());
+
+            // ...unless explicitly idempotent
+            result = retrying.post(baseUrl + "/status/504", null, "{}",
+                    CallOptions.of(EndpointFamily.PRESIGN).idempotent(true));
+            assertEquals(3, result.getRetryCount());
+
+            // Retry-After longer than maxDelayMS => returned to the caller
+            result = retrying.get(baseUrl + "/status/429", null);
+            assertEquals(429, result.getResponseCode());
+            assertEquals(0, result.getRetryCount());
+            assertEquals(Duration.ofSeconds(2), result.getRetryAfter());
+
+            // Connection refused: nothing was sent, retried even for a POST
+            result = retrying.post("http://127.0.0.1:1/nothing", null, "{}");
+            assertEquals(-1, result.getResponseCode());
+            assertEquals(3, result.getRetryCount());
+        } finally {
+            retrying.close();
+        }
+    }
+
+    @Test
+    public void shouldComputeBackoff() {
+
+        RetryPolicy policy = new RetryPolicy(5, 100, 1000);
+        for (int retry = 1; retry <= 6; retry++) {
+            long expected = Math.min(100L << (retry - 1), 1000);
+            long delay = policy.delayBeforeRetry(retry, null).toMillis();
+            assertTrue(delay >= expected / 2 && delay <= expected);
+        }
+        assertEquals(Duration.ofMillis(800), policy.delayBeforeRetry(1, Duration.ofMillis(800)));
+        assertNull(policy.delayBeforeRetry(1, Duration.ofSeconds(5)));
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the pooled HTTP transport of ServiceCall against a local HTTP server (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestServiceCall extends AbstractServiceCallTest {
+
+    @Test
+    public void shouldReuseConnections() {
+
+        for (int i = 0; i < 5; i++) {
+            ServiceCallResult result = serviceCall.get(baseUrl + "/something", Map.of("Accept", "*/*"));
+            assertEquals(200, result.getResponseCode());
+            assertEquals("OK", result.getResponseMessage());
+        }
+
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void shouldPostAndPut() {
+
+        ServiceCallResult result = serviceCall.post(baseUrl + "/post", null, "hello");
+        assertTrue(result.callWasSuccesful());
+        assertTrue(result.getResponse().contains("\"received\": 5"));
+
+        result = serviceCall.put(baseUrl + "/put", null, null);
+        assertTrue(result.getResponse().contains("\"method\": \"PUT\""));
+    }
+
+    @Test
+    public void shouldHandleErrors() {
+
+        ServiceCallResult result = serviceCall.get(baseUrl + "/status/404", null);
+        assertEquals(404, result.getResponseCode());
+        assertEquals("Not Found", result.getResponseMessage());
+        assertEquals("{}", result.getResponse());
+
+        // Nobody listening there
+        result = serviceCall.get("http://127.0.0.1:1/nothing", null);
+        assertEquals(-1, result.getResponseCode());
+    }
+
+    @Test
+    public void shouldUploadFile() throws IOException, NoSuchAlgorithmException {
+
+        File f = Files.createTempFile("cic-upload", ".bin").toFile();
+        try {
+            Files.write(f.toPath(), new byte[100000]);
+
+            ServiceCallResult result = serviceCall.uploadFileWithPut(f, baseUrl + "/upload", "application/pdf");
+            assertEquals(200, result.getResponseCode());
+            assertEquals("{}", result.getResponse());
+            assertEquals(100000, result.getUploadedBytes());
+            assertNotNull(result.getUploadDuration());
+            assertTrue(result.getUploadThroughput() > 0);
+
+            // Sent again when retried, counted once
+            result = serviceCall.uploadFileWithPut(f, baseUrl + "/flaky/1", "application/pdf");
+            assertEquals(200, result.getResponseCode());
+            assertEquals(1, result.getRetryCount());
+            assertEquals(100000, result.getUploadedBytes());
+            assertNull(result.getContentDigest());
+
+            // Hashed while uploading
+            result = serviceCall.uploadFileWithPutAsync(f, baseUrl + "/upload", "application/pdf",
+                    CallOptions.of(EndpointFamily.UPLOAD).withContentDigest("MD5")).join();
+            assertEquals(200, result.getResponseCode());
+            assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(new byte[100000])),
+                    result.getContentDigest());
+        } finally {
+            f.delete();
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
+import org.nuxeo.labs.hyland.content.intelligence.http.RetryPolicy;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallMetrics;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+import org.nuxeo.runtime.metrics.MetricsService;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+
+/**
+ * Tests the HTTP metrics of the calls against a local HTTP server (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestServiceCallMetrics extends AbstractServiceCallTest {
+
+    @Test
+    public void shouldRecordMetrics() {
+
+        ServiceCallSettings settings = new ServiceCallSettings("metrics", 4, 60, false);
+        settings.setMetricsTags("Test", "metrics");
+        settings.setRetryPolicy(new RetryPolicy(1, 10, 100));
+        ServiceCall metered = new ServiceCall(settings);
+        try {
+            metered.post(baseUrl + "/items/1234/data", null, "hello");
+            metered.get(baseUrl + "/items/5678/data", null);
+            metered.get(baseUrl + "/status/404", null);
+            metered.get(baseUrl + "/flaky/1", null);
+        } finally {
+            metered.close();
+        }
+
+        MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
+        MetricName base = MetricName.build(ServiceCallMetrics.PREFIX).tagged("service", "Test", "config", "metrics");
+        MetricName items = base.tagged("endpoint", "/items/{id}/data");
+
+        assertEquals(1, registry.timer(items.resolve("requests").tagged("method", "POST")).getCount());
+        assertEquals(1, registry.timer(items.resolve("requests").tagged("method", "GET")).getCount());
+        assertEquals(2, registry.counter(items.resolve("responses").tagged("status", "200")).getCount());
+        assertEquals(5, registry.counter(items.resolve("bytes.sent")).getCount());
+        assertTrue(registry.counter(items.resolve("bytes.received")).getCount() > 0);
+        assertEquals(1, registry.counter(
+                base.tagged("endpoint", "/status/{id}").resolve("responses").tagged("status", "404")).getCount());
+        assertEquals(1, registry.counter(
+                base.tagged("endpoint", "/flaky/{id}").resolve("responses").tagged("status", "503")).getCount());
+        assertEquals(1, registry.counter(base.resolve("retries").tagged("family", "other")).getCount());
+        assertEquals(0, registry.counter(base.resolve("inflight")).getCount());
+    }
+
+    @Test
+    public void shouldTemplateEndpoints() {
+
+        ServiceCallMetrics metrics = new ServiceCallMetrics("Test", "templates");
+        assertEquals("/content/process/{id}/results", metrics.endpointTemplate(EndpointFamily.POLL,
+                URI.create("https://cic.example.com/content/process/0f8fad5b-d9cb-469f-a165-70867728950e/results")));
+        assertEquals("/api/agents/{id}/versions/{id}/invoke", metrics.endpointTemplate(EndpointFamily.PROCESS,
+                URI.create("https://cic.example.com/api/agents/42/versions/3/invoke?x=1")));
+        assertEquals("/v1/knowledge-enrichment", metrics.endpointTemplate(EndpointFamily.OTHER,
+                URI.create("https://cic.example.com/v1/knowledge-enrichment")));
+        assertEquals("presigned", metrics.endpointTemplate(EndpointFamily.UPLOAD,
+                URI.create("https://bucket.s3.amazonaws.com/some/key?X-Amz-Signature=abc")));
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.Deadline;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
+import org.nuxeo.labs.hyland.content.intelligence.http.RetryPolicy;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCall;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the timeouts and the deadlines of the calls against a local HTTP server (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestTimeouts extends AbstractServiceCallTest {
+
+    @Test
+    public void shouldTimeOut() {
+
+        ServiceCallSettings settings = new ServiceCallSettings("timeouts", 1, 60, false);
+        settings.setReadTimeoutSeconds(EndpointFamily.POLL, 1);
+        settings.setRetryPolicy(RetryPolicy.NONE);
+        ServiceCall timingOut = new ServiceCall(settings);
+        try {
+            // Read timeout of the family
+            ServiceCallResult result = timingOut.get(baseUrl + "/sleep/1500", null,
+                    CallOptions.of(EndpointFamily.POLL));
+            assertEquals(-1, result.getResponseCode());
+
+            // Other families use the general read timeout
+            result = timingOut.get(baseUrl + "/sleep/1500", null, CallOptions.of(EndpointFamily.PROCESS));
+            assertEquals(200, result.getResponseCode());
+        } finally {
+            timingOut.close();
+        }
+    }
+
+    @Test
+    public void shouldStopAtDeadline() throws InterruptedException {
+
+        // Expired => not even sent
+        Deadline deadline = Deadline.in(Duration.ofMillis(1));
+        Thread.sleep(5);
+        int before = clientPorts.size();
+        ServiceCallResult result = serviceCall.get(baseUrl + "/something", null,
+                CallOptions.of(EndpointFamily.OTHER, deadline));
+        assertEquals(-1, result.getResponseCode());
+        assertEquals(ServiceCall.DEADLINE_EXCEEDED, result.getResponseMessage());
+        assertEquals(before, clientPorts.size());
+
+        // Deadline reached while waiting for a connection: the call leaves the queue
+        ServiceCall oneAtATime = new ServiceCall(new ServiceCallSettings("deadline", 1, 60, false));
+        try {
+            CompletableFuture<ServiceCallResult> busy = oneAtATime.getAsync(baseUrl + "/sleep/500", null);
+            result = oneAtATime.get(baseUrl + "/something", null,
+                    CallOptions.of(EndpointFamily.OTHER, Deadline.in(Duration.ofMillis(100))));
+            assertEquals(-1, result.getResponseCode());
+            assertEquals(ServiceCall.DEADLINE_EXCEEDED, result.getResponseMessage());
+            assertEquals(200, busy.join().getResponseCode());
+
+            // The slot is available again
+            result = oneAtATime.get(baseUrl + "/something", null);
+            assertEquals(200, result.getResponseCode());
+        } finally {
+            oneAtATime.close();
+        }
+    }
+
+}
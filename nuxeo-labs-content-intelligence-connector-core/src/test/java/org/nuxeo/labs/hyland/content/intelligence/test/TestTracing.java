@@ -0,0 +1,92 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.labs.hyland.content.intelligence.http.CallOptions;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallResult;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.CICTracer;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.Span;
+import org.nuxeo.labs.hyland.content.intelligence.tracing.SpanExporter;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+/**
+ * Tests the spans of the calls against a local HTTP server (no CIC account needed)
+ *
+ * @since 2025.18
+ */
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestTracing extends AbstractServiceCallTest {
+
+    @Test
+    public void shouldTraceCalls() {
+
+        List<Span> exported = new CopyOnWriteArrayList<>();
+        SpanExporter exporter = exported::add;
+        CICTracer.addExporter(exporter);
+        try {
+            Span flow = CICTracer.startSpan("test.flow");
+            Span step = flow.child("step");
+            ServiceCallResult result = serviceCall.get(baseUrl + "/traced/42", null,
+                    CallOptions.of(EndpointFamily.POLL).withSpan(step));
+            assertEquals(200, result.getResponseCode());
+            step.end();
+            flow.end();
+
+            // Children end first
+            assertEquals(List.of("HTTP GET", "step", "test.flow"), exported.stream().map(Span::getName).toList());
+            Span http = exported.get(0);
+            assertEquals(flow.getTraceId(), http.getTraceId());
+            assertEquals(step, http.getParent());
+            assertEquals("/traced/{id}", http.getAttributes().get("endpoint"));
+            assertEquals(200, http.getAttributes().get("status"));
+            assertFalse(http.isError());
+            assertNotNull(http.getDuration());
+            assertEquals(List.of(http), step.getChildren());
+            // Sent to the service
+            assertEquals(http.getTraceparent(), traceparents.get("/traced/42"));
+
+            // Failures are flagged, not traced calls send no header
+            exported.clear();
+            Span failing = CICTracer.startSpan("test.failing");
+            serviceCall.get(baseUrl + "/status/404", null, CallOptions.DEFAULT.withSpan(failing));
+            failing.end();
+            assertTrue(exported.get(0).isError());
+            serviceCall.get(baseUrl + "/untraced", null);
+            assertNull(traceparents.get("/untraced"));
+        } finally {
+            CICTracer.removeExporter(exporter);
+        }
+    }
+
+}
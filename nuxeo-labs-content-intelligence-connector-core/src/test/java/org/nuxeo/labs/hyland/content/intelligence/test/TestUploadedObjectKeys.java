@@ -0,0 +1,72 @@
+/*
+ * (C) Copyright 2026 Hyland (http://hyland.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Thibaud Arguillere
+ */
+package org.nuxeo.labs.hyland.content.intelligence.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.UploadedObjectKeys;
+
+/**
+ * Tests the reuse of the objectKeys of the contents uploaded to Knowledge Enrichment
+ *
+ * @since 2025.18
+ */
+public class TestUploadedObjectKeys {
+
+    @Test
+    public void shouldReuseObjectKeyOfSameContent() {
+
+        UploadedObjectKeys keys = new UploadedObjectKeys(60, 10);
+        assertNull(keys.get("default", "digest-1", "text/plain"));
+        keys.put("default", "digest-1", "text/plain", "key-1");
+        assertEquals("key-1", keys.get("default", "digest-1", "text/plain"));
+        assertEquals(1, keys.getHits());
+        assertEquals(1, keys.getMisses());
+
+        // Other configuration, content type or content
+        assertNull(keys.get("other", "digest-1", "text/plain"));
+        assertNull(keys.get("default", "digest-1", "application/pdf"));
+        assertNull(keys.get("default", "digest-2", "text/plain"));
+        // No digest, nothing to compare
+        keys.put("default", null, "text/plain", "key-2");
+        assertNull(keys.get("default", null, "text/plain"));
+
+        // Rejected by the service
+        keys.remove("key-1");
+        assertNull(keys.get("default", "digest-1", "text/plain"));
+    }
+
+    @Test
+    public void shouldExpireAndBound() throws InterruptedException {
+
+        UploadedObjectKeys keys = new UploadedObjectKeys(1, 3);
+        for (int i = 0; i < 10; i++) {
+            keys.put("default", "digest-" + i, "text/plain", "key-" + i);
+        }
+        assertEquals(3, keys.size());
+        assertNull(keys.get("default", "digest-0", "text/plain"));
+        assertEquals("key-9", keys.get("default", "digest-9", "text/plain"));
+
+        Thread.sleep(1100);
+        assertNull(keys.get("default", "digest-9", "text/plain"));
+    }
+
+}
@@ -19,6 +19,7 @@
 package org.nuxeo.labs.hyland.content.intelligence.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -28,6 +29,14 @@ import java.util.List;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.nuxeo.ecm.platform.test.PlatformFeature;
+import org.nuxeo.labs.hyland.content.intelligence.http.CircuitBreaker;
+import org.nuxeo.labs.hyland.content.intelligence.http.EndpointFamily;
+import org.nuxeo.labs.hyland.content.intelligence.http.HttpTransport;
+import org.nuxeo.labs.hyland.content.intelligence.http.InMemoryTransport;
+import org.nuxeo.labs.hyland.content.intelligence.http.PresignedUrlPool;
+import org.nuxeo.labs.hyland.content.intelligence.http.ReplayTransport;
+import org.nuxeo.labs.hyland.content.intelligence.http.RetryPolicy;
+import org.nuxeo.labs.hyland.content.intelligence.http.ServiceCallSettings;
 import org.nuxeo.labs.hyland.content.intelligence.service.CICServiceConstants;
 import org.nuxeo.labs.hyland.content.intelligence.service.agents.HylandAgentsService;
 import org.nuxeo.labs.hyland.content.intelligence.service.contentlake.ContentLakeService;
@@ -38,6 +47,7 @@ import org.nuxeo.labs.hyland.content.intelligence.service.discovery.KDDescriptor
 import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.HylandKEService;
 import org.nuxeo.labs.hyland.content.intelligence.service.enrichment.KEDescriptor;
 import org.nuxeo.labs.hyland.content.intelligence.service.ingest.IngestService;
+import org.nuxeo.labs.hyland.content.intelligence.service.transport.CICTransportService;
 import org.nuxeo.runtime.test.runner.Deploy;
 import org.nuxeo.runtime.test.runner.Features;
 import org.nuxeo.runtime.test.runner.FeaturesRunner;
@@ -67,6 +77,9 @@ public class TestXMLContributions {
     @Inject
     protected ContentLakeService clService;
 
+    @Inject
+    protected CICTransportService transportService;
+
     @Test
     public void testServicesAreDeployed() {
         assertNotNull(keService);
@@ -160,5 +173,91 @@ public class TestXMLContributions {
         assertEquals("embeddings:image", keService.getEmbeddingsImageXpath("more-ke-with-embeddings"));
         assertEquals("embeddings:text", keService.getEmbeddingsTextXpath("more-ke-with-embeddings"));
     }
-    
+
+    /**
+     * @since 2025.18
+     */
+    @Test
+    @Deploy("nuxeo-hyland-content-intelligence-connector-core:more-mock-configs.xml")
+    public void httpSettingsParse() {
+
+        ServiceCallSettings settings = keService.getKEDescriptor(CICServiceConstants.CONFIG_DEFAULT)
+                                                .getServiceCallSettings();
+        assertEquals(ServiceCallSettings.DEFAULT_MAX_CONNECTIONS, settings.getMaxConnections());
+        assertEquals(ServiceCallSettings.DEFAULT_IDLE_TIMEOUT_SECONDS, settings.getIdleTimeoutSeconds());
+        assertTrue(settings.isHttp2());
+        assertEquals(ServiceCallSettings.DEFAULT_MAX_IN_MEMORY_RESPONSE_KB, settings.getMaxInMemoryResponseKB());
+        assertEquals(ServiceCallSettings.DEFAULT_CONNECT_TIMEOUT_SECONDS, settings.getConnectTimeoutSeconds());
+        assertEquals(ServiceCallSettings.DEFAULT_READ_TIMEOUT_SECONDS, settings.getReadTimeoutSeconds());
+        assertEquals(ServiceCallSettings.DEFAULT_UPLOAD_READ_TIMEOUT_SECONDS,
+                settings.getReadTimeoutSeconds(EndpointFamily.UPLOAD));
+        assertEquals(ServiceCallSettings.DEFAULT_READ_TIMEOUT_SECONDS,
+                settings.getReadTimeoutSeconds(EndpointFamily.POLL));
+        assertEquals(ServiceCallSettings.DEFAULT_DEADLINE_SECONDS, settings.getDeadlineSeconds());
+        assertEquals(RetryPolicy.DEFAULT_MAX_RETRIES, settings.getRetryPolicy().getMaxRetries());
+        assertEquals(RetryPolicy.DEFAULT_INITIAL_DELAY_MS, settings.getRetryPolicy().getInitialDelayMS());
+        assertEquals(RetryPolicy.DEFAULT_MAX_DELAY_MS, settings.getRetryPolicy().getMaxDelayMS());
+        assertTrue(settings.getRateLimits().isEmpty());
+        assertEquals(CircuitBreaker.DEFAULT_FAILURE_THRESHOLD, settings.getCircuitBreakerFailureThreshold());
+        assertEquals(CircuitBreaker.DEFAULT_OPEN_SECONDS, settings.getCircuitBreakerOpenSeconds());
+        assertTrue(settings.isAcceptCompressedResponses());
+        assertFalse(settings.isCompressRequests());
+        assertEquals(ServiceCallSettings.DEFAULT_COMPRESS_REQUESTS_MIN_KB, settings.getCompressRequestsMinKB());
+        assertEquals(0, settings.getMultipartThresholdMB());
+        assertEquals(ServiceCallSettings.DEFAULT_MULTIPART_PART_SIZE_MB, settings.getMultipartPartSizeMB());
+        assertEquals(ServiceCallSettings.DEFAULT_MULTIPART_CONCURRENCY, settings.getMultipartConcurrency());
+        assertEquals(ServiceCallSettings.DEFAULT_UPLOAD_CONCURRENCY, settings.getUploadConcurrency());
+        assertEquals(0, settings.getPresignPoolMaxSize());
+        assertEquals(PresignedUrlPool.DEFAULT_TTL_SECONDS, settings.getPresignPoolTtlSeconds());
+        assertEquals(HttpTransport.NAME, settings.getTransport());
+        assertFalse(keService.getKEDescriptor(CICServiceConstants.CONFIG_DEFAULT).isClusterTokenCache());
+
+        settings = keService.getKEDescriptor("more-ke-1").getServiceCallSettings();
+        assertEquals(5, settings.getMaxConnections());
+        assertEquals(30, settings.getIdleTimeoutSeconds());
+        assertFalse(settings.isHttp2());
+        assertEquals(64, settings.getMaxInMemoryResponseKB());
+        assertEquals(3, settings.getConnectTimeoutSeconds());
+        assertEquals(30, settings.getReadTimeoutSeconds());
+        assertEquals(300, settings.getReadTimeoutSeconds(EndpointFamily.UPLOAD));
+        assertEquals(5, settings.getReadTimeoutSeconds(EndpointFamily.POLL));
+        assertEquals(30, settings.getReadTimeoutSeconds(EndpointFamily.PRESIGN));
+        assertEquals(90, settings.getDeadlineSeconds());
+        assertEquals(1, settings.getRetryPolicy().getMaxRetries());
+        assertEquals(200, settings.getRetryPolicy().getInitialDelayMS());
+        assertEquals(RetryPolicy.DEFAULT_MAX_DELAY_MS, settings.getRetryPolicy().getMaxDelayMS());
+        assertTrue(settings.isClusterWideRateLimits());
+        assertEquals(10, settings.getRateLimit(EndpointFamily.PROCESS).getPermits());
+        assertEquals(60, settings.getRateLimit(EndpointFamily.PROCESS).getPeriodSeconds());
+        assertEquals(5, settings.getRateLimit(EndpointFamily.PRESIGN).getPermits());
+        assertEquals(1, settings.getRateLimit(EndpointFamily.PRESIGN).getPeriodSeconds());
+        assertNull(settings.getRateLimit(EndpointFamily.POLL));
+        // Disabled
+        assertEquals(0, settings.getCircuitBreakerFailureThreshold());
+        assertEquals(CircuitBreaker.DEFAULT_OPEN_SECONDS, settings.getCircuitBreakerOpenSeconds());
+        assertTrue(settings.isAcceptCompressedResponses());
+        assertTrue(settings.isCompressRequests());
+        assertEquals(64, settings.getCompressRequestsMinKB());
+        assertEquals(2, settings.getUploadConcurrency());
+
+        // No <http> element => defaults
+        settings = dcService.getDCDescriptor("more-dc-1").getServiceCallSettings();
+        assertEquals(ServiceCallSettings.DEFAULT_MAX_CONNECTIONS, settings.getMaxConnections());
+    }
+
+    /**
+     * @since 2025.18
+     */
+    @Test
+    public void shouldHaveDefaultTransports() {
+
+        assertTrue(transportService.getTransportNames().contains(HttpTransport.NAME));
+        assertTrue(transportService.getTransport(HttpTransport.NAME) instanceof HttpTransport);
+        assertTrue(transportService.getTransport("memory") instanceof InMemoryTransport);
+        assertTrue(transportService.getTransport("replay") instanceof ReplayTransport);
+        // Shared instance
+        assertTrue(transportService.getTransport("memory") == transportService.getTransport("memory"));
+        assertNull(transportService.getTransport("unknown"));
+    }
+
 }